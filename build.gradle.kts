@@ -3,6 +3,7 @@ plugins {
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
     id("jacoco")
+    alias(libs.plugins.jmh)
 }
 
 configurations {
@@ -23,6 +24,9 @@ dependencyManagement {
 
 dependencies {
     implementation(libs.spring.boot.starter.web)
+    implementation(libs.spring.boot.starter.actuator)
+    runtimeOnly(libs.micrometer.registry.prometheus)
+    implementation(libs.reactor.core)
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
     annotationProcessor(libs.spring.boot.configuration.processor)
@@ -30,8 +34,16 @@ dependencies {
 }
 
 // about source and compilation
+// 기본은 Java 17, -PjavaVersion=21 로 빌드하면 toolchain 으로 JDK 21 을 사용한다. (virtual thread 모드 실행용)
+val javaVersion = providers.gradleProperty("javaVersion").getOrElse("17").toInt()
 java {
-    sourceCompatibility = JavaVersion.VERSION_17
+    if (javaVersion > 17) {
+        toolchain {
+            languageVersion.set(JavaLanguageVersion.of(javaVersion))
+        }
+    } else {
+        sourceCompatibility = JavaVersion.VERSION_17
+    }
 }
 
 with(extensions.getByType(JacocoPluginExtension::class.java)) {
@@ -48,5 +60,45 @@ tasks.getByName("jar") {
 // test tasks
 tasks.test {
     ignoreFailures = true
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("benchmark", "cluster")
+    }
+}
+// cluster tasks : @Tag("cluster") 테스트(한 JVM 에 node 여러 개를 띄우는 분산 모드 테스트)는 ./gradlew clusterTest 로만 실행
+tasks.register<Test>("clusterTest") {
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("cluster")
+    }
+}
+// benchmark tasks : @Tag("benchmark") 테스트는 ./gradlew benchmark 로만 실행
+tasks.register<Test>("benchmark") {
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    maxHeapSize = "4g"
+    // virtual thread 가 carrier 스레드에 고정(pinning)되면 위치를 출력한다.
+    if (javaVersion >= 21) {
+        jvmArgs("-Djdk.tracePinnedThreads=short")
+    }
+    testLogging {
+        showStandardStreams = true
+    }
+}
+
+// jmh : src/jmh 의 벤치마크를 ./gradlew jmh 로 실행, 결과는 build/reports/jmh/results.json
+// -PjmhIncludes=LockManager 처럼 정규식으로 일부만 실행할 수 있다.
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
 }
@@ -0,0 +1,22 @@
+package io.hhplus.tdd.database;
+
+/**
+ * 벤치마크 @Param 으로 고르는 table 지연
+ * - none : 지연 없음 (우리 코드의 비용만 측정)
+ * - fixed : 호출마다 100us 고정 대기 (I/O 대기 중 경합을 편차 없이 측정)
+ */
+public final class BenchmarkThrottles {
+
+    private static final long FIXED_DELAY_MICROS = 100;
+
+    private BenchmarkThrottles() {
+    }
+
+    public static Throttle of(String name) {
+        return switch (name) {
+            case "none" -> Throttle.none();
+            case "fixed" -> Throttle.fixed(FIXED_DELAY_MICROS);
+            default -> throw new IllegalArgumentException("알 수 없는 throttle: " + name);
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryEntry;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전체 내역 수가 늘어날 때 유저별 내역 조회 비용
+ * - 유저 1,000명에게 rows 건을 고르게 나눠 넣고, 임의의 유저 내역을 전체/한 페이지(20건) 조회한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PointHistoryTableBenchmark {
+
+    private static final int USERS = 1_000;
+
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    private PointHistoryTable pointHistoryTable;
+    private PointHistoryQuery page;
+
+    @Setup
+    public void setUp() {
+        pointHistoryTable = new PointHistoryTable(Throttle.none());
+        long now = System.currentTimeMillis();
+        List<PointHistoryEntry> entries = new ArrayList<>(USERS);
+        for (int i = 0; i < rows; i++) {
+            entries.add(new PointHistoryEntry(1L + i % USERS, 100L, TransactionType.CHARGE, now + i));
+            if (entries.size() == USERS) {
+                pointHistoryTable.insertAll(entries);
+                entries.clear();
+            }
+        }
+        pointHistoryTable.insertAll(entries);
+        page = PointHistoryQuery.of(null, null, null, 20);
+    }
+
+    @Benchmark
+    public List<PointHistory> selectAllByUserId() {
+        return pointHistoryTable.selectAllByUserId(randomUser());
+    }
+
+    @Benchmark
+    public void selectPageByUserId(Blackhole blackhole) {
+        Iterator<PointHistory> cursor = pointHistoryTable.selectByUserId(randomUser(), page);
+        while (cursor.hasNext()) {
+            blackhole.consume(cursor.next());
+        }
+    }
+
+    private long randomUser() {
+        return 1L + ThreadLocalRandom.current().nextInt(USERS);
+    }
+}
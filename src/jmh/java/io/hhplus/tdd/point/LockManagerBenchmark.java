@@ -0,0 +1,39 @@
+package io.hhplus.tdd.point;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LockManager 의 lock/unlock 반복 비용
+ * - hot : 모든 스레드가 같은 유저, cold : 10만 명 중 임의의 유저 (PER_USER 는 lock 생성/제거가 반복된다)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class LockManagerBenchmark {
+
+    private static final int COLD_USERS = 100_000;
+
+    @Param({"PER_USER", "STRIPED"})
+    LockProperties.Strategy strategy;
+
+    @Param({"hot", "cold"})
+    String keys;
+
+    private LockManager lockManager;
+
+    @Setup
+    public void setUp() {
+        lockManager = new LockManager(new LockProperties(strategy, 1024, false, 0));
+    }
+
+    @Benchmark
+    public void lockUnlock() {
+        long userId = "hot".equals(keys) ? 1L : 1L + ThreadLocalRandom.current().nextInt(COLD_USERS);
+        lockManager.lock(userId);
+        lockManager.unlock(userId);
+    }
+}
@@ -0,0 +1,50 @@
+package io.hhplus.tdd.point;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 응답 본문 JSON 직렬화 비용 (UserPoint, PointHistory, 내역 100건 목록)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PointJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private UserPoint userPoint;
+    private PointHistory pointHistory;
+    private List<PointHistory> histories;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        long now = System.currentTimeMillis();
+        userPoint = new UserPoint(1L, 1_000L, now);
+        pointHistory = new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, now);
+        histories = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            histories.add(new PointHistory(i + 1, 1L, 100L, i % 2 == 0 ? TransactionType.CHARGE : TransactionType.USE, now + i));
+        }
+    }
+
+    @Benchmark
+    public byte[] userPoint() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userPoint);
+    }
+
+    @Benchmark
+    public byte[] pointHistory() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pointHistory);
+    }
+
+    @Benchmark
+    public byte[] histories() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(histories);
+    }
+}
@@ -0,0 +1,100 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.BenchmarkThrottles;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PointService 충전/사용 처리량을 스레드 수(1/8/64)와 키 분포별로 측정
+ * - hot : 모든 스레드가 같은 유저, cold : 1만 명 중 임의의 유저
+ * - throttle 로 table 지연을 없애거나(none) 고정(fixed)해 임의 대기 대신 우리 코드의 비용을 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PointServiceBenchmark {
+
+    private static final int COLD_USERS = 10_000;
+    private static final long INITIAL_POINT = 1_000_000_000_000L;
+
+    @Param({"none", "fixed"})
+    String throttle;
+
+    @Param({"hot", "cold"})
+    String keys;
+
+    private PointHistoryAppender pointHistoryAppender;
+    private PointService pointService;
+
+    @Setup
+    public void setUp() {
+        UserPointTable userPointTable = new UserPointTable(BenchmarkThrottles.of(throttle));
+        PointHistoryTable pointHistoryTable = new PointHistoryTable(BenchmarkThrottles.of(throttle));
+        pointHistoryAppender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(100_000, 1_000, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000));
+        UserPointCache userPointCache = new UserPointCache(new UserPointCacheProperties(COLD_USERS, 64));
+        PointUpdater pointUpdater = new PessimisticPointUpdater(userPointTable, new LockManager(), pointHistoryAppender, userPointCache);
+        pointService = new PointService(userPointTable, pointHistoryTable, new PointValidator(), pointHistoryAppender, userPointCache, pointUpdater, PointMetrics.noop(), new PointStatistics(), new PointIdempotencyCache(), new PointRateLimiter(), new PointLots());
+
+        // 사용 벤치마크에서 잔액이 부족해지지 않도록 미리 충전
+        for (long userId = 1; userId <= COLD_USERS; userId++) {
+            userPointTable.insertOrUpdate(userId, INITIAL_POINT);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pointHistoryAppender.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UserPoint charge1() {
+        return charge();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UserPoint charge8() {
+        return charge();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UserPoint charge64() {
+        return charge();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UserPoint use1() {
+        return use();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UserPoint use8() {
+        return use();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UserPoint use64() {
+        return use();
+    }
+
+    private UserPoint charge() {
+        return pointService.chargeUserPoint(userId(), 1L);
+    }
+
+    private UserPoint use() {
+        return pointService.useUserPoint(userId(), 1L);
+    }
+
+    private long userId() {
+        return "hot".equals(keys) ? 1L : 1L + ThreadLocalRandom.current().nextInt(COLD_USERS);
+    }
+}
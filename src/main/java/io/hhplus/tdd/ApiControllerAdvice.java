@@ -1,5 +1,11 @@
 package io.hhplus.tdd;
 
+import io.hhplus.tdd.point.PointConflictException;
+import io.hhplus.tdd.point.PointHistoryOverflowException;
+import io.hhplus.tdd.point.PointIdempotencyConflictException;
+import io.hhplus.tdd.point.PointLockTimeoutException;
+import io.hhplus.tdd.point.PointRateLimitException;
+import io.hhplus.tdd.point.PointValidationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -7,6 +13,38 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 @RestControllerAdvice
 class ApiControllerAdvice extends ResponseEntityExceptionHandler {
+    @ExceptionHandler(value = PointValidationException.class)
+    public ResponseEntity<ErrorResponse> handlePointValidationException(PointValidationException e) {
+        return ResponseEntity.status(400).body(new ErrorResponse("400", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = PointHistoryOverflowException.class)
+    public ResponseEntity<ErrorResponse> handlePointHistoryOverflowException(PointHistoryOverflowException e) {
+        return ResponseEntity.status(503).body(new ErrorResponse("503", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = PointConflictException.class)
+    public ResponseEntity<ErrorResponse> handlePointConflictException(PointConflictException e) {
+        return ResponseEntity.status(409).body(new ErrorResponse("409", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = PointLockTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handlePointLockTimeoutException(PointLockTimeoutException e) {
+        return ResponseEntity.status(429).body(new ErrorResponse("429", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = PointRateLimitException.class)
+    public ResponseEntity<ErrorResponse> handlePointRateLimitException(PointRateLimitException e) {
+        return ResponseEntity.status(429)
+                .header("Retry-After", String.valueOf(e.retryAfterSeconds()))
+                .body(new ErrorResponse("429", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = PointIdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handlePointIdempotencyConflictException(PointIdempotencyConflictException e) {
+        return ResponseEntity.status(422).body(new ErrorResponse("422", e.getMessage()));
+    }
+
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception e) {
         return ResponseEntity.status(500).body(new ErrorResponse("500", "에러가 발생했습니다."));
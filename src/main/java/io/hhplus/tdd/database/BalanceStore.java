@@ -0,0 +1,33 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * UserPointTable 이 잔액을 보관하는 저장소
+ * - MAP : ConcurrentHashMap 에 UserPoint 를 그대로 보관한다. (기본값)
+ * - PRIMITIVE / OFF_HEAP : userId 를 long 그대로 key 로 쓰는 open addressing table 에 필드만 나눠 보관한다. (PackedBalanceStore)
+ * 유저마다 한 번에 하나의 compute 만 수행되며, remapping 안에서는 같은 저장소를 다시 호출하지 않는다.
+ */
+public interface BalanceStore {
+
+    // 저장된 잔액, 없으면 null
+    UserPoint get(long id);
+
+    /**
+     * 현재 값(없으면 null)으로 새 값을 계산해 저장하고 저장된 값을 반환한다.
+     * remapping 이 현재 값을 그대로 반환하거나 null 을 반환하면 아무것도 바꾸지 않는다.
+     */
+    UserPoint compute(long id, UnaryOperator<UserPoint> remapping);
+
+    // 유저마다 진행 중인 compute 가 끝난 값을 읽는다. (전체가 한 시점의 값은 아니다)
+    void forEach(Consumer<UserPoint> consumer);
+
+    int size();
+
+    static BalanceStore map() {
+        return new MapBalanceStore();
+    }
+}
@@ -0,0 +1,20 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * point.balance.type 에 맞는 BalanceStore 를 등록
+ */
+@Configuration
+public class BalanceStoreConfig {
+
+    @Bean
+    public BalanceStore balanceStore(BalanceStoreProperties properties) {
+        return switch (properties.type()) {
+            case MAP -> BalanceStore.map();
+            case PRIMITIVE -> new PackedBalanceStore(properties.segments(), properties.expectedUsers(), false);
+            case OFF_HEAP -> new PackedBalanceStore(properties.segments(), properties.expectedUsers(), true);
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 잔액 저장소 설정
+ * - type : MAP(ConcurrentHashMap) / PRIMITIVE(heap 의 long 배열) / OFF_HEAP(direct 메모리)
+ * - segments : PRIMITIVE/OFF_HEAP 에서 table 을 나누는 수, 같은 segment 의 쓰기끼리만 서로 기다린다.
+ * - expectedUsers : 처음부터 이만큼 담을 수 있게 잡아 두는 유저 수 (늘어나면 segment 별로 두 배씩 키운다)
+ */
+@ConfigurationProperties("point.balance")
+public record BalanceStoreProperties(
+        @DefaultValue("MAP") Type type,
+        @DefaultValue("256") int segments,
+        @DefaultValue("100000") long expectedUsers
+) {
+
+    public enum Type {
+        MAP,
+        PRIMITIVE,
+        OFF_HEAP
+    }
+}
@@ -0,0 +1,49 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * ConcurrentHashMap 에 UserPoint 를 그대로 보관하는 저장소
+ * - 유저마다 Long key, map entry, UserPoint 객체가 따로 있어 유저 수가 많으면 heap 과 GC 부담이 크다.
+ */
+public class MapBalanceStore implements BalanceStore {
+
+    private final ConcurrentHashMap<Long, UserPoint> table = new ConcurrentHashMap<>();
+
+    @Override
+    public UserPoint get(long id) {
+        return table.get(id);
+    }
+
+    @Override
+    public UserPoint compute(long id, UnaryOperator<UserPoint> remapping) {
+        return table.compute(id, (key, current) -> {
+            UserPoint next = remapping.apply(current);
+            return next == null ? current : next;
+        });
+    }
+
+    @Override
+    public void forEach(Consumer<UserPoint> consumer) {
+        UserPoint[] captured = new UserPoint[1];
+        for (Long id : table.keySet()) {
+            captured[0] = null;
+            table.computeIfPresent(id, (key, current) -> {
+                captured[0] = current;
+                return current;
+            });
+            if (captured[0] != null) {
+                consumer.accept(captured[0]);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+}
@@ -0,0 +1,467 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 메모리 매핑한 segment 파일에 잔액/내역 변경을 고정 길이 바이너리로 이어 쓰는 journal
+ * - record : kind(1) + crc32(4) + payload, 잔액은 userId/point/version/updateMillis, 내역은 id/userId/amount/type/updateMillis,
+ *   내역 합계(shard 이관으로 받은 PointHistoryBase)는 그 필드 9개
+ * - 쓰기는 매핑된 메모리에 복사만 하고, fsync 는 flusher 스레드가 주기/건수 단위로 모아서 한다. (group commit)
+ * - sync 설정이면 호출자는 flusher 를 깨우고 자기 기록이 fsync 될 때까지 기다린다.
+ *   fsync 가 도는 동안 들어온 요청들은 다음 한 번의 fsync 를 함께 기다린다.
+ * - 기동할 때마다 새 segment 에 이어 쓰므로, 비정상 종료로 잘린 마지막 record 뒤에 덮어쓰지 않는다.
+ * - replay 는 segment 순서대로 읽고, kind 가 0 이거나 crc 가 맞지 않는 곳에서 해당 segment 를 끝낸다.
+ * - snapshot 이전의 오래된 segment 는 archive 하위 경로로 옮겨 replay 대상에서 뺀다.
+ *   옮기기 전에 그 segment 들의 내역을 유저별로 합쳐(PointHistoryBase) base 파일에 누적해 두고,
+ *   replay 는 base 를 먼저 넘겨 준 뒤 base 에 합쳐지지 않은 segment 만 읽는다.
+ *   base 를 쓴 뒤 옮기기 전에 종료되어도 base 에 합친 segment 는 다시 읽지 않는다.
+ */
+public class MappedPointJournal implements PointJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedPointJournal.class);
+
+    private static final String SUFFIX = ".journal";
+    private static final String ARCHIVE = "archive";
+    private static final String BASE_FILE = "history-base.bin";
+    private static final int BASE_MAGIC = 0x50484253;
+    private static final int BASE_FORMAT = 1;
+    // magic, format, 합친 마지막 segment, 유저 수
+    private static final int BASE_HEADER_SIZE = 4 + 4 + 8 + 8;
+    private static final int BASE_RECORD_SIZE = 8 * 9;
+    private static final byte BALANCE = 1;
+    private static final byte HISTORY = 2;
+    private static final byte BASE = 3;
+    private static final int HEADER_SIZE = 1 + 4;
+    private static final int BALANCE_PAYLOAD = 8 * 4;
+    private static final int HISTORY_PAYLOAD = 8 * 4 + 1;
+    private static final int BASE_PAYLOAD = 8 * 9;
+    private static final int MAX_RECORD_SIZE = HEADER_SIZE + Math.max(BASE_PAYLOAD, Math.max(BALANCE_PAYLOAD, HISTORY_PAYLOAD));
+    // 내역 종류는 ordinal 로 남긴다. TransactionType 에는 뒤에만 추가해야 한다.
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path directory;
+    private final long segmentSize;
+    private final PointJournalProperties properties;
+
+    // 쓰기 : 현재 segment 와 쓰기 위치, record 를 만들 때 쓰는 버퍼는 모두 writeLock 안에서만 사용한다.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final List<MappedByteBuffer> rolled = new ArrayList<>();
+    private long segmentIndex;
+    private MappedByteBuffer current;
+    private int unflushed;
+    // segment 번호 * segmentSize + segment 안의 위치 (segment 가 바뀌어도 계속 증가)
+    private volatile long writtenPosition;
+
+    // fsync : flusher 와 종료 이후의 호출자가 함께 쓰므로 한 번에 하나만 수행한다.
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Condition durable = flushLock.newCondition();
+    private volatile long forcedPosition;
+
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private MappedPointJournal(PointJournalProperties properties) {
+        this.properties = properties;
+        this.directory = Path.of(properties.directory());
+        this.segmentSize = Math.max(MAX_RECORD_SIZE, properties.segmentSize().toBytes());
+        this.flusher = new Thread(this::flushLoop, "point-journal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    public static MappedPointJournal open(PointJournalProperties properties) {
+        MappedPointJournal journal = new MappedPointJournal(properties);
+        try {
+            Files.createDirectories(journal.directory);
+            List<Path> segments = journal.segments();
+            long last = segments.isEmpty() ? 0 : indexOf(segments.get(segments.size() - 1));
+            journal.writeLock.lock();
+            try {
+                journal.roll(last + 1);
+                journal.forcedPosition = journal.writtenPosition;
+            } finally {
+                journal.writeLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("journal 을 열지 못했습니다: " + properties.directory(), e);
+        }
+        journal.flusher.start();
+        return journal;
+    }
+
+    @Override
+    public void appendBalance(UserPoint userPoint) {
+        writeLock.lock();
+        try {
+            scratch.clear();
+            scratch.putLong(userPoint.id())
+                    .putLong(userPoint.point())
+                    .putLong(userPoint.version())
+                    .putLong(userPoint.updateMillis());
+            write(BALANCE);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void appendHistory(PointHistory pointHistory) {
+        writeLock.lock();
+        try {
+            scratch.clear();
+            scratch.putLong(pointHistory.id())
+                    .putLong(pointHistory.userId())
+                    .putLong(pointHistory.amount())
+                    .put((byte) pointHistory.type().ordinal())
+                    .putLong(pointHistory.updateMillis());
+            write(HISTORY);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void appendBase(PointHistoryBase base) {
+        writeLock.lock();
+        try {
+            scratch.clear();
+            putBase(scratch, base);
+            write(BASE);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void sync() {
+        if (!properties.sync()) {
+            return;
+        }
+        long target = writtenPosition;
+        if (forcedPosition >= target) {
+            return;
+        }
+        if (!running) {
+            flush();
+            return;
+        }
+        LockSupport.unpark(flusher);
+        flushLock.lock();
+        try {
+            while (forcedPosition < target) {
+                durable.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void replay(Visitor visitor, long balanceFromSegment) {
+        try {
+            long baseThrough = readBase(visitor::base);
+            for (Path segment : segments()) {
+                if (indexOf(segment) <= baseThrough) {
+                    // base 에 합친 뒤 archive 로 옮기기 전에 종료된 segment
+                    continue;
+                }
+                replaySegment(segment, visitor, indexOf(segment) >= balanceFromSegment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("journal 을 읽지 못했습니다: " + directory, e);
+        }
+    }
+
+    @Override
+    public long mark() {
+        writeLock.lock();
+        try {
+            roll(segmentIndex + 1);
+            return segmentIndex;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 앞에서부터 이어진 segment 만 옮긴다. (base 는 옮긴 segment 전체를 빠짐없이 합친 값이어야 한다)
+     * 옮기기 전에 base 파일에 그 segment 들의 내역을 더해 두어, 재시작 후에도 잔액/합계 조회가 보관된 내역을 포함한다.
+     */
+    @Override
+    public int archive(long beforeSegment, long olderThanMillis) {
+        try {
+            List<Path> targets = new ArrayList<>();
+            for (Path segment : segments()) {
+                if (indexOf(segment) >= beforeSegment || Files.getLastModifiedTime(segment).toMillis() >= olderThanMillis) {
+                    break;
+                }
+                targets.add(segment);
+            }
+            if (targets.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, PointHistoryBase> bases = new HashMap<>();
+            long baseThrough = readBase(base -> bases.put(base.userId(), base));
+            Visitor fold = new Visitor() {
+                @Override
+                public void balance(UserPoint userPoint) {
+                }
+
+                @Override
+                public void base(PointHistoryBase base) {
+                    bases.merge(base.userId(), base, PointHistoryBase::plus);
+                }
+
+                @Override
+                public void history(PointHistory pointHistory) {
+                    bases.compute(pointHistory.userId(), (userId, base) -> (base == null ? PointHistoryBase.empty(userId) : base).plus(pointHistory));
+                }
+            };
+            for (Path segment : targets) {
+                if (indexOf(segment) > baseThrough) {
+                    replaySegment(segment, fold, false);
+                }
+            }
+            writeBase(indexOf(targets.get(targets.size() - 1)), bases.values());
+
+            Path archive = Files.createDirectories(directory.resolve(ARCHIVE));
+            for (Path segment : targets) {
+                Files.move(segment, archive.resolve(segment.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+            }
+            return targets.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("journal segment 를 보관하지 못했습니다: " + directory, e);
+        }
+    }
+
+    // base 파일의 유저별 합계를 넘겨주고, base 에 합친 마지막 segment 번호를 반환 (없으면 0)
+    private long readBase(Consumer<PointHistoryBase> consumer) throws IOException {
+        Path path = directory.resolve(BASE_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < BASE_HEADER_SIZE || buffer.getInt() != BASE_MAGIC || buffer.getInt() != BASE_FORMAT) {
+                throw new IllegalStateException("내역 base 파일 형식이 올바르지 않습니다: " + path);
+            }
+            long through = buffer.getLong();
+            long count = buffer.getLong();
+            for (long i = 0; i < count; i++) {
+                consumer.accept(getBase(buffer));
+            }
+            return through;
+        }
+    }
+
+    // 임시 파일에 쓰고 fsync 한 뒤 이름을 바꿔, 완성된 base 만 보이게 한다.
+    private void writeBase(long through, Collection<PointHistoryBase> bases) throws IOException {
+        Path path = directory.resolve(BASE_FILE);
+        Path temp = directory.resolve(BASE_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BASE_RECORD_SIZE * 8_192);
+            buffer.putInt(BASE_MAGIC).putInt(BASE_FORMAT).putLong(through).putLong(bases.size());
+            for (PointHistoryBase base : bases) {
+                if (buffer.remaining() < BASE_RECORD_SIZE) {
+                    drain(channel, buffer);
+                }
+                putBase(buffer, base);
+            }
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void putBase(ByteBuffer buffer, PointHistoryBase base) {
+        buffer.putLong(base.userId())
+                .putLong(base.amount())
+                .putLong(base.charged())
+                .putLong(base.chargeCount())
+                .putLong(base.used())
+                .putLong(base.useCount())
+                .putLong(base.firstMillis())
+                .putLong(base.lastMillis())
+                .putLong(base.lastId());
+    }
+
+    private static PointHistoryBase getBase(ByteBuffer buffer) {
+        return new PointHistoryBase(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    // payload 는 scratch 에 채워져 있다. (writeLock 안에서 호출)
+    private void write(byte kind) {
+        scratch.flip();
+        int length = HEADER_SIZE + scratch.remaining();
+        if (current.remaining() < length) {
+            roll(segmentIndex + 1);
+        }
+        crc.reset();
+        crc.update(scratch.array(), 0, scratch.remaining());
+        current.put(kind).putInt((int) crc.getValue()).put(scratch);
+        writtenPosition = segmentIndex * segmentSize + current.position();
+        if (++unflushed >= properties.flushBatchSize()) {
+            unflushed = 0;
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    // 새 segment 파일을 만들어 이어 쓴다. 이전 segment 는 다음 flush 에서 fsync 한다. (writeLock 안에서 호출)
+    private void roll(long index) {
+        Path path = directory.resolve(String.format("%020d%s", index, SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer next = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            if (current != null) {
+                rolled.add(current);
+            }
+            current = next;
+            segmentIndex = index;
+            writtenPosition = index * segmentSize;
+        } catch (IOException e) {
+            throw new UncheckedIOException("journal segment 를 만들지 못했습니다: " + path, e);
+        }
+    }
+
+    private void flushLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, properties.flushIntervalMillis()));
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            flush();
+        }
+    }
+
+    private void flush() {
+        flushLock.lock();
+        try {
+            long target;
+            List<MappedByteBuffer> targets;
+            writeLock.lock();
+            try {
+                target = writtenPosition;
+                if (target <= forcedPosition) {
+                    return;
+                }
+                targets = new ArrayList<>(rolled);
+                targets.add(current);
+                rolled.clear();
+            } finally {
+                writeLock.unlock();
+            }
+
+            // fsync 하는 동안에도 다른 요청은 계속 쓸 수 있다.
+            for (MappedByteBuffer segment : targets) {
+                segment.force();
+            }
+            forcedPosition = target;
+            durable.signalAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void replaySegment(Path path, Visitor visitor, boolean balances) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] payload = new byte[MAX_RECORD_SIZE];
+            ByteBuffer record = ByteBuffer.wrap(payload);
+            CRC32 checksum = new CRC32();
+
+            while (buffer.remaining() >= HEADER_SIZE) {
+                byte kind = buffer.get();
+                int length = kind == BALANCE ? BALANCE_PAYLOAD : kind == HISTORY ? HISTORY_PAYLOAD : kind == BASE ? BASE_PAYLOAD : -1;
+                if (length < 0 || buffer.remaining() < 4 + length) {
+                    if (kind != 0) {
+                        log.warn("journal 에 알 수 없는 record 가 있어 이후를 건너뜁니다. segment={}, position={}", path.getFileName(), buffer.position() - 1);
+                    }
+                    return;
+                }
+                int expected = buffer.getInt();
+                buffer.get(payload, 0, length);
+                checksum.reset();
+                checksum.update(payload, 0, length);
+                if ((int) checksum.getValue() != expected) {
+                    // 기록 도중 종료되어 잘린 record
+                    log.warn("journal record 가 손상되어 이후를 건너뜁니다. segment={}, position={}", path.getFileName(), buffer.position() - HEADER_SIZE - length);
+                    return;
+                }
+
+                if (kind == BALANCE) {
+                    if (balances) {
+                        visitor.balance(new UserPoint(record.getLong(0), record.getLong(8), record.getLong(24), record.getLong(16)));
+                    }
+                } else if (kind == BASE) {
+                    record.clear();
+                    visitor.base(getBase(record));
+                } else {
+                    visitor.history(new PointHistory(record.getLong(0), record.getLong(8), record.getLong(16), TYPES[record.get(24)], record.getLong(25)));
+                }
+            }
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
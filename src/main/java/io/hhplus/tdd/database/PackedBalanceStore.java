@@ -0,0 +1,248 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * userId 를 long 그대로 key 로 쓰는 open addressing table 에 유저마다 32 byte(id/point/updateMillis/version)만 보관하는 저장소
+ * - heap 의 long 배열(PRIMITIVE) 또는 direct 메모리(OFF_HEAP)에 둔다. 유저마다 객체를 만들지 않아 GC 가 훑을 것이 거의 없다.
+ * - 빈 칸은 version 0 으로 구분한다. (저장된 잔액의 version 은 1 이상, 삭제는 없다)
+ * - userId 해시로 나눈 segment 마다 StampedLock 을 두고, 쓰기는 write lock 안에서 한다.
+ *   읽기는 lock 없이(optimistic) 읽고, 그 사이 쓰기가 있었으면 read lock 으로 다시 읽는다.
+ * - segment 가 3/4 이상 차면 그 segment 만 두 배로 키운다.
+ * - compute 의 remapping 은 write lock 안에서 호출되므로 같은 저장소를 다시 호출하면 안 된다. (StampedLock 은 재진입이 안 된다)
+ */
+public class PackedBalanceStore implements BalanceStore {
+
+    private static final int FIELDS = 4;
+    private static final int ID = 0;
+    private static final int POINT = 1;
+    private static final int UPDATE_MILLIS = 2;
+    private static final int VERSION = 3;
+    private static final int MIN_CAPACITY = 16;
+
+    private final Segment[] segments;
+    private final boolean offHeap;
+
+    public PackedBalanceStore(int segmentCount, long expectedUsers, boolean offHeap) {
+        this.offHeap = offHeap;
+        this.segments = new Segment[Integer.highestOneBit(Math.min(1 << 16, Math.max(1, segmentCount)))];
+        int capacity = capacityFor(expectedUsers / segments.length);
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(slots(capacity));
+        }
+    }
+
+    @Override
+    public UserPoint get(long id) {
+        long hash = hash(id);
+        Segment segment = segmentOf(hash);
+        long stamp = segment.lock.tryOptimisticRead();
+        UserPoint found = segment.find(id, hash);
+        if (segment.lock.validate(stamp)) {
+            return found;
+        }
+        stamp = segment.lock.readLock();
+        try {
+            return segment.find(id, hash);
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public UserPoint compute(long id, UnaryOperator<UserPoint> remapping) {
+        long hash = hash(id);
+        Segment segment = segmentOf(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = segment.indexOf(id, hash);
+            UserPoint current = slot >= 0 ? segment.slots.read(slot) : null;
+            UserPoint next = remapping.apply(current);
+            if (next == null || next == current) {
+                return current;
+            }
+            if (slot < 0) {
+                if (segment.size + 1 > segment.slots.capacity / 4 * 3) {
+                    segment.grow();
+                    slot = segment.indexOf(id, hash);
+                }
+                slot = -slot - 1;
+                segment.size++;
+            }
+            segment.slots.write(slot, next);
+            return next;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * segment 단위로 read lock 을 잡고 읽는다.
+     * 그동안 해당 segment 의 쓰기만 기다리고, 읽기와 다른 segment 의 쓰기는 그대로 진행된다.
+     */
+    @Override
+    public void forEach(Consumer<UserPoint> consumer) {
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                Slots slots = segment.slots;
+                for (int slot = 0; slot < slots.capacity; slot++) {
+                    if (slots.get(slot, VERSION) != 0) {
+                        consumer.accept(slots.read(slot));
+                    }
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    private Segment segmentOf(long hash) {
+        return segments[(int) (hash >>> 48) & (segments.length - 1)];
+    }
+
+    private Slots slots(int capacity) {
+        return offHeap ? new DirectSlots(capacity) : new HeapSlots(capacity);
+    }
+
+    // 순차 발급되는 userId 도 고르게 퍼지도록 섞는다. (상위 비트는 segment, 하위 비트는 slot 에 쓴다)
+    private static long hash(long id) {
+        long hash = id;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    // 찾으면 slot 번호, 없으면 -(넣을 빈 칸 번호) - 1 (빈 칸이 항상 1/4 이상 남아 있어 끝난다)
+    private static int indexOf(Slots slots, long id, long hash) {
+        int mask = slots.capacity - 1;
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            if (slots.get(slot, VERSION) == 0) {
+                return -slot - 1;
+            }
+            if (slots.get(slot, ID) == id) {
+                return slot;
+            }
+        }
+    }
+
+    private static int capacityFor(long users) {
+        long capacity = Math.max(MIN_CAPACITY, users * 4 / 3 + 1);
+        return (int) Math.min(1 << 30, Long.highestOneBit(capacity - 1) << 1);
+    }
+
+    private final class Segment {
+        private final StampedLock lock = new StampedLock();
+        // optimistic 읽기는 validate 로 검증하므로 volatile 이 아니어도 된다.
+        private Slots slots;
+        private int size;
+
+        private Segment(Slots slots) {
+            this.slots = slots;
+        }
+
+        private UserPoint find(long id, long hash) {
+            Slots current = slots;
+            int slot = PackedBalanceStore.indexOf(current, id, hash);
+            return slot >= 0 ? current.read(slot) : null;
+        }
+
+        private int indexOf(long id, long hash) {
+            return PackedBalanceStore.indexOf(slots, id, hash);
+        }
+
+        // write lock 안에서 호출
+        private void grow() {
+            Slots current = slots;
+            Slots next = slots(current.capacity * 2);
+            for (int slot = 0; slot < current.capacity; slot++) {
+                long id = current.get(slot, ID);
+                if (current.get(slot, VERSION) != 0) {
+                    next.write(-PackedBalanceStore.indexOf(next, id, hash(id)) - 1, current.read(slot));
+                }
+            }
+            slots = next;
+        }
+    }
+
+    private abstract static class Slots {
+        protected final int capacity;
+
+        protected Slots(int capacity) {
+            this.capacity = capacity;
+        }
+
+        abstract long get(int slot, int field);
+
+        abstract void set(int slot, int field, long value);
+
+        UserPoint read(int slot) {
+            return new UserPoint(get(slot, ID), get(slot, POINT), get(slot, UPDATE_MILLIS), get(slot, VERSION));
+        }
+
+        // 필드를 나눠 쓰므로 쓰는 도중의 값은 optimistic 읽기의 validate 에서 걸러진다.
+        void write(int slot, UserPoint userPoint) {
+            set(slot, ID, userPoint.id());
+            set(slot, POINT, userPoint.point());
+            set(slot, UPDATE_MILLIS, userPoint.updateMillis());
+            set(slot, VERSION, userPoint.version());
+        }
+    }
+
+    private static final class HeapSlots extends Slots {
+        private final long[] values;
+
+        private HeapSlots(int capacity) {
+            super(capacity);
+            this.values = new long[capacity * FIELDS];
+        }
+
+        @Override
+        long get(int slot, int field) {
+            return values[slot * FIELDS + field];
+        }
+
+        @Override
+        void set(int slot, int field, long value) {
+            values[slot * FIELDS + field] = value;
+        }
+    }
+
+    // ByteBuffer 하나는 2GB 까지라 segment 하나에 최대 2^26 명까지 담는다.
+    private static final class DirectSlots extends Slots {
+        private final ByteBuffer buffer;
+
+        private DirectSlots(int capacity) {
+            super(capacity);
+            this.buffer = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, FIELDS * Long.BYTES)).order(ByteOrder.nativeOrder());
+        }
+
+        @Override
+        long get(int slot, int field) {
+            return buffer.getLong((slot * FIELDS + field) * Long.BYTES);
+        }
+
+        @Override
+        void set(int slot, int field, long value) {
+            buffer.putLong((slot * FIELDS + field) * Long.BYTES, value);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+/**
+ * archive 로 옮겨 더 이상 replay 하지 않는 유저 내역을 합쳐 둔 값
+ * - amount : 잔액 기준으로 더한 값 (충전/받은 이체는 +, 사용/보낸 이체/소멸은 -)
+ * - charged, chargeCount, used, useCount : 충전/사용 합계와 건수 (이체와 소멸은 넣지 않는다)
+ * - firstMillis, lastMillis : 합친 내역 중 가장 이른/늦은 시각
+ * - lastId : 합친 내역 중 가장 큰 id
+ * 기동 시 유저의 남은 내역보다 먼저 table 에 넣어, 잔액/합계 조회가 보관된 내역까지 포함하게 한다.
+ */
+public record PointHistoryBase(
+        long userId,
+        long amount,
+        long charged,
+        long chargeCount,
+        long used,
+        long useCount,
+        long firstMillis,
+        long lastMillis,
+        long lastId
+) {
+
+    public static PointHistoryBase empty(long userId) {
+        return new PointHistoryBase(userId, 0, 0, 0, 0, 0, Long.MAX_VALUE, Long.MIN_VALUE, 0);
+    }
+
+    public boolean isEmpty() {
+        return lastId == 0;
+    }
+
+    // 다른 합계를 더한 값
+    public PointHistoryBase plus(PointHistoryBase other) {
+        return new PointHistoryBase(
+                userId,
+                amount + other.amount,
+                charged + other.charged,
+                chargeCount + other.chargeCount,
+                used + other.used,
+                useCount + other.useCount,
+                Math.min(firstMillis, other.firstMillis),
+                Math.max(lastMillis, other.lastMillis),
+                Math.max(lastId, other.lastId)
+        );
+    }
+
+    // 내역 한 건을 더한 값
+    public PointHistoryBase plus(PointHistory pointHistory) {
+        long amount = pointHistory.amount();
+        boolean charge = pointHistory.type() == TransactionType.CHARGE;
+        boolean use = pointHistory.type() == TransactionType.USE;
+        return new PointHistoryBase(
+                userId,
+                this.amount + pointHistory.type().signedAmount(amount),
+                charged + (charge ? amount : 0),
+                chargeCount + (charge ? 1 : 0),
+                used + (use ? amount : 0),
+                useCount + (use ? 1 : 0),
+                Math.min(firstMillis, pointHistory.updateMillis()),
+                Math.max(lastMillis, pointHistory.updateMillis()),
+                Math.max(lastId, pointHistory.id())
+        );
+    }
+}
@@ -0,0 +1,495 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointBalance;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.PointHistorySummary;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+/**
+ * userId 별 append-only 세그먼트로 포인트 내역을 보관하는 인덱스
+ * - 조회 비용은 전체 row 수가 아니라 해당 유저의 row 수에 비례한다.
+ * - 내역은 객체 대신 필드별 배열(column)로 보관한다.
+ * - 같은 유저의 append 는 세그먼트 단위로 직렬화되고, 조회는 lock 없이 게시된 size 까지만 읽는다.
+ * - archive 로 옮겨 메모리에 없는 내역은 유저별 합계(PointHistoryBase)로 세그먼트 앞에 두고, 잔액/합계 계산의 시작값으로 쓴다.
+ */
+class PointHistoryIndex {
+    private final ConcurrentHashMap<Long, Segment> segments = new ConcurrentHashMap<>();
+    private final AtomicLong cursor = new AtomicLong(1);
+    private final PointJournal journal;
+
+    PointHistoryIndex() {
+        this(PointJournal.none());
+    }
+
+    PointHistoryIndex(PointJournal journal) {
+        this.journal = journal;
+    }
+
+    PointHistory append(long userId, long amount, TransactionType type, long updateMillis) {
+        return segments.computeIfAbsent(userId, Segment::new)
+                .append(userId, amount, type, updateMillis, cursor, journal);
+    }
+
+    // 이미 id 가 발급된 내역을 그대로 넣고, 이후 발급할 id 를 그 뒤로 맞춘다. (journal 복구용)
+    void restore(PointHistory pointHistory) {
+        segments.computeIfAbsent(pointHistory.userId(), Segment::new).restore(pointHistory);
+        restoreNextId(pointHistory.id() + 1);
+    }
+
+    // archive 된 내역의 합계를 유저 세그먼트의 시작값으로 둔다. (journal 복구용, 해당 유저의 내역보다 먼저 호출)
+    void restoreBase(PointHistoryBase base) {
+        segments.computeIfAbsent(base.userId(), Segment::new).restoreBase(base);
+        restoreNextId(base.lastId() + 1);
+    }
+
+    // 다른 node 에서 받아온 합계 : 아직 내역이 없는 유저에게만 시작값으로 두고 journal 에도 남긴다.
+    void mergeBase(PointHistoryBase base) {
+        if (segments.computeIfAbsent(base.userId(), Segment::new).mergeBase(base, journal)) {
+            restoreNextId(base.lastId() + 1);
+        }
+    }
+
+    // 유저의 archive 된 내역 합계 (없으면 empty)
+    PointHistoryBase baseOf(long userId) {
+        Segment segment = segments.get(userId);
+        return segment == null ? PointHistoryBase.empty(userId) : segment.base;
+    }
+
+    // 다른 node 에서 받아온 내역 : 유저의 마지막 id 보다 뒤의 것만 넣는다. (넘겨준 뒤 다시 받아오면 앞부분은 이미 있다)
+    void merge(PointHistory pointHistory) {
+        if (segments.computeIfAbsent(pointHistory.userId(), Segment::new).merge(pointHistory, journal)) {
+            restoreNextId(pointHistory.id() + 1);
+        }
+    }
+
+    long nextId() {
+        return cursor.get();
+    }
+
+    void restoreNextId(long nextId) {
+        cursor.accumulateAndGet(nextId, Math::max);
+    }
+
+    List<PointHistory> findAllByUserId(long userId) {
+        Segment segment = segments.get(userId);
+        if (segment == null) {
+            return Collections.emptyList();
+        }
+        return segment.toList();
+    }
+
+    Iterator<PointHistory> iterator(long userId, PointHistoryQuery query) {
+        Segment segment = segments.get(userId);
+        if (segment == null) {
+            return Collections.emptyIterator();
+        }
+        return segment.iterator(query);
+    }
+
+    // 유저의 [from, to) 구간 충전/사용 합계 (내역 객체를 만들지 않는다, archive 된 내역은 구간이 그 전체를 덮을 때만 포함)
+    PointHistorySummary summarize(long userId, long from, long to) {
+        Segment segment = segments.get(userId);
+        if (segment == null) {
+            return PointHistorySummary.empty(userId);
+        }
+        return segment.summarize(from, to);
+    }
+
+    // 유저의 at 시각까지의 내역을 반영한 잔액 (내역을 처음부터 훑지 않고 checkpoint 에서 이어 더한다)
+    PointBalance balanceAt(long userId, long at) {
+        Segment segment = segments.get(userId);
+        if (segment == null) {
+            return PointBalance.empty(userId, at);
+        }
+        return segment.balanceAt(at);
+    }
+
+    // 유저의 전체 내역을 잔액 기준으로 더한 값 (충전/받은 이체는 +, 사용/보낸 이체는 -)
+    long netAmount(long userId) {
+        Segment segment = segments.get(userId);
+        return segment == null ? 0 : segment.netAmount();
+    }
+
+    // 내역이 있는 유저 id
+    void forEachUserId(LongConsumer consumer) {
+        for (Long userId : segments.keySet()) {
+            consumer.accept(userId);
+        }
+    }
+
+    /**
+     * 한 유저의 내역을 필드별 배열(id/amount/updateMillis 는 long, 종류는 byte)로 나눈 고정 크기 chunk 에 이어서 담는다.
+     * - userId 는 segment 에 한 번만 두고, PointHistory 는 조회 결과로 내보낼 때만 만든다.
+     * - 배열이 커질 때 기존 데이터를 복사하지 않고 chunk 만 추가한다. 첫 chunk 만 작게 시작해 CHUNK_SIZE 까지 두 배씩 키운다.
+     * - 합계는 PointHistory 를 만들지 않고 배열을 그대로 훑어 계산한다.
+     * - CHECKPOINT_INTERVAL 건마다 그 앞까지의 잔액(checkpoint)을 chunk 에 남겨, 특정 시각의 잔액을
+     *   updateMillis 이진 탐색 + 가까운 checkpoint 부터 최대 CHECKPOINT_INTERVAL 건만 더해서 구한다.
+     * - base 는 archive 된 내역의 합계로, 내역이 하나도 없을 때만 정할 수 있다. running 과 checkpoint 는 base 의 잔액에서 시작한다.
+     *   base 의 마지막 시각보다 이른 내역이 들어오면 시간 순서가 어긋난 것으로 보고 전체를 훑는다. (checkpoint 에 base 가 이미 들어 있으므로)
+     * virtual thread 에서 호출돼도 carrier 스레드에 고정되지 않도록 synchronized 대신 ReentrantLock 을 쓴다.
+     */
+    static final class Segment {
+        private static final int CHUNK_SIZE = 256;
+        private static final int FIRST_CHUNK_SIZE = 8;
+        private static final int CHECKPOINT_INTERVAL = 64;
+        // 내역 종류는 ordinal 로 남긴다. (journal 과 같다)
+        private static final TransactionType[] TYPES = TransactionType.values();
+
+        private final long userId;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private volatile Chunk[] chunks = new Chunk[1];
+        private volatile int size;
+        // updateMillis 가 append 순서대로 증가하는 동안에는 시간 조건도 이진 탐색으로 찾는다.
+        private volatile boolean timeOrdered = true;
+        private long lastMillis = Long.MIN_VALUE;
+        // 지금까지 담은 내역을 잔액 기준으로 더한 값, base 의 잔액에서 시작한다. (lock 안에서만 쓴다)
+        private long running;
+        private volatile PointHistoryBase base;
+
+        Segment(long userId) {
+            this.userId = userId;
+            this.base = PointHistoryBase.empty(userId);
+        }
+
+        void restoreBase(PointHistoryBase restored) {
+            lock.lock();
+            try {
+                setBase(restored);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean mergeBase(PointHistoryBase merged, PointJournal journal) {
+            lock.lock();
+            try {
+                if (size > 0 || !base.isEmpty() || merged.isEmpty()) {
+                    return false;
+                }
+                journal.appendBase(merged);
+                setBase(merged);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // 이미 담은 내역이 있으면 그 checkpoint 를 다시 계산할 수 없으므로 무시한다. (lock 안에서 호출)
+        private void setBase(PointHistoryBase next) {
+            if (size > 0) {
+                return;
+            }
+            base = base.isEmpty() ? next : base.plus(next);
+            running = base.amount();
+            lastMillis = base.lastMillis();
+        }
+
+        PointHistory append(long userId, long amount, TransactionType type, long updateMillis, AtomicLong cursor, PointJournal journal) {
+            lock.lock();
+            try {
+                // id 발급과 append 를 같은 lock 안에서 처리해 유저별 id 가 항상 오름차순이 되도록 한다. (journal 기록 순서도 같다)
+                PointHistory pointHistory = new PointHistory(cursor.getAndIncrement(), userId, amount, type, updateMillis);
+                journal.appendHistory(pointHistory);
+                add(pointHistory);
+                return pointHistory;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void restore(PointHistory pointHistory) {
+            lock.lock();
+            try {
+                add(pointHistory);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean merge(PointHistory pointHistory, PointJournal journal) {
+            lock.lock();
+            try {
+                int count = size;
+                if (count > 0 && chunks[(count - 1) / CHUNK_SIZE].ids[(count - 1) % CHUNK_SIZE] >= pointHistory.id()) {
+                    return false;
+                }
+                journal.appendHistory(pointHistory);
+                add(pointHistory);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void add(PointHistory pointHistory) {
+            int index = size;
+            int chunkIndex = index / CHUNK_SIZE;
+            int offset = index % CHUNK_SIZE;
+            Chunk[] current = chunks;
+            if (chunkIndex == current.length) {
+                Chunk[] grown = new Chunk[current.length * 2];
+                System.arraycopy(current, 0, grown, 0, current.length);
+                current = grown;
+            }
+            Chunk chunk = current[chunkIndex];
+            if (chunk == null) {
+                chunk = new Chunk(chunkIndex == 0 ? FIRST_CHUNK_SIZE : CHUNK_SIZE);
+                current[chunkIndex] = chunk;
+            } else if (offset == chunk.ids.length) {
+                // 이전 chunk 를 읽고 있는 조회는 그 chunk 에 이미 채워진 칸까지만 읽는다.
+                chunk = chunk.copyOf(Math.min(CHUNK_SIZE, chunk.ids.length * 2));
+                current[chunkIndex] = chunk;
+            }
+            chunk.ids[offset] = pointHistory.id();
+            chunk.amounts[offset] = pointHistory.amount();
+            chunk.millis[offset] = pointHistory.updateMillis();
+            chunk.types[offset] = (byte) pointHistory.type().ordinal();
+            if (offset % CHECKPOINT_INTERVAL == 0) {
+                chunk.checkpoints[offset / CHECKPOINT_INTERVAL] = running;
+            }
+            running += pointHistory.type().signedAmount(pointHistory.amount());
+            chunks = current;
+            if (pointHistory.updateMillis() < lastMillis) {
+                timeOrdered = false;
+            }
+            lastMillis = Math.max(lastMillis, pointHistory.updateMillis());
+            // size 를 마지막에 게시해야 조회 쪽에서 채워진 칸만 읽는다.
+            size = index + 1;
+        }
+
+        List<PointHistory> toList() {
+            int count = size;
+            Chunk[] current = chunks;
+            List<PointHistory> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(historyAt(current, i));
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        /**
+         * 호출 시점에 게시된 내역까지만 순회하는 cursor
+         * afterId 는 id 로, from 은 시간 순서가 유지되는 동안 updateMillis 로 시작 위치를 이진 탐색한다.
+         */
+        Iterator<PointHistory> iterator(PointHistoryQuery query) {
+            int count = size;
+            boolean ordered = timeOrdered;
+            Chunk[] current = chunks;
+
+            int start = query.afterId() == Long.MAX_VALUE ? count : lowerBound(current, count, true, query.afterId() + 1);
+            if (ordered) {
+                start = Math.max(start, lowerBound(current, count, false, query.from()));
+            }
+            int begin = start;
+
+            return new Iterator<>() {
+                private int position = begin;
+                private int returned;
+                private PointHistory next = advance();
+
+                // 조건에 맞는 칸을 찾은 뒤에만 PointHistory 를 만든다.
+                private PointHistory advance() {
+                    while (returned < query.limit() && position < count) {
+                        Chunk chunk = current[position / CHUNK_SIZE];
+                        int offset = position % CHUNK_SIZE;
+                        long updateMillis = chunk.millis[offset];
+                        position++;
+                        if (query.contains(updateMillis)) {
+                            returned++;
+                            return chunk.history(userId, offset);
+                        }
+                        if (ordered && updateMillis >= query.to()) {
+                            break;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public PointHistory next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    PointHistory result = next;
+                    next = advance();
+                    return result;
+                }
+            };
+        }
+
+        // [from, to) 구간의 충전/사용 합계와 건수
+        PointHistorySummary summarize(long from, long to) {
+            int count = size;
+            boolean ordered = timeOrdered;
+            Chunk[] current = chunks;
+
+            PointHistoryBase archived = base;
+            boolean covered = !archived.isEmpty() && from <= archived.firstMillis() && to > archived.lastMillis();
+            long charged = covered ? archived.charged() : 0;
+            long chargeCount = covered ? archived.chargeCount() : 0;
+            long used = covered ? archived.used() : 0;
+            long useCount = covered ? archived.useCount() : 0;
+            int position = ordered ? lowerBound(current, count, false, from) : 0;
+            while (position < count) {
+                Chunk chunk = current[position / CHUNK_SIZE];
+                int end = Math.min(count - position / CHUNK_SIZE * CHUNK_SIZE, CHUNK_SIZE);
+                for (int offset = position % CHUNK_SIZE; offset < end; offset++) {
+                    long updateMillis = chunk.millis[offset];
+                    if (updateMillis < from || updateMillis >= to) {
+                        if (ordered && updateMillis >= to) {
+                            return new PointHistorySummary(userId, charged, chargeCount, used, useCount);
+                        }
+                        continue;
+                    }
+                    switch (TYPES[chunk.types[offset]]) {
+                        case CHARGE -> {
+                            charged += chunk.amounts[offset];
+                            chargeCount++;
+                        }
+                        case USE -> {
+                            used += chunk.amounts[offset];
+                            useCount++;
+                        }
+                        case TRANSFER_OUT, TRANSFER_IN -> {
+                            // 이체는 유저 사이에서 옮겨질 뿐이라 충전/사용 합계에 넣지 않는다.
+                        }
+                        case EXPIRE -> {
+                            // 소멸은 유저가 사용한 것이 아니므로 사용 합계에 넣지 않는다.
+                        }
+                    }
+                }
+                position = (position / CHUNK_SIZE + 1) * CHUNK_SIZE;
+            }
+            return new PointHistorySummary(userId, charged, chargeCount, used, useCount);
+        }
+
+        /**
+         * at 이하의 시각에 기록된 내역까지 반영한 잔액
+         * 시간 순서가 유지되는 동안은 O(log n + CHECKPOINT_INTERVAL), 순서가 어긋난 적이 있으면 전체를 훑는다.
+         * archive 된 내역은 하나씩 남아 있지 않으므로, at 이 그 첫 시각 이후면 합계(base) 전체를 반영한다.
+         */
+        PointBalance balanceAt(long at) {
+            int count = size;
+            boolean ordered = timeOrdered;
+            Chunk[] current = chunks;
+            PointHistoryBase archived = base;
+            PointBalance start = archived.isEmpty() || at < archived.firstMillis()
+                    ? PointBalance.empty(userId, at)
+                    : new PointBalance(userId, at, archived.amount(), archived.lastId());
+
+            if (!ordered) {
+                long point = start.point();
+                long lastId = start.lastHistoryId();
+                for (int i = 0; i < count; i++) {
+                    Chunk chunk = current[i / CHUNK_SIZE];
+                    int offset = i % CHUNK_SIZE;
+                    if (chunk.millis[offset] <= at) {
+                        point += TYPES[chunk.types[offset]].signedAmount(chunk.amounts[offset]);
+                        lastId = chunk.ids[offset];
+                    }
+                }
+                return new PointBalance(userId, at, point, lastId);
+            }
+
+            // at 보다 뒤에 기록된 첫 내역의 위치, 그 앞까지를 반영한다.
+            int end = at == Long.MAX_VALUE ? count : lowerBound(current, count, false, at + 1);
+            if (end == 0) {
+                return start;
+            }
+            int checkpoint = (end - 1) / CHECKPOINT_INTERVAL * CHECKPOINT_INTERVAL;
+            Chunk chunk = current[checkpoint / CHUNK_SIZE];
+            int offset = checkpoint % CHUNK_SIZE;
+            long point = chunk.checkpoints[offset / CHECKPOINT_INTERVAL];
+            for (int last = offset + end - checkpoint; offset < last; offset++) {
+                point += TYPES[chunk.types[offset]].signedAmount(chunk.amounts[offset]);
+            }
+            return new PointBalance(userId, at, point, chunk.ids[offset - 1]);
+        }
+
+        long netAmount() {
+            int count = size;
+            Chunk[] current = chunks;
+            long total = base.amount();
+            for (int chunkStart = 0; chunkStart < count; chunkStart += CHUNK_SIZE) {
+                Chunk chunk = current[chunkStart / CHUNK_SIZE];
+                int end = Math.min(count - chunkStart, CHUNK_SIZE);
+                for (int offset = 0; offset < end; offset++) {
+                    total += TYPES[chunk.types[offset]].signedAmount(chunk.amounts[offset]);
+                }
+            }
+            return total;
+        }
+
+        private PointHistory historyAt(Chunk[] current, int index) {
+            return current[index / CHUNK_SIZE].history(userId, index % CHUNK_SIZE);
+        }
+
+        // id(byId) 또는 updateMillis 가 처음으로 key 이상이 되는 위치 (정렬된 구간에서만 사용)
+        private static int lowerBound(Chunk[] current, int count, boolean byId, long key) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                Chunk chunk = current[mid / CHUNK_SIZE];
+                long value = byId ? chunk.ids[mid % CHUNK_SIZE] : chunk.millis[mid % CHUNK_SIZE];
+                if (value >= key) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+    }
+
+    // 내역 필드별 배열, 같은 번호의 칸이 하나의 내역이다. checkpoints[i] 는 i * CHECKPOINT_INTERVAL 번째 칸 앞까지의 잔액
+    private static final class Chunk {
+        private final long[] ids;
+        private final long[] amounts;
+        private final long[] millis;
+        private final byte[] types;
+        private final long[] checkpoints;
+
+        private Chunk(int capacity) {
+            this(new long[capacity], new long[capacity], new long[capacity], new byte[capacity], new long[checkpointsOf(capacity)]);
+        }
+
+        private Chunk(long[] ids, long[] amounts, long[] millis, byte[] types, long[] checkpoints) {
+            this.ids = ids;
+            this.amounts = amounts;
+            this.millis = millis;
+            this.types = types;
+            this.checkpoints = checkpoints;
+        }
+
+        private Chunk copyOf(int capacity) {
+            return new Chunk(Arrays.copyOf(ids, capacity), Arrays.copyOf(amounts, capacity), Arrays.copyOf(millis, capacity), Arrays.copyOf(types, capacity), Arrays.copyOf(checkpoints, checkpointsOf(capacity)));
+        }
+
+        private static int checkpointsOf(int capacity) {
+            return (capacity + Segment.CHECKPOINT_INTERVAL - 1) / Segment.CHECKPOINT_INTERVAL;
+        }
+
+        private PointHistory history(long userId, int offset) {
+            return new PointHistory(ids[offset], userId, amounts[offset], Segment.TYPES[types[offset]], millis[offset]);
+        }
+    }
+}
@@ -1,38 +1,148 @@
 package io.hhplus.tdd.database;
 
 
+import io.hhplus.tdd.point.PointBalance;
 import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryEntry;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.PointHistorySummary;
 import io.hhplus.tdd.point.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
 
 /**
- * 해당 Table 클래스는 변경하지 않고 공개된 API 만을 사용해 데이터를 제어합니다.
+ * 포인트 내역 table
+ * - 내역은 유저별 append-only segment(PointHistoryIndex)에 보관해, 조회 비용이 해당 유저의 내역 수에만 비례한다.
+ * - id 는 전체에서 오름차순으로 발급되고, 한 유저의 내역은 id 순서대로 보관된다. 동시에 insert 해도 안전하다.
+ * - insert / insertAll 은 journal 에 남긴 뒤 반환하고, restore / merge 는 복구와 shard 이관에만 쓴다.
+ * - archive 로 옮긴 내역은 유저별 합계(PointHistoryBase)로만 남아, 목록 조회에는 없지만 잔액/합계 계산에는 포함된다.
+ * - 조회는 lock 없이 호출 시점까지 게시된 내역만 본다.
  */
 @Component
 public class PointHistoryTable {
-    private final List<PointHistory> table = new ArrayList<>();
-    private long cursor = 1;
+    private final PointHistoryIndex table;
+    private final Throttle throttle;
+    private final PointJournal journal;
+
+    public PointHistoryTable() {
+        this(Throttle.random());
+    }
+
+    public PointHistoryTable(Throttle throttle) {
+        this(throttle, PointJournal.none());
+    }
+
+    @Autowired
+    public PointHistoryTable(PointJournal journal) {
+        this(Throttle.random(), journal);
+    }
+
+    public PointHistoryTable(Throttle throttle, PointJournal journal) {
+        this.throttle = throttle;
+        this.journal = journal;
+        this.table = new PointHistoryIndex(journal);
+    }
 
     public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
         throttle(300L);
-        PointHistory pointHistory = new PointHistory(cursor++, userId, amount, type, updateMillis);
-        table.add(pointHistory);
+        PointHistory pointHistory = table.append(userId, amount, type, updateMillis);
+        journal.sync();
         return pointHistory;
     }
 
-    public List<PointHistory> selectAllByUserId(long userId) {
-        return table.stream().filter(pointHistory -> pointHistory.userId() == userId).toList();
+    public List<PointHistory> insertAll(List<PointHistoryEntry> entries) {
+        throttle(300L);
+        List<PointHistory> inserted = new ArrayList<>(entries.size());
+        for (PointHistoryEntry entry : entries) {
+            inserted.add(table.append(entry.userId(), entry.amount(), entry.type(), entry.updateMillis()));
+        }
+        // 묶음 전체를 한 번의 fsync 로 기다린다.
+        journal.sync();
+        return inserted;
     }
 
-    private void throttle(long millis) {
-        try {
-            TimeUnit.MILLISECONDS.sleep((long) (Math.random() * millis));
-        } catch (InterruptedException ignored) {
+    /**
+     * journal 복구용 : 지연 없이 기록된 id 그대로 넣는다.
+     */
+    public void restore(PointHistory pointHistory) {
+        table.restore(pointHistory);
+    }
+
+    /**
+     * shard 이관용 : 다른 node 에서 받아온 내역 중 유저별로 이미 가진 마지막 id 보다 뒤의 것만 넣고 journal 에도 남긴다.
+     */
+    public void merge(List<PointHistory> pointHistories) {
+        for (PointHistory pointHistory : pointHistories) {
+            table.merge(pointHistory);
+        }
+        journal.sync();
+    }
+
+    /**
+     * journal 복구용 : archive 로 옮긴 유저 내역의 합계를 유저의 남은 내역보다 먼저 넣는다.
+     */
+    public void restoreBase(PointHistoryBase base) {
+        table.restoreBase(base);
+    }
 
+    /**
+     * shard 이관용 : 다른 node 에서 받아온 유저 내역 합계를 아직 내역이 없는 유저에게만 넣고 journal 에도 남긴다.
+     */
+    public void mergeBase(List<PointHistoryBase> bases) {
+        for (PointHistoryBase base : bases) {
+            table.mergeBase(base);
         }
+        journal.sync();
+    }
+
+    // archive 로 옮긴 유저 내역의 합계 (없으면 빈 합계)
+    public PointHistoryBase baseOf(long userId) {
+        return table.baseOf(userId);
+    }
+
+    // 다음에 발급할 내역 id (snapshot 에 남겨, 보관된 내역과 id 가 겹치지 않게 한다)
+    public long nextId() {
+        return table.nextId();
+    }
+
+    public void restoreNextId(long nextId) {
+        table.restoreNextId(nextId);
+    }
+
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return table.findAllByUserId(userId);
+    }
+
+    public Iterator<PointHistory> selectByUserId(long userId, PointHistoryQuery query) {
+        return table.iterator(userId, query);
+    }
+
+    // [from, to) 구간의 충전/사용 합계
+    public PointHistorySummary summarizeByUserId(long userId, long from, long to) {
+        return table.summarize(userId, from, to);
+    }
+
+    // at 시각까지의 내역을 반영한 잔액
+    public PointBalance balanceAtByUserId(long userId, long at) {
+        return table.balanceAt(userId, at);
+    }
+
+    // 정합성 점검용 : 지연 없이 유저의 전체 내역을 잔액 기준으로 더한 값
+    public long sumAmountByUserId(long userId) {
+        return table.netAmount(userId);
+    }
+
+    // 정합성 점검용 : 내역이 있는 유저 id
+    public void forEachUserId(LongConsumer consumer) {
+        table.forEachUserId(consumer);
+    }
+
+    private void throttle(long millis) {
+        throttle.pause(millis);
     }
 }
@@ -0,0 +1,97 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * table 변경을 재시작 후에도 복구할 수 있도록 남기는 append-only 기록
+ * - 잔액은 변경 결과(잔액, version)를, 내역은 발급된 id 를 포함한 내역 자체를 남긴다.
+ * - 기동 시 replay 로 기록 순서대로 읽어 table 을 다시 채운다. (PointJournalRecovery)
+ * - archive 로 옮긴 오래된 내역은 하나씩 읽지 않고, 유저별 합계(PointHistoryBase)로만 넘겨준다.
+ */
+public interface PointJournal extends AutoCloseable {
+
+    void appendBalance(UserPoint userPoint);
+
+    void appendHistory(PointHistory pointHistory);
+
+    // 다른 node 에서 받아온 유저의 archive 된 내역 합계
+    void appendBase(PointHistoryBase base);
+
+    // 지금까지 남긴 기록이 디스크에 반영될 때까지 대기 (설정에 따라 바로 반환할 수 있다)
+    void sync();
+
+    default void replay(Visitor visitor) {
+        replay(visitor, 0);
+    }
+
+    // 잔액 기록은 balanceFromSegment 번째 segment 부터만 읽는다. (그 이전은 snapshot 으로 복구한 경우)
+    void replay(Visitor visitor, long balanceFromSegment);
+
+    // 이후 기록이 새 segment 에서 시작하도록 나누고 그 segment 번호를 반환 (snapshot 경계)
+    long mark();
+
+    // beforeSegment 이전 segment 중 마지막 수정이 olderThanMillis 이전인 것을 보관 경로로 옮기고 옮긴 수를 반환
+    // 옮긴 segment 의 내역은 유저별로 합쳐 두었다가 replay 때 Visitor.base 로 넘겨준다.
+    int archive(long beforeSegment, long olderThanMillis);
+
+    @Override
+    void close();
+
+    interface Visitor {
+
+        void balance(UserPoint userPoint);
+
+        void history(PointHistory pointHistory);
+
+        // archive 로 옮긴 내역의 유저별 합계, 해당 유저의 history 보다 먼저 호출된다.
+        default void base(PointHistoryBase base) {
+        }
+    }
+
+    // 아무것도 남기지 않는 기록 (기본값, 메모리에만 보관)
+    static PointJournal none() {
+        return NoJournal.INSTANCE;
+    }
+
+    final class NoJournal implements PointJournal {
+        private static final NoJournal INSTANCE = new NoJournal();
+
+        private NoJournal() {
+        }
+
+        @Override
+        public void appendBalance(UserPoint userPoint) {
+        }
+
+        @Override
+        public void appendHistory(PointHistory pointHistory) {
+        }
+
+        @Override
+        public void appendBase(PointHistoryBase base) {
+        }
+
+        @Override
+        public void sync() {
+        }
+
+        @Override
+        public void replay(Visitor visitor, long balanceFromSegment) {
+        }
+
+        @Override
+        public long mark() {
+            return 0;
+        }
+
+        @Override
+        public int archive(long beforeSegment, long olderThanMillis) {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * point.journal.enabled 에 맞는 PointJournal 을 등록
+ */
+@Configuration
+public class PointJournalConfig {
+
+    @Bean
+    public PointJournal pointJournal(PointJournalProperties properties) {
+        if (properties.enabled()) {
+            return MappedPointJournal.open(properties);
+        }
+        return PointJournal.none();
+    }
+}
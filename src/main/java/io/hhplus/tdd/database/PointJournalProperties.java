@@ -0,0 +1,25 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 잔액/내역 journal 설정
+ * - enabled : 변경을 파일에 남기고 기동 시 복구할지 여부 (끄면 메모리에만 보관)
+ * - directory : segment 파일을 둘 경로
+ * - segmentSize : segment 파일 하나의 크기, 가득 차면 다음 파일로 넘어간다.
+ * - flushIntervalMillis / flushBatchSize : 이 주기마다 또는 이만큼 기록이 쌓이면 한 번에 fsync 한다. (group commit)
+ *   sync 이면 기다리는 요청이 있을 때 바로 fsync 하고, 그 사이 쌓인 요청은 다음 fsync 로 함께 반영된다.
+ * - sync : 응답 전에 해당 요청의 기록이 fsync 될 때까지 기다릴지 여부
+ */
+@ConfigurationProperties("point.journal")
+public record PointJournalProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/journal") String directory,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("5") long flushIntervalMillis,
+        @DefaultValue("1000") int flushBatchSize,
+        @DefaultValue("true") boolean sync
+) {
+}
@@ -0,0 +1,93 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.UserPoint;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 기동 시 journal 을 replay 해 table 을 복구
+ * - snapshot 이 있으면 잔액은 snapshot 으로 채우고, journal 에서는 snapshot 경계 이후의 잔액만 읽는다.
+ * - 웹 서버가 요청을 받기 전(컨텍스트 초기화 중)에 끝난다.
+ * - 내역으로 쌓는 다른 값(통계 등)은 Listener 로 복구한 내역을 함께 받아 다시 쌓는다.
+ */
+@Component
+public class PointJournalRecovery {
+
+    private static final Logger log = LoggerFactory.getLogger(PointJournalRecovery.class);
+
+    private final PointJournal pointJournal;
+    private final UserPointTable userPointTable;
+    private final PointHistoryTable pointHistoryTable;
+    private final PointSnapshotter pointSnapshotter;
+    private final List<Listener> listeners;
+
+    public PointJournalRecovery(PointJournal pointJournal, UserPointTable userPointTable, PointHistoryTable pointHistoryTable) {
+        this(pointJournal, userPointTable, pointHistoryTable, null);
+    }
+
+    public PointJournalRecovery(PointJournal pointJournal, UserPointTable userPointTable, PointHistoryTable pointHistoryTable, PointSnapshotter pointSnapshotter) {
+        this(pointJournal, userPointTable, pointHistoryTable, pointSnapshotter, List.of());
+    }
+
+    @Autowired
+    public PointJournalRecovery(PointJournal pointJournal, UserPointTable userPointTable, PointHistoryTable pointHistoryTable, PointSnapshotter pointSnapshotter, List<Listener> listeners) {
+        this.pointJournal = pointJournal;
+        this.userPointTable = userPointTable;
+        this.pointHistoryTable = pointHistoryTable;
+        this.pointSnapshotter = pointSnapshotter;
+        this.listeners = listeners;
+    }
+
+    @PostConstruct
+    public void recover() {
+        long start = System.nanoTime();
+        long balanceFromSegment = pointSnapshotter == null ? 0 : pointSnapshotter.load();
+        long[] counts = new long[3];
+        pointJournal.replay(new PointJournal.Visitor() {
+            @Override
+            public void balance(UserPoint userPoint) {
+                userPointTable.restore(userPoint);
+                counts[0]++;
+            }
+
+            @Override
+            public void base(PointHistoryBase base) {
+                pointHistoryTable.restoreBase(base);
+                for (Listener listener : listeners) {
+                    listener.restoreBase(base);
+                }
+                counts[2]++;
+            }
+
+            @Override
+            public void history(PointHistory pointHistory) {
+                pointHistoryTable.restore(pointHistory);
+                for (Listener listener : listeners) {
+                    listener.restore(pointHistory);
+                }
+                counts[1]++;
+            }
+        }, balanceFromSegment);
+        if (counts[0] + counts[1] + counts[2] > 0) {
+            log.info("journal 복구 완료. balances={}, histories={}, bases={}, elapsed={}ms", counts[0], counts[1], counts[2], (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * 복구한 내역을 table 외에 다시 쌓는 곳
+     * - 유저별 합계(restoreBase)는 해당 유저의 내역보다 먼저 받는다.
+     * - 컨텍스트 초기화 중 한 스레드에서 호출된다.
+     */
+    public interface Listener {
+
+        void restoreBase(PointHistoryBase base);
+
+        void restore(PointHistory pointHistory);
+    }
+}
@@ -0,0 +1,25 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 잔액 snapshot 설정 (point.journal.enabled 일 때만 동작)
+ * - interval : snapshot 주기
+ * - retain : 보관할 snapshot 수, 가장 오래된 snapshot 이전의 journal segment 만 보관 대상이 된다.
+ * - historyRetention : 조회 가능한 최근 내역 기간, 이보다 오래된 segment 는 archive 로 옮겨 기동 시 읽지 않는다.
+ *   옮긴 내역은 목록 조회에서만 빠지고, 유저별 합계로 남아 잔액/합계 계산에는 포함된다.
+ * - loaderThreads : 기동 시 snapshot 을 나눠 읽는 스레드 수
+ */
+@ConfigurationProperties("point.snapshot")
+public record PointSnapshotProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/snapshot") String directory,
+        @DefaultValue("5m") Duration interval,
+        @DefaultValue("2") int retain,
+        @DefaultValue("7d") Duration historyRetention,
+        @DefaultValue("8") int loaderThreads
+) {
+}
@@ -0,0 +1,265 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 전체 잔액을 주기적으로 파일에 남겨, 재시작 시 잔액 갱신을 journal 처음부터 replay 하지 않도록 하는 기록기
+ * - journal 에 경계(mark)를 만든 뒤 쓰기를 멈추지 않고 유저를 한 명씩 읽어 고정 길이(32 byte) record 로 남긴다.
+ *   경계 이전에 journal 에 남은 갱신은 snapshot 에 포함되고, 이후 갱신은 경계 이후 segment 에 있다.
+ * - 복구 시 잔액은 snapshot 을 읽은 뒤 경계 직전 segment(boundary - 1)부터 replay 한다.
+ *   읽는 중에 새로 추가되는 유저를 놓치지 않기 위해서다. (version 이 높은 값이 남는다)
+ * - 내역은 snapshot 에 없으므로 archive 로 옮기지 않고 남아 있는 모든 segment 에서 replay 한다.
+ * - 임시 파일에 쓰고 fsync 한 뒤 이름을 바꿔, 완성된 snapshot 만 보이게 한다.
+ * - 기동 시 가장 최근 snapshot 을 구간별로 나눠 여러 스레드로 읽는다.
+ * - 오래된 snapshot 은 retain 개만 남기고 지우고, 남은 것 중 가장 오래된 경계 이전의 journal segment 는
+ *   historyRetention 이 지나면 archive 로 옮긴다. 옮긴 내역은 유저별 합계로 journal 에 남아, 잔액/합계 조회에는 계속 포함된다.
+ */
+@Component
+public class PointSnapshotter {
+
+    private static final Logger log = LoggerFactory.getLogger(PointSnapshotter.class);
+
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+    private static final int MAGIC = 0x504E5350;
+    private static final int FORMAT = 1;
+    // magic, format, journal 경계 segment, 다음 내역 id, 유저 수
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8;
+    private static final int RECORD_SIZE = 8 * 4;
+    private static final int RECORDS_PER_RANGE = 1 << 20;
+
+    private final PointSnapshotProperties properties;
+    private final PointJournalProperties journalProperties;
+    private final PointJournal pointJournal;
+    private final UserPointTable userPointTable;
+    private final PointHistoryTable pointHistoryTable;
+    private final Path directory;
+    private ScheduledExecutorService scheduler;
+
+    public PointSnapshotter(PointSnapshotProperties properties, PointJournalProperties journalProperties, PointJournal pointJournal, UserPointTable userPointTable, PointHistoryTable pointHistoryTable) {
+        this.properties = properties;
+        this.journalProperties = journalProperties;
+        this.pointJournal = pointJournal;
+        this.userPointTable = userPointTable;
+        this.pointHistoryTable = pointHistoryTable;
+        this.directory = Path.of(properties.directory());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.interval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled() && journalProperties.enabled();
+    }
+
+    // 지금 snapshot 을 남기고 파일 경로를 반환
+    public Path snapshot() {
+        long begin = System.nanoTime();
+        long boundary = pointJournal.mark();
+        long nextHistoryId = pointHistoryTable.nextId();
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, boundary, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            long count;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                count = write(channel, boundary, nextHistoryId);
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            log.info("snapshot 완료. users={}, boundary={}, elapsed={}ms", count, boundary, (System.nanoTime() - begin) / 1_000_000);
+            cleanUp();
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("snapshot 을 남기지 못했습니다: " + target, e);
+        }
+    }
+
+    /**
+     * 가장 최근 snapshot 을 table 에 채우고, 잔액 replay 를 시작할 journal segment 를 반환 (snapshot 이 없으면 0)
+     */
+    public long load() {
+        if (!isEnabled()) {
+            return 0;
+        }
+        List<Path> snapshots = snapshots();
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        Path latest = snapshots.get(snapshots.size() - 1);
+        long begin = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(latest, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT) {
+                throw new IllegalStateException("snapshot 형식이 올바르지 않습니다: " + latest);
+            }
+            long boundary = header.getLong();
+            long nextHistoryId = header.getLong();
+            long count = header.getLong();
+
+            loadParallel(channel, count);
+            pointHistoryTable.restoreNextId(nextHistoryId);
+            log.info("snapshot 복구 완료. users={}, boundary={}, elapsed={}ms", count, boundary, (System.nanoTime() - begin) / 1_000_000);
+            // 경계를 만드는 동안 추가되던 유저의 갱신은 경계 직전 segment 에 있을 수 있다.
+            return Math.max(0, boundary - 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("snapshot 을 읽지 못했습니다: " + latest, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private long write(FileChannel channel, long boundary, long nextHistoryId) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * 32_768);
+        channel.position(HEADER_SIZE);
+        long[] count = new long[1];
+        userPointTable.forEach(userPoint -> {
+            if (buffer.remaining() < RECORD_SIZE) {
+                drain(channel, buffer);
+            }
+            buffer.putLong(userPoint.id())
+                    .putLong(userPoint.point())
+                    .putLong(userPoint.updateMillis())
+                    .putLong(userPoint.version());
+            count[0]++;
+        });
+        drain(channel, buffer);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(FORMAT)
+                .putLong(boundary)
+                .putLong(nextHistoryId)
+                .putLong(count[0]);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        return count[0];
+    }
+
+    private void drain(FileChannel channel, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    // 고정 길이 record 이므로 구간을 나눠 각 스레드가 자기 구간만 매핑해 읽는다.
+    private void loadParallel(FileChannel channel, long count) throws IOException {
+        ExecutorService loader = Executors.newFixedThreadPool(Math.max(1, properties.loaderThreads()));
+        try {
+            List<Future<?>> ranges = new ArrayList<>();
+            for (long start = 0; start < count; start += RECORDS_PER_RANGE) {
+                long records = Math.min(RECORDS_PER_RANGE, count - start);
+                MappedByteBuffer range = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + start * RECORD_SIZE, records * RECORD_SIZE);
+                ranges.add(loader.submit(() -> {
+                    while (range.hasRemaining()) {
+                        userPointTable.restore(new UserPoint(range.getLong(), range.getLong(), range.getLong(), range.getLong()));
+                    }
+                }));
+            }
+            for (Future<?> range : ranges) {
+                range.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("snapshot 복구가 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("snapshot 을 읽지 못했습니다.", e.getCause());
+        } finally {
+            loader.shutdownNow();
+        }
+    }
+
+    // retain 개만 남기고, 남은 것 중 가장 오래된 경계 이전의 오래된 journal segment 를 archive 로 옮긴다.
+    private void cleanUp() throws IOException {
+        List<Path> snapshots = snapshots();
+        int remove = snapshots.size() - Math.max(1, properties.retain());
+        for (int i = 0; i < remove; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+        Path oldest = snapshots.get(Math.max(0, remove));
+        long olderThan = System.currentTimeMillis() - properties.historyRetention().toMillis();
+        int archived = pointJournal.archive(boundaryOf(oldest) - 1, olderThan);
+        if (archived > 0) {
+            log.info("journal segment {}개를 archive 로 옮겼습니다.", archived);
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.error("snapshot 실패", e);
+        }
+    }
+
+    private List<Path> snapshots() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long boundaryOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
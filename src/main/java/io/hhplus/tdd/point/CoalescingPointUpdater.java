@@ -0,0 +1,28 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * PointMailbox 에 요청을 넣고 반영될 때까지 기다리는 전략
+ * - 같은 유저에게 몰린 요청을 lock 경합 없이 묶어서 반영한다. (point.mailbox.enabled)
+ * - 요청 한 건의 실패는 원래 예외 그대로 던진다.
+ */
+public class CoalescingPointUpdater implements PointUpdater {
+    private final PointMailbox pointMailbox;
+
+    public CoalescingPointUpdater(PointMailbox pointMailbox) {
+        this.pointMailbox = pointMailbox;
+    }
+
+    @Override
+    public UserPoint update(long userId, PointMutation mutation) {
+        try {
+            return pointMailbox.submit(userId, mutation).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,25 +1,208 @@
 package io.hhplus.tdd.point;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * 유저별 lock 관리
+ * - PER_USER : lock 을 잡았거나 기다리는 스레드 수(holders)를 함께 세고, 아무도 쓰지 않을 때만 map 에서 제거한다.
+ *   대기 중인 스레드가 있는데 lock 이 제거되면, 새로 만든 lock 과 동시에 잡혀 상호 배제가 깨진다.
+ * - STRIPED : 고정 개수의 lock 을 userId 해시로 나눠 쓴다. 유저 수와 관계없이 메모리가 일정하고 생성/제거 비용이 없다.
+ *   해시가 같은 다른 유저끼리는 서로 기다릴 수 있다.
+ * - timeoutMillis 를 설정하면 그 시간 안에 lock 을 얻지 못한 요청은 PointLockTimeoutException 으로 실패한다.
+ * - virtual thread 모드에서도 대기는 ReentrantLock 에서만 일어나 carrier 스레드를 고정(pinning)하지 않는다.
+ *   map 의 compute 안에서는 holders 계산만 하고 절대 기다리지 않는다.
+ * - 두 유저의 lock 을 함께 잡을 때는 lock 순서(PER_USER 는 userId, STRIPED 는 stripe 번호)가 작은 쪽부터 잡는다.
+ *   모든 호출자가 같은 순서로 잡으므로 서로 반대 방향의 요청이 엇갈려 기다리는 교착이 생기지 않는다.
+ */
 @Service
 public class LockManager {
-    private ConcurrentHashMap<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private final LockProperties properties;
+    private final PointMetrics pointMetrics;
+    private final ConcurrentHashMap<Long, UserLock> locks = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
 
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    public LockManager() {
+        this(LockProperties.defaults());
+    }
+
+    public LockManager(LockProperties properties) {
+        this(properties, PointMetrics.noop());
+    }
+
+    @Autowired
+    public LockManager(LockProperties properties, PointMetrics pointMetrics) {
+        this.properties = properties;
+        this.pointMetrics = pointMetrics;
+        if (properties.strategy() == LockProperties.Strategy.STRIPED) {
+            this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, properties.stripes()))];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new ReentrantLock(properties.fair());
+            }
+        } else {
+            this.stripes = null;
+        }
+    }
+
+    // 설정된 대기 시간(timeoutMillis) 안에 lock 을 얻지 못하면 PointLockTimeoutException
     public void lock(Long userId) {
-        locks.computeIfAbsent(userId, id -> new ReentrantLock()).lock();
+        long timeoutMillis = properties.timeoutMillis();
+        if (!tryLock(userId, timeoutMillis > 0 ? timeoutMillis : Long.MAX_VALUE, TimeUnit.MILLISECONDS)) {
+            throw new PointLockTimeoutException("요청이 몰려 처리하지 못했습니다. 잠시 후 다시 시도해주세요.");
+        }
+    }
+
+    // 주어진 시간 안에 lock 을 얻으면 true
+    public boolean tryLock(Long userId, long timeout, TimeUnit unit) {
+        ReentrantLock lock = acquire(userId);
+        // fair 모드에서는 tryLock() 이 순서를 무시하므로 대기 시간 0 으로 시도한다.
+        if (properties.fair() ? tryLockQuietly(lock, 0, TimeUnit.NANOSECONDS) : lock.tryLock()) {
+            acquisitions.increment();
+            pointMetrics.recordLockWait(0);
+            return true;
+        }
+
+        contended.increment();
+        long start = System.nanoTime();
+        boolean acquired = awaitLock(lock, timeout, unit);
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
+        pointMetrics.recordLockWait(waited);
+
+        if (!acquired) {
+            timeouts.increment();
+            release(userId);
+            return false;
+        }
+        acquisitions.increment();
+        return true;
+    }
+
+    // 두 유저의 lock 을 정해진 순서로 잡는다. 같은 lock 을 쓰는 유저끼리는 한 번만 잡는다.
+    public void lock(long first, long second) {
+        long firstOrder = orderOf(first);
+        long secondOrder = orderOf(second);
+        if (firstOrder == secondOrder) {
+            lock(first);
+            return;
+        }
+        long lower = firstOrder < secondOrder ? first : second;
+        long upper = firstOrder < secondOrder ? second : first;
+        lock(lower);
+        try {
+            lock(upper);
+        } catch (RuntimeException e) {
+            unlock(lower);
+            throw e;
+        }
+    }
+
+    public void unlock(long first, long second) {
+        unlock(first);
+        if (orderOf(first) != orderOf(second)) {
+            unlock(second);
+        }
     }
 
     public void unlock(Long userId) {
-        ReentrantLock lock = locks.get(userId);
+        ReentrantLock lock = stripes != null ? stripeOf(userId) : userLockOf(userId);
         if (lock != null && lock.isHeldByCurrentThread()) {
             lock.unlock();
-            if (!lock.isLocked()) {
-                locks.remove(userId);
+            release(userId);
+        }
+    }
+
+    public LockStats stats() {
+        int queueLength = 0;
+        int activeLocks = 0;
+        if (stripes != null) {
+            for (ReentrantLock stripe : stripes) {
+                queueLength += stripe.getQueueLength();
+                activeLocks += stripe.isLocked() ? 1 : 0;
             }
+        } else {
+            for (UserLock userLock : locks.values()) {
+                queueLength += userLock.lock.getQueueLength();
+            }
+            activeLocks = locks.size();
+        }
+        return new LockStats(acquisitions.sum(), contended.sum(), timeouts.sum(), totalWaitNanos.sum(), maxWaitNanos.get(), queueLength, activeLocks);
+    }
+
+    private ReentrantLock acquire(Long userId) {
+        if (stripes != null) {
+            return stripeOf(userId);
+        }
+        return locks.compute(userId, (id, current) -> {
+            UserLock target = current == null ? new UserLock(properties.fair()) : current;
+            target.holders++;
+            return target;
+        }).lock;
+    }
+
+    private void release(Long userId) {
+        if (stripes == null) {
+            locks.computeIfPresent(userId, (id, current) -> --current.holders == 0 ? null : current);
+        }
+    }
+
+    private ReentrantLock userLockOf(Long userId) {
+        UserLock userLock = locks.get(userId);
+        return userLock == null ? null : userLock.lock;
+    }
+
+    private ReentrantLock stripeOf(long userId) {
+        return stripes[stripeIndexOf(userId)];
+    }
+
+    private int stripeIndexOf(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (stripes.length - 1);
+    }
+
+    // 여러 lock 을 함께 잡을 때의 순서
+    private long orderOf(long userId) {
+        return stripes != null ? stripeIndexOf(userId) : userId;
+    }
+
+    // 대기 시간이 무한이면 기존처럼 interrupt 에 반응하지 않고 기다린다.
+    private boolean awaitLock(ReentrantLock lock, long timeout, TimeUnit unit) {
+        if (timeout == Long.MAX_VALUE) {
+            lock.lock();
+            return true;
+        }
+        return tryLockQuietly(lock, timeout, unit);
+    }
+
+    private boolean tryLockQuietly(ReentrantLock lock, long timeout, TimeUnit unit) {
+        try {
+            return lock.tryLock(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // holders 는 map 의 compute 안에서만 변경한다.
+    private static final class UserLock {
+        private final ReentrantLock lock;
+        private int holders;
+
+        private UserLock(boolean fair) {
+            this.lock = new ReentrantLock(fair);
         }
     }
 }
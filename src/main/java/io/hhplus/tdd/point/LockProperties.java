@@ -0,0 +1,28 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 유저별 lock 설정
+ * - strategy : PER_USER (유저마다 lock 생성/제거) / STRIPED (고정 개수의 lock 을 userId 해시로 나눠 사용)
+ * - stripes : STRIPED 에서 사용할 lock 개수 (2의 거듭제곱으로 맞춘다)
+ * - fair : 먼저 기다린 요청부터 lock 을 얻도록 할지 여부
+ * - timeoutMillis : lock 대기 최대 시간, 넘기면 PointLockTimeoutException (0 이면 무한 대기)
+ */
+@ConfigurationProperties("point.lock")
+public record LockProperties(
+        @DefaultValue("PER_USER") Strategy strategy,
+        @DefaultValue("1024") int stripes,
+        @DefaultValue("false") boolean fair,
+        @DefaultValue("0") long timeoutMillis
+) {
+
+    public enum Strategy {
+        PER_USER, STRIPED
+    }
+
+    public static LockProperties defaults() {
+        return new LockProperties(Strategy.PER_USER, 1024, false, 0);
+    }
+}
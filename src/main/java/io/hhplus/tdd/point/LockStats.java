@@ -0,0 +1,21 @@
+package io.hhplus.tdd.point;
+
+/**
+ * lock 경합 통계
+ * - acquisitions : lock 획득 횟수
+ * - contended : 바로 얻지 못하고 기다린 횟수
+ * - timeouts : 대기 시간 초과로 실패한 횟수
+ * - totalWaitNanos, maxWaitNanos : 기다린 시간의 합계/최대
+ * - queueLength : 지금 lock 을 기다리는 스레드 수 (추정치)
+ * - activeLocks : 지금 사용 중인 lock 수
+ */
+public record LockStats(
+        long acquisitions,
+        long contended,
+        long timeouts,
+        long totalWaitNanos,
+        long maxWaitNanos,
+        int queueLength,
+        int activeLocks
+) {
+}
@@ -0,0 +1,141 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.UserPointTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * lock 없이 version 기반 compare-and-set 으로 갱신하고, 충돌하면 최신 포인트로 다시 계산하는 전략
+ * - 첫 시도는 캐시의 포인트로, 충돌 이후에는 table 의 최신 포인트로 계산한다.
+ * - 충돌이 계속되면 점점 길게 쉬었다가 재시도하고, maxAttempts 를 넘기면 PointConflictException 으로 실패한다.
+ * - 내역은 갱신이 확정된 뒤에 기록하므로 같은 유저의 동시 요청끼리는 내역 순서가 갱신 순서와 다를 수 있다.
+ * - 내역 기록이 실패하면 반영한 만큼을 되돌린다. 되돌리지 못하면(계속 충돌, 되돌리면 잔액이 음수) 원래 예외에 suppressed 로 남기고,
+ *   잔액과 내역의 차이는 정합성 점검(PointReconciler)이 찾도록 둔다.
+ */
+public class OptimisticPointUpdater implements PointUpdater {
+    private static final Logger log = LoggerFactory.getLogger(OptimisticPointUpdater.class);
+    // 되돌리기(update 한 번에 maxAttempts 번 시도)를 반복하는 최대 횟수
+    private static final int MAX_COMPENSATION_ROUNDS = 10;
+
+    private final UserPointTable userPointTable;
+    private final PointHistoryAppender pointHistoryAppender;
+    private final UserPointCache userPointCache;
+    private final int maxAttempts;
+    private final PointMetrics pointMetrics;
+    private final LongAdder conflicts = new LongAdder();
+    // 캐시에 없을 때 table 에서 조회 (호출마다 람다를 만들지 않도록 한 번만 만든다)
+    private final LongFunction<UserPoint> loader = this::select;
+
+    public OptimisticPointUpdater(UserPointTable userPointTable, PointHistoryAppender pointHistoryAppender, UserPointCache userPointCache, int maxAttempts) {
+        this(userPointTable, pointHistoryAppender, userPointCache, maxAttempts, PointMetrics.noop());
+    }
+
+    public OptimisticPointUpdater(UserPointTable userPointTable, PointHistoryAppender pointHistoryAppender, UserPointCache userPointCache, int maxAttempts, PointMetrics pointMetrics) {
+        this.userPointTable = userPointTable;
+        this.pointHistoryAppender = pointHistoryAppender;
+        this.userPointCache = userPointCache;
+        this.maxAttempts = maxAttempts;
+        this.pointMetrics = pointMetrics;
+    }
+
+    @Override
+    public UserPoint update(long userId, PointMutation mutation) {
+        UserPoint userPoint = userPointCache.get(userId, loader);
+        for (int attempt = 1; ; attempt++) {
+            if (userPoint == null) {
+                userPoint = UserPoint.empty(userId);
+            }
+
+            PointChange change = mutation.apply(userPoint);
+            if (change.isNoop(userPoint)) {
+                return userPoint;
+            }
+
+            long start = System.nanoTime();
+            UserPoint updated = userPointTable.compareAndUpdate(userId, userPoint.version(), change.point());
+            pointMetrics.recordUpdate(System.nanoTime() - start);
+            if (updated != null) {
+                userPointCache.put(updated);
+                appendHistory(userId, change, updated.point() - userPoint.point());
+                return updated;
+            }
+
+            // 다른 요청이 먼저 갱신함 : 최신 포인트로 다시 계산
+            conflicts.increment();
+            if (attempt >= maxAttempts) {
+                throw new PointConflictException("동시에 요청이 많아 포인트를 변경하지 못했습니다. 잠시 후 다시 시도해주세요.");
+            }
+            backoff(attempt);
+            userPoint = select(userId);
+        }
+    }
+
+    // 충돌로 재시도한 횟수
+    public long conflictCount() {
+        return conflicts.sum();
+    }
+
+    // 내역 기록이 실패하면 반영한 만큼을 다시 compare-and-set 으로 되돌리고, 원래 예외를 던진다.
+    private void appendHistory(long userId, PointChange change, long delta) {
+        try {
+            pointHistoryAppender.appendAll(change.histories());
+        } catch (RuntimeException e) {
+            compensate(userId, delta, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 되돌리지 못하면 잔액만 바뀌고 내역은 없는 채로 남으므로, 충돌(PointConflictException)이면 MAX_COMPENSATION_ROUNDS 번까지 다시 시도한다.
+     * 그사이 다른 요청이 반영한 포인트를 써서 되돌리면 잔액이 음수가 되는 경우에는 되돌리지 않는다.
+     * 되돌리는 중의 예외는 원래 예외를 가리지 않도록 suppressed 로만 붙인다.
+     */
+    private void compensate(long userId, long delta, RuntimeException cause) {
+        PointMutation rollback = current -> {
+            long point = current.point() - delta;
+            if (point < 0) {
+                throw new IllegalStateException("되돌리면 잔액이 음수가 됩니다. 현재 잔액: " + current.point() + ", 되돌릴 포인트: " + delta);
+            }
+            return new PointChange(point, List.of());
+        };
+        for (int round = 1; ; round++) {
+            try {
+                update(userId, rollback);
+                return;
+            } catch (PointConflictException conflict) {
+                if (round == 1) {
+                    cause.addSuppressed(conflict);
+                }
+                if (round >= MAX_COMPENSATION_ROUNDS) {
+                    log.error("내역 기록 실패 후 잔액을 되돌리지 못했습니다. 정합성 점검으로 확인해주세요. userId={}, delta={}", userId, delta, cause);
+                    return;
+                }
+                backoff(maxAttempts + round);
+            } catch (RuntimeException failure) {
+                cause.addSuppressed(failure);
+                log.error("내역 기록 실패 후 잔액을 되돌리지 못했습니다. 정합성 점검으로 확인해주세요. userId={}, delta={}", userId, delta, cause);
+                return;
+            }
+        }
+    }
+
+    private UserPoint select(long userId) {
+        long start = System.nanoTime();
+        UserPoint userPoint = userPointTable.selectById(userId);
+        pointMetrics.recordSelect(System.nanoTime() - start);
+        return userPoint;
+    }
+
+    private void backoff(int attempt) {
+        if (attempt < 4) {
+            Thread.onSpinWait();
+            return;
+        }
+        LockSupport.parkNanos(Math.min(1_000_000L, 1_000L << Math.min(attempt, 20)));
+    }
+}
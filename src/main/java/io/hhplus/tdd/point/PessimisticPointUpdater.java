@@ -0,0 +1,71 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.UserPointTable;
+
+import java.util.function.LongFunction;
+
+/**
+ * LockManager 의 유저별 lock 으로 read-modify-write 전체를 직렬화하는 전략
+ */
+public class PessimisticPointUpdater implements PointUpdater {
+    private final UserPointTable userPointTable;
+    private final LockManager lockManager;
+    private final PointHistoryAppender pointHistoryAppender;
+    private final UserPointCache userPointCache;
+    private final PointMetrics pointMetrics;
+    // 캐시에 없을 때 table 에서 조회 (호출마다 람다를 만들지 않도록 한 번만 만든다)
+    private final LongFunction<UserPoint> loader = this::select;
+
+    public PessimisticPointUpdater(UserPointTable userPointTable, LockManager lockManager, PointHistoryAppender pointHistoryAppender, UserPointCache userPointCache) {
+        this(userPointTable, lockManager, pointHistoryAppender, userPointCache, PointMetrics.noop());
+    }
+
+    public PessimisticPointUpdater(UserPointTable userPointTable, LockManager lockManager, PointHistoryAppender pointHistoryAppender, UserPointCache userPointCache, PointMetrics pointMetrics) {
+        this.userPointTable = userPointTable;
+        this.lockManager = lockManager;
+        this.pointHistoryAppender = pointHistoryAppender;
+        this.userPointCache = userPointCache;
+        this.pointMetrics = pointMetrics;
+    }
+
+    @Override
+    public UserPoint update(long userId, PointMutation mutation) {
+        lockManager.lock(userId);
+        try {
+            // 기존 포인트 조회
+            UserPoint userPoint = userPointCache.get(userId, loader);
+            if (userPoint == null) {
+                userPoint = UserPoint.empty(userId);
+            }
+
+            PointChange change = mutation.apply(userPoint);
+            if (change.isNoop(userPoint)) {
+                return userPoint;
+            }
+
+            // 포인트 업데이트
+            long start = System.nanoTime();
+            UserPoint updated = userPointTable.insertOrUpdate(userId, change.point());
+            pointMetrics.recordUpdate(System.nanoTime() - start);
+            userPointCache.put(updated);
+
+            // 내역 기록 (대기열에 넣고 바로 반환), 실패하면 잔액을 되돌린다.
+            try {
+                pointHistoryAppender.appendAll(change.histories());
+            } catch (PointHistoryOverflowException e) {
+                userPointCache.put(userPointTable.insertOrUpdate(userId, userPoint.point()));
+                throw e;
+            }
+            return updated;
+        } finally {
+            lockManager.unlock(userId);
+        }
+    }
+
+    private UserPoint select(long userId) {
+        long start = System.nanoTime();
+        UserPoint userPoint = userPointTable.selectById(userId);
+        pointMetrics.recordSelect(System.nanoTime() - start);
+        return userPoint;
+    }
+}
@@ -0,0 +1,87 @@
+package io.hhplus.tdd.point;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 운영자용 기능
+ */
+@RestController
+@RequestMapping("/admin/point")
+public class PointAdminController {
+
+    private static final Logger log = LoggerFactory.getLogger(PointAdminController.class);
+
+    private final PointReconciler pointReconciler;
+    private final PointClusterRouter pointClusterRouter;
+
+    public PointAdminController(PointReconciler pointReconciler, PointClusterRouter pointClusterRouter) {
+        this.pointReconciler = pointReconciler;
+        this.pointClusterRouter = pointClusterRouter;
+    }
+
+    /**
+     * 잔액-내역 정합성 점검을 시작 (이미 실행 중이면 그 진행 상황을 반환)
+     */
+    @PostMapping("/reconciliation")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public PointReconciliationReport startReconciliation() {
+        log.info("Start point reconciliation");
+        return pointReconciler.start();
+    }
+
+    /**
+     * 진행 중이거나 마지막으로 끝난 정합성 점검의 진행률, 처리량, 불일치 유저
+     */
+    @GetMapping("/reconciliation")
+    public PointReconciliationReport reconciliation() {
+        return pointReconciler.latest();
+    }
+
+    /**
+     * 이 node 가 보는 분산 구성과 맡은/받아오는 중인 shard
+     */
+    @GetMapping("/cluster")
+    public PointClusterStatus cluster() {
+        return pointClusterRouter.status();
+    }
+
+    /**
+     * 구성원 변경 (빠지는 node 를 포함해 모든 node 에 같은 목록으로 호출)
+     * - 새로 맡게 된 shard 는 이전 node 에서 백그라운드로 받아온다.
+     */
+    @PutMapping("/cluster/members")
+    public PointClusterStatus changeMembers(
+            @RequestBody List<String> members
+    ) {
+        log.info("Change point cluster members: {}", members);
+        return pointClusterRouter.changeMembers(members);
+    }
+
+    /**
+     * 이전 node 에서 받아오지 못해 503 으로 응답 중인 shard 를 이 node 의 데이터로 처리하기 시작 (이전 node 를 살릴 수 없을 때)
+     * - 이전 node 에만 있던 갱신은 잃는다. 받아오는 중인 shard 는 GET /cluster 의 pending 으로 확인한다.
+     */
+    @PostMapping("/cluster/pending/release")
+    public PointClusterStatus releasePending(
+            @RequestBody List<Integer> shards
+    ) {
+        log.warn("Release {} pending shards", shards.size());
+        return pointClusterRouter.release(shards);
+    }
+
+    /**
+     * 더 이상 맡지 않는 shard 들의 잔액/내역 (새로 맡은 node 가 호출, 아직 구성 변경 전이면 409)
+     */
+    @PostMapping("/cluster/handoff")
+    public PointShardHandoff handoff(
+            @RequestBody List<Integer> shards
+    ) {
+        log.info("Hand off {} shards", shards.size());
+        return pointClusterRouter.handoff(shards);
+    }
+}
@@ -0,0 +1,18 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 특정 시각의 유저 잔액
+ * - at 이하의 시각에 기록된 내역까지 반영한 잔액
+ * - lastHistoryId : 반영한 마지막 내역 id (내역이 없으면 0)
+ */
+public record PointBalance(
+        long userId,
+        long at,
+        long point,
+        long lastHistoryId
+) {
+
+    public static PointBalance empty(long userId, long at) {
+        return new PointBalance(userId, at, 0, 0);
+    }
+}
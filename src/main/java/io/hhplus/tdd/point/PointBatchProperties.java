@@ -0,0 +1,16 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 포인트 일괄 처리 설정
+ * - parallelism : 서로 다른 유저를 동시에 처리할 스레드 수
+ * - maxSize : 요청 한 번에 담을 수 있는 최대 건수, 넘으면 한 건도 처리하지 않고 400 으로 거절한다.
+ */
+@ConfigurationProperties("point.batch")
+public record PointBatchProperties(
+        @DefaultValue("16") int parallelism,
+        @DefaultValue("1000") int maxSize
+) {
+}
@@ -0,0 +1,149 @@
+package io.hhplus.tdd.point;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 여러 유저의 포인트 충전/사용 요청을 한 번에 처리
+ * - 요청을 유저별로 묶어 유저당 한 번만 조회/갱신하고, 내역도 한 번에 기록한다.
+ * - 서로 다른 유저는 병렬로 처리한다.
+ * - 검증 실패는 해당 요청 한 건의 결과로만 남기고 나머지 요청은 계속 처리한다.
+ * - 건당 검증은 단건 충전/사용과 같다. (아이디, 금액 > 0, 잔고) 없는 유저는 단건과 같이 잔액 0 으로 본다.
+ * - 거래 종류는 CHARGE/USE 만 받는다. 이체/소멸처럼 서버만 남기는 종류가 하나라도 있으면 요청 전체를 거절한다. (400)
+ * - 단건과 다른 점 : 잔고 부족도 예외 대신 해당 건의 실패 결과로 남고, Idempotency-Key 는 지원하지 않는다.
+ * - 요청 건수는 point.batch.max-size 까지만 받는다.
+ * - 요청에 들어 있는 유저마다 요청 수 제한(PointRateLimiter)을 확인하고, 한 유저라도 넘으면 요청 전체를 429 로 거절한다.
+ */
+@Service
+public class PointBatchService {
+    private final PointValidator pointValidator;
+    private final PointUpdater pointUpdater;
+    private final PointRateLimiter pointRateLimiter;
+    private final int maxSize;
+    private final ExecutorService executor;
+
+    public PointBatchService(PointValidator pointValidator, PointUpdater pointUpdater, PointRateLimiter pointRateLimiter, PointBatchProperties properties) {
+        this.pointValidator = pointValidator;
+        this.pointUpdater = pointUpdater;
+        this.pointRateLimiter = pointRateLimiter;
+        this.maxSize = properties.maxSize();
+        this.executor = Executors.newFixedThreadPool(properties.parallelism());
+    }
+
+    public List<PointOperationResult> execute(List<PointOperation> operations) {
+        // validation :: 요청 건수 확인 (넘으면 전체를 거절)
+        pointValidator.checkBatchSize(operations.size(), maxSize);
+        // validation :: 거래 종류 확인 (충전/사용이 아닌 요청이 하나라도 있으면 전체를 거절)
+        for (PointOperation operation : operations) {
+            pointValidator.checkTransactionType(operation.type());
+        }
+
+        PointOperationResult[] results = new PointOperationResult[operations.size()];
+
+        // 유저별로 요청 순서를 유지한 채 묶는다.
+        Map<Long, List<Integer>> indexesByUser = new LinkedHashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            PointOperation operation = operations.get(i);
+            try {
+                // validation :: 아이디 확인
+                pointValidator.checkUserId(operation.userId());
+                indexesByUser.computeIfAbsent(operation.userId(), id -> new ArrayList<>()).add(i);
+            } catch (PointValidationException e) {
+                results[i] = PointOperationResult.failure(operation, 0, e.getMessage());
+            }
+        }
+
+        pointRateLimiter.acquire(indexesByUser.keySet());
+        try {
+            CompletableFuture<?>[] futures = indexesByUser.entrySet().stream()
+                    .map(entry -> CompletableFuture.runAsync(() -> executeUser(entry.getKey(), entry.getValue(), operations, results), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).join();
+        } finally {
+            pointRateLimiter.release();
+        }
+
+        return Arrays.asList(results);
+    }
+
+    // 한 유저의 요청들을 순서대로 검증해 잔액을 상계하고, 갱신과 내역 기록은 한 번씩만 한다.
+    private void executeUser(long userId, List<Integer> indexes, List<PointOperation> operations, PointOperationResult[] results) {
+        UserMutation mutation = new UserMutation(userId, indexes, operations);
+        try {
+            pointUpdater.update(userId, mutation);
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = mutation.results[i];
+            }
+        } catch (RuntimeException e) {
+            // 반영 자체가 실패하면 (내역 대기열 초과, 충돌 등) 해당 유저의 요청은 모두 실패로 남긴다.
+            for (int index : indexes) {
+                results[index] = PointOperationResult.failure(operations.get(index), mutation.startPoint, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 한 유저의 요청들을 현재 잔액에 차례로 적용하는 변경
+     * 낙관적 모드에서 다시 호출되면 요청별 결과도 처음부터 다시 계산한다.
+     */
+    private class UserMutation implements PointMutation {
+        private final long userId;
+        private final List<Integer> indexes;
+        private final List<PointOperation> operations;
+        private final PointOperationResult[] results;
+        private long startPoint;
+
+        private UserMutation(long userId, List<Integer> indexes, List<PointOperation> operations) {
+            this.userId = userId;
+            this.indexes = indexes;
+            this.operations = operations;
+            this.results = new PointOperationResult[indexes.size()];
+        }
+
+        @Override
+        public PointChange apply(UserPoint current) {
+            startPoint = current.point();
+            long point = current.point();
+            long now = System.currentTimeMillis();
+            List<PointHistoryEntry> entries = new ArrayList<>();
+            for (int i = 0; i < indexes.size(); i++) {
+                PointOperation operation = operations.get(indexes.get(i));
+                try {
+                    point = PointBatchService.this.apply(point, operation);
+                    entries.add(new PointHistoryEntry(userId, operation.amount(), operation.type(), now));
+                    results[i] = PointOperationResult.success(operation, point);
+                } catch (PointValidationException e) {
+                    results[i] = PointOperationResult.failure(operation, point, e.getMessage());
+                }
+            }
+            return new PointChange(point, entries);
+        }
+    }
+
+    // 거래 종류는 execute 에서 충전/사용만 남긴다.
+    private long apply(long point, PointOperation operation) {
+        if (operation.type() == TransactionType.CHARGE) {
+            // validation :: 충전하려는 포인트가 0보다 커야한다.
+            pointValidator.checkReloadPoint(operation.amount());
+            return point + operation.amount();
+        }
+        // validation :: 사용하려는 포인트가 0보다 커야하고, 잔고가 충분해야 한다. (단건 사용과 같다)
+        pointValidator.checkUseAmount(operation.amount());
+        pointValidator.checkBalance(point, operation.amount());
+        return point - operation.amount();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,22 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 한 유저에게 반영할 변경 결과
+ * - point : 변경 후 잔액
+ * - histories : 변경이 확정되면 기록할 내역 (비어 있고 잔액도 그대로면 반영할 것이 없는 변경)
+ */
+public record PointChange(
+        long point,
+        List<PointHistoryEntry> histories
+) {
+
+    public static PointChange none(UserPoint current) {
+        return new PointChange(current.point(), List.of());
+    }
+
+    public boolean isNoop(UserPoint current) {
+        return histories.isEmpty() && point == current.point();
+    }
+}
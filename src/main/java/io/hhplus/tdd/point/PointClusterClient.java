@@ -0,0 +1,64 @@
+package io.hhplus.tdd.point;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 다른 node 로 요청을 보내는 HTTP client
+ * - node 마다 연결을 재사용한다. (JDK HttpClient 의 connection pool)
+ * - 전달한 요청에는 FORWARDED_HEADER 를 붙여, 받은 node 가 다시 다른 node 로 넘기지 않게 한다.
+ */
+@Component
+public class PointClusterClient {
+
+    public static final String FORWARDED_HEADER = "X-Point-Forwarded";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final PointClusterProperties properties;
+
+    public PointClusterClient(PointClusterProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.forwardTimeout())
+                .build();
+    }
+
+    // 받은 요청을 owner 에게 그대로 보내고 응답을 받는다.
+    public HttpResponse<byte[]> forward(String owner, String method, String pathAndQuery, Map<String, String> headers, byte[] body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(owner + pathAndQuery))
+                .timeout(properties.forwardTimeout())
+                .header(FORWARDED_HEADER, properties.self())
+                .method(method, body.length == 0 ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body));
+        headers.forEach(request::header);
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    // owner 가 더 이상 맡지 않는 shard 들의 잔액/내역을 받아온다. owner 가 아직 구성 변경 전이면(409) null
+    public PointShardHandoff handoff(String owner, List<Integer> shards) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(owner + "/admin/point/cluster/handoff"))
+                .timeout(Duration.ofMinutes(1))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(shards)))
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 409) {
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("shard 를 받아오지 못했습니다. owner=" + owner + ", status=" + response.statusCode());
+        }
+        return objectMapper.readValue(response.body(), PointShardHandoff.class);
+    }
+}
@@ -0,0 +1,33 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 여러 node 로 유저를 나눠 맡는 분산 모드 설정
+ * - enabled : 꺼져 있으면 모든 유저를 이 node 에서 처리한다. (기존 단일 node)
+ * - self : 다른 node 가 이 node 로 요청을 보낼 주소 (예: http://10.0.0.1:8080), members 에 같은 값으로 들어 있어야 한다.
+ * - members : 처음 구성할 node 주소 목록, 운영 중 변경은 관리자 API 로 한다.
+ * - shards / virtualNodes : userId 를 나누는 shard 수(2의 거듭제곱으로 내림)와 node 당 ring 위의 점 수
+ * - forwardTimeout : 다른 node 로 요청을 전달할 때의 응답 대기 시간
+ * - handoffTimeout : 새로 맡은 shard 를 이전 node 에서 짧은 간격으로 다시 요청하는 시간, 지나면 error 로그를 남기고
+ *   긴 간격으로 계속 요청한다. 받아올 때까지(또는 운영자가 풀어 줄 때까지) 해당 유저의 요청은 503 으로 응답한다.
+ */
+@ConfigurationProperties("point.cluster")
+public record PointClusterProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("") String self,
+        @DefaultValue List<String> members,
+        @DefaultValue("256") int shards,
+        @DefaultValue("64") int virtualNodes,
+        @DefaultValue("5s") Duration forwardTimeout,
+        @DefaultValue("30s") Duration handoffTimeout
+) {
+
+    public static PointClusterProperties defaults() {
+        return new PointClusterProperties(false, "", List.of(), 256, 64, Duration.ofSeconds(5), Duration.ofSeconds(30));
+    }
+}
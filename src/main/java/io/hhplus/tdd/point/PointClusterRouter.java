@@ -0,0 +1,290 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryBase;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 분산 모드에서 유저를 맡을 node 를 정하고, 구성원이 바뀌면 shard 를 옮긴다.
+ * - 유저의 잔액, 내역, LockManager 의 lock 은 그 유저의 shard 를 맡은 node 에만 있다.
+ * - 이 node 에서 처리하는 요청은 localLock(read) 을 잡고 처리한다.
+ *   구성 변경은 write lock 을 잡고 ring 을 바꾸므로, 바꾼 뒤에는 옮겨 가는 shard 에 이 node 의 처리 중인 요청이 남지 않는다.
+ * - 새로 맡은 shard 는 이전 node 에서 잔액/내역을 받아올 때까지 pending 으로 두고, 그동안 해당 유저의 요청은 받지 않는다.
+ *   받아오기는 새 node 가 이전 node 에 요청(pull)하고, 이전 node 가 아직 구성 변경 전이면 잠시 후 다시 요청한다.
+ *   handoffTimeout 안에 받아오지 못해도(이전 node 장애) 오래된 데이터로 처리하지 않도록 pending 을 유지하고,
+ *   error 로그를 남긴 뒤 더 긴 간격으로 계속 요청한다. 이전 node 를 살릴 수 없으면 운영자가 release 로 직접 풀어 준다.
+ * - 넘겨준 shard 의 데이터는 이전 node 에 그대로 남는다. 다시 맡게 되면 받아온 데이터 중 더 새로운 것만 합친다.
+ * - 받아온 유저의 포인트 유효기간 묶음(PointLots)은 받아온 합계와 내역으로 다시 쌓아, 옮겨진 뒤에도 소멸한다.
+ * - 받아온 내역은 받을 때 통계(PointStatistics)에 더하지 않는다. 통계와 정합성 점검은 node 별 값이다.
+ *   (journal 에는 남으므로 재시작하면 복구한 내역으로 통계에 더해진다)
+ */
+@Component
+public class PointClusterRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(PointClusterRouter.class);
+    private static final long RETRY_MILLIS = 200;
+    private static final long RETRY_AFTER_DEADLINE_MILLIS = 5_000;
+
+    private final PointClusterProperties properties;
+    private final UserPointTable userPointTable;
+    private final PointHistoryTable pointHistoryTable;
+    private final PointHistoryAppender pointHistoryAppender;
+    private final UserPointCache userPointCache;
+    private final PointLots pointLots;
+    private final PointClusterClient pointClusterClient;
+
+    private final ReentrantReadWriteLock routing = new ReentrantReadWriteLock();
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService handoffs;
+    private volatile PointShardRing ring;
+
+    public PointClusterRouter(PointClusterProperties properties, UserPointTable userPointTable, PointHistoryTable pointHistoryTable, PointHistoryAppender pointHistoryAppender, UserPointCache userPointCache, PointLots pointLots, PointClusterClient pointClusterClient) {
+        this.properties = properties;
+        this.userPointTable = userPointTable;
+        this.pointHistoryTable = pointHistoryTable;
+        this.pointHistoryAppender = pointHistoryAppender;
+        this.userPointCache = userPointCache;
+        this.pointLots = pointLots;
+        this.pointClusterClient = pointClusterClient;
+        this.ring = PointShardRing.of(properties.members(), properties.shards(), properties.virtualNodes());
+        this.handoffs = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-cluster-handoff");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean enabled() {
+        return properties.enabled();
+    }
+
+    // 이 node 에서 요청을 처리하는 동안 잡는 lock (그동안 구성 변경은 기다린다)
+    public Lock localLock() {
+        return routing.readLock();
+    }
+
+    /**
+     * 요청한 유저들을 처리할 곳
+     * - 모두 이 node 가 맡은 유저면 LOCAL, 다른 한 node 가 맡은 유저면 FORWARD, 여러 node 에 걸치면 SPLIT
+     */
+    public Route route(List<Long> userIds) {
+        PointShardRing current = ring;
+        if (!properties.enabled() || current.members().isEmpty()) {
+            return Route.LOCAL;
+        }
+        String owner = null;
+        for (long userId : userIds) {
+            String next = current.ownerOfUser(userId);
+            if (owner != null && !owner.equals(next)) {
+                return Route.SPLIT;
+            }
+            owner = next;
+        }
+        if (owner == null) {
+            return Route.LOCAL;
+        }
+        if (!owner.equals(properties.self())) {
+            return new Route(Route.Kind.FORWARD, owner);
+        }
+        for (long userId : userIds) {
+            if (pending.contains(current.shardOf(userId))) {
+                return Route.MOVING;
+            }
+        }
+        return Route.LOCAL;
+    }
+
+    public PointClusterStatus status() {
+        PointShardRing current = ring;
+        int owned = 0;
+        for (int shard = 0; shard < current.shards(); shard++) {
+            if (properties.self().equals(current.ownerOf(shard))) {
+                owned++;
+            }
+        }
+        return new PointClusterStatus(properties.enabled(), properties.self(), current.members(), current.shards(), owned, pending.stream().sorted().toList());
+    }
+
+    /**
+     * 구성원을 바꾼다. 모든 node(빠지는 node 포함)에 같은 목록으로 호출해야 한다.
+     * 새로 맡게 된 shard 는 이전 node 별로 묶어 백그라운드에서 받아온다.
+     */
+    public PointClusterStatus changeMembers(List<String> members) {
+        Map<String, List<Integer>> gained = new LinkedHashMap<>();
+        routing.writeLock().lock();
+        try {
+            PointShardRing previous = ring;
+            PointShardRing next = PointShardRing.of(members, properties.shards(), properties.virtualNodes());
+            for (int shard = 0; shard < next.shards(); shard++) {
+                String before = previous.ownerOf(shard);
+                String after = next.ownerOf(shard);
+                if (!properties.self().equals(after)) {
+                    pending.remove(shard);
+                } else if (before != null && !before.equals(after)) {
+                    gained.computeIfAbsent(before, owner -> new ArrayList<>()).add(shard);
+                    pending.add(shard);
+                }
+            }
+            ring = next;
+        } finally {
+            routing.writeLock().unlock();
+        }
+
+        log.info("point cluster 구성 변경 : members={}, 받아올 shard={}", members, gained);
+        long deadline = System.currentTimeMillis() + properties.handoffTimeout().toMillis();
+        gained.forEach((owner, shards) -> handoffs.execute(() -> pull(owner, shards, deadline)));
+        return status();
+    }
+
+    /**
+     * 더 이상 맡지 않는 shard 들의 잔액/내역을 내보낸다. (새로 맡은 node 의 요청)
+     * 아직 이 node 가 맡고 있는 shard 가 있으면 PointConflictException (구성 변경이 아직 반영되지 않음)
+     */
+    public PointShardHandoff handoff(List<Integer> shards) {
+        PointShardRing current = ring;
+        BitSet requested = new BitSet(current.shards());
+        for (int shard : shards) {
+            if (properties.self().equals(current.ownerOf(shard))) {
+                throw new PointConflictException("아직 이 node 가 맡고 있는 shard 입니다. 구성 변경 후 다시 요청해주세요.");
+            }
+            requested.set(shard);
+        }
+
+        // 구성 변경 전에 시작된 요청은 ring 을 바꿀 때(write lock) 모두 끝났다. 기록 대기열에 남은 내역만 기다린다.
+        Set<Long> userIds = new HashSet<>();
+        userPointTable.forEach(userPoint -> {
+            if (requested.get(current.shardOf(userPoint.id()))) {
+                userIds.add(userPoint.id());
+            }
+        });
+        pointHistoryTable.forEachUserId(userId -> {
+            if (requested.get(current.shardOf(userId))) {
+                userIds.add(userId);
+            }
+        });
+
+        List<PointShardHandoff.Balance> balances = new ArrayList<>();
+        List<PointHistoryBase> bases = new ArrayList<>();
+        List<PointHistory> histories = new ArrayList<>();
+        for (long userId : userIds) {
+            UserPoint userPoint = userPointTable.findById(userId);
+            if (userPoint != null) {
+                balances.add(PointShardHandoff.Balance.of(userPoint));
+            }
+            pointHistoryAppender.awaitFlushed(userId);
+            PointHistoryBase base = pointHistoryTable.baseOf(userId);
+            if (!base.isEmpty()) {
+                bases.add(base);
+            }
+            histories.addAll(pointHistoryTable.selectAllByUserId(userId));
+        }
+        log.info("shard 를 넘겨줍니다. shards={}, users={}, histories={}", shards.size(), userIds.size(), histories.size());
+        return new PointShardHandoff(shards, balances, bases, histories);
+    }
+
+    /**
+     * 받아오지 못한 shard 를 운영자가 직접 풀어, 이 node 가 가진 데이터로 처리를 시작한다. (이전 node 를 살릴 수 없을 때)
+     * 이전 node 의 데이터 중 이 node 에 없는 갱신은 잃는다.
+     */
+    public PointClusterStatus release(List<Integer> shards) {
+        List<Integer> released = shards.stream().filter(pending::remove).toList();
+        if (!released.isEmpty()) {
+            log.warn("운영자 요청으로 받아오지 못한 shard 를 이 node 의 데이터로 처리합니다. shards={}", released);
+        }
+        return status();
+    }
+
+    // 이전 node 에서 받아와 합친다. 이전 node 가 아직 구성 변경 전이거나 응답이 없으면 받아올 때까지 다시 요청한다.
+    private void pull(String owner, List<Integer> shards, long deadline) {
+        // 그 사이 다른 구성으로 바뀌었거나 운영자가 풀어 준 shard 는 더 받아오지 않는다.
+        List<Integer> remaining = shards.stream().filter(pending::contains).toList();
+        if (remaining.isEmpty()) {
+            return;
+        }
+        try {
+            PointShardHandoff handoff = pointClusterClient.handoff(owner, remaining);
+            if (handoff != null) {
+                merge(handoff);
+                // 소멸 처리는 localLock 을 잡고 MOVING 인 유저의 lot 을 버리므로, lot 을 쌓고 pending 을 푸는 동안은 막는다.
+                routing.writeLock().lock();
+                try {
+                    pointLots.rebuild(handoff.bases() == null ? List.of() : handoff.bases(), handoff.histories());
+                    remaining.forEach(pending::remove);
+                } finally {
+                    routing.writeLock().unlock();
+                }
+                log.info("shard 를 받아왔습니다. owner={}, shards={}, users={}", owner, remaining.size(), handoff.balances().size());
+                return;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("shard 를 받아오지 못해 다시 요청합니다. owner={}", owner, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now < deadline) {
+            handoffs.schedule(() -> pull(owner, remaining, deadline), RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            return;
+        }
+        if (now - RETRY_AFTER_DEADLINE_MILLIS < deadline) {
+            log.error("기한 안에 shard 를 받아오지 못했습니다. 받아올 때까지 해당 유저의 요청은 503 으로 응답합니다. "
+                    + "이전 node 를 살릴 수 없으면 관리자 API 로 풀어 주세요. owner={}, shards={}", owner, remaining);
+        }
+        handoffs.schedule(() -> pull(owner, remaining, deadline), RETRY_AFTER_DEADLINE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // version 이 더 높은 잔액과, 이미 가진 것보다 뒤의 내역만 반영한다. 내역 합계는 내역보다 먼저 넣는다.
+    private void merge(PointShardHandoff handoff) {
+        for (PointShardHandoff.Balance balance : handoff.balances()) {
+            userPointTable.merge(balance.toUserPoint());
+            userPointCache.invalidate(balance.id());
+        }
+        if (handoff.bases() != null) {
+            // 합계를 보내지 않는 이전 버전 node 에서 받아온 경우
+            pointHistoryTable.mergeBase(handoff.bases());
+        }
+        pointHistoryTable.merge(handoff.histories());
+    }
+
+    @PreDestroy
+    public void close() {
+        handoffs.shutdownNow();
+    }
+
+    /**
+     * 요청을 처리할 곳
+     * - LOCAL : 이 node 에서 처리
+     * - MOVING : 이 node 가 맡았지만 아직 이전 node 에서 받아오는 중
+     * - FORWARD : owner 로 전달
+     * - SPLIT : 요청한 유저들이 여러 node 에 걸쳐 있음
+     */
+    public record Route(Kind kind, String owner) {
+        static final Route LOCAL = new Route(Kind.LOCAL, null);
+        static final Route MOVING = new Route(Kind.MOVING, null);
+        static final Route SPLIT = new Route(Kind.SPLIT, null);
+
+        public enum Kind {
+            LOCAL, MOVING, FORWARD, SPLIT
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 이 node 가 보는 분산 구성
+ * - ownedShards : 이 node 가 맡은 shard 수
+ * - pendingShards : 새로 맡았지만 아직 이전 node 에서 잔액/내역을 받아오는 중인 shard (그동안 해당 유저 요청은 503)
+ */
+public record PointClusterStatus(
+        boolean enabled,
+        String self,
+        List<String> members,
+        int shards,
+        int ownedShards,
+        List<Integer> pendingShards
+) {
+}
@@ -0,0 +1,20 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 포인트 변경 동시성 제어 설정
+ * - mode : PESSIMISTIC (유저별 lock) / OPTIMISTIC (version 기반 compare-and-set 재시도)
+ * - maxAttempts : OPTIMISTIC 모드에서 충돌 시 최대 시도 횟수
+ */
+@ConfigurationProperties("point.concurrency")
+public record PointConcurrencyProperties(
+        @DefaultValue("PESSIMISTIC") Mode mode,
+        @DefaultValue("100") int maxAttempts
+) {
+
+    public enum Mode {
+        PESSIMISTIC, OPTIMISTIC
+    }
+}
@@ -0,0 +1,7 @@
+package io.hhplus.tdd.point;
+
+public class PointConflictException extends RuntimeException {
+    public PointConflictException(String message) {
+        super(message);
+    }
+}
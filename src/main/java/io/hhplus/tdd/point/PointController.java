@@ -1,9 +1,13 @@
 package io.hhplus.tdd.point;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Iterator;
 import java.util.List;
 
 @RestController
@@ -11,11 +15,18 @@ import java.util.List;
 public class PointController {
 
     private static final Logger log = LoggerFactory.getLogger(PointController.class);
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
 
     private final PointService pointService;
+    private final PointBatchService pointBatchService;
+    private final PointTransferService pointTransferService;
+    private final ObjectMapper objectMapper;
 
-    public PointController(PointService pointService) {
+    public PointController(PointService pointService, PointBatchService pointBatchService, PointTransferService pointTransferService, ObjectMapper objectMapper) {
         this.pointService = pointService;
+        this.pointBatchService = pointBatchService;
+        this.pointTransferService = pointTransferService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -32,35 +43,163 @@ public class PointController {
     /**
      * 특정 유저의 포인트 충전/이용 내역을 조회
      */
-    @GetMapping("/{id}/histories")
+    @GetMapping(value = "/{id}/histories", produces = MediaType.APPLICATION_JSON_VALUE)
     public List<PointHistory> history(
-            @PathVariable long id
+            @PathVariable long id,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to
     ) {
         log.info("User Point History: {}", id);
-        return pointService.getUserPointHistory(id);
+        PointHistoryQuery query = PointHistoryQuery.of(afterId, from, to, limit);
+        if (query.isAll()) {
+            return pointService.getUserPointHistory(id);
+        }
+        return pointService.getUserPointHistory(id, query);
+    }
+
+    /**
+     * 특정 유저의 포인트 충전/이용 내역을 NDJSON 으로 스트리밍
+     * - format=ndjson 요청일 때만 목록을 만들지 않고 읽는 대로 한 줄씩 내려준다.
+     * - Accept 헤더만으로는 고르지 않는다. (Accept 가 없거나 모든 형식을 받는 요청은 항상 JSON 목록)
+     */
+    @GetMapping(value = "/{id}/histories", params = "format=ndjson", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamHistory(
+            @PathVariable long id,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to
+    ) {
+        log.info("Stream User Point History: {}", id);
+        Iterator<PointHistory> cursor = pointService.iterateUserPointHistory(id, PointHistoryQuery.of(afterId, from, to, limit));
+        return outputStream -> {
+            while (cursor.hasNext()) {
+                outputStream.write(objectMapper.writeValueAsBytes(cursor.next()));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        };
+    }
+
+    /**
+     * 특정 유저의 기간별 충전/사용 합계를 조회
+     */
+    @GetMapping("/{id}/histories/summary")
+    public PointHistorySummary historySummary(
+            @PathVariable long id,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to
+    ) {
+        log.info("User Point History Summary: {}", id);
+        return pointService.summarizeUserPointHistory(id, from, to);
+    }
+
+    /**
+     * 특정 유저의 특정 시각(at, epoch millis) 잔액을 조회
+     * - at 이하의 시각에 기록된 내역까지 반영한다. at 이 없으면 지금 시각
+     */
+    @GetMapping("/{id}/balance")
+    public PointBalance balance(
+            @PathVariable long id,
+            @RequestParam(required = false) Long at
+    ) {
+        log.info("User Point Balance: {} at {}", id, at);
+        return pointService.getUserPointBalanceAt(id, at);
+    }
+
+    /**
+     * 특정 유저의 유효기간별 남은 포인트를 조회
+     * - 소멸 시각이 이른 묶음부터 사용되고, 묶음에 없는 잔액은 소멸하지 않는다.
+     */
+    @GetMapping("/{id}/lots")
+    public List<PointLot> lots(
+            @PathVariable long id
+    ) {
+        log.info("User Point Lots: {}", id);
+        return pointService.getUserPointLots(id);
+    }
+
+    /**
+     * 특정 유저의 누적 충전/사용 합계와 마지막 거래 시각을 조회
+     */
+    @GetMapping("/{id}/statistics")
+    public PointTotals userStatistics(
+            @PathVariable long id
+    ) {
+        log.info("User Point Statistics: {}", id);
+        return pointService.getUserPointStatistics(id);
+    }
+
+    /**
+     * 전체 누적 합계와 시간(HOUR)/일(DAY) 단위 구간별 합계를 조회
+     */
+    @GetMapping("/statistics")
+    public PointStatisticsReport statistics(
+            @RequestParam(defaultValue = "HOUR") PointStatistics.Granularity bucket,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to
+    ) {
+        log.info("Point Statistics: {}", bucket);
+        return pointService.getPointStatistics(bucket, from, to);
     }
 
     /**
      * 특정 유저의 포인트를 충전하는 기능
+     * - Idempotency-Key 헤더가 있으면 같은 key 의 재시도에는 다시 충전하지 않고 처음 결과를 반환한다.
      */
     @PatchMapping("/{id}/charge")
     public UserPoint charge(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
     ) {
         log.info("Charge {} points to user: {}", amount, id);
-        return pointService.chargeUserPoint(id, amount);
+        if (idempotencyKey == null) {
+            return pointService.chargeUserPoint(id, amount);
+        }
+        return pointService.chargeUserPoint(id, amount, idempotencyKey);
     }
 
     /**
      * 특정 유저의 포인트를 사용하는 기능
+     * - Idempotency-Key 헤더가 있으면 같은 key 의 재시도에는 다시 차감하지 않고 처음 결과를 반환한다.
      */
     @PatchMapping("/{id}/use")
     public UserPoint use(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
     ) {
         log.info("Use {} points for user: {}", amount, id);
-        return pointService.useUserPoint(id, amount);
+        if (idempotencyKey == null) {
+            return pointService.useUserPoint(id, amount);
+        }
+        return pointService.useUserPoint(id, amount, idempotencyKey);
+    }
+
+    /**
+     * 여러 유저의 포인트 충전/사용을 한 번에 처리하는 기능
+     * - 요청 한 건의 실패는 해당 결과에만 담기고 나머지 요청은 계속 처리된다.
+     */
+    @PostMapping("/batch")
+    public List<PointOperationResult> batch(
+            @RequestBody List<PointOperation> operations
+    ) {
+        log.info("Batch {} point operations", operations.size());
+        return pointBatchService.execute(operations);
+    }
+
+    /**
+     * 한 유저의 포인트를 다른 유저에게 옮기는 기능
+     * - 보내는 유저 차감과 받는 유저 충전이 함께 반영되거나, 둘 다 반영되지 않는다.
+     */
+    @PostMapping("/transfer")
+    public PointTransferResult transfer(
+            @RequestBody PointTransfer transfer
+    ) {
+        log.info("Transfer {} points from user: {} to user: {}", transfer.amount(), transfer.fromUserId(), transfer.toUserId());
+        return pointTransferService.transfer(transfer.fromUserId(), transfer.toUserId(), transfer.amount());
     }
 }
@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 잔액과 내역 합계가 맞지 않는 유저
+ * - point : 저장된 잔액
+ * - historyAmount : 내역을 잔액 기준으로 더한 값 (충전 - 사용)
+ */
+public record PointDiscrepancy(
+        long userId,
+        long point,
+        long historyAmount
+) {
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 기록이 끝난 포인트 내역 하나를 알리는 변경 이벤트
+ * - sequence : PointEventStream 안에서의 순번 (0 부터 1 씩 증가, 구독자가 이어 읽을 위치)
+ */
+public record PointEvent(
+        long sequence,
+        PointHistory history
+) {
+}
@@ -0,0 +1,126 @@
+package io.hhplus.tdd.point;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PointEventStream 을 SSE 로 내려보내는 구독 관리
+ * - 구독자마다 전용 스레드가 자기 위치에서 이어 읽어 보낸다. 느린 구독자는 자기 스레드만 붙잡고, 기록 경로와 다른 구독자는 기다리지 않는다.
+ * - 이벤트 id 는 "epoch-sequence" 이므로, 끊긴 클라이언트는 Last-Event-ID 의 다음 위치부터 이어 받는다.
+ * - 재시작 전의 id 처럼 이어 받을 수 없는 위치를 요청하면 "reset" 이벤트(data : 새 epoch)를 먼저 보내고 남아 있는 가장 오래된 이벤트부터 보낸다.
+ *   클라이언트는 그사이의 이벤트를 알 수 없으므로 잔액/내역을 다시 조회해야 한다.
+ * - 뒤처져서 덮어쓰인 구간이 있으면 "gap" 이벤트로 건너뛴 수를 먼저 알린다.
+ * - 동시 구독자는 maxSubscribers 까지만 받고, 넘으면 PointRateLimitException (429)
+ */
+@Component
+public class PointEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(PointEventBroadcaster.class);
+
+    private final PointEventStream pointEventStream;
+    private final PointEventProperties properties;
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ExecutorService executor;
+    private volatile boolean running = true;
+
+    public PointEventBroadcaster(PointEventStream pointEventStream, PointEventProperties properties) {
+        this.pointEventStream = pointEventStream;
+        this.properties = properties;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "point-event-subscriber");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 이벤트를 보내는 SSE 연결을 연다.
+     * - from 이 있으면 그 위치부터, lastEventId 가 있으면 그다음 위치부터, 둘 다 없으면 지금 이후의 이벤트만
+     * - 아직 실리지 않은 from 이나 이어 받을 수 없는 lastEventId 는 reset 후 처음부터
+     */
+    public SseEmitter subscribe(Long from, String lastEventId) {
+        if (subscribers.incrementAndGet() > properties.maxSubscribers()) {
+            subscribers.decrementAndGet();
+            throw new PointRateLimitException("구독자가 너무 많습니다. 잠시 후 다시 시도해주세요.", 1000);
+        }
+        SseEmitter emitter = new SseEmitter(properties.timeout().toMillis());
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(e -> open.set(false));
+        long start;
+        if (from != null) {
+            start = from;
+        } else if (lastEventId != null) {
+            start = pointEventStream.after(lastEventId);
+        } else {
+            start = pointEventStream.next();
+        }
+        boolean reset = start < 0 || start > pointEventStream.next();
+        try {
+            executor.execute(() -> stream(emitter, open, reset ? 0 : start, reset));
+        } catch (RuntimeException e) {
+            subscribers.decrementAndGet();
+            throw e;
+        }
+        return emitter;
+    }
+
+    // 지금 연결된 구독자 수
+    public int subscribers() {
+        return subscribers.get();
+    }
+
+    private void stream(SseEmitter emitter, AtomicBoolean open, long from, boolean reset) {
+        List<PointEvent> batch = new ArrayList<>(properties.batchSize());
+        long next = from;
+        try {
+            if (reset) {
+                emitter.send(SseEmitter.event().name("reset").data(pointEventStream.epoch()));
+            }
+            while (running && open.get()) {
+                batch.clear();
+                long read = pointEventStream.read(next, properties.batchSize(), batch::add);
+                if (batch.isEmpty()) {
+                    TimeUnit.MILLISECONDS.sleep(properties.pollInterval().toMillis());
+                    continue;
+                }
+                long skipped = batch.get(0).sequence() - next;
+                if (skipped > 0) {
+                    emitter.send(SseEmitter.event().name("gap").data(skipped));
+                }
+                for (PointEvent event : batch) {
+                    emitter.send(SseEmitter.event().id(pointEventStream.eventId(event.sequence())).name("point").data(event.history()));
+                }
+                next = read;
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트가 끊었거나 이미 닫힌 연결
+            log.debug("point 이벤트 구독이 끊겼습니다. next={}", next, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } finally {
+            subscribers.decrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        executor.shutdownNow();
+    }
+}
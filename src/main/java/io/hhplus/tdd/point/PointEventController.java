@@ -0,0 +1,35 @@
+package io.hhplus.tdd.point;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/point/events")
+public class PointEventController {
+
+    private static final Logger log = LoggerFactory.getLogger(PointEventController.class);
+
+    private final PointEventBroadcaster pointEventBroadcaster;
+
+    public PointEventController(PointEventBroadcaster pointEventBroadcaster) {
+        this.pointEventBroadcaster = pointEventBroadcaster;
+    }
+
+    /**
+     * 포인트 충전/사용/이체 내역이 기록될 때마다 SSE 로 받는 기능
+     * - from 이 있으면 그 위치부터, Last-Event-ID 헤더가 있으면 그다음 위치부터, 둘 다 없으면 지금 이후의 이벤트를 보낸다.
+     * - 분산 모드에서는 이 node 에서 기록된 내역만 보낸다.
+     * - 재시작 전의 Last-Event-ID 처럼 이어 받을 수 없으면 "reset" 이벤트를 먼저 보내고 남아 있는 이벤트를 처음부터 보낸다.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(
+            @RequestParam(required = false) Long from,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        log.info("Subscribe Point Events: from={}, lastEventId={}", from, lastEventId);
+        return pointEventBroadcaster.subscribe(from, lastEventId);
+    }
+}
@@ -0,0 +1,28 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 포인트 변경 이벤트 스트림 설정
+ * - capacity : ring buffer 에 남겨 두는 최근 이벤트 수 (2의 거듭제곱으로 내림, 이벤트 하나에 33 byte)
+ * - batchSize : 구독자가 한 번에 읽어 보내는 최대 이벤트 수
+ * - pollInterval : 새 이벤트가 없을 때 구독자가 다시 확인하기까지 쉬는 시간
+ * - maxSubscribers : 동시에 연결할 수 있는 SSE 구독자 수
+ * - timeout : SSE 연결 유지 시간 (지나면 끊고, 클라이언트는 Last-Event-ID 로 이어 받는다)
+ */
+@ConfigurationProperties("point.events")
+public record PointEventProperties(
+        @DefaultValue("65536") int capacity,
+        @DefaultValue("256") int batchSize,
+        @DefaultValue("50ms") Duration pollInterval,
+        @DefaultValue("32") int maxSubscribers,
+        @DefaultValue("30m") Duration timeout
+) {
+
+    public static PointEventProperties defaults() {
+        return new PointEventProperties(65_536, 256, Duration.ofMillis(50), 32, Duration.ofMinutes(30));
+    }
+}
@@ -0,0 +1,152 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 기록이 끝난 포인트 내역을 순번과 함께 담아 두는 고정 크기 ring buffer (변경 이벤트 스트림)
+ * - 쓰기는 내역 기록 스레드(PointHistoryAppender) 하나만 한다. 미리 만들어 둔 배열에 값을 복사하므로 객체를 만들지 않는다.
+ * - 구독자는 각자 읽을 위치(sequence)를 들고 read 로 이어 읽는다. 쓰기는 구독자를 기다리지 않고,
+ *   capacity 보다 뒤처진 구독자는 덮어쓰인 구간을 건너뛰고 남아 있는 가장 오래된 이벤트부터 받는다.
+ * - 덮어쓰는 중인 칸을 읽지 않도록, 쓰기는 덮어쓸 순번(claimed)을 먼저 알리고 값을 쓴 뒤 cursor 를 올린다.
+ *   읽기는 값을 복사한 뒤 claimed 를 다시 확인해 그사이 덮어쓰였으면 버린다. (seqlock)
+ * - 메모리에만 있으므로 재시작하면 순번이 0 부터 다시 시작한다. 그래서 이벤트 id 는 "epoch-순번" 으로 내려보낸다.
+ *   epoch 은 stream 을 만든 시각이라 재시작 전의 id 는 after 에서 걸러지고, 구독자는 처음부터 다시 받아야 함을 알 수 있다.
+ */
+@Component
+public class PointEventStream {
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final int mask;
+    private final long[] ids;
+    private final long[] userIds;
+    private final long[] amounts;
+    private final long[] updateMillis;
+    private final byte[] types;
+    private final long epoch;
+
+    // 마지막으로 다 쓴 순번과, 쓰는 중인(덮어쓸) 마지막 순번
+    private volatile long cursor = -1;
+    private volatile long claimed = -1;
+
+    public PointEventStream() {
+        this(PointEventProperties.defaults());
+    }
+
+    @Autowired
+    public PointEventStream(PointEventProperties properties) {
+        this(properties, System.currentTimeMillis());
+    }
+
+    PointEventStream(PointEventProperties properties, long epoch) {
+        int capacity = Integer.highestOneBit(Math.max(2, properties.capacity()));
+        this.mask = capacity - 1;
+        this.ids = new long[capacity];
+        this.userIds = new long[capacity];
+        this.amounts = new long[capacity];
+        this.updateMillis = new long[capacity];
+        this.types = new byte[capacity];
+        this.epoch = epoch;
+    }
+
+    /**
+     * 기록된 내역을 순서대로 싣는다. (내역 기록 스레드에서만 호출)
+     */
+    public void publish(List<PointHistory> histories) {
+        if (histories.isEmpty()) {
+            return;
+        }
+        long sequence = cursor;
+        claimed = sequence + histories.size();
+        // 값을 쓰기 전에 claimed 가 먼저 보이도록 한다.
+        VarHandle.storeStoreFence();
+        for (int i = 0; i < histories.size(); i++) {
+            PointHistory history = histories.get(i);
+            int slot = (int) ++sequence & mask;
+            ids[slot] = history.id();
+            userIds[slot] = history.userId();
+            amounts[slot] = history.amount();
+            updateMillis[slot] = history.updateMillis();
+            types[slot] = (byte) history.type().ordinal();
+        }
+        cursor = sequence;
+    }
+
+    /**
+     * from 부터 최대 max 개의 이벤트를 순서대로 consumer 에 넘기고, 다음에 읽을 위치를 반환한다.
+     * - from 이 이미 덮어쓰인 위치면 남아 있는 가장 오래된 이벤트부터 넘긴다. (첫 이벤트의 sequence 로 건너뛴 수를 알 수 있다)
+     * - 아직 없는 위치면 아무것도 넘기지 않고 from 을 그대로 반환한다.
+     */
+    public long read(long from, int max, Consumer<PointEvent> consumer) {
+        long end = cursor;
+        long next = Math.max(from, oldest(end));
+        int count = 0;
+        while (next <= end && count < max) {
+            int slot = (int) next & mask;
+            long id = ids[slot];
+            long userId = userIds[slot];
+            long amount = amounts[slot];
+            long millis = updateMillis[slot];
+            byte type = types[slot];
+            // 복사한 값을 읽은 뒤에 claimed 를 확인한다.
+            VarHandle.loadLoadFence();
+            if (claimed - capacity() >= next) {
+                // 읽는 사이 덮어쓰였다. 아직 남아 있는 위치로 건너뛴다.
+                next = oldest(claimed);
+                continue;
+            }
+            consumer.accept(new PointEvent(next, new PointHistory(id, userId, amount, TYPES[type], millis)));
+            next++;
+            count++;
+        }
+        return next;
+    }
+
+    // 다음에 실릴 이벤트의 순번 (지금부터의 이벤트만 받으려는 구독자의 시작 위치)
+    public long next() {
+        return cursor + 1;
+    }
+
+    // 이 stream 이 만들어진 시각 (재시작마다 달라진다)
+    public long epoch() {
+        return epoch;
+    }
+
+    // 구독자에게 내려보내는 이벤트 id
+    public String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * 이벤트 id 의 다음 위치 (Last-Event-ID 로 이어 받을 위치)
+     * 재시작 전(다른 epoch)의 id 이거나, 형식이 맞지 않거나, 아직 실리지 않은 위치면 -1 (이어 받을 수 없다)
+     */
+    public long after(String eventId) {
+        int separator = eventId.indexOf('-');
+        if (separator <= 0) {
+            return -1;
+        }
+        try {
+            long sequence = Long.parseLong(eventId.substring(separator + 1));
+            if (Long.parseLong(eventId.substring(0, separator)) != epoch || sequence < 0 || sequence >= next()) {
+                return -1;
+            }
+            return sequence + 1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    private long oldest(long last) {
+        return Math.max(0, last - mask);
+    }
+}
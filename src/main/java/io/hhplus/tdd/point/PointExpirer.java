@@ -0,0 +1,146 @@
+package io.hhplus.tdd.point;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 유효기간이 지난 포인트를 주기적으로 소멸시키는 작업
+ * - PointLots 의 소멸 색인에서 시각이 지난 구간을 꺼내, 그 유저들만 batchSize 씩 나눠 parallelism 개 스레드로 처리한다.
+ * - 유저 하나는 PointUpdater 로 일반 사용과 같은 lock / 캐시 / 내역 기록 경로를 거쳐 EXPIRE 내역과 함께 차감하므로,
+ *   lock 은 유저 한 명의 변경 동안만 잡는다.
+ * - 처리에 실패한 유저는 다음 주기에 다시 처리한다.
+ * - 분산 모드에서는 이 node 가 맡은 유저만 소멸시킨다. (요청과 같이 PointClusterRouter 의 localLock 을 잡고 확인한다)
+ *   다른 node 로 넘겨줬거나 아직 받아오는 중인 유저의 lot 은 이 node 의 잔액을 뒷받침하지 않으므로 버린다.
+ *   받아오는 중인 유저의 lot 은 받아온 뒤 router 가 받아온 데이터로 다시 쌓는다.
+ */
+@Component
+public class PointExpirer {
+
+    private static final Logger log = LoggerFactory.getLogger(PointExpirer.class);
+
+    private final PointUpdater pointUpdater;
+    private final PointLots pointLots;
+    private final PointMetrics pointMetrics;
+    private final PointClusterRouter pointClusterRouter;
+    private final PointExpiryProperties properties;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService workers;
+
+    public PointExpirer(PointUpdater pointUpdater, PointLots pointLots, PointMetrics pointMetrics, PointClusterRouter pointClusterRouter, PointExpiryProperties properties) {
+        this.pointUpdater = pointUpdater;
+        this.pointLots = pointLots;
+        this.pointMetrics = pointMetrics;
+        this.pointClusterRouter = pointClusterRouter;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void schedule() {
+        if (!properties.enabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-expiry-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger sequence = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, properties.parallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "point-expiry-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.sweepInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                sweep(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                log.error("포인트 소멸 처리 실패", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * at 까지 소멸 시각이 된 lot 을 가진 유저들의 포인트를 소멸시키고, 처리한 유저 수를 반환한다.
+     */
+    public int sweep(long at) {
+        int users = 0;
+        long[] due;
+        while ((due = pointLots.pollDue(at)) != null) {
+            for (int from = 0; from < due.length; from += Math.max(1, properties.batchSize())) {
+                int to = Math.min(due.length, from + Math.max(1, properties.batchSize()));
+                expireAll(due, from, to, at);
+                users += to - from;
+            }
+        }
+        if (users > 0) {
+            log.info("포인트 소멸 처리 완료. users={}, at={}", users, at);
+        }
+        return users;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void expireAll(long[] userIds, int from, int to, long at) {
+        if (workers == null) {
+            for (int i = from; i < to; i++) {
+                expire(userIds[i], at);
+            }
+            return;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            long userId = userIds[i];
+            tasks.add(() -> {
+                expire(userId, at);
+                return null;
+            });
+        }
+        try {
+            workers.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void expire(long userId, long at) {
+        Lock lock = pointClusterRouter.localLock();
+        lock.lock();
+        try {
+            if (pointClusterRouter.route(List.of(userId)).kind() != PointClusterRouter.Route.Kind.LOCAL) {
+                pointLots.drop(userId);
+                return;
+            }
+            pointUpdater.update(userId, PointMutation.expire(userId, () -> pointLots.expired(userId, at)));
+            pointMetrics.recordSuccess(TransactionType.EXPIRE);
+            pointLots.settle(userId, at);
+        } catch (RuntimeException e) {
+            pointMetrics.recordFailure(TransactionType.EXPIRE, e);
+            log.warn("포인트 소멸 처리 실패, 다음 주기에 다시 처리합니다. userId={}", userId, e);
+            pointLots.reschedule(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
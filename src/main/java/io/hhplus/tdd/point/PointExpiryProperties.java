@@ -0,0 +1,30 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 포인트 유효기간(소멸) 설정
+ * - enabled : 충전한 포인트에 유효기간을 두고 지나면 소멸시킬지 여부
+ * - ttl : 충전 후 유효기간
+ * - resolution : 소멸 시각을 묶는 구간 크기 (소멸은 유효기간이 지난 뒤 최대 resolution + sweepInterval 안에 처리된다)
+ * - sweepInterval : 소멸 대상을 찾는 주기
+ * - batchSize : 한 번에 나눠 처리하는 유저 수
+ * - parallelism : 소멸 처리에 쓰는 스레드 수, API 처리 스레드와 lock 을 나눠 쓰므로 작게 둔다.
+ */
+@ConfigurationProperties("point.expiry")
+public record PointExpiryProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("365d") Duration ttl,
+        @DefaultValue("1m") Duration resolution,
+        @DefaultValue("10s") Duration sweepInterval,
+        @DefaultValue("10000") int batchSize,
+        @DefaultValue("4") int parallelism
+) {
+
+    public static PointExpiryProperties defaults() {
+        return new PointExpiryProperties(false, Duration.ofDays(365), Duration.ofMinutes(1), Duration.ofSeconds(10), 10_000, 4);
+    }
+}
@@ -0,0 +1,210 @@
+package io.hhplus.tdd.point;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 분산 모드에서 유저를 맡은 node 로 요청을 보내는 filter
+ * - /point/{id}/**, /reactive/point/{id}/** 는 path 의 userId 로, /point/transfer 와 /point/batch 는 body 의 userId 로 node 를 정한다.
+ *   body 의 유저들이 여러 node 에 걸쳐 있으면 422 로 거절한다. (node 사이에 걸친 이체/일괄 처리는 지원하지 않는다)
+ * - 이 node 가 맡은 유저면 구성 변경 lock(read) 을 잡은 채 그대로 처리한다.
+ * - 다른 node 가 맡은 유저면 요청을 그대로 전달하고 응답을 돌려준다.
+ *   전달받은 요청은 다시 전달하지 않고 421 로 거절한다. (node 마다 구성 변경이 반영되는 시점이 달라 생기며, 다시 보내면 된다)
+ * - 새로 맡아 이전 node 에서 받아오는 중인 유저는 503 과 Retry-After 로 응답한다.
+ * - 전체 통계, 관리자 API 는 전달하지 않고 각 node 의 값을 돌려준다.
+ * - /reactive/point 요청도 전달하는 동안에는 요청 스레드가 응답을 기다린다.
+ *   이 node 에서 처리할 때는 요청 스레드가 반환할 때까지만 lock 을 잡으므로, 그 뒤에 끝나는 mailbox 처리는 구성 변경과 겹칠 수 있다.
+ */
+@Component
+public class PointForwardingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(PointForwardingFilter.class);
+    private static final Pattern USER_PATH = Pattern.compile("^/(?:reactive/)?point/(\\d{1,18})(?:/.*)?$");
+    private static final List<String> FORWARDED_HEADERS = List.of("Content-Type", "Accept", "Idempotency-Key");
+
+    private final PointClusterRouter pointClusterRouter;
+    private final PointClusterClient pointClusterClient;
+    private final ObjectMapper objectMapper;
+
+    public PointForwardingFilter(PointClusterRouter pointClusterRouter, PointClusterClient pointClusterClient, ObjectMapper objectMapper) {
+        this.pointClusterRouter = pointClusterRouter;
+        this.pointClusterClient = pointClusterClient;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !pointClusterRouter.enabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        HttpServletRequest target = request;
+        byte[] body = null;
+        List<Long> userIds;
+
+        Matcher matcher = USER_PATH.matcher(path);
+        if (matcher.matches()) {
+            userIds = List.of(Long.parseLong(matcher.group(1)));
+        } else if (path.equals("/point/transfer") || path.equals("/point/batch")) {
+            body = request.getInputStream().readAllBytes();
+            target = new CachedBodyRequest(request, body);
+            userIds = userIdsOf(path, body);
+        } else {
+            userIds = List.of();
+        }
+        if (userIds.isEmpty()) {
+            chain.doFilter(target, response);
+            return;
+        }
+
+        PointClusterRouter.Route route;
+        Lock lock = pointClusterRouter.localLock();
+        lock.lock();
+        try {
+            route = pointClusterRouter.route(userIds);
+            if (route.kind() == PointClusterRouter.Route.Kind.LOCAL) {
+                chain.doFilter(target, response);
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        switch (route.kind()) {
+            case MOVING -> {
+                response.setHeader("Retry-After", "1");
+                error(response, 503, "유저 데이터를 옮기는 중입니다. 잠시 후 다시 시도해주세요.");
+            }
+            case SPLIT -> error(response, 422, "서로 다른 node 에 있는 유저들은 한 요청으로 처리할 수 없습니다.");
+            default -> {
+                if (request.getHeader(PointClusterClient.FORWARDED_HEADER) != null) {
+                    error(response, 421, "이 node 가 맡은 유저가 아닙니다. 다시 시도해주세요.");
+                    return;
+                }
+                forward(route.owner(), request, body != null ? body : request.getInputStream().readAllBytes(), response);
+            }
+        }
+    }
+
+    // body 를 읽지 못하면 전달하지 않고 이 node 의 controller 가 오류를 응답하게 한다.
+    private List<Long> userIdsOf(String path, byte[] body) {
+        try {
+            if (path.equals("/point/transfer")) {
+                PointTransfer transfer = objectMapper.readValue(body, PointTransfer.class);
+                return List.of(transfer.fromUserId(), transfer.toUserId());
+            }
+            List<PointOperation> operations = objectMapper.readValue(body, new TypeReference<>() {
+            });
+            return operations.stream().map(PointOperation::userId).distinct().toList();
+        } catch (IOException | RuntimeException e) {
+            return List.of();
+        }
+    }
+
+    private void forward(String owner, HttpServletRequest request, byte[] body, HttpServletResponse response) throws IOException {
+        String pathAndQuery = request.getRequestURI() + (request.getQueryString() == null ? "" : "?" + request.getQueryString());
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : FORWARDED_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        try {
+            HttpResponse<byte[]> forwarded = pointClusterClient.forward(owner, request.getMethod(), pathAndQuery, headers, body);
+            response.setStatus(forwarded.statusCode());
+            forwarded.headers().firstValue("Content-Type").ifPresent(response::setContentType);
+            forwarded.headers().firstValue("Retry-After").ifPresent(value -> response.setHeader("Retry-After", value));
+            response.getOutputStream().write(forwarded.body());
+        } catch (IOException e) {
+            log.warn("요청을 전달하지 못했습니다. owner={}, path={}", owner, pathAndQuery, e);
+            error(response, 502, "유저를 맡은 node 에 요청을 전달하지 못했습니다.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error(response, 502, "유저를 맡은 node 에 요청을 전달하지 못했습니다.");
+        }
+    }
+
+    private void error(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(new ErrorResponse(String.valueOf(status), message)));
+    }
+
+    // body 를 먼저 읽어 유저를 확인한 요청을 controller 가 다시 읽을 수 있게 한다.
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // body 는 이미 메모리에 있으므로 기다릴 것 없이 바로 읽을 수 있다고 알린다.
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 포인트 내역을 요청 스레드 밖에서 모아서 기록하는 write-behind 기록기
+ * - 호출자는 대기열에 넣고 바로 반환하고, 백그라운드 스레드가 여러 요청을 한 번의 insertAll 로 기록한다.
+ * - 한 번에 넣은 내역(append 한 번)은 나뉘지 않고 이어진 id 로 기록된다.
+ * - 유저별 마지막 요청 순번을 기억해 두고, 조회 전에 해당 유저의 내역이 기록될 때까지 기다릴 수 있다.
+ * - 종료 시 대기열에 남은 내역을 모두 기록한다.
+ * - 기록이 끝난 내역만 통계(PointStatistics)에 더하고 변경 이벤트 스트림(PointEventStream)에 싣는다. (종료 이후 바로 기록한 내역은 싣지 않는다)
+ * - 유효기간 lot(PointLots)은 받아들일 때 반영한다. 소멸 처리가 잔액 변경 안에서 lot 을 읽으므로 잔액과 같은 순서로 바뀌어야 하고,
+ *   받아들인 내역은 아래처럼 버리지 않고 기록된다.
+ * - 응답까지 끝난 요청의 내역은 버리지 않는다. 기록에 실패하면 점점 긴 간격으로 성공할 때까지 다시 시도하고,
+ *   maxRetries 번을 넘게 실패하면 error 로그를 남긴다. 그동안 대기열이 차면 새 요청이 대기(BLOCK)하거나 503 으로 실패(REJECT)해
+ *   응답하기 전에 막힌다. (종료 중에만 maxRetries 번 뒤에 버리고 point.history.dropped 로 남긴다)
+ * - 조회 전 대기(awaitFlushed)는 flushTimeoutMillis 까지만 기다리고, 넘으면 503 으로 실패한다. (기록을 다시 시도하는 동안 포함)
+ * - 잔액은 갱신과 함께 journal 에 남지만 내역은 이 기록기가 insertAll 할 때 남는다.
+ *   비정상 종료 시 응답까지 끝난 요청의 내역이 대기열과 함께 사라질 수 있고, 기동 후 정합성 점검이 이를 불일치로 보고한다.
+ */
+@Component
+public class PointHistoryAppender {
+
+    private static final Logger log = LoggerFactory.getLogger(PointHistoryAppender.class);
+    private static final long MAX_RETRY_INTERVAL_MILLIS = 5_000;
+
+    private final PointHistoryTable pointHistoryTable;
+    private final PointHistoryAppenderProperties properties;
+    private final PointMetrics pointMetrics;
+    private final PointStatistics pointStatistics;
+    private final PointEventStream pointEventStream;
+    private final PointLots pointLots;
+    private final BlockingQueue<Pending> queue;
+    private final Thread worker;
+
+    // 대기열 순서와 순번 순서를 맞추기 위해 순번 발급과 적재를 함께 묶는다.
+    private final ReentrantLock putLock = new ReentrantLock();
+    private long lastSequence;
+
+    // 기록이 끝난 마지막 순번과 이를 기다리는 조회 스레드
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Condition flushed = flushLock.newCondition();
+    private volatile long flushedSequence;
+    private final ConcurrentHashMap<Long, Long> lastSequenceByUser = new ConcurrentHashMap<>();
+
+    private volatile boolean running = true;
+
+    public PointHistoryAppender(PointHistoryTable pointHistoryTable, PointHistoryAppenderProperties properties) {
+        this(pointHistoryTable, properties, PointMetrics.noop());
+    }
+
+    public PointHistoryAppender(PointHistoryTable pointHistoryTable, PointHistoryAppenderProperties properties, PointMetrics pointMetrics) {
+        this(pointHistoryTable, properties, pointMetrics, new PointStatistics());
+    }
+
+    public PointHistoryAppender(PointHistoryTable pointHistoryTable, PointHistoryAppenderProperties properties, PointMetrics pointMetrics, PointStatistics pointStatistics) {
+        this(pointHistoryTable, properties, pointMetrics, pointStatistics, new PointEventStream());
+    }
+
+    public PointHistoryAppender(PointHistoryTable pointHistoryTable, PointHistoryAppenderProperties properties, PointMetrics pointMetrics, PointStatistics pointStatistics, PointEventStream pointEventStream) {
+        this(pointHistoryTable, properties, pointMetrics, pointStatistics, pointEventStream, new PointLots());
+    }
+
+    @Autowired
+    public PointHistoryAppender(PointHistoryTable pointHistoryTable, PointHistoryAppenderProperties properties, PointMetrics pointMetrics, PointStatistics pointStatistics, PointEventStream pointEventStream, PointLots pointLots) {
+        this.pointHistoryTable = pointHistoryTable;
+        this.properties = properties;
+        this.pointMetrics = pointMetrics;
+        this.pointStatistics = pointStatistics;
+        this.pointEventStream = pointEventStream;
+        this.pointLots = pointLots;
+        this.queue = new ArrayBlockingQueue<>(properties.capacity());
+        this.worker = new Thread(this::drain, "point-history-appender");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public void append(PointHistoryEntry entry) {
+        appendAll(List.of(entry));
+    }
+
+    public void appendAll(List<PointHistoryEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        putLock.lock();
+        try {
+            if (!running) {
+                // 종료 이후의 요청은 대기열을 거치지 않고 바로 기록한다.
+                pointHistoryTable.insertAll(entries);
+                pointStatistics.record(entries);
+                pointLots.record(entries);
+                return;
+            }
+            Pending pending = new Pending(lastSequence + 1, entries);
+            enqueue(pending);
+            lastSequence = pending.sequence();
+            for (PointHistoryEntry entry : entries) {
+                lastSequenceByUser.put(entry.userId(), pending.sequence());
+                // 그 사이에 이미 기록되었다면 기다릴 것이 없다.
+                if (flushedSequence >= pending.sequence()) {
+                    lastSequenceByUser.remove(entry.userId(), pending.sequence());
+                }
+            }
+        } finally {
+            putLock.unlock();
+        }
+        // 대기열에 들어간 내역은 기록될 때까지 다시 시도하므로 lot 은 이 시점에 반영한다.
+        pointLots.record(entries);
+    }
+
+    /**
+     * 해당 유저가 지금까지 넣은 내역이 모두 기록될 때까지 대기
+     * flushTimeoutMillis 안에 기록되지 않으면 PointHistoryOverflowException(503)
+     */
+    public void awaitFlushed(long userId) {
+        Long sequence = lastSequenceByUser.get(userId);
+        if (sequence != null && flushedSequence < sequence) {
+            await(sequence);
+        }
+    }
+
+    private void await(long sequence) {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(properties.flushTimeoutMillis());
+        flushLock.lock();
+        try {
+            while (flushedSequence < sequence) {
+                if (remaining <= 0) {
+                    throw new PointHistoryOverflowException("포인트 내역 기록이 지연되고 있습니다. 잠시 후 다시 시도해주세요.");
+                }
+                remaining = flushed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PointHistoryOverflowException("포인트 내역 기록 대기 중 중단되었습니다.");
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // 대기 중인 요청 수
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    private void enqueue(Pending pending) {
+        if (properties.overflow() == PointHistoryAppenderProperties.Overflow.REJECT) {
+            if (!queue.offer(pending)) {
+                throw new PointHistoryOverflowException("포인트 내역 기록이 밀려 있습니다. 잠시 후 다시 시도해주세요.");
+            }
+            return;
+        }
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PointHistoryOverflowException("포인트 내역 기록 대기 중 중단되었습니다.");
+        }
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.batchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // 종료 요청 : 남은 대기열을 마저 비운다.
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<PointHistoryEntry> entries = new ArrayList<>();
+        for (Pending pending : batch) {
+            entries.addAll(pending.entries());
+        }
+        long sequence = batch.get(batch.size() - 1).sequence();
+        List<PointHistory> inserted = insert(entries);
+        if (inserted != null) {
+            pointStatistics.record(entries);
+            pointEventStream.publish(inserted);
+        } else {
+            pointMetrics.recordHistoryDropped(entries.size());
+        }
+
+        flushLock.lock();
+        try {
+            flushedSequence = sequence;
+            flushed.signalAll();
+        } finally {
+            flushLock.unlock();
+        }
+        // 기록이 끝난 유저는 더 기다릴 것이 없으므로 정리한다.
+        for (PointHistoryEntry entry : entries) {
+            lastSequenceByUser.computeIfPresent(entry.userId(), (userId, last) -> last <= sequence ? null : last);
+        }
+    }
+
+    // 기록될 때까지 다시 시도한다. 종료 중에만 maxRetries 번 뒤에 포기하고 null
+    private List<PointHistory> insert(List<PointHistoryEntry> entries) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                long start = System.nanoTime();
+                List<PointHistory> inserted = pointHistoryTable.insertAll(entries);
+                pointMetrics.recordHistoryInsert(System.nanoTime() - start);
+                return inserted;
+            } catch (RuntimeException e) {
+                if (attempt >= properties.maxRetries() && !running) {
+                    log.error("종료 중 포인트 내역 기록을 {}번 실패해 버립니다. entries={}", attempt + 1, entries, e);
+                    return null;
+                }
+                if (attempt == properties.maxRetries()) {
+                    log.error("포인트 내역 기록을 {}번 실패했습니다. 기록될 때까지 계속 시도합니다. count={}", attempt + 1, entries.size(), e);
+                } else {
+                    log.warn("포인트 내역 기록 실패, 재시도합니다. count={}, attempt={}", entries.size(), attempt + 1, e);
+                }
+                sleepQuietly(attempt);
+            }
+        }
+    }
+
+    // 100ms 부터 두 배씩, 최대 MAX_RETRY_INTERVAL_MILLIS 까지 쉰다.
+    private void sleepQuietly(int attempt) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(Math.min(MAX_RETRY_INTERVAL_MILLIS, 100L << Math.min(attempt, 10)));
+        } catch (InterruptedException ignored) {
+
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        putLock.lock();
+        try {
+            running = false;
+        } finally {
+            putLock.unlock();
+        }
+        worker.interrupt();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Pending(long sequence, List<PointHistoryEntry> entries) {
+    }
+}
@@ -0,0 +1,26 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 포인트 내역 비동기 기록 설정
+ * - capacity : 기록 대기열에 쌓아둘 수 있는 최대 요청 수
+ * - batchSize : 한 번에 모아서 기록할 최대 요청 수
+ * - overflow : 대기열이 가득 찼을 때의 처리 방식 (BLOCK : 자리가 날 때까지 대기, REJECT : 즉시 실패)
+ * - maxRetries : 이 횟수를 넘게 다시 시도해도 기록하지 못하면 error 로그를 남긴다. (내역은 버리지 않고 기록될 때까지 계속 시도한다, 종료 중에는 이 횟수 뒤에 버린다)
+ * - flushTimeoutMillis : 조회 전에 본인 내역이 기록되기를 기다리는 최대 시간, 넘으면 503 으로 실패한다.
+ */
+@ConfigurationProperties("point.history.appender")
+public record PointHistoryAppenderProperties(
+        @DefaultValue("10000") int capacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("BLOCK") Overflow overflow,
+        @DefaultValue("5") int maxRetries,
+        @DefaultValue("5000") long flushTimeoutMillis
+) {
+
+    public enum Overflow {
+        BLOCK, REJECT
+    }
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 아직 id 가 발급되지 않은, 기록할 포인트 내역
+ */
+public record PointHistoryEntry(
+        long userId,
+        long amount,
+        TransactionType type,
+        long updateMillis
+) {
+}
@@ -0,0 +1,7 @@
+package io.hhplus.tdd.point;
+
+public class PointHistoryOverflowException extends RuntimeException {
+    public PointHistoryOverflowException(String message) {
+        super(message);
+    }
+}
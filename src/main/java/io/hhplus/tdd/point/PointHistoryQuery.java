@@ -0,0 +1,36 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 내역 조회 조건
+ * - afterId : 이 id 보다 큰 내역부터 조회 (cursor)
+ * - from, to : updateMillis 기준 [from, to) 구간
+ * - limit : 최대 조회 건수
+ */
+public record PointHistoryQuery(
+        long afterId,
+        long from,
+        long to,
+        int limit
+) {
+
+    public static PointHistoryQuery all() {
+        return new PointHistoryQuery(0, Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    public static PointHistoryQuery of(Long afterId, Long from, Long to, Integer limit) {
+        return new PointHistoryQuery(
+                afterId == null ? 0 : afterId,
+                from == null ? Long.MIN_VALUE : from,
+                to == null ? Long.MAX_VALUE : to,
+                limit == null ? Integer.MAX_VALUE : limit
+        );
+    }
+
+    public boolean isAll() {
+        return this.equals(all());
+    }
+
+    public boolean contains(long updateMillis) {
+        return updateMillis >= from && updateMillis < to;
+    }
+}
@@ -0,0 +1,19 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 유저의 기간별 충전/사용 합계
+ * - charged, used : 충전/사용한 포인트 합계
+ * - chargeCount, useCount : 충전/사용 건수
+ */
+public record PointHistorySummary(
+        long userId,
+        long charged,
+        long chargeCount,
+        long used,
+        long useCount
+) {
+
+    public static PointHistorySummary empty(long userId) {
+        return new PointHistorySummary(userId, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,327 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 로 들어온 충전/사용의 결과를 보관해, 재시도 요청에는 다시 처리하지 않고 같은 결과를 돌려주는 캐시
+ * - key 는 (userId, 거래 종류, Idempotency-Key) 의 64 bit 해시로만 보관하고,
+ *   유저마다 userId/amount/point/updateMillis 를 long 배열에 40 byte 로 담는다. (key 문자열과 객체를 남기지 않는다)
+ * - 구간(segment)마다 현재/이전 두 세대의 open addressing table 을 두고, ttl 이 지날 때만
+ *   이전 세대를 비워 현재 세대로 쓰고 기존 현재 세대를 이전 세대로 넘긴다. 저장 시각(updateMillis)에서 ttl 이 지난 결과는 돌려주지 않는다.
+ *   ttl 이 지나기 전에 보관 중인 결과를 밀어내지 않으므로, 보관한 결과는 ttl 동안 재시도를 막는다.
+ * - table 은 작게 시작해 채워지는 만큼 두 배씩 늘리고, 구간당 maxEntries / segments 개에서 더 늘지 않는다.
+ *   가득 찬 구간의 새 key 는 처리하지 않고 PointRateLimitException(429, 다음 세대 교체까지를 Retry-After 로) 으로 거절하고
+ *   point.idempotency.rejected 로 남긴다. (보관하지 못한 채 처리해 중복 처리를 허용하지 않는다)
+ * - 조회는 LockManager 와 구간 lock 없이(optimistic) 읽는다. 처리 중인 같은 key 의 요청은 그 결과를 기다린다.
+ * - 같은 key 로 다른 금액을 요청하면 PointIdempotencyConflictException
+ * - 실패한 요청은 보관하지 않으므로 같은 key 로 다시 시도할 수 있다.
+ */
+@Component
+public class PointIdempotencyCache {
+
+    private static final int FIELDS = 5;
+    private static final int FINGERPRINT = 0;
+    private static final int USER_ID = 1;
+    private static final int AMOUNT = 2;
+    private static final int POINT = 3;
+    private static final int UPDATE_MILLIS = 4;
+    private static final int INITIAL_SLOTS = 1024;
+    // 구간 하나의 table 이 배열 하나(int 범위)에 들어가도록 제한
+    private static final int MAX_SEGMENT_ENTRIES = Integer.MAX_VALUE / FIELDS / 4 * 3;
+
+    private final long ttlMillis;
+    private final Segment[] segments;
+    private final PointMetrics pointMetrics;
+    private final ConcurrentHashMap<Long, CompletableFuture<UserPoint>> inFlight = new ConcurrentHashMap<>();
+
+    public PointIdempotencyCache() {
+        this(PointIdempotencyProperties.defaults());
+    }
+
+    public PointIdempotencyCache(PointIdempotencyProperties properties) {
+        this(properties, PointMetrics.noop());
+    }
+
+    @Autowired
+    public PointIdempotencyCache(PointIdempotencyProperties properties, PointMetrics pointMetrics) {
+        this.ttlMillis = properties.ttl().toMillis();
+        this.pointMetrics = pointMetrics;
+        this.segments = new Segment[Integer.highestOneBit(Math.max(1, properties.segments()))];
+        int limit = (int) Math.min(MAX_SEGMENT_ENTRIES, Math.max(12, (long) properties.maxEntries() / segments.length));
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(limit);
+        }
+    }
+
+    /**
+     * 같은 key 로 처리한 결과가 있으면 그 결과를, 없으면 operation 을 한 번만 실행하고 결과를 보관해 반환한다.
+     */
+    public UserPoint execute(long userId, TransactionType type, String idempotencyKey, long amount, Supplier<UserPoint> operation) {
+        CompletableFuture<UserPoint> result = executeAsync(userId, type, idempotencyKey, amount, () -> CompletableFuture.completedFuture(operation.get()));
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * execute 와 같지만 operation 이 결과를 기다리지 않고 future 로 돌려줄 때 쓴다. (요청 스레드를 막지 않는 API 용)
+     * - 처리 중인 같은 key 의 요청도 기다리지 않고 그 결과에 이어 붙인다.
+     * - 실패는 모두 반환한 future 로 전달한다.
+     */
+    public CompletableFuture<UserPoint> executeAsync(long userId, TransactionType type, String idempotencyKey, long amount, Supplier<CompletableFuture<UserPoint>> operation) {
+        long fingerprint = fingerprint(userId, type, idempotencyKey);
+        CompletableFuture<UserPoint> mine = new CompletableFuture<>();
+        Segment segment = segmentOf(fingerprint);
+        boolean reserved = false;
+        try {
+            UserPoint stored = find(fingerprint, userId, amount);
+            if (stored != null) {
+                return CompletableFuture.completedFuture(stored);
+            }
+            CompletableFuture<UserPoint> running = inFlight.putIfAbsent(fingerprint, mine);
+            if (running != null) {
+                return running.thenApply(ignored -> awaited(fingerprint, userId, amount));
+            }
+            // 앞선 요청이 확인과 등록 사이에 끝났을 수 있다.
+            stored = find(fingerprint, userId, amount);
+            if (stored != null) {
+                inFlight.remove(fingerprint, mine);
+                mine.complete(stored);
+                return mine;
+            }
+            // 처리한 결과를 반드시 보관할 수 있도록 자리를 먼저 잡는다.
+            long retryAfterMillis = segment.reserve(ttlMillis);
+            if (retryAfterMillis > 0) {
+                pointMetrics.recordIdempotencyRejected();
+                throw new PointRateLimitException("Idempotency-Key 를 더 보관할 수 없습니다. 잠시 후 다시 시도해주세요.", retryAfterMillis);
+            }
+            reserved = true;
+            operation.get().whenComplete((result, failure) -> {
+                if (failure == null) {
+                    segment.put(new long[]{fingerprint, userId, amount, result.point(), result.updateMillis()});
+                    inFlight.remove(fingerprint, mine);
+                    mine.complete(result);
+                } else {
+                    segment.release();
+                    inFlight.remove(fingerprint, mine);
+                    mine.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+                }
+            });
+            return mine;
+        } catch (RuntimeException e) {
+            if (reserved) {
+                segment.release();
+            }
+            if (inFlight.remove(fingerprint, mine)) {
+                mine.completeExceptionally(e);
+            }
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // 보관 중인 결과 수 (세대 두 개를 합친 값)
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    // 처리 중이던 같은 key 의 요청이 끝난 뒤 보관된 결과
+    private UserPoint awaited(long fingerprint, long userId, long amount) {
+        UserPoint stored = find(fingerprint, userId, amount);
+        if (stored == null) {
+            // 다른 금액으로 처리 중이던 요청
+            throw new PointIdempotencyConflictException("같은 Idempotency-Key 로 다른 요청이 처리되었습니다.");
+        }
+        return stored;
+    }
+
+    private UserPoint find(long fingerprint, long userId, long amount) {
+        long[] found = segmentOf(fingerprint).find(fingerprint);
+        if (found == null || found[USER_ID] != userId || System.currentTimeMillis() - found[UPDATE_MILLIS] > ttlMillis) {
+            return null;
+        }
+        if (found[AMOUNT] != amount) {
+            throw new PointIdempotencyConflictException("같은 Idempotency-Key 로 다른 금액을 요청할 수 없습니다.");
+        }
+        return new UserPoint(userId, found[POINT], found[UPDATE_MILLIS]);
+    }
+
+    private Segment segmentOf(long fingerprint) {
+        return segments[(int) (fingerprint >>> 40) & (segments.length - 1)];
+    }
+
+    // FNV-1a 64 bit 해시에 userId 와 거래 종류를 섞는다. (0 은 빈 칸 표시로 쓰므로 피한다)
+    static long fingerprint(long userId, TransactionType type, String idempotencyKey) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < idempotencyKey.length(); i++) {
+            hash ^= idempotencyKey.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        hash ^= userId * 0x9E3779B97F4A7C15L;
+        hash ^= type.ordinal() + 1;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        // 세대 하나에 보관할 최대 결과 수와, 그때의 table 크기 (빈 칸을 1/4 이상 남긴다)
+        private final int limit;
+        private final int maxSlots;
+        // optimistic 읽기는 validate 로 검증하므로 volatile 이 아니어도 된다.
+        private long[] current;
+        private long[] previous;
+        private int currentSize;
+        private int previousSize;
+        // 자리를 잡고 아직 결과를 넣지 않은 요청 수
+        private int reserved;
+        private long rotatedMillis = System.currentTimeMillis();
+
+        private Segment(int limit) {
+            this.limit = limit;
+            this.maxSlots = (int) Math.min(Integer.MAX_VALUE / FIELDS, (long) limit * 4 / 3 + 1);
+            this.current = new long[Math.min(INITIAL_SLOTS, maxSlots) * FIELDS];
+            this.previous = new long[Math.min(INITIAL_SLOTS, maxSlots) * FIELDS];
+        }
+
+        private long[] find(long fingerprint) {
+            long stamp = lock.tryOptimisticRead();
+            long[] found = find(current, previous, fingerprint);
+            if (lock.validate(stamp)) {
+                return found;
+            }
+            stamp = lock.readLock();
+            try {
+                return find(current, previous, fingerprint);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // 결과 하나를 넣을 자리를 잡는다. 가득 찼으면 다음 세대 교체까지 남은 시간(ms), 잡았으면 0
+        private long reserve(long ttlMillis) {
+            long stamp = lock.writeLock();
+            try {
+                long now = System.currentTimeMillis();
+                if (now - rotatedMillis >= ttlMillis) {
+                    rotate(now);
+                }
+                if (currentSize + reserved >= limit) {
+                    return Math.max(1, rotatedMillis + ttlMillis - now);
+                }
+                reserved++;
+                return 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void release() {
+            long stamp = lock.writeLock();
+            try {
+                reserved--;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        // reserve 로 잡은 자리에 넣는다. (잡은 뒤 세대가 바뀌었으면 새 세대에 넣는다)
+        private void put(long[] entry) {
+            long stamp = lock.writeLock();
+            try {
+                reserved--;
+                int slot = indexOf(current, entry[FINGERPRINT]);
+                if (slot < 0) {
+                    if ((currentSize + 1) * 4L > (long) slotsOf(current) * 3) {
+                        grow();
+                        slot = indexOf(current, entry[FINGERPRINT]);
+                    }
+                    slot = -slot - 1;
+                    currentSize++;
+                }
+                System.arraycopy(entry, 0, current, slot * FIELDS, FIELDS);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int size() {
+            return currentSize + previousSize;
+        }
+
+        // 가장 오래된 세대를 비워 새 세대로 쓴다. (write lock 안에서 호출)
+        private void rotate(long now) {
+            long[] emptied = previous;
+            Arrays.fill(emptied, 0);
+            previous = current;
+            previousSize = currentSize;
+            current = emptied;
+            currentSize = 0;
+            rotatedMillis = now;
+        }
+
+        // 현재 세대 table 을 두 배로 늘려 옮긴다. limit 까지는 빈 칸이 1/4 이상 남는 크기가 된다. (write lock 안에서 호출)
+        private void grow() {
+            int slots = slotsOf(current);
+            if (slots >= maxSlots) {
+                return;
+            }
+            long[] grown = new long[(int) Math.min(maxSlots, (long) slots * 2) * FIELDS];
+            for (int slot = 0; slot < slots; slot++) {
+                long fingerprint = current[slot * FIELDS + FINGERPRINT];
+                if (fingerprint != 0) {
+                    System.arraycopy(current, slot * FIELDS, grown, (-indexOf(grown, fingerprint) - 1) * FIELDS, FIELDS);
+                }
+            }
+            current = grown;
+        }
+
+        private static int slotsOf(long[] table) {
+            return table.length / FIELDS;
+        }
+
+        private long[] find(long[] current, long[] previous, long fingerprint) {
+            int slot = indexOf(current, fingerprint);
+            if (slot >= 0) {
+                return Arrays.copyOfRange(current, slot * FIELDS, slot * FIELDS + FIELDS);
+            }
+            slot = indexOf(previous, fingerprint);
+            if (slot >= 0) {
+                return Arrays.copyOfRange(previous, slot * FIELDS, slot * FIELDS + FIELDS);
+            }
+            return null;
+        }
+
+        // 찾으면 slot 번호, 없으면 -(넣을 빈 칸 번호) - 1 (빈 칸이 항상 1/4 이상 남아 있어 끝난다)
+        private static int indexOf(long[] table, long fingerprint) {
+            // 메모리를 설정한 크기에 맞추려고 2의 거듭제곱으로 올리지 않고 나머지로 자리를 정한다.
+            int slots = slotsOf(table);
+            for (int slot = (int) Long.remainderUnsigned(fingerprint, slots); ; slot = slot + 1 == slots ? 0 : slot + 1) {
+                long stored = table[slot * FIELDS + FINGERPRINT];
+                if (stored == 0) {
+                    return -slot - 1;
+                }
+                if (stored == fingerprint) {
+                    return slot;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package io.hhplus.tdd.point;
+
+public class PointIdempotencyConflictException extends RuntimeException {
+    public PointIdempotencyConflictException(String message) {
+        super(message);
+    }
+}
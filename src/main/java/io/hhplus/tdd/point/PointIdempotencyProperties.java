@@ -0,0 +1,26 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key 중복 요청 캐시 설정
+ * - ttl : 처리 결과를 보관하는 시간, 이 시간 안에 같은 key 로 다시 오면 저장된 결과를 돌려준다.
+ * - maxEntries : ttl 동안 보관할 최대 key 수, ttl 동안 들어오는 Idempotency-Key 요청 수보다 크게 잡는다.
+ *   넘으면 세대가 바뀔 때까지 새 key 를 거절한다. 메모리는 채워진 만큼만 쓰고, 가득 차면 key 하나에 약 53 byte 씩
+ *   세대 두 개라 기본값(200만)에서 최대 약 210MB 를 쓴다.
+ * - segments : 쓰기 경합을 나누는 구간 수
+ */
+@ConfigurationProperties("point.idempotency")
+public record PointIdempotencyProperties(
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("2000000") int maxEntries,
+        @DefaultValue("64") int segments
+) {
+
+    public static PointIdempotencyProperties defaults() {
+        return new PointIdempotencyProperties(Duration.ofHours(24), 2_000_000, 64);
+    }
+}
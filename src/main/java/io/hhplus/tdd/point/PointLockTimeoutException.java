@@ -0,0 +1,7 @@
+package io.hhplus.tdd.point;
+
+public class PointLockTimeoutException extends RuntimeException {
+    public PointLockTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 유효기간이 같은 포인트 묶음
+ * - expiresAt : 소멸 시각 (epoch millis)
+ * - remaining : 아직 쓰지 않은 포인트
+ */
+public record PointLot(
+        long expiresAt,
+        long remaining
+) {
+}
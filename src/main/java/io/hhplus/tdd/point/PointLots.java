@@ -0,0 +1,429 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryBase;
+import io.hhplus.tdd.database.PointJournalRecovery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 유저별로 충전한 포인트를 유효기간 묶음(lot)으로 관리하고, 소멸 시각이 된 유저를 찾아 주는 색인
+ * - 유저마다 lot 을 소멸 시각 기준 min-heap(필드별 long 배열)으로 두고, 사용/보낸 이체/소멸은 가장 먼저 소멸하는 lot 부터 차감한다.
+ *   lot 하나를 다 쓰거나 추가하는 비용은 O(log lots) 이다.
+ * - 받은 이체는 보낸 유저에게서 차감한 lot 의 소멸 시각을 그대로 이어받는다. (이체로 유효기간을 늘릴 수 없다)
+ * - lot 없이 남은 잔액(기능을 켜기 전 충전, 다른 node 에서 옮겨 온 잔액)은 소멸하지 않고 lot 을 다 쓴 뒤에 쓰인다.
+ * - 소멸 시각을 resolution 단위 구간(bucket)으로 묶은 정렬 색인에 유저 id 만 넣는다. 유저마다 가장 이른 lot 의 구간에만 넣으므로
+ *   색인 크기는 lot 수가 아니라 유저 수에 비례하고, 소멸 대상을 찾을 때 전체 유저나 내역을 훑지 않는다.
+ * - 내역이 대기열에 들어가는 시점(PointHistoryAppender)에 반영하므로, 잔액 변경과 같은 순서로 lot 이 바뀐다.
+ *   (OPTIMISTIC 모드에서는 잔액 변경과 lot 반영 사이에 다른 요청이 끼어들 수 있어, 드물게 소멸 직전의 lot 이 먼저 차감될 수 있다)
+ * - 메모리에만 있고, 기동 시 journal 복구(PointJournalRecovery.Listener)에서 archive 합계와 남은 내역으로 다시 쌓는다.
+ *   archive 합계는 하나씩 남아 있지 않으므로 그 마지막 시각에 충전한 lot 하나로 본다. (실제보다 늦게 소멸할 수는 있어도 일찍 소멸하지는 않는다)
+ * - 분산 모드에서 다른 node 로부터 받아온 유저는 받아온 합계와 내역으로 같은 방식으로 다시 쌓는다. (rebuild)
+ */
+@Component
+public class PointLots implements PointJournalRecovery.Listener {
+
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final long resolutionMillis;
+    private final ConcurrentHashMap<Long, Book> books = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+    // 복구 중 바로 앞 내역이 보낸 이체였으면 차감한 lot (복구 스레드에서만 쓴다)
+    private long[] restoring;
+
+    public PointLots() {
+        this(PointExpiryProperties.defaults());
+    }
+
+    @Autowired
+    public PointLots(PointExpiryProperties properties) {
+        this.enabled = properties.enabled();
+        this.ttlMillis = properties.ttl().toMillis();
+        this.resolutionMillis = Math.max(1, properties.resolution().toMillis());
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * 확정된 내역을 lot 에 반영한다.
+     * 한 번에 넣은 내역 안에서 보낸 이체 바로 뒤의 받은 이체는 보낸 쪽에서 차감한 lot 들을 그대로 받는다.
+     */
+    public void record(List<PointHistoryEntry> entries) {
+        if (!enabled) {
+            return;
+        }
+        long[] moved = null;
+        for (PointHistoryEntry entry : entries) {
+            moved = apply(entry.userId(), entry.amount(), entry.type(), entry.updateMillis(), moved);
+        }
+    }
+
+    @Override
+    public void restoreBase(PointHistoryBase base) {
+        if (enabled && base.amount() > 0) {
+            bookOf(base.userId()).add(base.lastMillis() + ttlMillis, base.amount());
+        }
+    }
+
+    @Override
+    public void restore(PointHistory pointHistory) {
+        if (enabled) {
+            restoring = apply(pointHistory.userId(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis(), restoring);
+        }
+    }
+
+    /**
+     * 다른 node 에서 받아온 유저들의 lot 을 받아온 archive 합계와 내역으로 다시 쌓는다. 이 node 에 남아 있던 그 유저들의 lot 은 버린다.
+     * - 내역은 id 순으로 반영해, 보낸 유저도 함께 받아온 이체는 보낸 쪽 lot 의 소멸 시각을 이어받는다.
+     * - 보낸 유저가 함께 오지 않은 받은 이체는 받은 시각에 충전한 lot 으로 본다. (늦게 소멸할 수는 있어도 일찍 소멸하지는 않는다)
+     */
+    public void rebuild(List<PointHistoryBase> bases, List<PointHistory> histories) {
+        if (!enabled) {
+            return;
+        }
+        for (PointHistoryBase base : bases) {
+            drop(base.userId());
+        }
+        for (PointHistory pointHistory : histories) {
+            drop(pointHistory.userId());
+        }
+        for (PointHistoryBase base : bases) {
+            restoreBase(base);
+        }
+        List<PointHistory> ordered = new ArrayList<>(histories);
+        ordered.sort(Comparator.comparingLong(PointHistory::id));
+        long[] moved = null;
+        for (PointHistory pointHistory : ordered) {
+            if (pointHistory.type() == TransactionType.TRANSFER_IN && moved == null) {
+                bookOf(pointHistory.userId()).add(pointHistory.updateMillis() + ttlMillis, pointHistory.amount());
+                continue;
+            }
+            moved = apply(pointHistory.userId(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis(), moved);
+        }
+    }
+
+    // 내역 하나를 lot 에 반영하고, 보낸 이체면 다음 받은 이체에 넘길 lot 을 반환한다.
+    private long[] apply(long userId, long amount, TransactionType type, long updateMillis, long[] moved) {
+        switch (type) {
+            case CHARGE -> bookOf(userId).add(updateMillis + ttlMillis, amount);
+            case USE, EXPIRE -> {
+                Book book = books.get(userId);
+                if (book != null) {
+                    book.consume(amount, null);
+                }
+            }
+            case TRANSFER_OUT -> {
+                Book book = books.get(userId);
+                return book == null ? new long[0] : book.consume(amount, new LotList());
+            }
+            case TRANSFER_IN -> {
+                if (moved != null && moved.length > 0) {
+                    bookOf(userId).addAll(moved);
+                }
+            }
+        }
+        return null;
+    }
+
+    // 유저의 lot 중 at 까지 소멸 시각이 된 포인트 합계
+    public long expired(long userId, long at) {
+        Book book = books.get(userId);
+        return book == null ? 0 : book.expired(at);
+    }
+
+    /**
+     * 소멸 처리를 마친 유저의 남은 만료 lot(잔액으로 뒷받침되지 않는 lot)을 버리고, 다음 소멸 시각에 다시 넣는다.
+     */
+    public void settle(long userId, long at) {
+        Book book = books.get(userId);
+        if (book != null) {
+            book.settle(at);
+        }
+    }
+
+    // 이 node 가 맡지 않는 유저의 lot 을 버린다. (색인에 남은 유저 id 는 꺼낼 때 소멸할 양이 0 이 된다)
+    public void drop(long userId) {
+        books.remove(userId);
+    }
+
+    // 소멸 처리에 실패한 유저를 다음 차례에 다시 처리하도록 넣는다.
+    public void reschedule(long userId) {
+        Book book = books.get(userId);
+        if (book != null) {
+            book.reschedule();
+        }
+    }
+
+    /**
+     * 구간 전체가 at 이전인 가장 이른 구간을 꺼내 그 유저 id 들을 반환한다. 없으면 null
+     */
+    public long[] pollDue(long at) {
+        while (true) {
+            Map.Entry<Long, Bucket> first = buckets.firstEntry();
+            if (first == null || first.getKey() + resolutionMillis > at) {
+                return null;
+            }
+            if (buckets.remove(first.getKey(), first.getValue())) {
+                return first.getValue().close();
+            }
+        }
+    }
+
+    // 유저의 남은 lot (소멸 시각 순)
+    public List<PointLot> lotsOf(long userId) {
+        Book book = books.get(userId);
+        return book == null ? Collections.emptyList() : book.toList();
+    }
+
+    // 소멸 색인에 남아 있는 구간 수
+    public int pendingBuckets() {
+        return buckets.size();
+    }
+
+    private Book bookOf(long userId) {
+        return books.computeIfAbsent(userId, Book::new);
+    }
+
+    private void schedule(long userId, long bucket) {
+        while (!buckets.computeIfAbsent(bucket, key -> new Bucket()).add(userId)) {
+            // 소멸 처리로 막 꺼내진 구간이면 새 구간을 만들어 다시 넣는다.
+            Thread.onSpinWait();
+        }
+    }
+
+    private long bucketOf(long expiresAt) {
+        return expiresAt - Math.floorMod(expiresAt, resolutionMillis);
+    }
+
+    /**
+     * 한 유저의 lot heap (expires 가 가장 이른 lot 이 0번)
+     * - scheduled : 이 유저를 넣어 둔 가장 이른 소멸 구간 (없으면 Long.MAX_VALUE)
+     */
+    private final class Book {
+        private final long userId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] expires = new long[4];
+        private long[] remaining = new long[4];
+        private int size;
+        private long scheduled = Long.MAX_VALUE;
+
+        private Book(long userId) {
+            this.userId = userId;
+        }
+
+        private void add(long expiresAt, long amount) {
+            lock.lock();
+            try {
+                push(expiresAt, amount);
+                scheduleEarliest();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // (expiresAt, amount) 쌍을 이어 붙인 배열
+        private void addAll(long[] lots) {
+            lock.lock();
+            try {
+                for (int i = 0; i < lots.length; i += 2) {
+                    push(lots[i], lots[i + 1]);
+                }
+                scheduleEarliest();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // 가장 먼저 소멸하는 lot 부터 amount 만큼 차감한다. moved 가 있으면 차감한 (expiresAt, amount) 를 모아 반환
+        private long[] consume(long amount, LotList moved) {
+            lock.lock();
+            try {
+                while (amount > 0 && size > 0) {
+                    long taken = Math.min(amount, remaining[0]);
+                    if (moved != null) {
+                        moved.add(expires[0], taken);
+                    }
+                    amount -= taken;
+                    if (taken == remaining[0]) {
+                        pop();
+                    } else {
+                        remaining[0] -= taken;
+                    }
+                }
+                return moved == null ? null : moved.toArray();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long expired(long at) {
+            lock.lock();
+            try {
+                return sumExpired(0, at);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void settle(long at) {
+            lock.lock();
+            try {
+                while (size > 0 && expires[0] <= at) {
+                    pop();
+                }
+                scheduled = Long.MAX_VALUE;
+                scheduleEarliest();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void reschedule() {
+            lock.lock();
+            try {
+                scheduled = Long.MAX_VALUE;
+                scheduleEarliest();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<PointLot> toList() {
+            lock.lock();
+            try {
+                List<PointLot> lots = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    lots.add(new PointLot(expires[i], remaining[i]));
+                }
+                lots.sort((a, b) -> Long.compare(a.expiresAt(), b.expiresAt()));
+                return lots;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // 가장 이른 lot 의 구간이 이미 넣어 둔 구간보다 이르면 색인에 넣는다. (lock 안에서 호출)
+        private void scheduleEarliest() {
+            if (size == 0) {
+                return;
+            }
+            long bucket = bucketOf(expires[0]);
+            if (bucket < scheduled) {
+                scheduled = bucket;
+                schedule(userId, bucket);
+            }
+        }
+
+        // at 이하인 lot 만 따라 내려가며 더한다. (heap 이므로 부모가 at 보다 크면 자식도 크다)
+        private long sumExpired(int index, long at) {
+            if (index >= size || expires[index] > at) {
+                return 0;
+            }
+            return remaining[index] + sumExpired(index * 2 + 1, at) + sumExpired(index * 2 + 2, at);
+        }
+
+        private void push(long expiresAt, long amount) {
+            if (size == expires.length) {
+                expires = Arrays.copyOf(expires, size * 2);
+                remaining = Arrays.copyOf(remaining, size * 2);
+            }
+            int index = size++;
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (expires[parent] <= expiresAt) {
+                    break;
+                }
+                expires[index] = expires[parent];
+                remaining[index] = remaining[parent];
+                index = parent;
+            }
+            expires[index] = expiresAt;
+            remaining[index] = amount;
+        }
+
+        private void pop() {
+            long lastExpires = expires[--size];
+            long lastRemaining = remaining[size];
+            int index = 0;
+            while (index * 2 + 1 < size) {
+                int child = index * 2 + 1;
+                if (child + 1 < size && expires[child + 1] < expires[child]) {
+                    child++;
+                }
+                if (lastExpires <= expires[child]) {
+                    break;
+                }
+                expires[index] = expires[child];
+                remaining[index] = remaining[child];
+                index = child;
+            }
+            if (size > 0) {
+                expires[index] = lastExpires;
+                remaining[index] = lastRemaining;
+            }
+        }
+    }
+
+    // 소멸 시각이 같은 구간에 넣은 유저 id, 꺼낸 뒤(close)에는 더 넣지 않는다.
+    private static final class Bucket {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] userIds = new long[4];
+        private int size;
+        private boolean closed;
+
+        private boolean add(long userId) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                if (size == userIds.length) {
+                    userIds = Arrays.copyOf(userIds, size * 2);
+                }
+                userIds[size++] = userId;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long[] close() {
+            lock.lock();
+            try {
+                closed = true;
+                return Arrays.copyOf(userIds, size);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // 이체로 옮길 (expiresAt, amount) 쌍
+    private static final class LotList {
+        private long[] values = new long[4];
+        private int size;
+
+        private void add(long expiresAt, long amount) {
+            if (size + 2 > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = expiresAt;
+            values[size++] = amount;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package io.hhplus.tdd.point;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 유저별 요청을 모아 한 번의 read-modify-write 로 반영하는 mailbox
+ * - 요청은 유저별 대기열에 쌓이고, 유저마다 한 번에 하나의 작업만 대기열을 처리한다. (lock 을 기다리는 스레드가 없다)
+ * - 대기열에 쌓인 요청은 도착 순서대로 잔액에 적용하고, 잔액 갱신과 내역 기록은 묶음마다 한 번만 한다.
+ * - 검증 실패/잔액 부족은 요청 한 건만 실패시키고, 같은 묶음의 다른 요청은 계속 반영된다.
+ * - 요청마다 자기 요청까지 반영된 잔액으로 future 가 완료된다.
+ * - 유저별 대기열은 capacity 까지만 쌓는다. 가득 차면 새 요청의 future 는 PointRateLimitException(429)으로 바로 실패한다.
+ */
+public class PointMailbox {
+    private static final long REJECT_RETRY_MILLIS = 1_000;
+
+    private final PointUpdater pointUpdater;
+    private final int batchSize;
+    private final int capacity;
+    private final ExecutorService executor;
+    // 대기열이 비면 map 에서 제거한다. 대기열 변경과 제거는 map 의 compute 안에서만 한다.
+    private final ConcurrentHashMap<Long, Queue<Pending>> mailboxes = new ConcurrentHashMap<>();
+
+    public PointMailbox(PointUpdater pointUpdater, PointMailboxProperties properties) {
+        this.pointUpdater = pointUpdater;
+        this.batchSize = Math.max(1, properties.batchSize());
+        this.capacity = Math.max(1, properties.capacity());
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.parallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "point-mailbox-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<UserPoint> submit(long userId, PointMutation mutation) {
+        Pending pending = new Pending(mutation, new CompletableFuture<>());
+        boolean[] first = new boolean[1];
+        boolean[] rejected = new boolean[1];
+        mailboxes.compute(userId, (id, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                first[0] = true;
+            }
+            if (queue.size() >= capacity) {
+                rejected[0] = true;
+                return queue;
+            }
+            queue.add(pending);
+            return queue;
+        });
+        if (rejected[0]) {
+            return CompletableFuture.failedFuture(new PointRateLimitException("요청이 밀려 있습니다. 잠시 후 다시 시도해주세요.", REJECT_RETRY_MILLIS));
+        }
+        // 대기열을 새로 만든 요청만 처리 작업을 등록한다. 이미 있으면 처리 중인 작업이 이어서 가져간다.
+        if (first[0]) {
+            schedule(userId);
+        }
+        return pending.future;
+    }
+
+    public int pendingCount(long userId) {
+        int[] count = new int[1];
+        mailboxes.computeIfPresent(userId, (id, queue) -> {
+            count[0] = queue.size();
+            return queue;
+        });
+        return count[0];
+    }
+
+    private void schedule(long userId) {
+        executor.execute(() -> drain(userId));
+    }
+
+    // 대기열에서 한 묶음을 꺼내 반영하고, 남은 요청이 있으면 다시 등록한다. (한 유저가 스레드를 독점하지 않도록)
+    private void drain(long userId) {
+        List<Pending> batch = new ArrayList<>();
+        mailboxes.computeIfPresent(userId, (id, queue) -> {
+            while (batch.size() < batchSize && !queue.isEmpty()) {
+                batch.add(queue.poll());
+            }
+            return queue;
+        });
+
+        apply(userId, batch);
+
+        boolean[] remaining = new boolean[1];
+        mailboxes.computeIfPresent(userId, (id, queue) -> {
+            remaining[0] = !queue.isEmpty();
+            return remaining[0] ? queue : null;
+        });
+        if (remaining[0]) {
+            schedule(userId);
+        }
+    }
+
+    private void apply(long userId, List<Pending> batch) {
+        CombinedMutation combined = new CombinedMutation(batch);
+        UserPoint updated;
+        try {
+            updated = pointUpdater.update(userId, combined);
+        } catch (RuntimeException e) {
+            // 반영 자체가 실패하면 (내역 대기열 초과, 충돌 등) 묶음의 요청은 모두 실패한다.
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            RuntimeException failure = combined.failures[i];
+            if (failure != null) {
+                batch.get(i).future.completeExceptionally(failure);
+            } else {
+                batch.get(i).future.complete(new UserPoint(userId, combined.points[i], updated.updateMillis(), updated.version()));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+
+    private record Pending(PointMutation mutation, CompletableFuture<UserPoint> future) {
+    }
+
+    /**
+     * 묶음의 요청을 도착 순서대로 적용하는 변경
+     * 낙관적 모드에서 다시 호출되면 요청별 결과도 처음부터 다시 계산한다.
+     */
+    private static final class CombinedMutation implements PointMutation {
+        private final List<Pending> batch;
+        private final long[] points;
+        private final RuntimeException[] failures;
+
+        private CombinedMutation(List<Pending> batch) {
+            this.batch = batch;
+            this.points = new long[batch.size()];
+            this.failures = new RuntimeException[batch.size()];
+        }
+
+        @Override
+        public PointChange apply(UserPoint current) {
+            UserPoint point = current;
+            List<PointHistoryEntry> histories = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    PointChange change = batch.get(i).mutation.apply(point);
+                    point = new UserPoint(current.id(), change.point(), current.updateMillis(), current.version());
+                    histories.addAll(change.histories());
+                    points[i] = change.point();
+                    failures[i] = null;
+                } catch (RuntimeException e) {
+                    points[i] = point.point();
+                    failures[i] = e;
+                }
+            }
+            return new PointChange(point.point(), histories);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 유저별 요청 모아 처리(mailbox) 설정
+ * - enabled : 충전/사용 요청을 유저별 mailbox 에 모아 한 번에 반영할지 여부
+ * - parallelism : mailbox 를 처리하는 스레드 수 (서로 다른 유저는 병렬로 처리)
+ * - batchSize : 한 번의 read-modify-write 로 합쳐 반영할 최대 요청 수
+ * - capacity : 유저 한 명의 대기열에 쌓아둘 수 있는 최대 요청 수, 가득 차면 새 요청은 429 로 바로 실패한다.
+ */
+@ConfigurationProperties("point.mailbox")
+public record PointMailboxProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("16") int parallelism,
+        @DefaultValue("256") int batchSize,
+        @DefaultValue("1024") int capacity
+) {
+}
@@ -0,0 +1,86 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * lock / 캐시 / 내역 대기열 / 요청 수 제한 / 이벤트 스트림 / 소멸 대기 상태를 scrape 시점에 읽어 가는 gauge 와 counter
+ * - 요청 경로에는 아무것도 추가하지 않고, 각 구성요소가 이미 집계하고 있는 값을 그대로 노출한다.
+ */
+@Component
+public class PointMeterBinder implements MeterBinder {
+    private final LockManager lockManager;
+    private final UserPointCache userPointCache;
+    private final PointHistoryAppender pointHistoryAppender;
+    private final PointRateLimiter pointRateLimiter;
+    private final PointEventStream pointEventStream;
+    private final PointEventBroadcaster pointEventBroadcaster;
+    private final PointLots pointLots;
+
+    public PointMeterBinder(LockManager lockManager, UserPointCache userPointCache, PointHistoryAppender pointHistoryAppender, PointRateLimiter pointRateLimiter, PointEventStream pointEventStream, PointEventBroadcaster pointEventBroadcaster, PointLots pointLots) {
+        this.lockManager = lockManager;
+        this.userPointCache = userPointCache;
+        this.pointHistoryAppender = pointHistoryAppender;
+        this.pointRateLimiter = pointRateLimiter;
+        this.pointEventStream = pointEventStream;
+        this.pointEventBroadcaster = pointEventBroadcaster;
+        this.pointLots = pointLots;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("point.lock.active", lockManager, lock -> lock.stats().activeLocks())
+                .description("사용 중인 유저별 lock 수")
+                .register(registry);
+        Gauge.builder("point.lock.queue", lockManager, lock -> lock.stats().queueLength())
+                .description("lock 을 기다리는 스레드 수")
+                .register(registry);
+        Gauge.builder("point.lock.wait.max", lockManager, lock -> lock.stats().maxWaitNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                .description("가장 오래 기다린 lock 대기 시간")
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder("point.lock.wait.total", lockManager, lock -> lock.stats().totalWaitNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                .description("lock 대기 시간 합계")
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder("point.lock.contended", lockManager, lock -> lock.stats().contended())
+                .description("바로 얻지 못하고 기다린 lock 획득 횟수")
+                .register(registry);
+        FunctionCounter.builder("point.lock.timeouts", lockManager, lock -> lock.stats().timeouts())
+                .description("대기 시간 초과로 실패한 lock 획득 횟수")
+                .register(registry);
+
+        FunctionCounter.builder("point.cache.hits", userPointCache, cache -> cache.stats().hits())
+                .register(registry);
+        FunctionCounter.builder("point.cache.misses", userPointCache, cache -> cache.stats().misses())
+                .register(registry);
+        FunctionCounter.builder("point.cache.evictions", userPointCache, cache -> cache.stats().evictions())
+                .register(registry);
+        Gauge.builder("point.cache.size", userPointCache, cache -> cache.stats().size())
+                .register(registry);
+
+        Gauge.builder("point.history.pending", pointHistoryAppender, PointHistoryAppender::pendingCount)
+                .description("기록 대기 중인 내역 묶음 수")
+                .register(registry);
+
+        Gauge.builder("point.rate_limit.in_flight", pointRateLimiter, PointRateLimiter::inFlight)
+                .description("요청 수 제한을 통과해 처리 중인 충전/사용 요청 수")
+                .register(registry);
+
+        FunctionCounter.builder("point.events.published", pointEventStream, PointEventStream::next)
+                .description("변경 이벤트 스트림에 실린 이벤트 수")
+                .register(registry);
+        Gauge.builder("point.events.subscribers", pointEventBroadcaster, PointEventBroadcaster::subscribers)
+                .description("연결된 SSE 구독자 수")
+                .register(registry);
+
+        Gauge.builder("point.expiry.buckets", pointLots, PointLots::pendingBuckets)
+                .description("소멸 대기 중인 시간 구간 수")
+                .register(registry);
+    }
+}
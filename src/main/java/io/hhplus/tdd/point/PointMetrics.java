@@ -0,0 +1,149 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 포인트 처리 구간별 소요 시간과 충전/사용 결과 집계
+ * - 모든 meter 는 생성 시점에 미리 등록해 두고, 호출 경로에서는 nanoTime 차이를 기록만 한다. (호출마다 객체를 만들지 않는다)
+ * - point.stage{stage} : lock_wait / select / update / history_insert 구간별 시간 (histogram)
+ * - point.operations{type, result} : 충전/사용/이체/소멸 처리의 성공과 실패 종류별 건수
+ * - point.history.dropped : 종료 중 재시도 끝에 기록하지 못하고 버린 내역 수
+ * - point.idempotency.rejected : Idempotency-Key 캐시가 가득 차 거절한 요청 수
+ */
+@Component
+public class PointMetrics {
+    private final Timer lockWait;
+    private final Timer select;
+    private final Timer update;
+    private final Timer historyInsert;
+    private final Counter historyDropped;
+    private final Counter idempotencyRejected;
+    private final Outcomes charge;
+    private final Outcomes use;
+    private final Outcomes transfer;
+    private final Outcomes expire;
+
+    public PointMetrics(MeterRegistry registry) {
+        this.lockWait = stage(registry, "lock_wait");
+        this.select = stage(registry, "select");
+        this.update = stage(registry, "update");
+        this.historyInsert = stage(registry, "history_insert");
+        this.historyDropped = Counter.builder("point.history.dropped")
+                .description("기록하지 못하고 버린 포인트 내역 수")
+                .register(registry);
+        this.idempotencyRejected = Counter.builder("point.idempotency.rejected")
+                .description("Idempotency-Key 캐시가 가득 차 거절한 요청 수")
+                .register(registry);
+        this.charge = new Outcomes(registry, "charge");
+        this.use = new Outcomes(registry, "use");
+        this.transfer = new Outcomes(registry, "transfer");
+        this.expire = new Outcomes(registry, "expire");
+    }
+
+    // 등록된 registry 가 없어 아무것도 기록하지 않는 인스턴스 (테스트, 벤치마크용)
+    public static PointMetrics noop() {
+        return new PointMetrics(new CompositeMeterRegistry());
+    }
+
+    public void recordLockWait(long nanos) {
+        lockWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSelect(long nanos) {
+        select.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUpdate(long nanos) {
+        update.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordHistoryInsert(long nanos) {
+        historyInsert.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordHistoryDropped(int count) {
+        historyDropped.increment(count);
+    }
+
+    public void recordIdempotencyRejected() {
+        idempotencyRejected.increment();
+    }
+
+    public void recordSuccess(TransactionType type) {
+        outcomes(type).success.increment();
+    }
+
+    public void recordFailure(TransactionType type, RuntimeException e) {
+        Outcomes outcomes = outcomes(type);
+        if (e instanceof PointValidationException) {
+            outcomes.validation.increment();
+        } else if (e instanceof IllegalStateException) {
+            outcomes.insufficientBalance.increment();
+        } else if (e instanceof PointLockTimeoutException) {
+            outcomes.lockTimeout.increment();
+        } else if (e instanceof PointRateLimitException) {
+            outcomes.rateLimited.increment();
+        } else if (e instanceof PointConflictException) {
+            outcomes.conflict.increment();
+        } else if (e instanceof PointHistoryOverflowException) {
+            outcomes.historyOverflow.increment();
+        } else {
+            outcomes.error.increment();
+        }
+    }
+
+    private Outcomes outcomes(TransactionType type) {
+        return switch (type) {
+            case CHARGE -> charge;
+            case USE -> use;
+            case TRANSFER_OUT, TRANSFER_IN -> transfer;
+            case EXPIRE -> expire;
+        };
+    }
+
+    private static Timer stage(MeterRegistry registry, String stage) {
+        return Timer.builder("point.stage")
+                .description("포인트 처리 구간별 소요 시간")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(2))
+                .register(registry);
+    }
+
+    private static final class Outcomes {
+        private final Counter success;
+        private final Counter validation;
+        private final Counter insufficientBalance;
+        private final Counter lockTimeout;
+        private final Counter rateLimited;
+        private final Counter conflict;
+        private final Counter historyOverflow;
+        private final Counter error;
+
+        private Outcomes(MeterRegistry registry, String type) {
+            this.success = counter(registry, type, "success");
+            this.validation = counter(registry, type, "validation");
+            this.insufficientBalance = counter(registry, type, "insufficient_balance");
+            this.lockTimeout = counter(registry, type, "lock_timeout");
+            this.rateLimited = counter(registry, type, "rate_limited");
+            this.conflict = counter(registry, type, "conflict");
+            this.historyOverflow = counter(registry, type, "history_overflow");
+            this.error = counter(registry, type, "error");
+        }
+
+        private static Counter counter(MeterRegistry registry, String type, String result) {
+            return Counter.builder("point.operations")
+                    .description("포인트 충전/사용/이체/소멸 결과별 건수")
+                    .tag("type", type)
+                    .tag("result", result)
+                    .register(registry);
+        }
+    }
+}
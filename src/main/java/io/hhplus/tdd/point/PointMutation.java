@@ -0,0 +1,55 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * 현재 포인트를 보고 반영할 변경을 계산하는 read-modify-write 의 modify 단계
+ * - 적용할 수 없으면 예외를 던진다.
+ * - 낙관적 모드에서는 충돌 시 최신 포인트로 다시 호출되므로 부수효과가 없어야 한다.
+ */
+@FunctionalInterface
+public interface PointMutation {
+
+    PointChange apply(UserPoint current);
+
+    // 포인트 충전
+    static PointMutation charge(long userId, long amount) {
+        return current -> new PointChange(
+                current.point() + amount,
+                List.of(new PointHistoryEntry(userId, amount, TransactionType.CHARGE, System.currentTimeMillis()))
+        );
+    }
+
+    // 유효기간이 지난 포인트 소멸 (소멸할 양은 적용 시점에 계산하고, 잔액보다 많이 빼지 않는다)
+    // 내역 시각은 소멸 처리 주기의 기준 시각이 아니라 반영하는 시각으로 남겨, 그사이의 충전/사용과 시간 순서가 어긋나지 않게 한다.
+    static PointMutation expire(long userId, LongSupplier expired) {
+        return current -> {
+            long amount = Math.min(expired.getAsLong(), current.point());
+            if (amount <= 0) {
+                return PointChange.none(current);
+            }
+            return new PointChange(
+                    current.point() - amount,
+                    List.of(new PointHistoryEntry(userId, amount, TransactionType.EXPIRE, System.currentTimeMillis()))
+            );
+        };
+    }
+
+    // 포인트 사용 (잔액이 부족하면 실패)
+    static PointMutation use(long userId, long amount) {
+        return current -> {
+            // 포인트 차감
+            long addPoint = current.point() - amount;
+
+            // 포인트가 부족하면 예외 처리
+            if (addPoint < 0) {
+                throw new IllegalStateException("포인트가 부족합니다. 현재 잔액: " + current.point());
+            }
+            return new PointChange(
+                    addPoint,
+                    List.of(new PointHistoryEntry(userId, amount, TransactionType.USE, System.currentTimeMillis()))
+            );
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 일괄 처리 요청 한 건의 처리 결과
+ * - 성공 시 point 는 해당 요청까지 반영된 잔액
+ * - 실패 시 message 에 실패 사유를 담고, point 는 그 시점의 잔액
+ */
+public record PointOperationResult(
+        long userId,
+        TransactionType type,
+        long amount,
+        boolean success,
+        long point,
+        String message
+) {
+
+    public static PointOperationResult success(PointOperation operation, long point) {
+        return new PointOperationResult(operation.userId(), operation.type(), operation.amount(), true, point, null);
+    }
+
+    public static PointOperationResult failure(PointOperation operation, long point, String message) {
+        return new PointOperationResult(operation.userId(), operation.type(), operation.amount(), false, point, message);
+    }
+}
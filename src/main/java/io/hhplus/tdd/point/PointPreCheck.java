@@ -0,0 +1,69 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 충전/사용 요청이 반영되기 전에 공통으로 거치는 확인 (PointService 와 ReactivePointService 가 함께 쓴다)
+ * - validate : 아이디와 거래 종류별 금액 확인
+ * - limit : 요청 수 제한(PointRateLimiter)을 통과한 요청만 반영하고, 반영이 끝나면 동시 처리 수를 돌려준다.
+ * - idempotent : Idempotency-Key 의 처리 결과가 있으면 그 결과를 돌려주고, 없으면 한 번만 반영한다.
+ * - 이름에 Async 가 붙은 것은 반영 결과를 기다리지 않고 future 로 이어 붙인다.
+ */
+final class PointPreCheck {
+    private final PointValidator pointValidator;
+    private final PointRateLimiter pointRateLimiter;
+    private final PointIdempotencyCache pointIdempotencyCache;
+
+    PointPreCheck(PointValidator pointValidator, PointRateLimiter pointRateLimiter, PointIdempotencyCache pointIdempotencyCache) {
+        this.pointValidator = pointValidator;
+        this.pointRateLimiter = pointRateLimiter;
+        this.pointIdempotencyCache = pointIdempotencyCache;
+    }
+
+    void validate(long userId, TransactionType type, long amount) {
+        // validation :: 아이디, 거래 종류(충전/사용) 확인, 충전/사용하려는 포인트가 0보다 커야한다.
+        pointValidator.checkUserId(userId);
+        pointValidator.checkTransactionType(type);
+        if (type == TransactionType.CHARGE) {
+            pointValidator.checkReloadPoint(amount);
+        } else {
+            pointValidator.checkUseAmount(amount);
+        }
+    }
+
+    UserPoint limit(long userId, Supplier<UserPoint> operation) {
+        pointRateLimiter.acquire(userId);
+        try {
+            return operation.get();
+        } finally {
+            pointRateLimiter.release();
+        }
+    }
+
+    CompletableFuture<UserPoint> limitAsync(long userId, Supplier<CompletableFuture<UserPoint>> operation) {
+        pointRateLimiter.acquire(userId);
+        CompletableFuture<UserPoint> result;
+        try {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            pointRateLimiter.release();
+            throw e;
+        }
+        return result.whenComplete((userPoint, failure) -> pointRateLimiter.release());
+    }
+
+    UserPoint idempotent(long userId, TransactionType type, String idempotencyKey, long amount, Supplier<UserPoint> operation) {
+        // validation :: key 길이 확인
+        pointValidator.checkIdempotencyKey(idempotencyKey);
+
+        return pointIdempotencyCache.execute(userId, type, idempotencyKey, amount, operation);
+    }
+
+    CompletableFuture<UserPoint> idempotentAsync(long userId, TransactionType type, String idempotencyKey, long amount, Supplier<CompletableFuture<UserPoint>> operation) {
+        // validation :: key 길이 확인
+        pointValidator.checkIdempotencyKey(idempotencyKey);
+
+        return pointIdempotencyCache.executeAsync(userId, type, idempotencyKey, amount, operation);
+    }
+}
@@ -0,0 +1,15 @@
+package io.hhplus.tdd.point;
+
+public class PointRateLimitException extends RuntimeException {
+    private final long retryAfterMillis;
+
+    public PointRateLimitException(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    // Retry-After 헤더 값 (초 단위, 올림)
+    public long retryAfterSeconds() {
+        return Math.max(1, (retryAfterMillis + 999) / 1000);
+    }
+}
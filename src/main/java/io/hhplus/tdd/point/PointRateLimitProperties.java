@@ -0,0 +1,26 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 충전/사용 요청 수 제한 설정
+ * - enabled : 제한 사용 여부
+ * - userRate : 유저별로 초당 허용하는 요청 수
+ * - userBurst : 유저별로 한 번에 몰려도 허용하는 요청 수
+ * - maxConcurrent : 전체에서 동시에 처리하는 충전/사용 요청 수 (0 이하면 제한하지 않음)
+ * - slots : 유저별 상태를 담는 칸 수 (2의 거듭제곱으로 내림, 칸 하나에 8 byte)
+ */
+@ConfigurationProperties("point.rate-limit")
+public record PointRateLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("50") int userRate,
+        @DefaultValue("100") int userBurst,
+        @DefaultValue("150") int maxConcurrent,
+        @DefaultValue("65536") int slots
+) {
+
+    public static PointRateLimitProperties defaults() {
+        return new PointRateLimitProperties(false, 50, 100, 150, 65_536);
+    }
+}
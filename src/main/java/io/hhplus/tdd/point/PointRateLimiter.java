@@ -0,0 +1,173 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 충전/사용/이체/일괄 처리 요청을 lock 을 기다리기 전에 걸러내는 제한
+ * - 유저별 token bucket : 초당 userRate 개씩 채워지고 최대 userBurst 개까지 쌓인다.
+ *   상태는 "다음 요청을 공짜로 받을 수 있는 시각" 하나로 표현하고(GCRA), 유저 해시(20 bit)와 함께 long 하나에 담아
+ *   AtomicLongArray 의 칸에 compare-and-set 으로 갱신한다. (lock 과 유저별 객체가 없다)
+ * - 유저는 해시로 칸을 정하고 이웃한 PROBES 칸 안에서 자기 칸이나 비어 있는(다 채워진) 칸을 쓴다.
+ *   모두 다른 유저가 쓰고 있으면 첫 칸을 함께 쓴다. (칸이 부족할 때는 더 엄격하게 제한된다)
+ * - 전체 동시 처리 수 : maxConcurrent 를 넘으면 기다리지 않고 거절한다.
+ * - 거절하면 PointRateLimitException (429, Retry-After)
+ * - point.rate_limit{result} : admitted / user_limited / concurrency_limited 건수
+ */
+@Component
+public class PointRateLimiter {
+
+    // 1 tick = 1/16 ms, 시각은 44 bit (약 34년) 에 담는다.
+    private static final long TICKS_PER_SECOND = 16_000;
+    private static final long NANOS_PER_TICK = 1_000_000_000L / TICKS_PER_SECOND;
+    private static final int TIME_BITS = 44;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final int PROBES = 4;
+
+    private final boolean enabled;
+    private final long intervalTicks;
+    private final long burstTicks;
+    private final int maxConcurrent;
+    private final AtomicLongArray slots;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+
+    private final Counter admitted;
+    private final Counter userLimited;
+    private final Counter concurrencyLimited;
+
+    public PointRateLimiter() {
+        this(PointRateLimitProperties.defaults(), new CompositeMeterRegistry());
+    }
+
+    @Autowired
+    public PointRateLimiter(PointRateLimitProperties properties, MeterRegistry registry) {
+        this.enabled = properties.enabled();
+        this.intervalTicks = Math.max(1, TICKS_PER_SECOND / Math.max(1, properties.userRate()));
+        this.burstTicks = intervalTicks * (Math.max(1, properties.userBurst()) - 1);
+        this.maxConcurrent = properties.maxConcurrent();
+        this.slots = new AtomicLongArray(Integer.highestOneBit(Math.max(PROBES, properties.slots())));
+        this.admitted = counter(registry, "admitted");
+        this.userLimited = counter(registry, "user_limited");
+        this.concurrencyLimited = counter(registry, "concurrency_limited");
+    }
+
+    /**
+     * 유저별 요청 수와 전체 동시 처리 수를 확인한다. 통과하면 처리가 끝난 뒤 release() 를 호출해야 한다.
+     */
+    public void acquire(long userId) {
+        if (!enabled) {
+            return;
+        }
+        takeOrThrow(userId);
+        enter();
+    }
+
+    /**
+     * 여러 유저를 한 번에 반영하는 요청(일괄 처리)의 확인
+     * - 유저마다 요청 수를 확인하고, 한 유저라도 넘으면 요청 전체를 거절한다. (이미 꺼낸 다른 유저의 토큰은 돌려주지 않는다)
+     * - 전체 동시 처리 수는 요청 하나로 센다. 통과하면 처리가 끝난 뒤 release() 를 한 번 호출해야 한다.
+     */
+    public void acquire(Collection<Long> userIds) {
+        if (!enabled) {
+            return;
+        }
+        for (long userId : userIds) {
+            takeOrThrow(userId);
+        }
+        enter();
+    }
+
+    public void release() {
+        if (enabled && maxConcurrent > 0) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // 지금 처리 중인 충전/사용 요청 수
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void takeOrThrow(long userId) {
+        long waitTicks = take(userId);
+        if (waitTicks > 0) {
+            userLimited.increment();
+            throw new PointRateLimitException("요청이 너무 많습니다. 잠시 후 다시 시도해주세요.", waitTicks * NANOS_PER_TICK / 1_000_000 + 1);
+        }
+    }
+
+    private void enter() {
+        if (maxConcurrent > 0 && inFlight.incrementAndGet() > maxConcurrent) {
+            inFlight.decrementAndGet();
+            concurrencyLimited.increment();
+            throw new PointRateLimitException("처리 중인 요청이 너무 많습니다. 잠시 후 다시 시도해주세요.", 1000);
+        }
+        admitted.increment();
+    }
+
+    // 토큰을 하나 꺼낸다. 꺼냈으면 0, 없으면 다음 토큰까지 남은 tick
+    private long take(long userId) {
+        long hash = mix(userId);
+        int home = (int) hash & (slots.length() - 1);
+        long tag = (hash >>> TIME_BITS) | 1;
+        while (true) {
+            long now = now();
+            int slot = -1;
+            long state = 0;
+            for (int i = 0; i < PROBES; i++) {
+                int probe = (home + i) & (slots.length() - 1);
+                long value = slots.get(probe);
+                if (value != 0 && value >>> TIME_BITS == tag) {
+                    slot = probe;
+                    state = value;
+                    break;
+                }
+                if (slot < 0 && (value == 0 || (value & TIME_MASK) <= now)) {
+                    // 비었거나 다른 유저의 bucket 이 다 채워진 칸은 새로 쓴다.
+                    slot = probe;
+                    state = value;
+                }
+            }
+            long owner = tag;
+            if (slot < 0) {
+                slot = home;
+                state = slots.get(home);
+                owner = state >>> TIME_BITS;
+            }
+
+            long arrival = state >>> TIME_BITS == owner ? Math.max(state & TIME_MASK, now) : now;
+            if (arrival - now > burstTicks) {
+                return arrival - now - burstTicks;
+            }
+            if (slots.compareAndSet(slot, state, owner << TIME_BITS | (arrival + intervalTicks) & TIME_MASK)) {
+                return 0;
+            }
+        }
+    }
+
+    private long now() {
+        return (System.nanoTime() - startNanos) / NANOS_PER_TICK + 1;
+    }
+
+    private static long mix(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        hash *= 0xFF51AFD7ED558CCDL;
+        return hash ^ (hash >>> 29);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("point.rate_limit")
+                .description("충전/사용 요청 수 제한 결과별 건수")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,272 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 유저별 잔액이 내역의 합계(충전 - 사용)와 같은지 점검하는 작업
+ * - 내역 합계는 archive 로 옮긴 내역의 유저별 합계(PointHistoryBase)에 남은 내역을 더한 값이다.
+ *   목록에서 빠진 오래된 내역 때문에 재시작 후 모든 유저가 불일치로 보이지 않는다.
+ * - 잔액이나 내역이 있는 유저 id 를 모은 뒤 구간으로 나눠 fork-join 으로 점검한다.
+ * - 잔액과 내역은 지연 없는 조회(findById / sumAmountByUserId)로 읽고, 내역은 유저마다 column 을 한 번만 훑는다.
+ * - 점검 중에도 요청은 계속 처리되므로, 잔액 version 이 그대로인 동안 읽은 값만 비교하고
+ *   맞지 않으면 기록 대기 중인 내역을 기다린 뒤 몇 번 더 확인해서 계속 다를 때만 불일치로 남긴다.
+ * - API 지연에 영향을 주지 않도록 적은 스레드로, 초당 maxUsersPerSecond 명까지만 점검한다.
+ * - 한 번에 하나만 실행되고, 진행 상황은 latest() 로 언제든 조회한다.
+ */
+@Component
+public class PointReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(PointReconciler.class);
+
+    private static final int LEAF_SIZE = 1024;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final UserPointTable userPointTable;
+    private final PointHistoryTable pointHistoryTable;
+    private final PointHistoryAppender pointHistoryAppender;
+    private final PointReconciliationProperties properties;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "point-reconciliation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledExecutorService scheduler;
+    private volatile Run current;
+
+    public PointReconciler(UserPointTable userPointTable, PointHistoryTable pointHistoryTable, PointHistoryAppender pointHistoryAppender, PointReconciliationProperties properties) {
+        this.userPointTable = userPointTable;
+        this.pointHistoryTable = pointHistoryTable;
+        this.pointHistoryAppender = pointHistoryAppender;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void schedule() {
+        if (!properties.enabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-reconciliation-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.interval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::start, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // journal 복구까지 끝나고 요청을 받기 시작한 뒤 한 번 점검한다.
+    @EventListener(ApplicationReadyEvent.class)
+    public void startAfterRecovery() {
+        if (properties.onStartup()) {
+            start();
+        }
+    }
+
+    // 점검을 시작하고 진행 상황을 반환 (이미 실행 중이면 그 진행 상황)
+    public synchronized PointReconciliationReport start() {
+        Run running = current;
+        if (running != null && running.state == PointReconciliationReport.State.RUNNING) {
+            return running.report();
+        }
+        Run run = new Run();
+        current = run;
+        runner.execute(() -> execute(run));
+        return run.report();
+    }
+
+    // 진행 중이거나 마지막으로 끝난 점검
+    public PointReconciliationReport latest() {
+        Run run = current;
+        return run == null ? PointReconciliationReport.idle() : run.report();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        runner.shutdownNow();
+    }
+
+    private void execute(Run run) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, properties.parallelism()));
+        try {
+            long[] userIds = collectUserIds();
+            run.totalUsers = userIds.length;
+            pool.invoke(new Partition(run, userIds, 0, userIds.length));
+            run.finish(PointReconciliationReport.State.COMPLETED);
+            PointReconciliationReport report = run.report();
+            log.info("정합성 점검 완료. users={}, discrepancies={}, {}/s", report.checkedUsers(), report.discrepancyCount(), Math.round(report.usersPerSecond()));
+        } catch (RuntimeException e) {
+            run.finish(PointReconciliationReport.State.FAILED);
+            log.error("정합성 점검 실패", e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // 잔액이나 내역이 있는 유저 id (정렬, 중복 제거)
+    private long[] collectUserIds() {
+        LongList ids = new LongList(Math.max(16, userPointTable.size() * 2));
+        userPointTable.forEach(userPoint -> ids.add(userPoint.id()));
+        pointHistoryTable.forEachUserId(ids::add);
+        long[] sorted = ids.toArray();
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, unique);
+    }
+
+    private void check(Run run, long userId) {
+        long point = 0;
+        long historyAmount = 0;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            UserPoint before = userPointTable.findById(userId);
+            historyAmount = pointHistoryTable.sumAmountByUserId(userId);
+            UserPoint after = userPointTable.findById(userId);
+            point = after == null ? 0 : after.point();
+            boolean stable = before == null ? after == null : after != null && before.version() == after.version();
+            if (stable && point == historyAmount) {
+                return;
+            }
+            // 갱신 중이었거나 내역이 아직 기록되지 않았을 수 있다. (기록이 지연되거나 실패했다면 그대로 불일치로 남는다)
+            try {
+                pointHistoryAppender.awaitFlushed(userId);
+            } catch (PointHistoryOverflowException e) {
+                break;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(attempt));
+        }
+        run.addDiscrepancy(new PointDiscrepancy(userId, point, historyAmount), properties.maxReported());
+    }
+
+    private final class Partition extends RecursiveAction {
+        private final Run run;
+        private final long[] userIds;
+        private final int from;
+        private final int to;
+
+        private Partition(Run run, long[] userIds, int from, int to) {
+            this.run = run;
+            this.userIds = userIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Partition(run, userIds, from, mid), new Partition(run, userIds, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                run.pace(properties.maxUsersPerSecond());
+                check(run, userIds[i]);
+                run.checked.increment();
+            }
+        }
+    }
+
+    // 한 번의 점검 실행, 진행 상황은 여러 스레드가 갱신하고 report() 로 읽는다.
+    private static final class Run {
+        private final long startedMillis = System.currentTimeMillis();
+        private final long startedNanos = System.nanoTime();
+        private final LongAdder checked = new LongAdder();
+        private final LongAdder discrepancyCount = new LongAdder();
+        private final List<PointDiscrepancy> discrepancies = Collections.synchronizedList(new ArrayList<>());
+        // 다음 유저를 점검할 수 있는 시각 (초당 점검 수 제한)
+        private final AtomicLong nextSlotNanos = new AtomicLong(System.nanoTime());
+        private volatile long totalUsers;
+        private volatile long finishedMillis;
+        private volatile long finishedNanos;
+        private volatile PointReconciliationReport.State state = PointReconciliationReport.State.RUNNING;
+
+        private void pace(long maxUsersPerSecond) {
+            if (maxUsersPerSecond <= 0) {
+                return;
+            }
+            long interval = TimeUnit.SECONDS.toNanos(1) / maxUsersPerSecond;
+            long now = System.nanoTime();
+            // 밀려 있던 만큼 한꺼번에 몰아서 점검하지 않도록 현재 시각 이전으로는 당기지 않는다.
+            long slot = nextSlotNanos.getAndAccumulate(now, (next, at) -> Math.max(next, at) + interval);
+            long wait = Math.max(slot, now) - now;
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+
+        private void addDiscrepancy(PointDiscrepancy discrepancy, int maxReported) {
+            discrepancyCount.increment();
+            synchronized (discrepancies) {
+                if (discrepancies.size() < maxReported) {
+                    discrepancies.add(discrepancy);
+                }
+            }
+        }
+
+        private void finish(PointReconciliationReport.State state) {
+            finishedNanos = System.nanoTime();
+            finishedMillis = System.currentTimeMillis();
+            this.state = state;
+        }
+
+        private PointReconciliationReport report() {
+            long checkedUsers = checked.sum();
+            long end = state == PointReconciliationReport.State.RUNNING ? System.nanoTime() : finishedNanos;
+            double seconds = Math.max(1, end - startedNanos) / 1e9;
+            List<PointDiscrepancy> reported;
+            synchronized (discrepancies) {
+                reported = List.copyOf(discrepancies);
+            }
+            return new PointReconciliationReport(state, startedMillis, finishedMillis, totalUsers, checkedUsers, checkedUsers / seconds, discrepancyCount.sum(), reported);
+        }
+    }
+
+    // 유저 id 를 boxing 없이 모으는 배열
+    private static final class LongList {
+        private long[] values;
+        private int size;
+
+        private LongList(int capacity) {
+            this.values = new long[capacity];
+        }
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = value;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
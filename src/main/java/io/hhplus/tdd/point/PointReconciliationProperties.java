@@ -0,0 +1,25 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 잔액-내역 정합성 점검 설정
+ * - enabled / interval : 백그라운드에서 주기적으로 점검할지 여부와 그 주기 (관리자 API 로는 언제든 실행할 수 있다)
+ * - onStartup : 기동(journal 복구)이 끝난 뒤 한 번 점검할지 여부, 비정상 종료로 사라진 내역을 찾는다.
+ * - parallelism : 점검에 쓰는 fork-join 스레드 수, API 처리 스레드와 CPU 를 나눠 쓰므로 작게 둔다.
+ * - maxUsersPerSecond : 초당 점검할 최대 유저 수 (0 이면 제한 없음)
+ * - maxReported : 결과에 담을 불일치 유저 수 (전체 건수는 따로 센다)
+ */
+@ConfigurationProperties("point.reconciliation")
+public record PointReconciliationProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("true") boolean onStartup,
+        @DefaultValue("1h") Duration interval,
+        @DefaultValue("2") int parallelism,
+        @DefaultValue("50000") long maxUsersPerSecond,
+        @DefaultValue("1000") int maxReported
+) {
+}
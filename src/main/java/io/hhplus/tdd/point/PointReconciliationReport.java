@@ -0,0 +1,29 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 정합성 점검 진행 상황과 결과
+ * - totalUsers / checkedUsers : 점검 대상 유저 수와 지금까지 점검한 유저 수
+ * - usersPerSecond : 시작 이후 초당 점검한 유저 수
+ * - discrepancyCount : 불일치 유저 수, discrepancies 에는 그중 maxReported 명까지만 담는다.
+ */
+public record PointReconciliationReport(
+        State state,
+        long startedMillis,
+        long finishedMillis,
+        long totalUsers,
+        long checkedUsers,
+        double usersPerSecond,
+        long discrepancyCount,
+        List<PointDiscrepancy> discrepancies
+) {
+
+    public enum State {
+        IDLE, RUNNING, COMPLETED, FAILED
+    }
+
+    public static PointReconciliationReport idle() {
+        return new PointReconciliationReport(State.IDLE, 0, 0, 0, 0, 0, 0, List.of());
+    }
+}
@@ -4,6 +4,8 @@ import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.database.UserPointTable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 @Service
@@ -11,13 +13,25 @@ public class PointService {
     private final UserPointTable userPointTable;
     private final PointHistoryTable pointHistoryTable;
     private final PointValidator pointValidator;
-    private final LockManager lockManager;
-
-    public PointService(UserPointTable userPointTable, PointHistoryTable pointHistoryTable, PointValidator pointValidator, LockManager lockManager) {
+    private final PointHistoryAppender pointHistoryAppender;
+    private final UserPointCache userPointCache;
+    private final PointUpdater pointUpdater;
+    private final PointMetrics pointMetrics;
+    private final PointStatistics pointStatistics;
+    private final PointLots pointLots;
+    private final PointPreCheck pointPreCheck;
+
+    public PointService(UserPointTable userPointTable, PointHistoryTable pointHistoryTable, PointValidator pointValidator, PointHistoryAppender pointHistoryAppender, UserPointCache userPointCache, PointUpdater pointUpdater, PointMetrics pointMetrics, PointStatistics pointStatistics, PointIdempotencyCache pointIdempotencyCache, PointRateLimiter pointRateLimiter, PointLots pointLots) {
         this.userPointTable = userPointTable;
         this.pointHistoryTable = pointHistoryTable;
         this.pointValidator = pointValidator;
-        this.lockManager = lockManager;
+        this.pointHistoryAppender = pointHistoryAppender;
+        this.userPointCache = userPointCache;
+        this.pointUpdater = pointUpdater;
+        this.pointMetrics = pointMetrics;
+        this.pointStatistics = pointStatistics;
+        this.pointLots = pointLots;
+        this.pointPreCheck = new PointPreCheck(pointValidator, pointRateLimiter, pointIdempotencyCache);
     }
 
     // 특정 유저의 포인트를 조회
@@ -25,75 +39,126 @@ public class PointService {
         // validation :: 아이디 확인
         pointValidator.checkUserId(userId);
 
-        return userPointTable.selectById(userId);
+        return userPointCache.get(userId, userPointTable::selectById);
     }
 
     // 특정 유저의 포인트 충전/이용 내역을 조회
     public List<PointHistory> getUserPointHistory(long userId) {
+        // 비동기로 기록 중인 본인의 내역까지 보이도록 기다린다.
+        pointHistoryAppender.awaitFlushed(userId);
+
         return pointHistoryTable.selectAllByUserId(userId);
     }
 
-    // 특정 유저의 포인트를 충전하는 기능
-    public UserPoint chargeUserPoint(long userId, long amount) {
-        lockManager.lock(userId);
-        try {
-            // validation :: 충전하려는 포인트가 0보다 커야한다.
-            pointValidator.checkReloadPoint(amount);
+    // 특정 유저의 포인트 충전/이용 내역을 조건(cursor, 기간, 건수)에 맞게 조회
+    public List<PointHistory> getUserPointHistory(long userId, PointHistoryQuery query) {
+        List<PointHistory> page = new ArrayList<>();
+        iterateUserPointHistory(userId, query).forEachRemaining(page::add);
+        return page;
+    }
+
+    // 전체 목록을 만들지 않고 조건에 맞는 내역을 하나씩 읽는 cursor
+    public Iterator<PointHistory> iterateUserPointHistory(long userId, PointHistoryQuery query) {
+        // validation :: 아이디, 조회 건수 확인
+        pointValidator.checkUserId(userId);
+        pointValidator.checkHistoryLimit(query.limit());
+
+        pointHistoryAppender.awaitFlushed(userId);
+        return pointHistoryTable.selectByUserId(userId, query);
+    }
+
+    // 특정 유저의 기간별 충전/사용 합계 (from, to 가 없으면 전체 기간)
+    public PointHistorySummary summarizeUserPointHistory(long userId, Long from, Long to) {
+        // validation :: 아이디 확인
+        pointValidator.checkUserId(userId);
+
+        pointHistoryAppender.awaitFlushed(userId);
+        return pointHistoryTable.summarizeByUserId(userId, from == null ? Long.MIN_VALUE : from, to == null ? Long.MAX_VALUE : to);
+    }
+
+    // 특정 유저의 at 시각 잔액 (at 이 없으면 지금)
+    public PointBalance getUserPointBalanceAt(long userId, Long at) {
+        // validation :: 아이디 확인
+        pointValidator.checkUserId(userId);
+
+        pointHistoryAppender.awaitFlushed(userId);
+        return pointHistoryTable.balanceAtByUserId(userId, at == null ? System.currentTimeMillis() : at);
+    }
+
+    // 특정 유저의 아직 소멸하지 않은 포인트 묶음 (소멸 시각 순)
+    public List<PointLot> getUserPointLots(long userId) {
+        // validation :: 아이디 확인
+        pointValidator.checkUserId(userId);
+
+        return pointLots.lotsOf(userId);
+    }
 
-            // 기존 포인트 조회
-            UserPoint userPoint = userPointTable.selectById(userId);
-            if (userPoint == null) {
-                userPoint = UserPoint.empty(userId);
-            }
+    // 특정 유저의 누적 충전/사용 합계 (내역을 훑지 않고 집계해 둔 값)
+    public PointTotals getUserPointStatistics(long userId) {
+        // validation :: 아이디 확인
+        pointValidator.checkUserId(userId);
 
-            // 포인트 업데이트
-            UserPoint totalUserPoint = userPointTable.insertOrUpdate(userId, userPoint.point() + amount);
+        return pointStatistics.user(userId);
+    }
 
-            // 충전 내역 기록
-            pointHistoryTable.insert(userId, amount, TransactionType.CHARGE, System.currentTimeMillis());
+    // 전체 누적 합계와 [from, to) 의 시간/일 단위 구간별 합계 (from, to 가 없으면 보관 중인 전체 구간)
+    public PointStatisticsReport getPointStatistics(PointStatistics.Granularity granularity, Long from, Long to) {
+        return pointStatistics.report(granularity, from == null ? Long.MIN_VALUE : from, to == null ? Long.MAX_VALUE : to);
+    }
 
-            return totalUserPoint;
-        } finally {
-            lockManager.unlock(userId);
+    // 특정 유저의 포인트를 충전하는 기능
+    public UserPoint chargeUserPoint(long userId, long amount) {
+        try {
+            // validation :: 아이디 확인, 충전하려는 포인트가 0보다 커야한다.
+            pointPreCheck.validate(userId, TransactionType.CHARGE, amount);
+
+            // 포인트 업데이트 및 충전 내역 기록 (동시성 제어는 PointUpdater 에 위임)
+            UserPoint userPoint = update(userId, PointMutation.charge(userId, amount));
+            pointMetrics.recordSuccess(TransactionType.CHARGE);
+            return userPoint;
+        } catch (RuntimeException e) {
+            pointMetrics.recordFailure(TransactionType.CHARGE, e);
+            throw e;
         }
     }
 
+    // 같은 Idempotency-Key 로 이미 충전했다면 다시 충전하지 않고 그때의 결과를 반환
+    public UserPoint chargeUserPoint(long userId, long amount, String idempotencyKey) {
+        return pointPreCheck.idempotent(userId, TransactionType.CHARGE, idempotencyKey, amount, () -> chargeUserPoint(userId, amount));
+    }
+
     // 특정 유저의 포인트를 사용하는 기능
     public UserPoint useUserPoint(long userId, long amount) {
-        lockManager.lock(userId);
         try {
-            // 기존 포인트 조회
-            UserPoint userPoint = userPointTable.selectById(userId);
-            if (userPoint == null) {
-                throw new IllegalStateException("정보가 존재하지 않습니다.");
-            }
-
-            // 포인트 차감
-            long addPoint = userPoint.point() - amount;
-
-            // 포인트가 부족하면 예외 처리
-            if (addPoint < 0) {
-                throw new IllegalStateException("포인트가 부족합니다. 현재 잔액: " + userPoint.point());
-            }
-
-            // 포인트 업데이트
-            userPointTable.insertOrUpdate(userId, addPoint);
-
-            // 사용 내역 기록
-            pointHistoryTable.insert(userId, amount, TransactionType.USE, System.currentTimeMillis());
-
-            // 갱신된 포인트 반환
-            return userPointTable.selectById(userId);
-        } finally {
-            lockManager.unlock(userId);
+            // validation :: 아이디 확인, 사용하려는 포인트가 0보다 커야한다.
+            pointPreCheck.validate(userId, TransactionType.USE, amount);
+
+            // 포인트 차감 및 사용 내역 기록, 포인트가 부족하면 예외 처리
+            UserPoint userPoint = update(userId, PointMutation.use(userId, amount));
+            pointMetrics.recordSuccess(TransactionType.USE);
+            return userPoint;
+        } catch (RuntimeException e) {
+            pointMetrics.recordFailure(TransactionType.USE, e);
+            throw e;
         }
     }
 
+    // 같은 Idempotency-Key 로 이미 사용했다면 다시 차감하지 않고 그때의 결과를 반환
+    public UserPoint useUserPoint(long userId, long amount, String idempotencyKey) {
+        return pointPreCheck.idempotent(userId, TransactionType.USE, idempotencyKey, amount, () -> useUserPoint(userId, amount));
+    }
+
+    // 요청 수 제한을 통과한 요청만 lock 을 기다린다.
+    private UserPoint update(long userId, PointMutation mutation) {
+        return pointPreCheck.limit(userId, () -> pointUpdater.update(userId, mutation));
+    }
+
     // 히스토리 목록 조회
     public List<PointHistory> getPointHistory(long userId) {
         // validation :: 아이디 확인
         pointValidator.checkUserId(userId);
 
+        pointHistoryAppender.awaitFlushed(userId);
         return pointHistoryTable.selectAllByUserId(userId);
     }
 }
@@ -0,0 +1,34 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryBase;
+
+import java.util.List;
+
+/**
+ * node 사이에서 옮기는 shard 들의 잔액과 내역
+ * - 잔액은 version 까지 함께 옮겨, 받는 쪽에서 더 오래된 값으로 덮어쓰지 않게 한다. (UserPoint 응답에는 version 이 빠진다)
+ * - archive 로 옮겨 목록에 없는 내역은 유저별 합계(bases)로 함께 옮긴다.
+ */
+public record PointShardHandoff(
+        List<Integer> shards,
+        List<Balance> balances,
+        List<PointHistoryBase> bases,
+        List<PointHistory> histories
+) {
+
+    public record Balance(
+            long id,
+            long point,
+            long updateMillis,
+            long version
+    ) {
+
+        public static Balance of(UserPoint userPoint) {
+            return new Balance(userPoint.id(), userPoint.point(), userPoint.updateMillis(), userPoint.version());
+        }
+
+        public UserPoint toUserPoint() {
+            return new UserPoint(id, point, updateMillis, version);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package io.hhplus.tdd.point;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * userId 를 shard 로, shard 를 node 로 나누는 consistent hash ring
+ * - userId 는 고정 개수(shards)의 shard 로 나누고, shard 는 ring 위에서 시계 방향으로 가장 가까운 node 가 맡는다.
+ * - node 마다 virtualNodes 개의 점을 ring 에 뿌려 shard 가 node 사이에 고르게 나뉘게 한다.
+ * - node 가 추가/제거되면 그 node 와 이웃한 구간의 shard 만 옮겨진다. (node N 개에서 하나를 더하면 대략 1/(N+1))
+ * - 구성원이 바뀌면 새로 만드는 불변 객체다. 구성원이 없으면 모든 shard 의 owner 는 null 이다.
+ */
+public final class PointShardRing {
+
+    private final int shards;
+    private final List<String> members;
+    private final String[] owners;
+
+    private PointShardRing(int shards, List<String> members, String[] owners) {
+        this.shards = shards;
+        this.members = members;
+        this.owners = owners;
+    }
+
+    public static PointShardRing of(Collection<String> members, int shards, int virtualNodes) {
+        int shardCount = Integer.highestOneBit(Math.max(1, shards));
+        List<String> sorted = members.stream().distinct().sorted().toList();
+
+        // ring 위의 점(hash)과 그 점의 node 를 hash 순서로 정렬해 둔다.
+        int perNode = Math.max(1, virtualNodes);
+        int pointCount = sorted.size() * perNode;
+        long[] points = new long[pointCount];
+        int[] nodes = new int[pointCount];
+        for (int node = 0, point = 0; node < sorted.size(); node++) {
+            long seed = hash(sorted.get(node));
+            for (int v = 0; v < perNode; v++, point++) {
+                points[point] = mix(seed + v * 0x9E3779B97F4A7C15L);
+                nodes[point] = node;
+            }
+        }
+        Integer[] order = new Integer[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(points[a], points[b]));
+        long[] sortedPoints = new long[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            sortedPoints[i] = points[order[i]];
+        }
+
+        // shard 마다 owner 를 미리 정해 둔다. (조회 시에는 배열 접근만 한다)
+        String[] owners = new String[shardCount];
+        if (pointCount > 0) {
+            for (int shard = 0; shard < shardCount; shard++) {
+                int index = Arrays.binarySearch(sortedPoints, mix(shard * 0xC2B2AE3D27D4EB4FL + 1));
+                int position = index >= 0 ? index : -index - 1;
+                owners[shard] = sorted.get(nodes[order[position == pointCount ? 0 : position]]);
+            }
+        }
+        return new PointShardRing(shardCount, sorted, owners);
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    public List<String> members() {
+        return members;
+    }
+
+    public int shardOf(long userId) {
+        return (int) (mix(userId) >>> 32) & (shards - 1);
+    }
+
+    public String ownerOf(int shard) {
+        return owners[shard];
+    }
+
+    public String ownerOfUser(long userId) {
+        return owners[shardOf(userId)];
+    }
+
+    // 순차 발급되는 userId 와 비슷한 이름의 node 도 고르게 퍼지도록 섞는다.
+    private static long mix(long value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    // FNV-1a (node 이름은 JVM 과 관계없이 항상 같은 값으로 바뀌어야 한다)
+    private static long hash(String member) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : member.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,174 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryBase;
+import io.hhplus.tdd.database.PointJournalRecovery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 충전/사용이 확정될 때마다 갱신하는 유저별/전체/시간 구간별 합계
+ * - 내역 기록기(PointHistoryAppender)가 내역을 기록한 뒤 record 를 호출한다. 조회 때 내역을 다시 훑지 않는다.
+ * - 유저별 합계는 불변 값을 map 에서 교체하고, 전체/구간 합계는 LongAdder 로 더한다.
+ *   조회는 유저 lock 이나 map 의 lock 없이 현재 값을 읽는다. (전체/구간 합계는 필드끼리 같은 시점의 값이 아닐 수 있다)
+ * - 구간은 설정한 개수만 보관하고, 새 구간이 생길 때 보관 기간이 지난 구간을 지운다.
+ * - 기동 시 journal 로 복구한 내역(PointJournalRecovery.Listener)도 다시 더해, 재시작해도 합계가 이어진다.
+ *   archive 로 옮긴 내역은 유저별 합계로만 남아 있으므로 유저별/전체 합계에만 더하고 구간 합계에는 넣지 않는다.
+ */
+@Component
+public class PointStatistics implements PointJournalRecovery.Listener {
+
+    public enum Granularity {
+        HOUR(TimeUnit.HOURS.toMillis(1)),
+        DAY(TimeUnit.DAYS.toMillis(1));
+
+        private final long millis;
+
+        Granularity(long millis) {
+            this.millis = millis;
+        }
+
+        public long millis() {
+            return millis;
+        }
+    }
+
+    private final ConcurrentHashMap<Long, PointTotals> users = new ConcurrentHashMap<>();
+    private final Totals global = new Totals();
+    private final Buckets hours;
+    private final Buckets days;
+
+    public PointStatistics() {
+        this(PointStatisticsProperties.defaults());
+    }
+
+    @Autowired
+    public PointStatistics(PointStatisticsProperties properties) {
+        this.hours = new Buckets(Granularity.HOUR, properties.hourBuckets());
+        this.days = new Buckets(Granularity.DAY, properties.dayBuckets());
+    }
+
+    public void record(List<PointHistoryEntry> entries) {
+        for (PointHistoryEntry entry : entries) {
+            add(entry.userId(), entry.type(), entry.amount(), entry.updateMillis());
+        }
+    }
+
+    @Override
+    public void restoreBase(PointHistoryBase base) {
+        PointTotals delta = new PointTotals(base.charged(), base.chargeCount(), base.used(), base.useCount(), base.isEmpty() ? 0 : base.lastMillis());
+        users.merge(base.userId(), delta, PointTotals::plus);
+        global.add(delta);
+    }
+
+    @Override
+    public void restore(PointHistory pointHistory) {
+        add(pointHistory.userId(), pointHistory.type(), pointHistory.amount(), pointHistory.updateMillis());
+    }
+
+    public PointTotals user(long userId) {
+        return users.getOrDefault(userId, PointTotals.empty());
+    }
+
+    public PointTotals global() {
+        return global.snapshot();
+    }
+
+    // [from, to) 에 걸친 구간별 합계
+    public PointStatisticsReport report(Granularity granularity, long from, long to) {
+        Buckets buckets = granularity == Granularity.HOUR ? hours : days;
+        return new PointStatisticsReport(global(), granularity, buckets.range(from, to));
+    }
+
+    private void add(long userId, TransactionType type, long amount, long updateMillis) {
+        PointTotals delta = totalsOf(type, amount, updateMillis);
+        users.merge(userId, delta, PointTotals::plus);
+        global.add(delta);
+        hours.add(updateMillis, delta);
+        days.add(updateMillis, delta);
+    }
+
+    // 내역 한 건이 더하는 합계
+    private static PointTotals totalsOf(TransactionType type, long amount, long updateMillis) {
+        return switch (type) {
+            case CHARGE -> new PointTotals(amount, 1, 0, 0, updateMillis);
+            case USE -> new PointTotals(0, 0, amount, 1, updateMillis);
+            // 이체는 유저 사이에서 옮겨질 뿐 충전/사용이 아니므로 마지막 거래 시각만 남긴다.
+            case TRANSFER_OUT, TRANSFER_IN -> new PointTotals(0, 0, 0, 0, updateMillis);
+            // 소멸은 유저의 거래가 아니므로 합계와 마지막 거래 시각 어디에도 넣지 않는다.
+            case EXPIRE -> PointTotals.empty();
+        };
+    }
+
+    private static final class Totals {
+        private final LongAdder charged = new LongAdder();
+        private final LongAdder chargeCount = new LongAdder();
+        private final LongAdder used = new LongAdder();
+        private final LongAdder useCount = new LongAdder();
+        private final LongAccumulator lastActivityMillis = new LongAccumulator(Math::max, 0);
+
+        private void add(PointTotals delta) {
+            charged.add(delta.charged());
+            chargeCount.add(delta.chargeCount());
+            used.add(delta.used());
+            useCount.add(delta.useCount());
+            lastActivityMillis.accumulate(delta.lastActivityMillis());
+        }
+
+        private PointTotals snapshot() {
+            return new PointTotals(charged.sum(), chargeCount.sum(), used.sum(), useCount.sum(), lastActivityMillis.get());
+        }
+    }
+
+    private static final class Buckets {
+        private final Granularity granularity;
+        private final int retain;
+        private final ConcurrentHashMap<Long, Totals> buckets = new ConcurrentHashMap<>();
+        private final LongAccumulator latest = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+        private Buckets(Granularity granularity, int retain) {
+            this.granularity = granularity;
+            this.retain = Math.max(1, retain);
+        }
+
+        private void add(long millis, PointTotals delta) {
+            long index = Math.floorDiv(millis, granularity.millis());
+            long last = latest.get();
+            if (last != Long.MIN_VALUE && index <= last - retain) {
+                return;
+            }
+            Totals totals = buckets.get(index);
+            if (totals == null) {
+                totals = buckets.computeIfAbsent(index, key -> new Totals());
+                latest.accumulate(index);
+                long oldest = latest.get() - retain;
+                buckets.keySet().removeIf(key -> key <= oldest);
+            }
+            totals.add(delta);
+        }
+
+        // 보관 중인 구간 수만큼만 확인한다.
+        private List<PointStatisticsBucket> range(long from, long to) {
+            long last = latest.get();
+            if (last == Long.MIN_VALUE || from >= to) {
+                return List.of();
+            }
+            long first = Math.max(Math.floorDiv(from, granularity.millis()), last - retain + 1);
+            long end = Math.min(Math.floorDiv(to - 1, granularity.millis()), last);
+            List<PointStatisticsBucket> result = new ArrayList<>();
+            for (long index = first; index <= end; index++) {
+                Totals totals = buckets.get(index);
+                if (totals != null) {
+                    result.add(new PointStatisticsBucket(index * granularity.millis(), totals.snapshot()));
+                }
+            }
+            return result;
+        }
+    }
+}
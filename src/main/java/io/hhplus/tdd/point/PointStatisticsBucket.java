@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 시간 구간 하나의 합계
+ * - startMillis : 구간 시작 시각 (구간은 [startMillis, startMillis + 단위))
+ */
+public record PointStatisticsBucket(
+        long startMillis,
+        PointTotals totals
+) {
+}
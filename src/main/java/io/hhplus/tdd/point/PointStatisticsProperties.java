@@ -0,0 +1,20 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 포인트 통계 설정
+ * - hourBuckets : 시간별 합계를 최근 몇 시간까지 보관할지
+ * - dayBuckets : 일별 합계를 최근 며칠까지 보관할지 (일 경계는 UTC 기준)
+ */
+@ConfigurationProperties("point.statistics")
+public record PointStatisticsProperties(
+        @DefaultValue("48") int hourBuckets,
+        @DefaultValue("90") int dayBuckets
+) {
+
+    public static PointStatisticsProperties defaults() {
+        return new PointStatisticsProperties(48, 90);
+    }
+}
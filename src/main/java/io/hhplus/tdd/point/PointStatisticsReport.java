@@ -0,0 +1,14 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 전체 합계와 시간 구간별 합계
+ * - buckets : 요청한 기간 중 기록이 있는 구간만 시간 순서로 담는다.
+ */
+public record PointStatisticsReport(
+        PointTotals total,
+        PointStatistics.Granularity granularity,
+        List<PointStatisticsBucket> buckets
+) {
+}
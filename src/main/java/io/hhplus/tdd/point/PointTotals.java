@@ -0,0 +1,30 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 충전/사용 합계
+ * - charged, used : 충전/사용한 포인트 합계
+ * - chargeCount, useCount : 충전/사용 건수
+ * - lastActivityMillis : 마지막 충전/사용 시각 (없으면 0)
+ */
+public record PointTotals(
+        long charged,
+        long chargeCount,
+        long used,
+        long useCount,
+        long lastActivityMillis
+) {
+
+    public static PointTotals empty() {
+        return new PointTotals(0, 0, 0, 0, 0);
+    }
+
+    public PointTotals plus(PointTotals other) {
+        return new PointTotals(
+                charged + other.charged,
+                chargeCount + other.chargeCount,
+                used + other.used,
+                useCount + other.useCount,
+                Math.max(lastActivityMillis, other.lastActivityMillis)
+        );
+    }
+}
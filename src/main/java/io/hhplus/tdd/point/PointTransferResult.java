@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 이체 결과
+ * - from, to : 이체가 반영된 뒤 보낸 유저와 받은 유저의 잔액
+ */
+public record PointTransferResult(
+        UserPoint from,
+        UserPoint to
+) {
+}
@@ -0,0 +1,137 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.UserPointTable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * 두 유저 사이에서 포인트를 옮기는 이체 (선물, 가맹점 환불 등)
+ * - LockManager 로 두 유저의 lock 을 정해진 순서로 잡으므로, 서로 반대 방향의 이체가 동시에 와도 교착되지 않는다.
+ *   전역 lock 이 없어 서로 다른 유저끼리의 이체는 동시에 진행된다.
+ * - 잔액은 lock 안에서 version 기반 compare-and-set 으로 쓴다.
+ *   PESSIMISTIC 모드의 충전/사용은 같은 lock 을 잡으므로 충돌하지 않고,
+ *   lock 을 잡지 않는 OPTIMISTIC 모드의 충전/사용과 겹치면 최신 잔액으로 다시 계산한다.
+ * - 보낸/받은 내역(TRANSFER_OUT, TRANSFER_IN)은 한 번에 넣어 이어진 id 로 기록된다. (받은 내역 id = 보낸 내역 id + 1)
+ * - 받는 쪽 반영이나 내역 기록이 어떤 이유로든 실패하면 이미 반영한 잔액을 되돌리고 처음 실패를 그대로 던진다.
+ *   되돌리는 중의 실패는 처음 실패에 suppressed 로 붙인다.
+ * - 요청 수 제한(PointRateLimiter)은 보내는 유저 기준으로 확인한다. (받는 유저 기준이면 다른 유저들이 이체를 몰아 보내 그 유저의 요청을 막을 수 있다)
+ */
+@Service
+public class PointTransferService {
+    private final UserPointTable userPointTable;
+    private final PointValidator pointValidator;
+    private final LockManager lockManager;
+    private final PointHistoryAppender pointHistoryAppender;
+    private final UserPointCache userPointCache;
+    private final PointMetrics pointMetrics;
+    private final PointRateLimiter pointRateLimiter;
+    // 캐시에 없을 때 table 에서 조회 (호출마다 람다를 만들지 않도록 한 번만 만든다)
+    private final LongFunction<UserPoint> loader = this::select;
+
+    public PointTransferService(UserPointTable userPointTable, PointValidator pointValidator, LockManager lockManager, PointHistoryAppender pointHistoryAppender, UserPointCache userPointCache, PointMetrics pointMetrics, PointRateLimiter pointRateLimiter) {
+        this.userPointTable = userPointTable;
+        this.pointValidator = pointValidator;
+        this.lockManager = lockManager;
+        this.pointHistoryAppender = pointHistoryAppender;
+        this.userPointCache = userPointCache;
+        this.pointMetrics = pointMetrics;
+        this.pointRateLimiter = pointRateLimiter;
+    }
+
+    // fromUserId 의 포인트를 toUserId 에게 이체
+    public PointTransferResult transfer(long fromUserId, long toUserId, long amount) {
+        try {
+            // validation :: 아이디 확인, 보내는/받는 유저가 달라야 하고 이체할 포인트가 0보다 커야한다.
+            pointValidator.checkUserId(fromUserId);
+            pointValidator.checkUserId(toUserId);
+            pointValidator.checkTransferUsers(fromUserId, toUserId);
+            pointValidator.checkTransferAmount(amount);
+
+            pointRateLimiter.acquire(fromUserId);
+            try {
+                lockManager.lock(fromUserId, toUserId);
+                try {
+                    PointTransferResult result = move(fromUserId, toUserId, amount);
+                    pointMetrics.recordSuccess(TransactionType.TRANSFER_OUT);
+                    return result;
+                } finally {
+                    lockManager.unlock(fromUserId, toUserId);
+                }
+            } finally {
+                pointRateLimiter.release();
+            }
+        } catch (RuntimeException e) {
+            pointMetrics.recordFailure(TransactionType.TRANSFER_OUT, e);
+            throw e;
+        }
+    }
+
+    // 두 유저의 lock 을 잡은 상태에서 호출
+    private PointTransferResult move(long fromUserId, long toUserId, long amount) {
+        // 보내는 유저 차감, 잔고가 부족하면 아무것도 반영하지 않고 실패
+        UserPoint from = add(fromUserId, -amount, true);
+
+        UserPoint to;
+        try {
+            to = add(toUserId, amount, false);
+        } catch (RuntimeException e) {
+            rollback(e, fromUserId, amount);
+            throw e;
+        }
+
+        // 두 내역을 한 번에 넣어 이어서 기록되게 한다. 실패하면 두 잔액을 되돌린다.
+        long now = System.currentTimeMillis();
+        try {
+            pointHistoryAppender.appendAll(List.of(
+                    new PointHistoryEntry(fromUserId, amount, TransactionType.TRANSFER_OUT, now),
+                    new PointHistoryEntry(toUserId, amount, TransactionType.TRANSFER_IN, now)
+            ));
+        } catch (RuntimeException e) {
+            rollback(e, toUserId, -amount);
+            rollback(e, fromUserId, amount);
+            throw e;
+        }
+        return new PointTransferResult(from, to);
+    }
+
+    // 이미 반영한 잔액을 되돌린다. 되돌리지 못해도 처음 실패를 가리지 않는다.
+    private void rollback(RuntimeException cause, long userId, long delta) {
+        try {
+            add(userId, delta, false);
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    // 잔액에 delta 를 더한다. 그 사이 다른 요청이 먼저 갱신했으면 최신 잔액으로 다시 계산한다.
+    private UserPoint add(long userId, long delta, boolean checkBalance) {
+        UserPoint userPoint = userPointCache.get(userId, loader);
+        while (true) {
+            if (userPoint == null) {
+                userPoint = UserPoint.empty(userId);
+            }
+            if (checkBalance) {
+                // validation :: 잔고가 충분해야 한다.
+                pointValidator.checkBalance(userPoint.point(), -delta);
+            }
+
+            long start = System.nanoTime();
+            UserPoint updated = userPointTable.compareAndUpdate(userId, userPoint.version(), userPoint.point() + delta);
+            pointMetrics.recordUpdate(System.nanoTime() - start);
+            if (updated != null) {
+                userPointCache.put(updated);
+                return updated;
+            }
+            userPoint = select(userId);
+        }
+    }
+
+    private UserPoint select(long userId) {
+        long start = System.nanoTime();
+        UserPoint userPoint = userPointTable.selectById(userId);
+        pointMetrics.recordSelect(System.nanoTime() - start);
+        return userPoint;
+    }
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 한 유저의 포인트를 read-modify-write 로 변경하는 동시성 제어 전략
+ * - 변경이 확정되면 캐시에 반영하고 내역 기록 대기열에 넣는다.
+ * - 구현은 point.concurrency.mode 설정으로 선택한다. (PointUpdaterConfig)
+ */
+public interface PointUpdater {
+
+    UserPoint update(long userId, PointMutation mutation);
+}
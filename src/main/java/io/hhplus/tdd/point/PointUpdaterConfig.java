@@ -0,0 +1,39 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.UserPointTable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * point.concurrency.mode 에 맞는 PointUpdater 를 등록
+ * - 선택한 전략(concurrencyControl)은 하나만 만들어, mailbox 를 쓰면 mailbox 가, 아니면 요청 경로가 직접 사용한다.
+ * - point.mailbox.enabled 이면 요청을 유저별 mailbox 에 모아 선택한 전략으로 한 번에 반영한다.
+ * - 다른 빈이 주입받는 PointUpdater 는 pointUpdater 이다. (@Primary)
+ */
+@Configuration
+public class PointUpdaterConfig {
+
+    @Bean
+    public PointUpdater concurrencyControl(PointConcurrencyProperties properties, UserPointTable userPointTable, LockManager lockManager, PointHistoryAppender pointHistoryAppender, UserPointCache userPointCache, PointMetrics pointMetrics) {
+        return switch (properties.mode()) {
+            case PESSIMISTIC -> new PessimisticPointUpdater(userPointTable, lockManager, pointHistoryAppender, userPointCache, pointMetrics);
+            case OPTIMISTIC -> new OptimisticPointUpdater(userPointTable, pointHistoryAppender, userPointCache, properties.maxAttempts(), pointMetrics);
+        };
+    }
+
+    @Bean
+    public PointMailbox pointMailbox(@Qualifier("concurrencyControl") PointUpdater concurrencyControl, PointMailboxProperties mailboxProperties) {
+        return new PointMailbox(concurrencyControl, mailboxProperties);
+    }
+
+    @Bean
+    @Primary
+    public PointUpdater pointUpdater(PointMailboxProperties mailboxProperties, PointMailbox pointMailbox, @Qualifier("concurrencyControl") PointUpdater concurrencyControl) {
+        if (mailboxProperties.enabled()) {
+            return new CoalescingPointUpdater(pointMailbox);
+        }
+        return concurrencyControl;
+    }
+}
@@ -12,6 +12,27 @@ public class PointValidator {
         }
     }
 
+    // 일괄 처리 건수는 1~maxSize
+    void checkBatchSize(int size, int maxSize) {
+        if (size <= 0 || size > maxSize) {
+            throw new PointValidationException("일괄 처리 건수는 1~" + maxSize + "건이어야 합니다.");
+        }
+    }
+
+    // 내역 조회 건수는 1 이상
+    void checkHistoryLimit(int limit) {
+        if (limit <= 0) {
+            throw new PointValidationException("조회 건수는 1 이상이어야 합니다.");
+        }
+    }
+
+    // Idempotency-Key 는 1~255자
+    void checkIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > 255) {
+            throw new PointValidationException("Idempotency-Key 는 1~255자여야 합니다.");
+        }
+    }
+
     // 포인트가 0보다 큰지 확인
     void checkReloadPoint(long point) {
         if (point <= 0) {
@@ -19,6 +40,23 @@ public class PointValidator {
         }
     }
 
+    // 거래 종류 확인, 요청으로는 충전/사용만 받는다. (이체/소멸 내역은 서버만 남긴다)
+    void checkTransactionType(TransactionType type) {
+        if (type == null) {
+            throw new PointValidationException("거래 종류를 입력해주세요.");
+        }
+        if (type != TransactionType.CHARGE && type != TransactionType.USE) {
+            throw new PointValidationException("충전(CHARGE) 또는 사용(USE)만 요청할 수 있습니다.");
+        }
+    }
+
+    // 사용할 포인트가 0보다 큰지 확인
+    void checkUseAmount(long usePoint) {
+        if (usePoint <= 0) {
+            throw new PointValidationException("사용할 포인트는 0원 이상이어야 합니다.");
+        }
+    }
+
     // 포인트는 100 이상부터 사용 가능
     void checkUsePoint100(long usePoint) {
         long minUsePoint = 100;
@@ -33,4 +71,18 @@ public class PointValidator {
             throw new PointValidationException("잔고가 부족합니다.");
         }
     }
-}
\ No newline at end of file
+
+    // 이체할 포인트가 0보다 큰지 확인
+    void checkTransferAmount(long amount) {
+        if (amount <= 0) {
+            throw new PointValidationException("이체할 포인트는 0원 이상이어야 합니다.");
+        }
+    }
+
+    // 자기 자신에게는 이체할 수 없다.
+    void checkTransferUsers(long fromUserId, long toUserId) {
+        if (fromUserId == toUserId) {
+            throw new PointValidationException("보내는 유저와 받는 유저가 같습니다.");
+        }
+    }
+}
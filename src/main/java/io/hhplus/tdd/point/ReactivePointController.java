@@ -0,0 +1,82 @@
+package io.hhplus.tdd.point;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 요청 스레드를 막지 않는 포인트 API (/point 와 같은 기능을 /reactive/point 로 제공)
+ * - Mono 를 반환하면 결과가 나올 때까지 요청 스레드를 반납하고, 완료되면 응답을 이어서 쓴다.
+ */
+@RestController
+@RequestMapping("/reactive/point")
+public class ReactivePointController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactivePointController.class);
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private final ReactivePointService reactivePointService;
+
+    public ReactivePointController(ReactivePointService reactivePointService) {
+        this.reactivePointService = reactivePointService;
+    }
+
+    /**
+     * 특정 유저의 포인트를 조회
+     */
+    @GetMapping("{id}")
+    public Mono<UserPoint> point(
+            @PathVariable long id
+    ) {
+        log.info("Reactive User Point: {}", id);
+        return reactivePointService.getUserPoint(id);
+    }
+
+    /**
+     * 특정 유저의 포인트 충전/이용 내역을 조회
+     */
+    @GetMapping("/{id}/histories")
+    public Mono<List<PointHistory>> history(
+            @PathVariable long id
+    ) {
+        log.info("Reactive User Point History: {}", id);
+        return reactivePointService.getUserPointHistory(id);
+    }
+
+    /**
+     * 특정 유저의 포인트를 충전하는 기능
+     * - Idempotency-Key 헤더가 있으면 같은 key 의 재시도에는 다시 충전하지 않고 처음 결과를 반환한다.
+     */
+    @PatchMapping("/{id}/charge")
+    public Mono<UserPoint> charge(
+            @PathVariable long id,
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
+        log.info("Reactive Charge {} points to user: {}", amount, id);
+        if (idempotencyKey == null) {
+            return reactivePointService.chargeUserPoint(id, amount);
+        }
+        return reactivePointService.chargeUserPoint(id, amount, idempotencyKey);
+    }
+
+    /**
+     * 특정 유저의 포인트를 사용하는 기능
+     * - Idempotency-Key 헤더가 있으면 같은 key 의 재시도에는 다시 차감하지 않고 처음 결과를 반환한다.
+     */
+    @PatchMapping("/{id}/use")
+    public Mono<UserPoint> use(
+            @PathVariable long id,
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
+        log.info("Reactive Use {} points for user: {}", amount, id);
+        if (idempotencyKey == null) {
+            return reactivePointService.useUserPoint(id, amount);
+        }
+        return reactivePointService.useUserPoint(id, amount, idempotencyKey);
+    }
+}
@@ -0,0 +1,115 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 요청 스레드를 막지 않는 포인트 기능 (Mono 로 결과를 돌려준다)
+ * - 충전/사용은 유저별 mailbox 에 넣고 바로 반환한다. 같은 유저의 요청은 mailbox 가 도착 순서대로 하나씩 반영하므로
+ *   LockManager 를 쓰는 기존 API 와 같은 유저별 순서가 지켜진다. (mailbox 안의 반영도 같은 LockManager 를 거친다)
+ * - table 의 지연(sleep)은 mailbox 스레드나 조회 전용 스레드에서만 일어나고, 요청 스레드는 결과를 기다리지 않고 돌아간다.
+ * - 조회 전용 스레드 수는 정해져 있어 동시 접속이 늘어도 스레드가 함께 늘지 않는다.
+ * - 충전/사용은 기존 API 와 같은 확인(PointPreCheck : 입력 확인, 요청 수 제한, Idempotency-Key)을 거친 뒤 mailbox 에 넣는다.
+ *   동시 처리 수는 mailbox 에서 반영이 끝날 때 돌려준다.
+ */
+@Service
+public class ReactivePointService {
+    private static final int READ_THREADS = 64;
+    private static final int READ_QUEUE = 100_000;
+
+    private final UserPointTable userPointTable;
+    private final PointHistoryTable pointHistoryTable;
+    private final PointValidator pointValidator;
+    private final PointHistoryAppender pointHistoryAppender;
+    private final UserPointCache userPointCache;
+    private final PointMailbox pointMailbox;
+    private final PointMetrics pointMetrics;
+    private final PointPreCheck pointPreCheck;
+    private final Scheduler reads = Schedulers.newBoundedElastic(READ_THREADS, READ_QUEUE, "point-reactive-read");
+
+    public ReactivePointService(UserPointTable userPointTable, PointHistoryTable pointHistoryTable, PointValidator pointValidator, PointHistoryAppender pointHistoryAppender, UserPointCache userPointCache, PointMailbox pointMailbox, PointMetrics pointMetrics, PointRateLimiter pointRateLimiter, PointIdempotencyCache pointIdempotencyCache) {
+        this.userPointTable = userPointTable;
+        this.pointHistoryTable = pointHistoryTable;
+        this.pointValidator = pointValidator;
+        this.pointHistoryAppender = pointHistoryAppender;
+        this.userPointCache = userPointCache;
+        this.pointMailbox = pointMailbox;
+        this.pointMetrics = pointMetrics;
+        this.pointPreCheck = new PointPreCheck(pointValidator, pointRateLimiter, pointIdempotencyCache);
+    }
+
+    // 특정 유저의 포인트를 조회
+    public Mono<UserPoint> getUserPoint(long userId) {
+        return Mono.fromCallable(() -> {
+            // validation :: 아이디 확인
+            pointValidator.checkUserId(userId);
+
+            return userPointCache.get(userId, userPointTable::selectById);
+        }).subscribeOn(reads);
+    }
+
+    // 특정 유저의 포인트 충전/이용 내역을 조회
+    public Mono<List<PointHistory>> getUserPointHistory(long userId) {
+        return Mono.fromCallable(() -> {
+            // validation :: 아이디 확인
+            pointValidator.checkUserId(userId);
+
+            pointHistoryAppender.awaitFlushed(userId);
+            return pointHistoryTable.selectAllByUserId(userId);
+        }).subscribeOn(reads);
+    }
+
+    // 특정 유저의 포인트를 충전하는 기능
+    public Mono<UserPoint> chargeUserPoint(long userId, long amount) {
+        return submit(userId, amount, TransactionType.CHARGE, null);
+    }
+
+    // 같은 Idempotency-Key 로 이미 충전했다면 다시 충전하지 않고 그때의 결과를 반환
+    public Mono<UserPoint> chargeUserPoint(long userId, long amount, String idempotencyKey) {
+        return submit(userId, amount, TransactionType.CHARGE, idempotencyKey);
+    }
+
+    // 특정 유저의 포인트를 사용하는 기능
+    public Mono<UserPoint> useUserPoint(long userId, long amount) {
+        return submit(userId, amount, TransactionType.USE, null);
+    }
+
+    // 같은 Idempotency-Key 로 이미 사용했다면 다시 차감하지 않고 그때의 결과를 반환
+    public Mono<UserPoint> useUserPoint(long userId, long amount, String idempotencyKey) {
+        return submit(userId, amount, TransactionType.USE, idempotencyKey);
+    }
+
+    @PreDestroy
+    public void close() {
+        reads.dispose();
+    }
+
+    // 확인은 구독할 때 하고, 실패도 결과(Mono)로 전달한다.
+    private Mono<UserPoint> submit(long userId, long amount, TransactionType type, String idempotencyKey) {
+        return Mono.defer(() -> {
+                    // validation :: 아이디 확인, 충전/사용하려는 포인트가 0보다 커야한다.
+                    pointPreCheck.validate(userId, type, amount);
+
+                    if (idempotencyKey == null) {
+                        return Mono.fromFuture(apply(userId, amount, type));
+                    }
+                    return Mono.fromFuture(pointPreCheck.idempotentAsync(userId, type, idempotencyKey, amount, () -> apply(userId, amount, type)));
+                })
+                .doOnSuccess(userPoint -> pointMetrics.recordSuccess(type))
+                .doOnError(RuntimeException.class, e -> pointMetrics.recordFailure(type, e));
+    }
+
+    // 요청 수 제한을 통과한 요청만 mailbox 에 넣는다.
+    private CompletableFuture<UserPoint> apply(long userId, long amount, TransactionType type) {
+        PointMutation mutation = type == TransactionType.CHARGE ? PointMutation.charge(userId, amount) : PointMutation.use(userId, amount);
+        return pointPreCheck.limitAsync(userId, () -> pointMailbox.submit(userId, mutation));
+    }
+}
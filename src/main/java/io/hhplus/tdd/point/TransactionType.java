@@ -5,7 +5,21 @@ package io.hhplus.tdd.point;
  * 포인트 트랜잭션 종류
  * - CHARGE : 충전
  * - USE : 사용
+ * - TRANSFER_OUT / TRANSFER_IN : 다른 유저에게 보낸 / 다른 유저에게서 받은 포인트 (이체 한 건이 두 내역으로 남는다)
+ * - EXPIRE : 유효기간이 지나 소멸된 포인트
+ * 내역 종류는 ordinal 로 journal 에 남기므로 새 종류는 뒤에만 추가한다.
  */
 public enum TransactionType {
-    CHARGE, USE
-}
\ No newline at end of file
+    CHARGE(1), USE(-1), TRANSFER_OUT(-1), TRANSFER_IN(1), EXPIRE(-1);
+
+    private final int sign;
+
+    TransactionType(int sign) {
+        this.sign = sign;
+    }
+
+    // 잔액에 반영되는 금액 (충전/받은 이체는 더하고, 사용/보낸 이체/소멸은 뺀다)
+    public long signedAmount(long amount) {
+        return sign * amount;
+    }
+}
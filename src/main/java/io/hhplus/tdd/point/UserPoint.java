@@ -1,11 +1,22 @@
 package io.hhplus.tdd.point;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * 유저 포인트
+ * - version : 갱신될 때마다 1씩 증가하며, 낙관적 동시성 제어(compare-and-set)에 사용한다. 응답에는 포함하지 않는다.
+ */
 public record UserPoint(
         long id,
         long point,
-        long updateMillis
+        long updateMillis,
+        @JsonIgnore long version
 ) {
 
+    public UserPoint(long id, long point, long updateMillis) {
+        this(id, point, updateMillis, 0);
+    }
+
     public static UserPoint empty(long id) {
         return new UserPoint(id, 0, System.currentTimeMillis());
     }
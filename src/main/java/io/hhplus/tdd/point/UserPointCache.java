@@ -0,0 +1,131 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * UserPointTable 앞에 두는 크기 제한 read-through 캐시
+ * - 구간(segment)마다 LRU 로 관리하고, 구간 크기를 넘으면 가장 오래 조회되지 않은 유저를 제거한다.
+ * - 포인트 변경은 PointUpdater 가 put 으로 바로 반영(write-through)하므로 한 노드 안에서는 오래된 값을 돌려주지 않는다.
+ * - lock 없이 갱신하는 경우 put 순서가 뒤바뀔 수 있어, version 이 더 낮은 값으로는 덮어쓰지 않는다.
+ * - 조회 중 변경/제거가 일어난 구간에는 조회해 온 값을 넣지 않아, 변경 전 값이 캐시에 다시 올라오지 않는다.
+ */
+@Component
+public class UserPointCache {
+
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UserPointCache(UserPointCacheProperties properties) {
+        int count = Integer.highestOneBit(Math.max(1, properties.segments()));
+        int capacity = Math.max(1, properties.maxSize() / count);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    // 캐시에 없으면 loader 로 조회한 뒤 캐시에 올린다. (조회는 lock 밖에서 한다)
+    public UserPoint get(long userId, LongFunction<UserPoint> loader) {
+        Segment segment = segmentFor(userId);
+        long stamp;
+        segment.lock.lock();
+        try {
+            UserPoint cached = segment.entries.get(userId);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            stamp = segment.stamp;
+        } finally {
+            segment.lock.unlock();
+        }
+
+        misses.increment();
+        UserPoint loaded = loader.apply(userId);
+        if (loaded == null) {
+            return null;
+        }
+        segment.lock.lock();
+        try {
+            if (segment.stamp == stamp) {
+                segment.entries.putIfAbsent(userId, loaded);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        return loaded;
+    }
+
+    // 변경된 포인트를 캐시에 반영 (null 과 이미 캐시된 것보다 오래된 version 은 반영하지 않는다)
+    public void put(UserPoint userPoint) {
+        if (userPoint == null) {
+            return;
+        }
+        Segment segment = segmentFor(userPoint.id());
+        segment.lock.lock();
+        try {
+            segment.stamp++;
+            segment.entries.merge(userPoint.id(), userPoint, (cached, updated) -> updated.version() >= cached.version() ? updated : cached);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void invalidate(long userId) {
+        Segment segment = segmentFor(userId);
+        segment.lock.lock();
+        try {
+            segment.stamp++;
+            segment.entries.remove(userId);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public UserPointCacheStats stats() {
+        long size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return new UserPointCacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private Segment segmentFor(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return segments[(int) (hash >>> 32) & (segments.length - 1)];
+    }
+
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, UserPoint> entries;
+        // 구간 내용이 바뀔 때마다 증가 (조회 중 변경 여부 확인용)
+        private long stamp;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, UserPoint> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        stamp++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
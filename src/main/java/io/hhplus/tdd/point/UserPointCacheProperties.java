@@ -0,0 +1,16 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 유저 포인트 캐시 설정
+ * - maxSize : 캐시에 보관할 최대 유저 수 (넘치면 가장 오래 조회되지 않은 유저부터 제거)
+ * - segments : lock 경합을 줄이기 위해 캐시를 나누는 구간 수
+ */
+@ConfigurationProperties("point.cache")
+public record UserPointCacheProperties(
+        @DefaultValue("100000") int maxSize,
+        @DefaultValue("16") int segments
+) {
+}
@@ -0,0 +1,9 @@
+package io.hhplus.tdd.point;
+
+public record UserPointCacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        long size
+) {
+}
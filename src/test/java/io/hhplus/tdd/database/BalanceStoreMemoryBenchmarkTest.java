@@ -0,0 +1,87 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 유저 100만/1,000만/5,000만 명의 잔액을 저장소별(MAP/PRIMITIVE/OFF_HEAP)로 채웠을 때의 메모리와 GC 비교
+// - heap/direct : 채운 뒤 GC 하고 늘어난 사용량, gc : 채우는 동안의 GC 횟수와 시간, full gc : 다 채운 상태에서 System.gc() 한 번의 시간
+// - 필요한 메모리가 최대 heap(direct 는 기본적으로 최대 heap 과 같다)을 넘는 조합은 건너뛴다. (MAP 은 유저당 약 120 byte)
+// ./gradlew benchmark 로만 실행된다.
+@Tag("benchmark")
+class BalanceStoreMemoryBenchmarkTest {
+
+    private static final int SEGMENTS = 256;
+
+    @Test
+    @DisplayName("저장소별 유저 100만/1,000만/5,000만 명의 메모리와 GC 시간 비교")
+    void compareMemoryAndGc() {
+        System.out.printf("%-10s %12s %10s %10s %10s %14s %10s%n", "store", "users", "heap(MB)", "direct(MB)", "byte/user", "gc(count/ms)", "fullgc(ms)");
+        for (int users : new int[]{1_000_000, 10_000_000, 50_000_000}) {
+            for (BalanceStoreProperties.Type type : BalanceStoreProperties.Type.values()) {
+                long required = (long) users * (type == BalanceStoreProperties.Type.MAP ? 130 : 70);
+                if (required > Runtime.getRuntime().maxMemory()) {
+                    System.out.printf("%-10s %,12d 최대 heap 이 부족해 건너뜀%n", type, users);
+                    continue;
+                }
+                measure(type, users);
+            }
+        }
+    }
+
+    private void measure(BalanceStoreProperties.Type type, int users) {
+        System.gc();
+        long heapBefore = heapUsed();
+        long directBefore = directUsed();
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+
+        BalanceStore store = switch (type) {
+            case MAP -> BalanceStore.map();
+            case PRIMITIVE -> new PackedBalanceStore(SEGMENTS, users, false);
+            case OFF_HEAP -> new PackedBalanceStore(SEGMENTS, users, true);
+        };
+        for (long userId = 1; userId <= users; userId++) {
+            long id = userId;
+            store.compute(id, current -> new UserPoint(id, id, 0, 1));
+        }
+        long gcs = gcCount() - gcCountBefore;
+        long gcMillis = gcMillis() - gcMillisBefore;
+
+        System.gc();
+        long heap = heapUsed() - heapBefore;
+        long direct = directUsed() - directBefore;
+        long start = System.nanoTime();
+        System.gc();
+        long fullGcMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(store.size()).isEqualTo(users);
+        System.out.printf("%-10s %,12d %,10d %,10d %10.1f %14s %10d%n", type, users, heap >> 20, direct >> 20, (double) (heap + direct) / users, gcs + "/" + gcMillis, fullGcMillis);
+    }
+
+    private static long heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long directUsed() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
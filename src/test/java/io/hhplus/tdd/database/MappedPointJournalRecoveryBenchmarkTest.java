@@ -0,0 +1,68 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+// journal 5천만 건(잔액 2,500만 + 내역 2,500만, 유저 100만 명)의 기록/복구 시간 측정
+// - scan : record 를 읽어 객체로 만드는 비용만
+// - restore : UserPointTable / PointHistoryTable 까지 채우는 비용 (PointJournalRecovery 와 같은 경로)
+// ./gradlew benchmark 로만 실행된다.
+@Tag("benchmark")
+class MappedPointJournalRecoveryBenchmarkTest {
+
+    private static final int RECORDS = 50_000_000;
+    private static final int USERS = 1_000_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("journal 5천만 건 복구 시간")
+    void recover50M() {
+        PointJournalProperties properties = new PointJournalProperties(true, directory.toString(), DataSize.ofMegabytes(256), 5, 10_000, false);
+
+        long begin = System.nanoTime();
+        PointJournal journal = MappedPointJournal.open(properties);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < RECORDS / 2; i++) {
+            long userId = 1L + i % USERS;
+            journal.appendBalance(new UserPoint(userId, i, now + i, 1L + i / USERS));
+            journal.appendHistory(new PointHistory(1L + i, userId, 100L, TransactionType.CHARGE, now + i));
+        }
+        journal.close();
+        print("write", RECORDS, System.nanoTime() - begin);
+
+        PointJournal reopened = MappedPointJournal.open(properties);
+        begin = System.nanoTime();
+        long[] count = new long[1];
+        reopened.replay(new PointJournal.Visitor() {
+            @Override
+            public void balance(UserPoint userPoint) {
+                count[0]++;
+            }
+
+            @Override
+            public void history(PointHistory pointHistory) {
+                count[0]++;
+            }
+        });
+        print("scan", count[0], System.nanoTime() - begin);
+
+        begin = System.nanoTime();
+        new PointJournalRecovery(reopened, new UserPointTable(Throttle.none(), reopened), new PointHistoryTable(Throttle.none(), reopened)).recover();
+        print("restore", RECORDS, System.nanoTime() - begin);
+        reopened.close();
+    }
+
+    private void print(String phase, long records, long elapsedNanos) {
+        System.out.printf("%-8s %,12d records %,10d ms %,14.0f records/s%n", phase, records, elapsedNanos / 1_000_000, records * 1e9 / elapsedNanos);
+    }
+}
@@ -0,0 +1,100 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// journal 에 남긴 잔액/내역이 재시작 후 replay 로 그대로 복구되는지 검증
+class MappedPointJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("재시작하면 journal 을 replay 해 잔액과 내역을 복구하고, 내역 id 는 이어서 발급된다")
+    void recoverAfterRestart() {
+        // given : segment 가 여러 개로 나뉠 만큼 기록
+        PointJournalProperties properties = properties();
+        PointJournal journal = MappedPointJournal.open(properties);
+        UserPointTable userPointTable = new UserPointTable(Throttle.none(), journal);
+        PointHistoryTable pointHistoryTable = new PointHistoryTable(Throttle.none(), journal);
+        for (int i = 1; i <= 100; i++) {
+            long userId = 1L + i % 3;
+            userPointTable.insertOrUpdate(userId, i * 10L);
+            pointHistoryTable.insert(userId, 10L, TransactionType.CHARGE, i);
+        }
+        journal.close();
+
+        // when
+        PointJournal reopened = MappedPointJournal.open(properties);
+        UserPointTable recoveredPoints = new UserPointTable(Throttle.none(), reopened);
+        PointHistoryTable recoveredHistories = new PointHistoryTable(Throttle.none(), reopened);
+        new PointJournalRecovery(reopened, recoveredPoints, recoveredHistories).recover();
+
+        // then
+        for (long userId = 1; userId <= 3; userId++) {
+            assertThat(recoveredPoints.selectById(userId)).isEqualTo(userPointTable.selectById(userId));
+            assertThat(recoveredHistories.selectAllByUserId(userId)).isEqualTo(pointHistoryTable.selectAllByUserId(userId));
+        }
+        assertThat(recoveredHistories.insert(1L, 10L, TransactionType.USE, 101L).id()).isEqualTo(101L);
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("기록 도중 잘린 record 는 건너뛰고 그 앞까지만 복구한다")
+    void skipTornRecord() throws IOException {
+        // given : 잔액 2건을 남긴 뒤 두 번째 record 의 payload 를 손상
+        PointJournal journal = MappedPointJournal.open(properties());
+        journal.appendBalance(new UserPoint(1L, 100L, 1L, 1));
+        journal.appendBalance(new UserPoint(1L, 200L, 2L, 2));
+        journal.close();
+        try (FileChannel channel = FileChannel.open(firstSegment(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 37 + 10);
+        }
+
+        // when
+        List<UserPoint> replayed = new ArrayList<>();
+        PointJournal reopened = MappedPointJournal.open(properties());
+        reopened.replay(new PointJournal.Visitor() {
+            @Override
+            public void balance(UserPoint userPoint) {
+                replayed.add(userPoint);
+            }
+
+            @Override
+            public void history(PointHistory pointHistory) {
+            }
+        });
+        reopened.close();
+
+        // then
+        assertThat(replayed).containsExactly(new UserPoint(1L, 100L, 1L, 1));
+    }
+
+    private PointJournalProperties properties() {
+        return new PointJournalProperties(true, directory.toString(), DataSize.ofBytes(1024), 5, 1000, true);
+    }
+
+    private Path firstSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().findFirst().orElseThrow();
+        }
+    }
+}
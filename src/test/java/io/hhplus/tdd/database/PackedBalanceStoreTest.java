@@ -0,0 +1,67 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// heap/off-heap 저장소 모두 동시 갱신이 유실되지 않고, segment 가 커지는 중에도 조회가 맞는지 검증
+class PackedBalanceStoreTest {
+
+    @Test
+    @DisplayName("heap 저장소에서 여러 스레드가 같은 유저들을 동시에 갱신해도 모든 갱신이 반영된다")
+    void concurrentComputeOnHeap() throws InterruptedException {
+        concurrentCompute(false);
+    }
+
+    @Test
+    @DisplayName("off-heap 저장소에서 여러 스레드가 같은 유저들을 동시에 갱신해도 모든 갱신이 반영된다")
+    void concurrentComputeOffHeap() throws InterruptedException {
+        concurrentCompute(true);
+    }
+
+    private void concurrentCompute(boolean offHeap) throws InterruptedException {
+        // given : 작게 시작해 갱신 중에 여러 번 커지도록 한다.
+        PackedBalanceStore store = new PackedBalanceStore(4, 0, offHeap);
+        int users = 20_000;
+        int threadCount = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    for (long userId = 1; userId <= users; userId++) {
+                        long id = userId;
+                        store.compute(id, current -> current == null
+                                ? new UserPoint(id, 1, 0, 1)
+                                : new UserPoint(id, current.point() + 1, 0, current.version() + 1));
+                        store.get(userId / 2);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        // then
+        for (long userId = 1; userId <= users; userId++) {
+            assertThat(store.get(userId)).isEqualTo(new UserPoint(userId, threadCount, 0, threadCount));
+        }
+        AtomicInteger visited = new AtomicInteger();
+        store.forEach(userPoint -> visited.incrementAndGet());
+        assertThat(visited.get()).isEqualTo(users);
+        assertThat(store.size()).isEqualTo(users);
+        assertThat(store.get(users + 1L)).isNull();
+    }
+}
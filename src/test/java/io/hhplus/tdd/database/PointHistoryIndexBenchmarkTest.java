@@ -0,0 +1,68 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 전체 row 수가 늘어나도 특정 유저의 내역 조회 시간이 일정하게 유지되는지 측정
+// throttle 이 없는 인덱스를 직접 채워야 천만 건까지 측정할 수 있다.
+// ./gradlew benchmark 로만 실행된다.
+@Tag("benchmark")
+class PointHistoryIndexBenchmarkTest {
+
+    private static final long TARGET_USER_ID = 1L;
+    private static final int TARGET_ROWS = 100;
+    private static final int OTHER_USERS = 100_000;
+    private static final int LOOKUPS = 20_000;
+
+    @Test
+    @DisplayName("전체 row 수가 1만 건에서 1천만 건으로 늘어나도 유저별 조회 시간은 일정하다")
+    void lookupLatencyIsFlat() {
+        // given
+        Map<Integer, Double> latencies = new LinkedHashMap<>();
+
+        // when
+        for (int totalRows : new int[]{10_000, 100_000, 1_000_000, 10_000_000}) {
+            PointHistoryIndex index = fill(totalRows);
+            latencies.put(totalRows, measureLookupNanos(index));
+        }
+
+        // then
+        latencies.forEach((rows, nanos) -> System.out.printf("rows=%,d lookup=%.1fns%n", rows, nanos));
+        double smallest = latencies.get(10_000);
+        double largest = latencies.get(10_000_000);
+        assertThat(largest).isLessThan(smallest * 5);
+    }
+
+    private PointHistoryIndex fill(int totalRows) {
+        PointHistoryIndex index = new PointHistoryIndex();
+        for (int i = 0; i < TARGET_ROWS; i++) {
+            index.append(TARGET_USER_ID, 100L, TransactionType.CHARGE, i);
+        }
+        for (int i = TARGET_ROWS; i < totalRows; i++) {
+            index.append(2L + (i % OTHER_USERS), 100L, TransactionType.CHARGE, i);
+        }
+        return index;
+    }
+
+    private double measureLookupNanos(PointHistoryIndex index) {
+        long blackhole = 0;
+        // warm-up
+        for (int i = 0; i < LOOKUPS; i++) {
+            blackhole += index.findAllByUserId(TARGET_USER_ID).size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            blackhole += index.findAllByUserId(TARGET_USER_ID).size();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(blackhole).isEqualTo(2L * LOOKUPS * TARGET_ROWS);
+        return (double) elapsed / LOOKUPS;
+    }
+}
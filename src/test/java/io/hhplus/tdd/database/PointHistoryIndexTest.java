@@ -0,0 +1,101 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointBalance;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// 유저별 segment 인덱스가 동시 append 에도 내역을 잃지 않고, 유저별로 id 순서대로 조회되는지 검증
+class PointHistoryIndexTest {
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 내역을 넣어도 유저별 조회에 모든 내역이 id 오름차순으로 담긴다")
+    void concurrentAppend() throws InterruptedException {
+        // given
+        PointHistoryIndex index = new PointHistoryIndex();
+        int users = 16;
+        int perThread = 2_000;
+        int threadCount = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        // when : 모든 스레드가 같은 유저들에게 번갈아 넣는다.
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    for (int j = 0; j < perThread; j++) {
+                        index.append(j % users, 1, TransactionType.CHARGE, j);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        // then
+        Set<Long> ids = new HashSet<>();
+        for (long userId = 0; userId < users; userId++) {
+            long expectedUserId = userId;
+            List<PointHistory> histories = index.findAllByUserId(userId);
+            assertThat(histories).hasSize(threadCount * perThread / users);
+            assertThat(histories).allMatch(history -> history.userId() == expectedUserId);
+            for (int i = 1; i < histories.size(); i++) {
+                assertThat(histories.get(i).id()).isGreaterThan(histories.get(i - 1).id());
+            }
+            histories.forEach(history -> ids.add(history.id()));
+            assertThat(index.netAmount(userId)).isEqualTo(histories.size());
+        }
+        assertThat(ids).hasSize(threadCount * perThread);
+        assertThat(index.nextId()).isEqualTo(threadCount * perThread + 1L);
+        assertThat(index.findAllByUserId(users)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("archive 된 내역의 합계(base)에서 시작해, checkpoint 를 거치는 시점 잔액도 archive 된 내역까지 반영한다")
+    void balanceAtFromBase() {
+        // given : 5번까지의 내역은 archive 되어 합계(1,000 충전, 시각 10)만 남아 있다.
+        PointHistoryIndex index = new PointHistoryIndex();
+        long userId = 1L;
+        index.restoreBase(new PointHistoryBase(userId, 1_000L, 1_000L, 1, 0, 0, 10L, 10L, 5L));
+
+        // when : checkpoint 를 여러 번 넘도록 남은 내역을 넣는다.
+        for (int i = 1; i <= 100; i++) {
+            index.append(userId, 10L, TransactionType.CHARGE, 100L + i);
+        }
+
+        // then
+        assertThat(index.balanceAt(userId, 5L).point()).isZero();
+        assertThat(index.balanceAt(userId, 10L)).isEqualTo(new PointBalance(userId, 10L, 1_000L, 5L));
+        assertThat(index.balanceAt(userId, 170L)).isEqualTo(new PointBalance(userId, 170L, 1_700L, 75L));
+        assertThat(index.balanceAt(userId, Long.MAX_VALUE).point()).isEqualTo(index.netAmount(userId)).isEqualTo(2_000L);
+    }
+
+    @Test
+    @DisplayName("base 보다 이른 시각의 내역이 들어와도 시점 잔액에 archive 된 합계를 잘못 더하지 않는다")
+    void balanceAtBeforeBase() {
+        // given
+        PointHistoryIndex index = new PointHistoryIndex();
+        long userId = 1L;
+        index.restoreBase(new PointHistoryBase(userId, 1_000L, 1_000L, 1, 0, 0, 10L, 10L, 5L));
+
+        // when : archive 된 내역보다 이른 시각으로 기록된 내역
+        index.append(userId, 30L, TransactionType.CHARGE, 7L);
+
+        // then
+        assertThat(index.balanceAt(userId, 8L).point()).isEqualTo(30L);
+        assertThat(index.balanceAt(userId, 10L).point()).isEqualTo(1_030L);
+    }
+}
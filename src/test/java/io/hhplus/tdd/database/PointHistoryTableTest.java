@@ -0,0 +1,79 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointBalance;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.PointHistorySummary;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// 필드별 배열로 보관한 내역이 chunk 가 늘어나도 기록한 그대로 조회되고, 합계가 내역과 일치하는지 검증
+class PointHistoryTableTest {
+
+    @Test
+    @DisplayName("chunk 여러 개에 걸친 내역이 순서대로 조회되고 기간별 합계가 맞다")
+    void columnarHistories() {
+        // given : 첫 chunk 가 커지는 구간과 이후 chunk 추가 구간을 모두 지나도록 1,000건
+        PointHistoryTable pointHistoryTable = new PointHistoryTable(Throttle.none());
+        long userId = 1L;
+        List<PointHistory> expected = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            TransactionType type = i % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE;
+            expected.add(pointHistoryTable.insert(userId, i, type, 1_000L + i));
+            pointHistoryTable.insert(2L, 1, TransactionType.CHARGE, 1_000L + i);
+        }
+
+        // when
+        List<PointHistory> all = pointHistoryTable.selectAllByUserId(userId);
+        List<PointHistory> page = new ArrayList<>();
+        pointHistoryTable.selectByUserId(userId, PointHistoryQuery.of(expected.get(299).id(), 1_000L, 1_500L, 50)).forEachRemaining(page::add);
+        PointHistorySummary summary = pointHistoryTable.summarizeByUserId(userId, 1_100L, 1_400L);
+
+        // then
+        assertThat(all).isEqualTo(expected);
+        assertThat(page).isEqualTo(expected.subList(300, 350));
+        List<PointHistory> range = expected.subList(100, 400);
+        assertThat(summary).isEqualTo(new PointHistorySummary(
+                userId,
+                range.stream().filter(h -> h.type() == TransactionType.CHARGE).mapToLong(PointHistory::amount).sum(),
+                range.stream().filter(h -> h.type() == TransactionType.CHARGE).count(),
+                range.stream().filter(h -> h.type() == TransactionType.USE).mapToLong(PointHistory::amount).sum(),
+                range.stream().filter(h -> h.type() == TransactionType.USE).count()
+        ));
+        assertThat(pointHistoryTable.summarizeByUserId(3L, Long.MIN_VALUE, Long.MAX_VALUE)).isEqualTo(PointHistorySummary.empty(3L));
+    }
+
+    @Test
+    @DisplayName("특정 시각의 잔액은 그 시각까지의 내역을 처음부터 더한 값과 같다")
+    void balanceAt() {
+        // given : 같은 시각에 두 건씩, checkpoint 와 chunk 경계를 여러 번 지나도록 1,000건
+        PointHistoryTable pointHistoryTable = new PointHistoryTable(Throttle.none());
+        long userId = 1L;
+        List<PointHistory> histories = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            TransactionType type = i % 4 == 0 ? TransactionType.USE : i % 7 == 0 ? TransactionType.TRANSFER_IN : TransactionType.CHARGE;
+            histories.add(pointHistoryTable.insert(userId, i + 1, type, 1_000L + i / 2));
+        }
+
+        // when - then
+        for (long at = 990L; at <= 1_510L; at += 7) {
+            long point = 0;
+            long lastId = 0;
+            for (PointHistory history : histories) {
+                if (history.updateMillis() <= at) {
+                    point += history.type().signedAmount(history.amount());
+                    lastId = history.id();
+                }
+            }
+            assertThat(pointHistoryTable.balanceAtByUserId(userId, at)).isEqualTo(new PointBalance(userId, at, point, lastId));
+        }
+        assertThat(pointHistoryTable.balanceAtByUserId(3L, 2_000L)).isEqualTo(PointBalance.empty(3L, 2_000L));
+    }
+}
@@ -0,0 +1,51 @@
+package io.hhplus.tdd.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// 유저 1,000만 명의 잔액을 snapshot 으로 남기고, 재시작 시 snapshot + 이후 journal 로 복구하는 시간 측정 (목표 5초 이내)
+// ./gradlew benchmark 로만 실행된다.
+@Tag("benchmark")
+class PointSnapshotRecoveryBenchmarkTest {
+
+    private static final int USERS = 10_000_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("유저 1,000만 명 snapshot 복구 시간")
+    void recover10MUsers() {
+        PointJournalProperties journalProperties = new PointJournalProperties(true, directory.resolve("journal").toString(), DataSize.ofMegabytes(256), 5, 10_000, false);
+        PointSnapshotProperties snapshotProperties = new PointSnapshotProperties(true, directory.resolve("snapshot").toString(), Duration.ofMinutes(5), 2, Duration.ofDays(7), Runtime.getRuntime().availableProcessors());
+
+        PointJournal journal = MappedPointJournal.open(journalProperties);
+        UserPointTable userPointTable = new UserPointTable(Throttle.none(), journal);
+        PointHistoryTable pointHistoryTable = new PointHistoryTable(Throttle.none(), journal);
+        for (long userId = 1; userId <= USERS; userId++) {
+            userPointTable.insertOrUpdate(userId, userId);
+        }
+        long begin = System.nanoTime();
+        new PointSnapshotter(snapshotProperties, journalProperties, journal, userPointTable, pointHistoryTable).snapshot();
+        System.out.printf("snapshot %,d users %,d ms%n", USERS, (System.nanoTime() - begin) / 1_000_000);
+        // snapshot 이후 변경
+        for (long userId = 1; userId <= 100_000; userId++) {
+            userPointTable.insertOrUpdate(userId, 0);
+        }
+        journal.close();
+
+        PointJournal reopened = MappedPointJournal.open(journalProperties);
+        UserPointTable recoveredPoints = new UserPointTable(Throttle.none(), reopened);
+        PointHistoryTable recoveredHistories = new PointHistoryTable(Throttle.none(), reopened);
+        begin = System.nanoTime();
+        new PointJournalRecovery(reopened, recoveredPoints, recoveredHistories, new PointSnapshotter(snapshotProperties, journalProperties, reopened, recoveredPoints, recoveredHistories)).recover();
+        System.out.printf("recover  %,d users %,d ms (threads=%d)%n", recoveredPoints.size(), (System.nanoTime() - begin) / 1_000_000, snapshotProperties.loaderThreads());
+        reopened.close();
+    }
+}
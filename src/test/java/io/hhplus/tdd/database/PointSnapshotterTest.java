@@ -0,0 +1,66 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// snapshot 과 그 이후 journal 만으로 잔액이 복구되고, 오래된 segment 는 archive 로 옮겨지는지 검증
+class PointSnapshotterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("snapshot 이후 변경까지 복구되고, 보관 기간이 지난 segment 는 replay 대상에서 빠진다")
+    void recoverFromSnapshot() {
+        // given : 내역 보관 기간 0 (snapshot 이전 segment 는 모두 archive 대상)
+        PointJournalProperties journalProperties = new PointJournalProperties(true, directory.resolve("journal").toString(), DataSize.ofBytes(4096), 5, 1000, true);
+        PointSnapshotProperties snapshotProperties = new PointSnapshotProperties(true, directory.resolve("snapshot").toString(), Duration.ofMinutes(5), 1, Duration.ZERO, 2);
+        PointJournal journal = MappedPointJournal.open(journalProperties);
+        UserPointTable userPointTable = new UserPointTable(Throttle.none(), journal);
+        PointHistoryTable pointHistoryTable = new PointHistoryTable(Throttle.none(), journal);
+        PointSnapshotter snapshotter = new PointSnapshotter(snapshotProperties, journalProperties, journal, userPointTable, pointHistoryTable);
+        for (long userId = 1; userId <= 300; userId++) {
+            userPointTable.insertOrUpdate(userId, userId);
+            pointHistoryTable.insert(userId, userId, TransactionType.CHARGE, userId);
+        }
+        snapshotter.snapshot();
+        userPointTable.insertOrUpdate(1L, 1_000L);
+        snapshotter.snapshot();
+        userPointTable.insertOrUpdate(2L, 2_000L);
+        journal.close();
+
+        // when
+        PointJournal reopened = MappedPointJournal.open(journalProperties);
+        UserPointTable recoveredPoints = new UserPointTable(Throttle.none(), reopened);
+        PointHistoryTable recoveredHistories = new PointHistoryTable(Throttle.none(), reopened);
+        new PointJournalRecovery(reopened, recoveredPoints, recoveredHistories, new PointSnapshotter(snapshotProperties, journalProperties, reopened, recoveredPoints, recoveredHistories)).recover();
+
+        // then
+        for (long userId = 1; userId <= 300; userId++) {
+            assertThat(recoveredPoints.selectById(userId)).isEqualTo(userPointTable.selectById(userId));
+        }
+        assertThat(Files.exists(directory.resolve("journal").resolve("archive"))).isTrue();
+        assertThat(recoveredHistories.selectAllByUserId(1L)).isEmpty();
+        // archive 로 옮긴 내역도 유저별 합계로 남아 잔액/합계 조회에 포함된다.
+        for (long userId = 1; userId <= 300; userId++) {
+            assertThat(recoveredHistories.sumAmountByUserId(userId)).isEqualTo(userId);
+            assertThat(recoveredHistories.summarizeByUserId(userId, Long.MIN_VALUE, Long.MAX_VALUE))
+                    .isEqualTo(pointHistoryTable.summarizeByUserId(userId, Long.MIN_VALUE, Long.MAX_VALUE));
+            assertThat(recoveredHistories.balanceAtByUserId(userId, Long.MAX_VALUE))
+                    .isEqualTo(pointHistoryTable.balanceAtByUserId(userId, Long.MAX_VALUE));
+        }
+        // 보관된 내역과 id 가 겹치지 않는다.
+        assertThat(recoveredHistories.insert(1L, 10L, TransactionType.USE, 301L).id()).isEqualTo(301L);
+        reopened.close();
+    }
+}
@@ -0,0 +1,92 @@
+package io.hhplus.tdd.point;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+// lock 방식(PER_USER/STRIPED)에 관계없이 상호 배제가 지켜지고, 대기 시간 초과와 경합 통계가 집계되는지 검증
+class LockManagerTest {
+
+    @Test
+    @DisplayName("STRIPED 방식에서도 같은 유저의 요청은 한 번에 하나씩 처리된다")
+    void stripedMutualExclusion() throws InterruptedException {
+        // given : stripe 4개에 유저 16명을 나눠 쓴다.
+        LockManager lockManager = new LockManager(new LockProperties(LockProperties.Strategy.STRIPED, 4, false, 0));
+        long[] counters = new long[16];
+        int threadCount = 32;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            int userId = i % counters.length;
+            executorService.submit(() -> {
+                try {
+                    for (int j = 0; j < 1000; j++) {
+                        lockManager.lock((long) userId);
+                        try {
+                            counters[userId]++;
+                        } finally {
+                            lockManager.unlock((long) userId);
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        // then
+        for (long counter : counters) {
+            assertThat(counter).isEqualTo(2000L);
+        }
+        assertThat(lockManager.stats().acquisitions()).isEqualTo(32_000L);
+    }
+
+    @Test
+    @DisplayName("대기 시간 안에 lock 을 얻지 못하면 PointLockTimeoutException 이 발생한다")
+    void lockTimeout() throws InterruptedException {
+        // given : 다른 스레드가 lock 을 잡고 있는 상태
+        LockManager lockManager = new LockManager(new LockProperties(LockProperties.Strategy.PER_USER, 1024, false, 50));
+        long userId = 1L;
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            lockManager.lock(userId);
+            locked.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lockManager.unlock(userId);
+            }
+        });
+        holder.start();
+        locked.await();
+
+        // when - then
+        assertThrows(PointLockTimeoutException.class, () -> lockManager.lock(userId));
+        assertThat(lockManager.tryLock(userId, 10, TimeUnit.MILLISECONDS)).isFalse();
+
+        LockStats stats = lockManager.stats();
+        assertThat(stats.contended()).isEqualTo(2);
+        assertThat(stats.timeouts()).isEqualTo(2);
+        assertThat(stats.maxWaitNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+
+        // 대기를 포기한 요청이 lock 을 남기지 않아야 한다.
+        done.countDown();
+        holder.join();
+        assertThat(lockManager.stats().activeLocks()).isZero();
+    }
+}
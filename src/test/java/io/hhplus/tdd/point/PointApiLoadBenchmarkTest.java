@@ -0,0 +1,96 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.TddApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+// 동시 접속 5,000 에서 요청 처리를 플랫폼 스레드(Tomcat 기본 200개)로 할 때와 virtual thread 로 할 때의 지속 처리량 비교
+// - 클라이언트마다 자기 유저에게 충전/조회를 번갈아 보내고, 응답을 받으면 바로 다음 요청을 보낸다.
+// - table 의 임의 지연(최대 800ms)을 그대로 두고, 워밍업 이후 구간의 처리 건수만 센다.
+// virtual 모드는 JDK 21 이상에서만 실행된다. ./gradlew benchmark -PjavaVersion=21
+@Tag("benchmark")
+class PointApiLoadBenchmarkTest {
+
+    private static final int CLIENTS = 5_000;
+    private static final Duration WARM_UP = Duration.ofSeconds(10);
+    private static final Duration MEASURE = Duration.ofSeconds(30);
+
+    @Test
+    @DisplayName("동시 접속 5,000 에서 플랫폼 스레드/virtual thread 모드의 처리량 비교")
+    void compareThreadModes() throws InterruptedException {
+        System.out.printf("%-10s %10s %12s %10s%n", "mode", "clients", "requests/s", "failures");
+        run("platform", false);
+        if (Runtime.version().feature() >= 21) {
+            run("virtual", true);
+        } else {
+            System.out.println("virtual    : JDK " + Runtime.version().feature() + " 에서는 실행하지 않음 (-PjavaVersion=21)");
+        }
+    }
+
+    private void run(String mode, boolean virtual) throws InterruptedException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TddApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "server.tomcat.max-connections=" + CLIENTS * 2,
+                        "server.tomcat.accept-count=" + CLIENTS)
+                .run()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            LongAdder completed = new LongAdder();
+            LongAdder failures = new LongAdder();
+
+            long deadline = System.nanoTime() + WARM_UP.plus(MEASURE).toNanos();
+            CompletableFuture<?>[] clients = new CompletableFuture[CLIENTS];
+            for (int i = 0; i < CLIENTS; i++) {
+                clients[i] = sendNext(client, port, i + 1, 0, deadline, completed, failures);
+            }
+
+            Thread.sleep(WARM_UP.toMillis());
+            long startCount = completed.sum();
+            long startFailures = failures.sum();
+            Thread.sleep(MEASURE.toMillis());
+            long count = completed.sum() - startCount;
+            long failed = failures.sum() - startFailures;
+            CompletableFuture.allOf(clients).join();
+
+            System.out.printf("%-10s %10d %12.0f %10d%n", mode, CLIENTS, (double) count / MEASURE.toSeconds(), failed);
+        }
+    }
+
+    // 응답을 받으면 deadline 전까지 같은 유저로 다음 요청(충전/조회 번갈아)을 이어서 보낸다.
+    private CompletableFuture<Void> sendNext(HttpClient client, int port, long userId, int sequence, long deadline, LongAdder completed, LongAdder failures) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        URI base = URI.create("http://localhost:" + port + "/point/" + userId);
+        HttpRequest request = sequence % 2 == 0
+                ? HttpRequest.newBuilder(URI.create(base + "/charge"))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString("1"))
+                        .build()
+                : HttpRequest.newBuilder(base).GET().build();
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, e) -> {
+                    if (e == null && response.statusCode() == 200) {
+                        completed.increment();
+                    } else {
+                        failures.increment();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> sendNext(client, port, userId, sequence + 1, deadline, completed, failures));
+    }
+}
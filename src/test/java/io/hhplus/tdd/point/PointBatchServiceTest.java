@@ -0,0 +1,129 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+
+// 일괄 처리 요청이 유저별로 묶여 한 번씩만 갱신/기록되고, 실패한 요청만 실패로 남는지 검증
+class PointBatchServiceTest {
+
+    private UserPointTable userPointTable;
+    private PointHistoryAppender pointHistoryAppender;
+    private PointUpdater pointUpdater;
+    private PointBatchService pointBatchService;
+
+    @BeforeEach
+    void setUp() {
+        userPointTable = mock(UserPointTable.class);
+        pointHistoryAppender = mock(PointHistoryAppender.class);
+        UserPointCache userPointCache = new UserPointCache(new UserPointCacheProperties(100, 4));
+        pointUpdater = new PessimisticPointUpdater(userPointTable, new LockManager(), pointHistoryAppender, userPointCache);
+        pointBatchService = new PointBatchService(new PointValidator(), pointUpdater, new PointRateLimiter(), new PointBatchProperties(4, 1000));
+    }
+
+    @Test
+    @DisplayName("같은 유저의 요청은 상계되어 잔액 갱신과 내역 기록이 한 번씩만 일어난다")
+    void netOperationsPerUser() {
+        // given
+        long userId = 1L;
+        when(userPointTable.selectById(userId)).thenReturn(new UserPoint(userId, 1000L, System.currentTimeMillis()));
+        List<PointOperation> operations = List.of(
+                new PointOperation(userId, TransactionType.CHARGE, 500L),
+                new PointOperation(userId, TransactionType.USE, 300L),
+                new PointOperation(userId, TransactionType.CHARGE, 100L)
+        );
+
+        // when
+        List<PointOperationResult> results = pointBatchService.execute(operations);
+
+        // then
+        assertThat(results).extracting(PointOperationResult::point).containsExactly(1500L, 1200L, 1300L);
+        verify(userPointTable, times(1)).selectById(userId);
+        verify(userPointTable, times(1)).insertOrUpdate(userId, 1300L);
+        verify(pointHistoryAppender, times(1)).appendAll(anyList());
+    }
+
+    @Test
+    @DisplayName("검증에 실패한 요청만 실패하고 나머지 요청은 반영된다")
+    void failOnlyInvalidOperation() {
+        // given
+        when(userPointTable.selectById(1L)).thenReturn(new UserPoint(1L, 100L, System.currentTimeMillis()));
+        when(userPointTable.selectById(2L)).thenReturn(new UserPoint(2L, 0L, System.currentTimeMillis()));
+        List<PointOperation> operations = List.of(
+                new PointOperation(1L, TransactionType.USE, 500L),
+                new PointOperation(1L, TransactionType.CHARGE, 200L),
+                new PointOperation(0L, TransactionType.CHARGE, 200L),
+                new PointOperation(2L, TransactionType.CHARGE, -1L)
+        );
+
+        // when
+        List<PointOperationResult> results = pointBatchService.execute(operations);
+
+        // then
+        assertThat(results).extracting(PointOperationResult::success).containsExactly(false, true, false, false);
+        verify(userPointTable, times(1)).insertOrUpdate(1L, 300L);
+        verify(userPointTable, never()).insertOrUpdate(eq(2L), anyLong());
+    }
+
+    @Test
+    @DisplayName("최대 건수를 넘는 일괄 요청은 한 건도 처리하지 않고 거절된다")
+    void rejectOversizedBatch() {
+        // given
+        List<PointOperation> operations = LongStream.rangeClosed(1, 1_001)
+                .mapToObj(userId -> new PointOperation(userId, TransactionType.CHARGE, 100L))
+                .toList();
+
+        // when - then
+        assertThatThrownBy(() -> pointBatchService.execute(operations)).isInstanceOf(PointValidationException.class);
+        verifyNoInteractions(userPointTable, pointHistoryAppender);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = TransactionType.class, names = {"TRANSFER_OUT", "TRANSFER_IN", "EXPIRE"})
+    @DisplayName("충전/사용이 아닌 거래 종류(이체, 소멸)가 섞인 일괄 요청은 한 건도 처리하지 않고 거절된다")
+    void rejectInternalType(TransactionType type) {
+        // given
+        List<PointOperation> operations = List.of(
+                new PointOperation(1L, TransactionType.CHARGE, 100L),
+                new PointOperation(1L, type, 50L)
+        );
+
+        // when - then
+        assertThatThrownBy(() -> pointBatchService.execute(operations)).isInstanceOf(PointValidationException.class);
+        verifyNoInteractions(userPointTable, pointHistoryAppender);
+    }
+
+    @Test
+    @DisplayName("요청 수 제한을 넘은 유저가 하나라도 있는 일괄 요청은 한 건도 처리하지 않고 429 로 거절된다")
+    void rejectRateLimitedBatch() {
+        // given : 유저별로 초당 한 번, 동시 처리 수 1 (일괄 요청 하나는 유저 수와 관계없이 한 건으로 센다)
+        PointRateLimiter pointRateLimiter = new PointRateLimiter(new PointRateLimitProperties(true, 1, 1, 1, 1024), new SimpleMeterRegistry());
+        PointBatchService limitedBatchService = new PointBatchService(new PointValidator(), pointUpdater, pointRateLimiter, new PointBatchProperties(4, 1000));
+        when(userPointTable.selectById(anyLong())).thenAnswer(invocation -> new UserPoint(invocation.getArgument(0), 0L, System.currentTimeMillis()));
+        limitedBatchService.execute(List.of(
+                new PointOperation(1L, TransactionType.CHARGE, 100L),
+                new PointOperation(2L, TransactionType.CHARGE, 100L)
+        ));
+
+        // when - then : 2번 유저가 제한을 넘었으므로 3번 유저의 요청도 처리하지 않는다.
+        assertThatThrownBy(() -> limitedBatchService.execute(List.of(
+                new PointOperation(3L, TransactionType.CHARGE, 100L),
+                new PointOperation(2L, TransactionType.CHARGE, 100L)
+        ))).isInstanceOf(PointRateLimitException.class);
+        verify(userPointTable, never()).selectById(3L);
+        assertThat(pointRateLimiter.inFlight()).isZero();
+    }
+}
@@ -0,0 +1,85 @@
+package io.hhplus.tdd.point;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+// node 수(1/2/4)에 따른 지속 처리량 비교
+// - 클라이언트마다 자기 유저에게 충전/조회를 번갈아 보내고, 요청할 node 는 돌아가며 고른다. (node 가 N 개면 약 (N-1)/N 이 전달된다)
+// - table 의 임의 지연을 그대로 두고, 워밍업 이후 구간의 처리 건수만 센다.
+// - 한 JVM 에서 띄우므로 CPU 는 나눠 쓴다. node 마다 늘어나는 것은 요청 처리 스레드와 lock/table 이다.
+// ./gradlew benchmark 로만 실행된다.
+@Tag("benchmark")
+class PointClusterBenchmarkTest {
+
+    private static final int CLIENTS = 2_000;
+    private static final Duration WARM_UP = Duration.ofSeconds(10);
+    private static final Duration MEASURE = Duration.ofSeconds(20);
+
+    @Test
+    @DisplayName("node 1/2/4 개에서 임의의 node 로 요청할 때 처리량 비교")
+    void scaleOut() throws InterruptedException {
+        System.out.printf("%6s %10s %12s %10s%n", "nodes", "clients", "requests/s", "failures");
+        for (int nodes : new int[]{1, 2, 4}) {
+            try (PointClusterHarness harness = PointClusterHarness.start(nodes, "server.tomcat.max-connections=" + CLIENTS * 2)) {
+                run(harness);
+            }
+        }
+    }
+
+    private void run(PointClusterHarness harness) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        List<String> urls = harness.members();
+        LongAdder completed = new LongAdder();
+        LongAdder failures = new LongAdder();
+
+        long deadline = System.nanoTime() + WARM_UP.plus(MEASURE).toNanos();
+        CompletableFuture<?>[] clients = new CompletableFuture[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = sendNext(client, urls, i + 1, 0, deadline, completed, failures);
+        }
+
+        Thread.sleep(WARM_UP.toMillis());
+        long startCount = completed.sum();
+        long startFailures = failures.sum();
+        Thread.sleep(MEASURE.toMillis());
+        long count = completed.sum() - startCount;
+        long failed = failures.sum() - startFailures;
+        CompletableFuture.allOf(clients).join();
+
+        System.out.printf("%6d %10d %12.0f %10d%n", urls.size(), CLIENTS, (double) count / MEASURE.toSeconds(), failed);
+    }
+
+    private CompletableFuture<Void> sendNext(HttpClient client, List<String> urls, long userId, int sequence, long deadline, LongAdder completed, LongAdder failures) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        URI base = URI.create(urls.get((int) ((userId + sequence) % urls.size())) + "/point/" + userId);
+        HttpRequest request = sequence % 2 == 0
+                ? HttpRequest.newBuilder(URI.create(base + "/charge"))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString("1"))
+                        .build()
+                : HttpRequest.newBuilder(base).GET().build();
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, e) -> {
+                    if (e == null && response.statusCode() == 200) {
+                        completed.increment();
+                    } else {
+                        failures.increment();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> sendNext(client, urls, userId, sequence + 1, deadline, completed, failures));
+    }
+}
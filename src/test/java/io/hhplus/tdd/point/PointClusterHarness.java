@@ -0,0 +1,163 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.TddApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// 한 JVM 안에서 localhost 의 서로 다른 port 로 node 를 여러 개 띄우는 분산 모드 테스트 도구
+// - node 를 추가/제거하면 모든 node 에 새 구성원을 알리고, shard 이관이 끝날 때까지 기다린다.
+// - 외부 서비스 없이 forwarding, shard 이관, node 수에 따른 처리량을 확인할 때 쓴다.
+class PointClusterHarness implements AutoCloseable {
+
+    private static final Duration SETTLE_TIMEOUT = Duration.ofSeconds(60);
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final List<String> properties;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private PointClusterHarness(List<String> properties) {
+        this.properties = properties;
+    }
+
+    // node 수만큼 띄우고 처음부터 같은 구성원으로 시작한다. (이관할 데이터가 없다)
+    static PointClusterHarness start(int size, String... properties) {
+        PointClusterHarness harness = new PointClusterHarness(List.of(properties));
+        List<Integer> ports = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ports.add(freePort());
+        }
+        List<String> members = ports.stream().map(PointClusterHarness::localUrl).toList();
+        for (int port : ports) {
+            harness.nodes.add(harness.run(port, members));
+        }
+        return harness;
+    }
+
+    // 새 node 를 띄우고 모든 node 에 새 구성원을 알린다. 새 node 의 번호를 반환
+    int addNode() {
+        int port = freePort();
+        List<String> members = new ArrayList<>(members());
+        members.add(localUrl(port));
+        Node node = run(port, members);
+        changeMembers(members);
+        nodes.add(node);
+        awaitSettled();
+        return nodes.size() - 1;
+    }
+
+    // 빠지는 node 를 포함해 모든 node 에 새 구성원을 알리고, 이관이 끝나면 빠진 node 를 내린다.
+    void removeNode(int index) {
+        Node removed = nodes.get(index);
+        List<String> members = new ArrayList<>(members());
+        members.remove(removed.url());
+        changeMembers(members);
+        nodes.remove(index);
+        awaitSettled();
+        removed.context().close();
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    String url(int index) {
+        return nodes.get(index).url();
+    }
+
+    List<String> members() {
+        return nodes.stream().map(Node::url).toList();
+    }
+
+    HttpResponse<String> send(int index, String method, String path, String body) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url(index) + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    <T> T bean(int index, Class<T> type) {
+        return nodes.get(index).context().getBean(type);
+    }
+
+    // 모든 node 가 새로 맡은 shard 를 다 받아올 때까지 대기
+    void awaitSettled() {
+        long deadline = System.nanoTime() + SETTLE_TIMEOUT.toNanos();
+        while (nodes.stream().anyMatch(node -> !node.context().getBean(PointClusterRouter.class).status().pendingShards().isEmpty())) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("shard 이관이 끝나지 않았습니다.");
+            }
+            sleep(50);
+        }
+    }
+
+    @Override
+    public void close() {
+        nodes.forEach(node -> node.context().close());
+        nodes.clear();
+    }
+
+    private Node run(int port, List<String> members) {
+        List<String> args = new ArrayList<>(properties);
+        args.add("server.port=" + port);
+        args.add("point.cluster.enabled=true");
+        args.add("point.cluster.self=" + localUrl(port));
+        args.add("point.cluster.members=" + String.join(",", members));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TddApplication.class)
+                .properties(args.toArray(String[]::new))
+                .run();
+        return new Node(localUrl(port), context);
+    }
+
+    private void changeMembers(List<String> members) {
+        String body = members.stream().map(member -> "\"" + member + "\"").collect(Collectors.joining(",", "[", "]"));
+        for (int i = 0; i < nodes.size(); i++) {
+            HttpResponse<String> response = send(i, "PUT", "/admin/point/cluster/members", body);
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("구성원을 바꾸지 못했습니다: " + response.body());
+            }
+        }
+    }
+
+    private static String localUrl(int port) {
+        return "http://localhost:" + port;
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Node(String url, ConfigurableApplicationContext context) {
+    }
+}
@@ -0,0 +1,123 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryBase;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.Throttle;
+import io.hhplus.tdd.database.UserPointTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+// node 하나의 router 가 유저를 맡은 곳을 정하고, 새로 맡은 shard 를 받아올 때까지(또는 운영자가 풀어 줄 때까지) 요청을 막는지 검증
+class PointClusterRouterTest {
+
+    private static final String SELF = "http://node-a";
+    private static final String OTHER = "http://node-b";
+
+    private final UserPointTable userPointTable = new UserPointTable(Throttle.none());
+    private final PointHistoryTable pointHistoryTable = new PointHistoryTable(Throttle.none());
+    private final PointHistoryAppender pointHistoryAppender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(100, 10, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000));
+    private final PointClusterClient pointClusterClient = mock(PointClusterClient.class);
+    private final PointLots pointLots = new PointLots(new PointExpiryProperties(true, Duration.ofDays(1), Duration.ofMinutes(1), Duration.ofSeconds(10), 100, 1));
+    private final PointClusterRouter pointClusterRouter = new PointClusterRouter(
+            new PointClusterProperties(true, SELF, List.of(SELF, OTHER), 256, 64, Duration.ofSeconds(5), Duration.ofMillis(100)),
+            userPointTable, pointHistoryTable, pointHistoryAppender, new UserPointCache(new UserPointCacheProperties(100, 4)), pointLots, pointClusterClient);
+    private final PointShardRing ring = PointShardRing.of(List.of(SELF, OTHER), 256, 64);
+
+    @AfterEach
+    void tearDown() {
+        pointClusterRouter.close();
+        pointHistoryAppender.close();
+    }
+
+    @Test
+    @DisplayName("이 node 가 맡은 유저는 LOCAL, 다른 node 가 맡은 유저는 FORWARD, 여러 node 에 걸치면 SPLIT")
+    void route() {
+        // given
+        long mine = userOwnedBy(SELF, 1L);
+        long others = userOwnedBy(OTHER, 1L);
+
+        // when - then
+        assertThat(pointClusterRouter.route(List.of(mine))).isEqualTo(PointClusterRouter.Route.LOCAL);
+        assertThat(pointClusterRouter.route(List.of(others))).isEqualTo(new PointClusterRouter.Route(PointClusterRouter.Route.Kind.FORWARD, OTHER));
+        assertThat(pointClusterRouter.route(List.of(mine, others))).isEqualTo(PointClusterRouter.Route.SPLIT);
+        // 아직 이 node 가 맡은 shard 는 넘겨주지 않는다.
+        assertThrows(PointConflictException.class, () -> pointClusterRouter.handoff(List.of(ring.shardOf(mine))));
+    }
+
+    @Test
+    @DisplayName("새로 맡은 shard 는 받아올 때까지 MOVING 이고, 받아온 잔액/내역 합계/내역이 합쳐지고 유효기간 묶음도 다시 쌓인다")
+    void pullHandoff() throws IOException, InterruptedException {
+        // given : 이전 node 가 넘겨줄 유저
+        long userId = userOwnedBy(OTHER, 1L);
+        PointShardHandoff handoff = new PointShardHandoff(
+                List.of(ring.shardOf(userId)),
+                List.of(new PointShardHandoff.Balance(userId, 700L, 10L, 3L)),
+                List.of(new PointHistoryBase(userId, 1_000L, 1_000L, 1, 0, 0, 1L, 1L, 5L)),
+                List.of(new PointHistory(6L, userId, 300L, TransactionType.USE, 2L))
+        );
+        when(pointClusterClient.handoff(eq(OTHER), anyList())).thenReturn(handoff);
+
+        // when : 이전 node 가 빠진다.
+        pointClusterRouter.changeMembers(List.of(SELF));
+        awaitSettled();
+
+        // then
+        assertThat(pointClusterRouter.route(List.of(userId))).isEqualTo(PointClusterRouter.Route.LOCAL);
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(700L);
+        assertThat(pointHistoryTable.sumAmountByUserId(userId)).isEqualTo(700L);
+        assertThat(pointHistoryTable.selectAllByUserId(userId)).hasSize(1);
+        assertThat(pointLots.lotsOf(userId)).containsExactly(new PointLot(Duration.ofDays(1).toMillis() + 1L, 700L));
+    }
+
+    @Test
+    @DisplayName("기한 안에 받아오지 못해도 오래된 데이터로 처리하지 않고, 운영자가 풀어 준 shard 만 처리를 시작한다")
+    void keepPendingUntilReleased() throws IOException, InterruptedException {
+        // given : 이전 node 가 응답하지 않는다.
+        long userId = userOwnedBy(OTHER, 1L);
+        when(pointClusterClient.handoff(eq(OTHER), anyList())).thenThrow(new IOException("connection refused"));
+
+        // when : handoffTimeout(100ms) 이 지나도록 기다린다.
+        PointClusterStatus changed = pointClusterRouter.changeMembers(List.of(SELF));
+        Thread.sleep(500);
+
+        // then
+        assertThat(pointClusterRouter.route(List.of(userId))).isEqualTo(PointClusterRouter.Route.MOVING);
+        assertThat(pointClusterRouter.status().pendingShards()).isEqualTo(changed.pendingShards());
+
+        // when : 운영자가 한 shard 만 풀어 준다.
+        PointClusterStatus released = pointClusterRouter.release(List.of(ring.shardOf(userId)));
+
+        // then
+        assertThat(pointClusterRouter.route(List.of(userId))).isEqualTo(PointClusterRouter.Route.LOCAL);
+        assertThat(released.pendingShards()).hasSize(changed.pendingShards().size() - 1);
+    }
+
+    private long userOwnedBy(String owner, long from) {
+        long userId = from;
+        while (!ring.ownerOfUser(userId).equals(owner)) {
+            userId++;
+        }
+        return userId;
+    }
+
+    private void awaitSettled() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!pointClusterRouter.status().pendingShards().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(pointClusterRouter.status().pendingShards()).isEmpty();
+    }
+}
@@ -0,0 +1,143 @@
+package io.hhplus.tdd.point;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.database.UserPointTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// 여러 node 를 띄워 요청이 유저를 맡은 node 로 전달되고, node 를 추가/제거해도 유저 데이터가 옮겨지는지 검증
+// node 마다 Spring context 를 띄우므로 ./gradlew clusterTest 로만 실행된다. (router, filter 의 단위 테스트는 PointClusterRouterTest, PointForwardingFilterTest)
+@Tag("cluster")
+class PointClusterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("어느 node 로 요청해도 유저를 맡은 node 에서 처리되고, 잔액은 그 node 에만 있다")
+    void forwardToOwner() throws IOException {
+        try (PointClusterHarness harness = PointClusterHarness.start(3)) {
+            // given - when : 유저마다 서로 다른 node 로 충전
+            int users = 9;
+            for (long userId = 1; userId <= users; userId++) {
+                HttpResponse<String> response = harness.send((int) (userId % 3), "PATCH", "/point/" + userId + "/charge", "1000");
+                assertThat(response.statusCode()).isEqualTo(200);
+            }
+
+            // then
+            for (long userId = 1; userId <= users; userId++) {
+                for (int node = 0; node < harness.size(); node++) {
+                    assertThat(point(harness, node, userId)).isEqualTo(1000L);
+                }
+                int holders = 0;
+                for (int node = 0; node < harness.size(); node++) {
+                    holders += harness.bean(node, UserPointTable.class).findById(userId) != null ? 1 : 0;
+                }
+                assertThat(holders).isEqualTo(1);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("서로 다른 node 의 유저끼리는 이체할 수 없다")
+    void rejectTransferAcrossNodes() {
+        try (PointClusterHarness harness = PointClusterHarness.start(2)) {
+            // given : 서로 다른 node 가 맡은 두 유저
+            PointShardRing ring = PointShardRing.of(harness.members(), 256, 64);
+            long from = 1L;
+            long to = 2L;
+            while (ring.ownerOfUser(to).equals(ring.ownerOfUser(from))) {
+                to++;
+            }
+
+            // when
+            HttpResponse<String> response = harness.send(0, "POST", "/point/transfer", "{\"fromUserId\":" + from + ",\"toUserId\":" + to + ",\"amount\":100}");
+
+            // then
+            assertThat(response.statusCode()).isEqualTo(422);
+        }
+    }
+
+    @Test
+    @DisplayName("node 를 추가하고 제거해도 옮겨진 유저의 잔액과 내역이 그대로 보이고 이어서 처리된다")
+    void rebalance() throws IOException {
+        try (PointClusterHarness harness = PointClusterHarness.start(2)) {
+            // given : 유저마다 충전 1,000 후 사용 300
+            int users = 8;
+            for (long userId = 1; userId <= users; userId++) {
+                harness.send(0, "PATCH", "/point/" + userId + "/charge", "1000");
+                harness.send(1, "PATCH", "/point/" + userId + "/use", "300");
+            }
+
+            // when : node 추가 후 새 node 로 조회
+            int added = harness.addNode();
+
+            // then
+            for (long userId = 1; userId <= users; userId++) {
+                assertThat(point(harness, added, userId)).isEqualTo(700L);
+                assertThat(histories(harness, added, userId).size()).isEqualTo(2);
+            }
+
+            // when : 처음 node 를 빼고 이어서 충전
+            harness.removeNode(0);
+            for (long userId = 1; userId <= users; userId++) {
+                assertThat(harness.send(0, "PATCH", "/point/" + userId + "/charge", "100").statusCode()).isEqualTo(200);
+            }
+
+            // then
+            for (long userId = 1; userId <= users; userId++) {
+                assertThat(point(harness, 1, userId)).isEqualTo(800L);
+                JsonNode histories = histories(harness, 1, userId);
+                assertThat(histories.size()).isEqualTo(3);
+                assertThat(histories.get(2).get("id").asLong()).isGreaterThan(histories.get(1).get("id").asLong());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("옮겨진 유저의 충전 포인트도 유효기간이 지나면 새로 맡은 node 에서 소멸한다")
+    void expireMovedUsers() throws IOException {
+        try (PointClusterHarness harness = PointClusterHarness.start(2, "point.expiry.enabled=true", "point.expiry.ttl=1d")) {
+            // given : 유저마다 1,000 충전
+            int users = 8;
+            for (long userId = 1; userId <= users; userId++) {
+                assertThat(harness.send(0, "PATCH", "/point/" + userId + "/charge", "1000").statusCode()).isEqualTo(200);
+            }
+
+            // when : node 를 추가해 일부 유저를 옮기고, 모든 node 에서 유효기간이 지난 시각으로 소멸 처리
+            int added = harness.addNode();
+            long at = System.currentTimeMillis() + Duration.ofDays(1).plusMinutes(2).toMillis();
+            for (int node = 0; node < harness.size(); node++) {
+                harness.bean(node, PointExpirer.class).sweep(at);
+            }
+
+            // then : 옮겨진 유저를 포함해 모든 유저가 한 번씩만 소멸된다.
+            PointShardRing ring = PointShardRing.of(harness.members(), 256, 64);
+            int moved = 0;
+            for (long userId = 1; userId <= users; userId++) {
+                moved += ring.ownerOfUser(userId).equals(harness.url(added)) ? 1 : 0;
+                assertThat(point(harness, added, userId)).isZero();
+                JsonNode histories = histories(harness, added, userId);
+                assertThat(histories.size()).isEqualTo(2);
+                assertThat(histories.get(1).get("type").asText()).isEqualTo("EXPIRE");
+            }
+            assertThat(moved).isPositive();
+        }
+    }
+
+    private long point(PointClusterHarness harness, int node, long userId) throws IOException {
+        return objectMapper.readTree(harness.send(node, "GET", "/point/" + userId, null).body()).get("point").asLong();
+    }
+
+    private JsonNode histories(PointClusterHarness harness, int node, long userId) throws IOException {
+        return objectMapper.readTree(harness.send(node, "GET", "/point/" + userId + "/histories", null).body());
+    }
+}
@@ -16,6 +16,8 @@ import java.util.List;
 
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -57,6 +59,24 @@ class PointControllerTest {
         mockMvc.perform(get("/point/{id}/histories", userId)).andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("Accept 헤더가 없거나 모든 형식을 받는 내역 조회는 NDJSON 이 아닌 JSON 목록으로 응답한다")
+    void getUserPointHistoryWithoutAccept() throws Exception {
+        // given
+        long userId = 1L;
+        List<PointHistory> historyList = List.of(new PointHistory(1L, userId, 1000L, TransactionType.CHARGE, 1L));
+        given(pointService.getUserPointHistory(userId)).willReturn(historyList);
+
+        // when - then
+        mockMvc.perform(get("/point/{id}/histories", userId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].id").value(1L));
+        mockMvc.perform(get("/point/{id}/histories", userId).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     @DisplayName("특정 유저의 포인트를 충전하는 기능")
     void chargeUserPoint() throws Exception {
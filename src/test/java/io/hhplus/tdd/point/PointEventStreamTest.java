@@ -0,0 +1,87 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// 기록된 내역이 순번과 함께 이벤트로 실리고, 구독자가 자기 위치에서 이어 읽는지 검증
+class PointEventStreamTest {
+
+    @Test
+    @DisplayName("기록이 끝난 내역은 기록된 순서대로 이벤트로 읽힌다")
+    void publishWrittenHistories() {
+        // given
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+        PointEventStream stream = new PointEventStream();
+        PointHistoryAppender appender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(100, 10, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000), PointMetrics.noop(), new PointStatistics(), stream);
+        long userId = 1L;
+
+        // when
+        appender.append(new PointHistoryEntry(userId, 100L, TransactionType.CHARGE, System.currentTimeMillis()));
+        appender.append(new PointHistoryEntry(userId, 50L, TransactionType.USE, System.currentTimeMillis()));
+        appender.awaitFlushed(userId);
+
+        // then
+        List<PointEvent> events = new ArrayList<>();
+        long next = stream.read(0, 10, events::add);
+        assertThat(next).isEqualTo(2);
+        assertThat(events).extracting(PointEvent::sequence).containsExactly(0L, 1L);
+        assertThat(events).extracting(PointEvent::history).isEqualTo(pointHistoryTable.selectAllByUserId(userId));
+        appender.close();
+    }
+
+    @Test
+    @DisplayName("구독자는 각자의 위치에서 이어 읽고, 덮어쓰인 구간은 건너뛴다")
+    void readFromOffset() {
+        // given : 최근 8개만 남기는 stream 에 20개를 싣는다.
+        PointEventStream stream = new PointEventStream(new PointEventProperties(8, 256, Duration.ofMillis(50), 1, Duration.ofMinutes(1)));
+        List<PointHistory> histories = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            histories.add(new PointHistory(id, 1L, id, TransactionType.CHARGE, id));
+        }
+        stream.publish(histories);
+
+        // when
+        List<PointEvent> recent = new ArrayList<>();
+        long recentNext = stream.read(18, 10, recent::add);
+        List<PointEvent> lagging = new ArrayList<>();
+        long laggingNext = stream.read(3, 5, lagging::add);
+
+        // then
+        assertThat(recent).extracting(event -> event.history().id()).containsExactly(19L, 20L);
+        assertThat(recentNext).isEqualTo(stream.next());
+        assertThat(lagging).extracting(PointEvent::sequence).containsExactly(12L, 13L, 14L, 15L, 16L);
+        assertThat(laggingNext).isEqualTo(17L);
+        assertThat(stream.read(stream.next(), 10, event -> {
+        })).isEqualTo(20L);
+    }
+
+    @Test
+    @DisplayName("이어 받을 위치는 같은 epoch 의 이미 실린 이벤트 id 에서만 정해지고, 재시작 전의 id 는 이어 받을 수 없다")
+    void resumeOnlyWithinEpoch() {
+        // given : 재시작 전후의 stream 에 같은 순번까지 싣는다.
+        PointEventProperties properties = new PointEventProperties(8, 256, Duration.ofMillis(50), 1, Duration.ofMinutes(1));
+        PointEventStream before = new PointEventStream(properties, 1_000L);
+        PointEventStream restarted = new PointEventStream(properties, 2_000L);
+        List<PointHistory> histories = List.of(
+                new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 1L),
+                new PointHistory(2L, 1L, 50L, TransactionType.USE, 2L)
+        );
+        before.publish(histories);
+        restarted.publish(histories);
+
+        // when - then
+        assertThat(restarted.eventId(1)).isEqualTo("2000-1");
+        assertThat(restarted.after(restarted.eventId(0))).isEqualTo(1L);
+        assertThat(restarted.after(before.eventId(0))).isEqualTo(-1L);
+        assertThat(restarted.after("2000-5")).isEqualTo(-1L);
+        assertThat(restarted.after("1")).isEqualTo(-1L);
+    }
+}
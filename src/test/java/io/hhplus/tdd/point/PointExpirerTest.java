@@ -0,0 +1,136 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryBase;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.Throttle;
+import io.hhplus.tdd.database.UserPointTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+// 충전한 포인트가 유효기간 묶음으로 관리되고, 소멸 시각이 지나면 EXPIRE 내역과 함께 차감되는지 검증
+class PointExpirerTest {
+
+    private static final long DAY = Duration.ofDays(1).toMillis();
+    private static final PointExpiryProperties PROPERTIES = new PointExpiryProperties(true, Duration.ofDays(1), Duration.ofMinutes(1), Duration.ofSeconds(10), 100, 1);
+
+    private final PointHistoryTable pointHistoryTable = new PointHistoryTable(Throttle.none());
+    private final UserPointTable userPointTable = new UserPointTable(Throttle.none());
+    private final PointLots pointLots = new PointLots(PROPERTIES);
+    private final PointHistoryAppender pointHistoryAppender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(100, 10, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000), PointMetrics.noop(), new PointStatistics(), new PointEventStream(), pointLots);
+    private final PointUpdater pointUpdater = new PessimisticPointUpdater(userPointTable, new LockManager(), pointHistoryAppender, new UserPointCache(new UserPointCacheProperties(100, 4)));
+    private final PointClusterRouter pointClusterRouter = mock(PointClusterRouter.class);
+    private final PointExpirer pointExpirer = new PointExpirer(pointUpdater, pointLots, PointMetrics.noop(), pointClusterRouter, PROPERTIES);
+
+    @BeforeEach
+    void setUp() {
+        when(pointClusterRouter.localLock()).thenReturn(new ReentrantLock());
+        when(pointClusterRouter.route(anyList())).thenReturn(PointClusterRouter.Route.LOCAL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pointHistoryAppender.close();
+    }
+
+    @Test
+    @DisplayName("사용과 보낸 이체는 먼저 소멸하는 묶음부터 차감하고, 받은 쪽은 그 소멸 시각을 이어받는다")
+    void consumeSoonestFirst() {
+        // given : 소멸 시각이 다른 세 묶음
+        pointLots.record(List.of(
+                new PointHistoryEntry(1L, 100L, TransactionType.CHARGE, 1_000L),
+                new PointHistoryEntry(1L, 50L, TransactionType.CHARGE, 500L),
+                new PointHistoryEntry(1L, 70L, TransactionType.CHARGE, 2_000L)
+        ));
+
+        // when
+        pointLots.record(List.of(new PointHistoryEntry(1L, 60L, TransactionType.USE, 3_000L)));
+        pointLots.record(List.of(
+                new PointHistoryEntry(1L, 80L, TransactionType.TRANSFER_OUT, 3_000L),
+                new PointHistoryEntry(2L, 80L, TransactionType.TRANSFER_IN, 3_000L)
+        ));
+
+        // then
+        assertThat(pointLots.lotsOf(1L)).containsExactly(new PointLot(DAY + 1_000L, 10L), new PointLot(DAY + 2_000L, 70L));
+        assertThat(pointLots.lotsOf(2L)).containsExactly(new PointLot(DAY + 1_000L, 80L));
+        assertThat(pointLots.expired(1L, DAY + 1_000L)).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("소멸 시각이 지나면 남은 포인트만 EXPIRE 내역과 함께 차감된다")
+    void expireRemaining() {
+        // given : 100 충전 후 30 사용
+        long userId = 1L;
+        pointUpdater.update(userId, PointMutation.charge(userId, 100L));
+        pointUpdater.update(userId, PointMutation.use(userId, 30L));
+        long at = System.currentTimeMillis() + DAY + Duration.ofMinutes(2).toMillis();
+
+        // when
+        int beforeExpiry = pointExpirer.sweep(System.currentTimeMillis());
+        int expired = pointExpirer.sweep(at);
+
+        // then
+        assertThat(beforeExpiry).isZero();
+        assertThat(expired).isEqualTo(1);
+        assertThat(userPointTable.selectById(userId).point()).isZero();
+        pointHistoryAppender.awaitFlushed(userId);
+        List<PointHistory> histories = pointHistoryTable.selectAllByUserId(userId);
+        assertThat(histories).extracting(PointHistory::type).containsExactly(TransactionType.CHARGE, TransactionType.USE, TransactionType.EXPIRE);
+        assertThat(histories.get(2).amount()).isEqualTo(70L);
+        // 소멸 내역은 처리 주기의 기준 시각(at)이 아니라 반영한 시각으로 남는다.
+        assertThat(histories.get(2).updateMillis()).isLessThan(at).isGreaterThanOrEqualTo(histories.get(1).updateMillis());
+        assertThat(pointLots.lotsOf(userId)).isEmpty();
+        assertThat(pointLots.pendingBuckets()).isZero();
+    }
+
+    @Test
+    @DisplayName("분산 모드에서 다른 node 가 맡은 유저는 소멸시키지 않고, 그 유저의 묶음은 버린다")
+    void skipUsersOwnedByOtherNode() {
+        // given : 100 충전 후 다른 node 로 넘겨준 유저
+        long userId = 1L;
+        pointUpdater.update(userId, PointMutation.charge(userId, 100L));
+        when(pointClusterRouter.route(List.of(userId))).thenReturn(new PointClusterRouter.Route(PointClusterRouter.Route.Kind.FORWARD, "http://node-b"));
+
+        // when
+        int swept = pointExpirer.sweep(System.currentTimeMillis() + DAY + Duration.ofMinutes(2).toMillis());
+
+        // then
+        assertThat(swept).isEqualTo(1);
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(100L);
+        pointHistoryAppender.awaitFlushed(userId);
+        assertThat(pointHistoryTable.selectAllByUserId(userId)).extracting(PointHistory::type).containsExactly(TransactionType.CHARGE);
+        assertThat(pointLots.lotsOf(userId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("재시작 시 복구한 archive 합계와 남은 내역으로 묶음을 다시 쌓는다")
+    void rebuildLotsOnRestore() {
+        // given : archive 된 합계 500 (마지막 시각 1,000) 과 남은 내역
+        PointLots restored = new PointLots(PROPERTIES);
+
+        // when
+        restored.restoreBase(new PointHistoryBase(1L, 500L, 500L, 1, 0, 0, 1_000L, 1_000L, 1L));
+        restored.restore(new PointHistory(2L, 1L, 100L, TransactionType.CHARGE, 2_000L));
+        restored.restore(new PointHistory(3L, 1L, 550L, TransactionType.USE, 3_000L));
+        restored.restore(new PointHistory(4L, 2L, 300L, TransactionType.CHARGE, 4_000L));
+        restored.restore(new PointHistory(5L, 2L, 200L, TransactionType.TRANSFER_OUT, 5_000L));
+        restored.restore(new PointHistory(6L, 3L, 200L, TransactionType.TRANSFER_IN, 5_000L));
+
+        // then
+        assertThat(restored.lotsOf(1L)).containsExactly(new PointLot(DAY + 2_000L, 50L));
+        assertThat(restored.lotsOf(2L)).containsExactly(new PointLot(DAY + 4_000L, 100L));
+        assertThat(restored.lotsOf(3L)).containsExactly(new PointLot(DAY + 4_000L, 200L));
+        assertThat(restored.expired(1L, DAY + 2_000L)).isEqualTo(50L);
+    }
+}
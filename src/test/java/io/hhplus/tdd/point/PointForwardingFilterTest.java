@@ -0,0 +1,185 @@
+package io.hhplus.tdd.point;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+// 요청의 유저를 맡은 곳(router 의 Route)에 따라 이 node 에서 처리하거나, 전달하거나, 거절하는지 검증
+class PointForwardingFilterTest {
+
+    private static final String OTHER = "http://node-b";
+
+    private final PointClusterRouter pointClusterRouter = mock(PointClusterRouter.class);
+    private final PointClusterClient pointClusterClient = mock(PointClusterClient.class);
+    private final PointForwardingFilter filter = new PointForwardingFilter(pointClusterRouter, pointClusterClient, new ObjectMapper());
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final MockFilterChain chain = new MockFilterChain();
+
+    @BeforeEach
+    void setUp() {
+        when(pointClusterRouter.enabled()).thenReturn(true);
+        when(pointClusterRouter.localLock()).thenReturn(new ReentrantLock());
+    }
+
+    @Test
+    @DisplayName("이 node 가 맡은 유저의 요청은 그대로 처리한다")
+    void handleLocal() throws ServletException, IOException {
+        // given
+        when(pointClusterRouter.route(List.of(1L))).thenReturn(PointClusterRouter.Route.LOCAL);
+
+        // when
+        filter.doFilter(new MockHttpServletRequest("PATCH", "/point/1/charge"), response, chain);
+
+        // then
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("유저가 없는 요청(전체 통계 등)은 router 를 거치지 않고 처리한다")
+    void skipWithoutUser() throws ServletException, IOException {
+        // when
+        filter.doFilter(new MockHttpServletRequest("GET", "/point/statistics"), response, chain);
+
+        // then
+        assertThat(chain.getRequest()).isNotNull();
+        verify(pointClusterRouter, never()).route(anyList());
+    }
+
+    @Test
+    @DisplayName("이전 node 에서 받아오는 중인 유저는 503 과 Retry-After 로 응답한다")
+    void rejectMoving() throws ServletException, IOException {
+        // given
+        when(pointClusterRouter.route(List.of(1L))).thenReturn(PointClusterRouter.Route.MOVING);
+
+        // when
+        filter.doFilter(new MockHttpServletRequest("PATCH", "/reactive/point/1/use"), response, chain);
+
+        // then
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+    }
+
+    @Test
+    @DisplayName("이체는 body 의 두 유저로 node 를 정하고, 서로 다른 node 에 있으면 422 로 거절한다")
+    void rejectSplitTransfer() throws ServletException, IOException {
+        // given
+        when(pointClusterRouter.route(List.of(1L, 2L))).thenReturn(PointClusterRouter.Route.SPLIT);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/point/transfer");
+        request.setContent("{\"fromUserId\":1,\"toUserId\":2,\"amount\":100}".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        filter.doFilter(request, response, chain);
+
+        // then
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    @DisplayName("body 로 유저를 확인한 요청도 controller 가 ReadListener 로 body 를 다시 읽을 수 있다")
+    void readCachedBodyWithListener() throws ServletException, IOException {
+        // given
+        String body = "{\"fromUserId\":1,\"toUserId\":2,\"amount\":100}";
+        when(pointClusterRouter.route(List.of(1L, 2L))).thenReturn(PointClusterRouter.Route.LOCAL);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/point/transfer");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        filter.doFilter(request, response, chain);
+        ServletInputStream input = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        // when
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (input.isReady() && !input.isFinished()) {
+                    read.write(input.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allDataRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+
+        // then
+        assertThat(allDataRead).isTrue();
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    @DisplayName("다른 node 가 맡은 유저의 요청은 body 와 Idempotency-Key 를 그대로 전달하고 응답을 돌려준다")
+    void forwardToOwner() throws ServletException, IOException, InterruptedException {
+        // given
+        when(pointClusterRouter.route(List.of(1L))).thenReturn(new PointClusterRouter.Route(PointClusterRouter.Route.Kind.FORWARD, OTHER));
+        @SuppressWarnings("unchecked")
+        HttpResponse<byte[]> forwarded = mock(HttpResponse.class);
+        when(forwarded.statusCode()).thenReturn(200);
+        when(forwarded.headers()).thenReturn(HttpHeaders.of(Map.of("Content-Type", List.of("application/json")), (name, value) -> true));
+        when(forwarded.body()).thenReturn("{\"id\":1,\"point\":1000}".getBytes(StandardCharsets.UTF_8));
+        when(pointClusterClient.forward(eq(OTHER), eq("PATCH"), eq("/point/1/charge"), eq(Map.of("Idempotency-Key", "charge-1")), any())).thenReturn(forwarded);
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/point/1/charge");
+        request.addHeader("Idempotency-Key", "charge-1");
+        request.setContent("1000".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        filter.doFilter(request, response, chain);
+
+        // then
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).startsWith("application/json");
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("{\"id\":1,\"point\":1000}");
+    }
+
+    @Test
+    @DisplayName("이미 전달받은 요청은 다시 전달하지 않고 421 로 거절한다")
+    void rejectForwardedTwice() throws ServletException, IOException, InterruptedException {
+        // given
+        when(pointClusterRouter.route(List.of(1L))).thenReturn(new PointClusterRouter.Route(PointClusterRouter.Route.Kind.FORWARD, OTHER));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/point/1");
+        request.addHeader(PointClusterClient.FORWARDED_HEADER, "http://node-c");
+
+        // when
+        filter.doFilter(request, response, chain);
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(421);
+        verify(pointClusterClient, never()).forward(any(), any(), any(), any(), any());
+    }
+}
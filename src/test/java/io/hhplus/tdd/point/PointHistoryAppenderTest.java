@@ -0,0 +1,141 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+
+// 내역이 비동기로 기록되더라도 본인 조회에서는 보이고, 종료 시 대기열이 모두 기록되는지 검증
+class PointHistoryAppenderTest {
+
+    @Test
+    @DisplayName("기록 대기 중인 내역도 awaitFlushed 이후에는 조회된다")
+    void readOwnWrites() {
+        // given
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+        PointHistoryAppender appender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(100, 10, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000));
+        long userId = 1L;
+
+        // when
+        appender.append(new PointHistoryEntry(userId, 100L, TransactionType.CHARGE, System.currentTimeMillis()));
+        appender.append(new PointHistoryEntry(userId, 50L, TransactionType.USE, System.currentTimeMillis()));
+        appender.awaitFlushed(userId);
+
+        // then
+        List<PointHistory> histories = pointHistoryTable.selectAllByUserId(userId);
+        assertThat(histories).extracting(PointHistory::type).containsExactly(TransactionType.CHARGE, TransactionType.USE);
+        appender.close();
+    }
+
+    @Test
+    @DisplayName("종료하면 대기열에 남은 내역을 모두 기록한다")
+    void drainOnClose() {
+        // given
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+        PointHistoryAppender appender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(100, 10, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000));
+        for (long userId = 1; userId <= 20; userId++) {
+            appender.append(new PointHistoryEntry(userId, 100L, TransactionType.CHARGE, System.currentTimeMillis()));
+        }
+
+        // when
+        appender.close();
+
+        // then
+        for (long userId = 1; userId <= 20; userId++) {
+            assertThat(pointHistoryTable.selectAllByUserId(userId)).hasSize(1);
+        }
+    }
+
+    @Test
+    @DisplayName("REJECT 설정에서 대기열이 가득 차면 즉시 실패한다")
+    void rejectWhenFull() throws InterruptedException {
+        // given : 기록이 끝나지 않는 table
+        PointHistoryTable pointHistoryTable = mock(PointHistoryTable.class);
+        when(pointHistoryTable.insertAll(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(Long.MAX_VALUE);
+            return List.of();
+        });
+        PointHistoryAppender appender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(1, 1, PointHistoryAppenderProperties.Overflow.REJECT, 5, 5_000));
+        PointHistoryEntry entry = new PointHistoryEntry(1L, 100L, TransactionType.CHARGE, System.currentTimeMillis());
+        appender.append(entry);
+        // 첫 요청이 기록 중으로 빠져나갈 때까지 대기
+        while (appender.pendingCount() > 0) {
+            Thread.sleep(10);
+        }
+        appender.append(entry);
+
+        // when - then
+        assertThrows(PointHistoryOverflowException.class, () -> appender.append(entry));
+    }
+
+    @Test
+    @DisplayName("기록이 끝나지 않으면 조회 전 대기는 제한 시간 뒤 실패한다")
+    void awaitFlushedTimesOut() {
+        // given : 기록이 끝나지 않는 table
+        PointHistoryTable pointHistoryTable = mock(PointHistoryTable.class);
+        when(pointHistoryTable.insertAll(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(Long.MAX_VALUE);
+            return List.of();
+        });
+        PointHistoryAppender appender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(10, 10, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 100));
+        appender.append(new PointHistoryEntry(1L, 100L, TransactionType.CHARGE, System.currentTimeMillis()));
+
+        // when - then
+        assertThrows(PointHistoryOverflowException.class, () -> appender.awaitFlushed(1L));
+    }
+
+    @Test
+    @DisplayName("재시도 횟수를 넘겨 실패해도 받아들인 내역은 버리지 않고 기록될 때까지 다시 시도한다")
+    void keepRetryingUntilWritten() {
+        // given : 세 번 실패한 뒤에야 기록되는 table
+        PointHistoryTable pointHistoryTable = mock(PointHistoryTable.class);
+        when(pointHistoryTable.insertAll(anyList()))
+                .thenThrow(new IllegalStateException("disk full"))
+                .thenThrow(new IllegalStateException("disk full"))
+                .thenThrow(new IllegalStateException("disk full"))
+                .thenReturn(List.of());
+        PointHistoryAppender appender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(10, 10, PointHistoryAppenderProperties.Overflow.BLOCK, 1, 5_000));
+        long userId = 1L;
+
+        // when
+        appender.append(new PointHistoryEntry(userId, 100L, TransactionType.CHARGE, System.currentTimeMillis()));
+        appender.awaitFlushed(userId);
+
+        // then : 재시도 횟수(1번)를 넘겨 네 번째 시도에서 기록된다.
+        verify(pointHistoryTable, times(4)).insertAll(anyList());
+        appender.close();
+    }
+
+    @Test
+    @DisplayName("통계는 내역을 받아들일 때가 아니라 기록에 성공한 뒤에 반영된다")
+    void recordStatisticsAfterWrite() throws InterruptedException {
+        // given : 기록을 붙잡아 둘 수 있는 table
+        CountDownLatch release = new CountDownLatch(1);
+        PointHistoryTable pointHistoryTable = mock(PointHistoryTable.class);
+        when(pointHistoryTable.insertAll(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+        PointStatistics pointStatistics = new PointStatistics();
+        PointHistoryAppender appender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(10, 10, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000), PointMetrics.noop(), pointStatistics);
+        long userId = 1L;
+
+        // when
+        appender.append(new PointHistoryEntry(userId, 100L, TransactionType.CHARGE, System.currentTimeMillis()));
+
+        // then
+        assertThat(pointStatistics.user(userId).charged()).isZero();
+        release.countDown();
+        appender.awaitFlushed(userId);
+        assertThat(pointStatistics.user(userId).charged()).isEqualTo(100L);
+        appender.close();
+    }
+}
@@ -0,0 +1,105 @@
+package io.hhplus.tdd.point;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+// 같은 Idempotency-Key 의 요청은 한 번만 처리되고, 캐시는 설정한 크기를 넘지 않는지 검증
+class PointIdempotencyCacheTest {
+
+    @Test
+    @DisplayName("같은 key 로 동시에 재시도해도 한 번만 처리되고 같은 결과를 받는다")
+    void executeOnce() throws InterruptedException {
+        // given
+        PointIdempotencyCache cache = new PointIdempotencyCache(new PointIdempotencyProperties(Duration.ofHours(1), 1_000, 4));
+        AtomicInteger executed = new AtomicInteger();
+        int threadCount = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        UserPoint[] results = new UserPoint[threadCount];
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            int index = i;
+            executorService.submit(() -> {
+                try {
+                    results[index] = cache.execute(1L, TransactionType.CHARGE, "retry-1", 1_000L,
+                            () -> new UserPoint(1L, 1_000L * executed.incrementAndGet(), System.currentTimeMillis()));
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        // then
+        assertThat(executed.get()).isEqualTo(1);
+        assertThat(results).containsOnly(results[0]);
+        // 같은 key 라도 거래 종류가 다르면 별개의 요청이다.
+        cache.execute(1L, TransactionType.USE, "retry-1", 1_000L, () -> new UserPoint(1L, 0L, System.currentTimeMillis()));
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("같은 key 로 다른 금액을 요청하면 실패하고, 실패한 요청은 다시 시도할 수 있다")
+    void conflictAndFailure() {
+        // given
+        PointIdempotencyCache cache = new PointIdempotencyCache(new PointIdempotencyProperties(Duration.ofHours(1), 1_000, 4));
+        cache.execute(1L, TransactionType.CHARGE, "key", 1_000L, () -> new UserPoint(1L, 1_000L, System.currentTimeMillis()));
+
+        // when - then
+        assertThrows(PointIdempotencyConflictException.class,
+                () -> cache.execute(1L, TransactionType.CHARGE, "key", 2_000L, () -> new UserPoint(1L, 3_000L, System.currentTimeMillis())));
+        assertThrows(IllegalStateException.class,
+                () -> cache.execute(2L, TransactionType.USE, "key", 100L, () -> {
+                    throw new IllegalStateException("포인트가 부족합니다.");
+                }));
+        UserPoint retried = cache.execute(2L, TransactionType.USE, "key", 100L, () -> new UserPoint(2L, 0L, System.currentTimeMillis()));
+        assertThat(retried.point()).isZero();
+    }
+
+    @Test
+    @DisplayName("보관 수가 설정한 크기에 닿으면 보관한 결과를 밀어내지 않고 새 key 를 처리하지 않은 채 거절한다")
+    void rejectWhenFull() throws InterruptedException {
+        // given
+        PointIdempotencyCache cache = new PointIdempotencyCache(new PointIdempotencyProperties(Duration.ofSeconds(1), 1_000, 4));
+        AtomicInteger executed = new AtomicInteger();
+
+        // when : 거절될 때까지 새 key 를 넣는다.
+        PointRateLimitException rejected = null;
+        long userId = 0;
+        while (rejected == null && userId < 100_000) {
+            long id = ++userId;
+            try {
+                cache.execute(id, TransactionType.CHARGE, "key-" + id, 1L, () -> new UserPoint(id, executed.incrementAndGet(), System.currentTimeMillis()));
+            } catch (PointRateLimitException e) {
+                rejected = e;
+            }
+        }
+
+        // then : 거절된 요청은 처리되지 않았고, 먼저 보관한 결과는 그대로 남는다.
+        assertThat(rejected).isNotNull();
+        assertThat(executed.get()).isEqualTo(userId - 1);
+        assertThat(cache.size()).isEqualTo(userId - 1).isLessThanOrEqualTo(1_000);
+        UserPoint first = cache.execute(1L, TransactionType.CHARGE, "key-1", 1L, () -> {
+            throw new AssertionError("보관한 결과는 ttl 동안 밀려나지 않아야 한다.");
+        });
+        assertThat(first.point()).isEqualTo(1L);
+
+        // ttl 이 지나 세대가 바뀌면 다시 받는다.
+        Thread.sleep(1_100);
+        long last = userId;
+        UserPoint retried = cache.execute(last, TransactionType.CHARGE, "key-" + last, 1L, () -> new UserPoint(last, executed.incrementAndGet(), System.currentTimeMillis()));
+        assertThat(retried.point()).isEqualTo(last);
+    }
+}
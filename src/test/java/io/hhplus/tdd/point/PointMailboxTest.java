@@ -0,0 +1,140 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.Throttle;
+import io.hhplus.tdd.database.UserPointTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+// 유저별 mailbox 가 몰린 요청을 묶어 반영하면서도, 요청별 검증과 결과는 도착 순서대로 따로 판단하는지 검증
+class PointMailboxTest {
+
+    private final AtomicInteger updateCount = new AtomicInteger();
+    private UserPointTable userPointTable;
+    private PointHistoryTable pointHistoryTable;
+    private PointHistoryAppender pointHistoryAppender;
+    private PointMailbox pointMailbox;
+
+    @BeforeEach
+    void setUp() {
+        userPointTable = new UserPointTable(Throttle.none()) {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                updateCount.incrementAndGet();
+                return super.insertOrUpdate(id, amount);
+            }
+        };
+        pointHistoryTable = new PointHistoryTable(Throttle.none());
+        pointHistoryAppender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(10_000, 500, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000));
+        UserPointCache userPointCache = new UserPointCache(new UserPointCacheProperties(100, 4));
+        PointUpdater pointUpdater = new PessimisticPointUpdater(userPointTable, new LockManager(), pointHistoryAppender, userPointCache);
+        pointMailbox = new PointMailbox(pointUpdater, new PointMailboxProperties(true, 4, 256, 1024));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pointMailbox.close();
+        pointHistoryAppender.close();
+    }
+
+    @Test
+    @DisplayName("한 유저에게 몰린 충전은 묶어서 반영되고 모든 충전이 유실 없이 기록된다")
+    void coalesceHotUser() {
+        // given
+        long userId = 1L;
+        List<CompletableFuture<UserPoint>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            futures.add(pointMailbox.submit(userId, PointMutation.charge(userId, 10L)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        // then : 잔액 갱신 횟수는 요청 수보다 적고, 요청마다 서로 다른 잔액을 돌려받는다.
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(10_000L);
+        assertThat(updateCount.get()).isLessThan(1000);
+        assertThat(futures).extracting(future -> future.join().point()).doesNotHaveDuplicates();
+        pointHistoryAppender.awaitFlushed(userId);
+        assertThat(pointHistoryTable.selectAllByUserId(userId)).hasSize(1000);
+    }
+
+    @Test
+    @DisplayName("같은 묶음 안에서도 잔액 부족은 도착 순서대로 요청 한 건만 실패시킨다")
+    void judgeEachOperationInOrder() throws InterruptedException {
+        // given : 잔액 100, 앞선 요청이 처리되는 동안 세 요청이 대기열에 쌓인다.
+        long userId = 1L;
+        userPointTable.insertOrUpdate(userId, 100L);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<UserPoint> blocker = pointMailbox.submit(userId, current -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return PointChange.none(current);
+        });
+        started.await();
+
+        // when
+        CompletableFuture<UserPoint> use80 = pointMailbox.submit(userId, PointMutation.use(userId, 80L));
+        CompletableFuture<UserPoint> use50 = pointMailbox.submit(userId, PointMutation.use(userId, 50L));
+        CompletableFuture<UserPoint> charge30 = pointMailbox.submit(userId, PointMutation.charge(userId, 30L));
+        release.countDown();
+
+        // then
+        assertThat(blocker.join().point()).isEqualTo(100L);
+        assertThat(use80.join().point()).isEqualTo(20L);
+        CompletionException failure = assertThrows(CompletionException.class, use50::join);
+        assertThat(failure.getCause()).isInstanceOf(IllegalStateException.class);
+        assertThat(charge30.join().point()).isEqualTo(50L);
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(50L);
+    }
+
+    @Test
+    @DisplayName("유저의 대기열이 가득 차면 새 요청은 기다리지 않고 요청 수 제한으로 실패한다")
+    void rejectWhenMailboxFull() throws InterruptedException {
+        // given : 대기열 2칸, 첫 요청이 처리되는 동안 두 요청이 대기열을 채운다.
+        PointMailbox smallMailbox = new PointMailbox(new PessimisticPointUpdater(userPointTable, new LockManager(), pointHistoryAppender, new UserPointCache(new UserPointCacheProperties(100, 4))), new PointMailboxProperties(true, 1, 256, 2));
+        long userId = 1L;
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        smallMailbox.submit(userId, current -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return PointChange.none(current);
+        });
+        started.await();
+        CompletableFuture<UserPoint> first = smallMailbox.submit(userId, PointMutation.charge(userId, 10L));
+        CompletableFuture<UserPoint> second = smallMailbox.submit(userId, PointMutation.charge(userId, 10L));
+
+        // when
+        CompletableFuture<UserPoint> rejected = smallMailbox.submit(userId, PointMutation.charge(userId, 10L));
+        release.countDown();
+
+        // then
+        CompletionException failure = assertThrows(CompletionException.class, rejected::join);
+        assertThat(failure.getCause()).isInstanceOf(PointRateLimitException.class);
+        assertThat(second.join().point()).isEqualTo(20L);
+        assertThat(first.join().point()).isEqualTo(10L);
+        smallMailbox.close();
+    }
+}
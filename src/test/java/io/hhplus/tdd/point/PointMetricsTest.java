@@ -0,0 +1,50 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// 구간별 시간과 결과별 건수가 미리 등록한 meter 에 집계되는지 검증
+class PointMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PointMetrics pointMetrics = new PointMetrics(registry);
+
+    @Test
+    @DisplayName("실패 종류별로 다른 counter 에 집계된다")
+    void countFailureKinds() {
+        // when
+        pointMetrics.recordSuccess(TransactionType.CHARGE);
+        pointMetrics.recordFailure(TransactionType.CHARGE, new PointValidationException("충전할 포인트는 0원 이상이어야 합니다."));
+        pointMetrics.recordFailure(TransactionType.USE, new IllegalStateException("포인트가 부족합니다."));
+
+        // then
+        assertThat(count("charge", "success")).isEqualTo(1);
+        assertThat(count("charge", "validation")).isEqualTo(1);
+        assertThat(count("use", "insufficient_balance")).isEqualTo(1);
+        assertThat(count("use", "success")).isZero();
+    }
+
+    @Test
+    @DisplayName("lock 획득마다 대기 시간이 lock_wait 구간에 기록된다")
+    void recordLockWait() {
+        // given
+        LockManager lockManager = new LockManager(LockProperties.defaults(), pointMetrics);
+
+        // when
+        lockManager.lock(1L);
+        lockManager.unlock(1L);
+        lockManager.lock(2L);
+        lockManager.unlock(2L);
+
+        // then
+        assertThat(registry.get("point.stage").tag("stage", "lock_wait").timer().count()).isEqualTo(2);
+    }
+
+    private double count(String type, String result) {
+        return registry.get("point.operations").tag("type", type).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,67 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+// 유저별 요청 수와 전체 동시 처리 수를 넘는 요청은 기다리지 않고 거절되는지 검증
+class PointRateLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("유저별로 burst 만큼은 바로 처리하고 그 뒤의 요청은 Retry-After 와 함께 거절한다")
+    void limitPerUser() {
+        // given : 초당 1건, 한 번에 3건까지
+        PointRateLimiter limiter = new PointRateLimiter(new PointRateLimitProperties(true, 1, 3, 0, 1024), registry);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(1L);
+            limiter.release();
+        }
+
+        // when
+        PointRateLimitException exception = assertThrows(PointRateLimitException.class, () -> limiter.acquire(1L));
+
+        // then : 다른 유저는 영향을 받지 않는다.
+        assertThat(exception.retryAfterSeconds()).isEqualTo(1L);
+        limiter.acquire(2L);
+        limiter.release();
+        assertThat(registry.get("point.rate_limit").tag("result", "admitted").counter().count()).isEqualTo(4);
+        assertThat(registry.get("point.rate_limit").tag("result", "user_limited").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("동시에 처리 중인 요청이 maxConcurrent 에 이르면 거절하고, 끝난 만큼 다시 받는다")
+    void limitConcurrency() {
+        // given
+        PointRateLimiter limiter = new PointRateLimiter(new PointRateLimitProperties(true, 100, 100, 2, 1024), registry);
+        limiter.acquire(1L);
+        limiter.acquire(2L);
+
+        // when - then
+        assertThrows(PointRateLimitException.class, () -> limiter.acquire(3L));
+        limiter.release();
+        limiter.acquire(3L);
+        assertThat(limiter.inFlight()).isEqualTo(2);
+        assertThat(registry.get("point.rate_limit").tag("result", "concurrency_limited").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("제한을 끄면 모든 요청을 통과시킨다")
+    void disabled() {
+        // given
+        PointRateLimiter limiter = new PointRateLimiter(new PointRateLimitProperties(false, 1, 1, 1, 1024), registry);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire(1L);
+        }
+
+        // then
+        assertThat(limiter.inFlight()).isZero();
+    }
+}
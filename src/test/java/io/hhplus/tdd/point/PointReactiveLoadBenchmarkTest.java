@@ -0,0 +1,110 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.TddApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+// 동시 접속 10,000 에서 기존 API(/point)와 요청 스레드를 막지 않는 API(/reactive/point)의 처리량과 접속당 메모리 비교
+// - 클라이언트마다 자기 유저에게 충전/조회를 번갈아 보내고, 응답을 받으면 바로 다음 요청을 보낸다.
+// - 측정 구간 동안 heap 사용량과 스레드 수를 샘플링해 평균을 낸다. (접속당 메모리 = 부하 전보다 늘어난 heap + 스레드 스택 1MB 를 접속 수로 나눈 값)
+// - 같은 애플리케이션에서 두 API 를 차례로 측정한다.
+// ./gradlew benchmark 로만 실행된다.
+@Tag("benchmark")
+class PointReactiveLoadBenchmarkTest {
+
+    private static final int CLIENTS = 10_000;
+    private static final Duration WARM_UP = Duration.ofSeconds(10);
+    private static final Duration MEASURE = Duration.ofSeconds(30);
+    private static final long THREAD_STACK_BYTES = 1024 * 1024;
+
+    @Test
+    @DisplayName("동시 접속 10,000 에서 /point 와 /reactive/point 의 처리량과 접속당 메모리 비교")
+    void compareMvcAndReactive() throws InterruptedException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TddApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.max-connections=" + CLIENTS * 2,
+                        "server.tomcat.accept-count=" + CLIENTS,
+                        "spring.mvc.async.request-timeout=60s")
+                .run()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            System.out.printf("%-10s %10s %12s %10s %10s %14s%n", "api", "clients", "requests/s", "failures", "threads", "KB/connection");
+            run("mvc", port, "/point/");
+            run("reactive", port, "/reactive/point/");
+        }
+    }
+
+    private void run(String api, int port, String basePath) throws InterruptedException {
+        System.gc();
+        long baselineHeap = heapUsed();
+        int baselineThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        LongAdder completed = new LongAdder();
+        LongAdder failures = new LongAdder();
+        long deadline = System.nanoTime() + WARM_UP.plus(MEASURE).toNanos();
+        CompletableFuture<?>[] clients = new CompletableFuture[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = sendNext(client, URI.create("http://localhost:" + port + basePath + (i + 1)), 0, deadline, completed, failures);
+        }
+
+        Thread.sleep(WARM_UP.toMillis());
+        long startCount = completed.sum();
+        long startFailures = failures.sum();
+        long heapSum = 0;
+        long threadSum = 0;
+        long samples = MEASURE.toSeconds();
+        for (int i = 0; i < samples; i++) {
+            Thread.sleep(1_000);
+            heapSum += heapUsed();
+            threadSum += ManagementFactory.getThreadMXBean().getThreadCount();
+        }
+        long count = completed.sum() - startCount;
+        long failed = failures.sum() - startFailures;
+        CompletableFuture.allOf(clients).join();
+
+        long threads = threadSum / samples - baselineThreads;
+        long bytes = Math.max(0, heapSum / samples - baselineHeap) + Math.max(0, threads) * THREAD_STACK_BYTES;
+        System.out.printf("%-10s %10d %12.0f %10d %10d %14.1f%n", api, CLIENTS, (double) count / MEASURE.toSeconds(), failed, threads, bytes / 1024.0 / CLIENTS);
+    }
+
+    private static long heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // 응답을 받으면 deadline 전까지 같은 유저로 다음 요청(충전/조회 번갈아)을 이어서 보낸다.
+    private CompletableFuture<Void> sendNext(HttpClient client, URI base, int sequence, long deadline, LongAdder completed, LongAdder failures) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        HttpRequest request = sequence % 2 == 0
+                ? HttpRequest.newBuilder(URI.create(base + "/charge"))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString("1"))
+                        .build()
+                : HttpRequest.newBuilder(base).GET().build();
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, e) -> {
+                    if (e == null && response.statusCode() == 200) {
+                        completed.increment();
+                    } else {
+                        failures.increment();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> sendNext(client, base, sequence + 1, deadline, completed, failures));
+    }
+}
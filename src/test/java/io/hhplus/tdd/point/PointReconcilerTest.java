@@ -0,0 +1,106 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.MappedPointJournal;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.PointJournal;
+import io.hhplus.tdd.database.PointJournalProperties;
+import io.hhplus.tdd.database.PointJournalRecovery;
+import io.hhplus.tdd.database.PointSnapshotProperties;
+import io.hhplus.tdd.database.PointSnapshotter;
+import io.hhplus.tdd.database.Throttle;
+import io.hhplus.tdd.database.UserPointTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// 잔액과 내역 합계가 다른 유저만 불일치로 보고되는지 검증
+class PointReconcilerTest {
+
+    @Test
+    @DisplayName("잔액이 내역 합계와 다르거나, 잔액 없이 내역만 있는 유저를 찾아낸다")
+    void findDiscrepancies() throws InterruptedException {
+        // given : 유저 5,000명은 충전 1,000 - 사용 300 = 잔액 700
+        UserPointTable userPointTable = new UserPointTable(Throttle.none());
+        PointHistoryTable pointHistoryTable = new PointHistoryTable(Throttle.none());
+        PointHistoryAppender pointHistoryAppender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(100, 10, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000));
+        for (long userId = 1; userId <= 5_000; userId++) {
+            userPointTable.insertOrUpdate(userId, 700L);
+            pointHistoryTable.insert(userId, 1_000L, TransactionType.CHARGE, 1L);
+            pointHistoryTable.insert(userId, 300L, TransactionType.USE, 2L);
+        }
+        userPointTable.insertOrUpdate(7L, 999L);
+        pointHistoryTable.insert(5_001L, 5L, TransactionType.CHARGE, 1L);
+        PointReconciler pointReconciler = new PointReconciler(userPointTable, pointHistoryTable, pointHistoryAppender, new PointReconciliationProperties(false, false, Duration.ofHours(1), 2, 0, 10));
+
+        // when
+        pointReconciler.start();
+        while (pointReconciler.latest().state() == PointReconciliationReport.State.RUNNING) {
+            Thread.sleep(10);
+        }
+
+        // then
+        PointReconciliationReport report = pointReconciler.latest();
+        assertThat(report.state()).isEqualTo(PointReconciliationReport.State.COMPLETED);
+        assertThat(report.totalUsers()).isEqualTo(5_001L);
+        assertThat(report.checkedUsers()).isEqualTo(5_001L);
+        assertThat(report.discrepancies()).containsExactlyInAnyOrder(
+                new PointDiscrepancy(7L, 999L, 700L),
+                new PointDiscrepancy(5_001L, 0L, 5L)
+        );
+        pointReconciler.close();
+        pointHistoryAppender.close();
+    }
+
+    @Test
+    @DisplayName("내역 일부가 archive 로 옮겨진 뒤 재시작해도 잔액을 남은 합계와 내역으로 맞춰 보고 불일치로 보고하지 않는다")
+    void reconcileAfterArchive(@TempDir Path directory) throws InterruptedException {
+        // given : 유저 300명이 충전 1,000 후 snapshot (내역 보관 기간 0 이라 이전 segment 는 archive 로 옮겨진다), 이후 사용 300
+        PointJournalProperties journalProperties = new PointJournalProperties(true, directory.resolve("journal").toString(), DataSize.ofBytes(4096), 5, 1000, true);
+        PointSnapshotProperties snapshotProperties = new PointSnapshotProperties(true, directory.resolve("snapshot").toString(), Duration.ofMinutes(5), 1, Duration.ZERO, 2);
+        PointJournal journal = MappedPointJournal.open(journalProperties);
+        UserPointTable userPointTable = new UserPointTable(Throttle.none(), journal);
+        PointHistoryTable pointHistoryTable = new PointHistoryTable(Throttle.none(), journal);
+        PointSnapshotter snapshotter = new PointSnapshotter(snapshotProperties, journalProperties, journal, userPointTable, pointHistoryTable);
+        for (long userId = 1; userId <= 300; userId++) {
+            userPointTable.insertOrUpdate(userId, 1_000L);
+            pointHistoryTable.insert(userId, 1_000L, TransactionType.CHARGE, 1L);
+        }
+        snapshotter.snapshot();
+        snapshotter.snapshot();
+        for (long userId = 1; userId <= 300; userId++) {
+            userPointTable.insertOrUpdate(userId, 700L);
+            pointHistoryTable.insert(userId, 300L, TransactionType.USE, 2L);
+        }
+        journal.close();
+
+        PointJournal reopened = MappedPointJournal.open(journalProperties);
+        UserPointTable recoveredPoints = new UserPointTable(Throttle.none(), reopened);
+        PointHistoryTable recoveredHistories = new PointHistoryTable(Throttle.none(), reopened);
+        new PointJournalRecovery(reopened, recoveredPoints, recoveredHistories, new PointSnapshotter(snapshotProperties, journalProperties, reopened, recoveredPoints, recoveredHistories)).recover();
+        PointHistoryAppender pointHistoryAppender = new PointHistoryAppender(recoveredHistories, new PointHistoryAppenderProperties(100, 10, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000));
+        PointReconciler pointReconciler = new PointReconciler(recoveredPoints, recoveredHistories, pointHistoryAppender, new PointReconciliationProperties(false, false, Duration.ofHours(1), 2, 0, 10));
+
+        // when
+        pointReconciler.start();
+        while (pointReconciler.latest().state() == PointReconciliationReport.State.RUNNING) {
+            Thread.sleep(10);
+        }
+
+        // then : 충전 내역은 목록에서 빠졌지만 합계로 남아 있다.
+        assertThat(recoveredHistories.selectAllByUserId(1L)).extracting(PointHistory::type).containsExactly(TransactionType.USE);
+        PointReconciliationReport report = pointReconciler.latest();
+        assertThat(report.state()).isEqualTo(PointReconciliationReport.State.COMPLETED);
+        assertThat(report.checkedUsers()).isEqualTo(300L);
+        assertThat(report.discrepancyCount()).isZero();
+        pointReconciler.close();
+        pointHistoryAppender.close();
+        reopened.close();
+    }
+}
@@ -37,13 +37,18 @@ class PointServiceTest {
     @MockBean
     private LockManager lockManager;
 
+    @MockBean
+    private PointHistoryAppender pointHistoryAppender;
+
     @InjectMocks
     private PointValidator pointValidator;
 
 
     @BeforeEach
     void setUp() {
-        pointService = new PointService(userPointTable, pointHistoryTable, pointValidator, lockManager);
+        UserPointCache userPointCache = new UserPointCache(new UserPointCacheProperties(100, 4));
+        PointUpdater pointUpdater = new PessimisticPointUpdater(userPointTable, lockManager, pointHistoryAppender, userPointCache);
+        pointService = new PointService(userPointTable, pointHistoryTable, pointValidator, pointHistoryAppender, userPointCache, pointUpdater, PointMetrics.noop(), new PointStatistics(), new PointIdempotencyCache(), new PointRateLimiter(), new PointLots());
     }
 
     @Test
@@ -152,6 +157,38 @@ class PointServiceTest {
         verify(pointHistoryTable, times(1)).selectAllByUserId(userId);
     }
 
+    @Test
+    @DisplayName("조건을 준 내역 조회는 table 의 cursor 로 읽은 만큼만 반환")
+    void getUserPointHistoryPage() {
+        // given
+        long userId = 1L;
+        PointHistoryQuery query = PointHistoryQuery.of(1L, null, null, 2);
+        List<PointHistory> page = List.of(
+                new PointHistory(2L, userId, 100L, TransactionType.CHARGE, System.currentTimeMillis()),
+                new PointHistory(3L, userId, 100L, TransactionType.USE, System.currentTimeMillis())
+        );
+        when(pointHistoryTable.selectByUserId(userId, query)).thenReturn(page.iterator());
+
+        // when
+        List<PointHistory> result = pointService.getUserPointHistory(userId, query);
+
+        // then
+        assertThat(result).isEqualTo(page);
+        verify(pointHistoryTable, never()).selectAllByUserId(userId);
+    }
+
+    @Test
+    @DisplayName("내역 조회 건수가 1보다 작으면 실패")
+    void checkHistoryLimit() {
+        // given
+        PointHistoryQuery query = PointHistoryQuery.of(null, null, null, 0);
+
+        // when - then
+        assertThrows(PointValidationException.class, () -> {
+            pointService.getUserPointHistory(1L, query);
+        });
+    }
+
     @Test
     @DisplayName("잔고가 부족할 경우, 포인트 사용은 실패")
     void pointCompareBalance() {
@@ -182,13 +219,48 @@ class PointServiceTest {
         // when
         when(userPointTable.selectById(userId)).thenReturn(userPoint);
         when(userPointTable.insertOrUpdate(userId, userPoint.point() - useAmount)).thenReturn(updatedUserPoint);
-        when(userPointTable.selectById(userId)).thenReturn(updatedUserPoint);
 
         UserPoint result = pointService.useUserPoint(userId, useAmount);
 
-        // then
+        // then : 갱신 결과를 그대로 반환하고 잔액을 다시 조회하지 않는다.
         assertNotNull(result);
         assertEquals(50L, result.point());
+        verify(userPointTable, times(1)).selectById(userId);
+    }
+
+    @Test
+    @DisplayName("포인트 조회는 캐시에 올라간 뒤로 table 을 다시 조회하지 않는다")
+    void getUserPointFromCache() {
+        // given
+        long userId = 1L;
+        UserPoint expected = new UserPoint(userId, 100L, System.currentTimeMillis());
+        when(userPointTable.selectById(userId)).thenReturn(expected);
+
+        // when
+        pointService.getUserPoint(userId);
+        UserPoint result = pointService.getUserPoint(userId);
+
+        // then
+        assertThat(result).isEqualTo(expected);
+        verify(userPointTable, times(1)).selectById(userId);
+    }
+
+    @Test
+    @DisplayName("충전 결과는 캐시에 바로 반영되어 이후 조회에서 보인다")
+    void chargeWritesThroughCache() {
+        // given
+        long userId = 1L;
+        when(userPointTable.selectById(userId)).thenReturn(new UserPoint(userId, 100L, System.currentTimeMillis()));
+        when(userPointTable.insertOrUpdate(userId, 600L)).thenReturn(new UserPoint(userId, 600L, System.currentTimeMillis()));
+
+        // when
+        pointService.getUserPoint(userId);
+        pointService.chargeUserPoint(userId, 500L);
+        UserPoint result = pointService.getUserPoint(userId);
+
+        // then
+        assertEquals(600L, result.point());
+        verify(userPointTable, times(1)).selectById(userId);
     }
 
     @Test
@@ -0,0 +1,52 @@
+package io.hhplus.tdd.point;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// shard 가 구성원 사이에 나뉘고, 구성원이 바뀌면 일부 shard 만 옮겨지는지 검증
+class PointShardRingTest {
+
+    private static final List<String> MEMBERS = List.of("http://localhost:8081", "http://localhost:8082", "http://localhost:8083");
+
+    @Test
+    @DisplayName("구성원 순서와 관계없이 모든 shard 가 같은 node 에 배정된다")
+    void sameOwnerRegardlessOfOrder() {
+        // given
+        PointShardRing ring = PointShardRing.of(MEMBERS, 256, 64);
+        PointShardRing shuffled = PointShardRing.of(List.of(MEMBERS.get(2), MEMBERS.get(0), MEMBERS.get(1)), 256, 64);
+
+        // when - then
+        for (int shard = 0; shard < ring.shards(); shard++) {
+            assertThat(ring.ownerOf(shard)).isIn(MEMBERS).isEqualTo(shuffled.ownerOf(shard));
+        }
+        assertThat(PointShardRing.of(List.of(), 256, 64).ownerOfUser(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("node 를 추가하면 새 node 로 가는 shard 만 옮겨지고, 나머지는 그대로다")
+    void moveOnlyToNewNode() {
+        // given
+        PointShardRing before = PointShardRing.of(MEMBERS, 256, 64);
+        List<String> members = new ArrayList<>(MEMBERS);
+        members.add("http://localhost:8084");
+
+        // when
+        PointShardRing after = PointShardRing.of(members, 256, 64);
+
+        // then : 대략 1/4 정도가 새 node 로 옮겨진다.
+        int moved = 0;
+        for (int shard = 0; shard < before.shards(); shard++) {
+            if (!before.ownerOf(shard).equals(after.ownerOf(shard))) {
+                assertThat(after.ownerOf(shard)).isEqualTo("http://localhost:8084");
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(256 / 8, 256 / 2);
+    }
+}
@@ -0,0 +1,63 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryBase;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// 내역이 확정될 때마다 유저별/전체/구간별 합계가 갱신되고, 보관 기간이 지난 구간은 빠지는지 검증
+class PointStatisticsTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    @DisplayName("충전/사용 내역이 유저별, 전체, 시간 구간별 합계에 반영된다")
+    void recordTotals() {
+        // given
+        PointStatistics pointStatistics = new PointStatistics(new PointStatisticsProperties(2, 90));
+
+        // when : 0시, 1시, 2시 구간에 기록 (시간 구간은 최근 2개만 보관)
+        pointStatistics.record(List.of(
+                new PointHistoryEntry(1L, 1_000L, TransactionType.CHARGE, 10L),
+                new PointHistoryEntry(1L, 300L, TransactionType.USE, HOUR + 10L),
+                new PointHistoryEntry(2L, 500L, TransactionType.CHARGE, 2 * HOUR + 10L)
+        ));
+
+        // then
+        assertThat(pointStatistics.user(1L)).isEqualTo(new PointTotals(1_000L, 1, 300L, 1, HOUR + 10L));
+        assertThat(pointStatistics.user(3L)).isEqualTo(PointTotals.empty());
+        assertThat(pointStatistics.global()).isEqualTo(new PointTotals(1_500L, 2, 300L, 1, 2 * HOUR + 10L));
+
+        PointStatisticsReport hourly = pointStatistics.report(PointStatistics.Granularity.HOUR, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertThat(hourly.buckets()).containsExactly(
+                new PointStatisticsBucket(HOUR, new PointTotals(0, 0, 300L, 1, HOUR + 10L)),
+                new PointStatisticsBucket(2 * HOUR, new PointTotals(500L, 1, 0, 0, 2 * HOUR + 10L))
+        );
+        assertThat(pointStatistics.report(PointStatistics.Granularity.HOUR, 2 * HOUR, 3 * HOUR).buckets()).hasSize(1);
+        assertThat(pointStatistics.report(PointStatistics.Granularity.DAY, 0, HOUR).buckets())
+                .containsExactly(new PointStatisticsBucket(0, new PointTotals(1_500L, 2, 300L, 1, 2 * HOUR + 10L)));
+    }
+
+    @Test
+    @DisplayName("기동 시 복구한 내역 합계와 내역이 재시작 전 합계를 이어간다")
+    void restoreTotals() {
+        // given
+        PointStatistics pointStatistics = new PointStatistics(new PointStatisticsProperties(2, 90));
+
+        // when : archive 된 내역 합계(충전 2건 1,500, 사용 1건 200) 다음에 남은 내역을 복구하고, 이후 새 요청을 기록
+        pointStatistics.restoreBase(new PointHistoryBase(1L, 1_300L, 1_500L, 2, 200L, 1, 10L, 20L, 3L));
+        pointStatistics.restore(new PointHistory(4L, 1L, 100L, TransactionType.USE, HOUR + 10L));
+        pointStatistics.record(List.of(new PointHistoryEntry(1L, 400L, TransactionType.CHARGE, 2 * HOUR + 10L)));
+
+        // then : 구간 합계에는 archive 된 합계가 들어가지 않는다.
+        assertThat(pointStatistics.user(1L)).isEqualTo(new PointTotals(1_900L, 3, 300L, 2, 2 * HOUR + 10L));
+        assertThat(pointStatistics.global()).isEqualTo(new PointTotals(1_900L, 3, 300L, 2, 2 * HOUR + 10L));
+        assertThat(pointStatistics.report(PointStatistics.Granularity.DAY, 0, HOUR).buckets())
+                .containsExactly(new PointStatisticsBucket(0, new PointTotals(400L, 1, 100L, 1, 2 * HOUR + 10L)));
+    }
+}
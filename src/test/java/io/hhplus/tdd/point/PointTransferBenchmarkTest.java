@@ -0,0 +1,88 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.Throttle;
+import io.hhplus.tdd.database.UserPointTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 임의의 유저끼리 동시에 이체할 때의 처리량과 전체 포인트 합 유지를 스레드 수와 유저 수별로 확인
+// - hot : 유저 2명이 서로에게 (반대 방향 이체가 계속 엇갈린다)
+// - cold : 10만 명 중 임의의 두 유저
+// table 지연은 빼고 lock/갱신 비용만 측정한다. ./gradlew benchmark 로만 실행된다.
+@Tag("benchmark")
+class PointTransferBenchmarkTest {
+
+    private static final int TRANSFERS_PER_THREAD = 20_000;
+    private static final long INITIAL_POINT = 1_000_000L;
+
+    @Test
+    @DisplayName("스레드 수 1/8/64, 유저 2명/10만 명에서 임의 이체 처리량과 전체 합 유지")
+    void randomTransfers() throws InterruptedException {
+        System.out.printf("%-8s %-5s %8s %15s %10s%n", "lock", "keys", "threads", "transfers/s", "rejected");
+        for (int threads : new int[]{1, 8, 64}) {
+            for (int users : new int[]{2, 100_000}) {
+                run(LockProperties.defaults(), threads, users);
+                run(new LockProperties(LockProperties.Strategy.STRIPED, 1024, false, 0), threads, users);
+            }
+        }
+    }
+
+    private void run(LockProperties lockProperties, int threads, int users) throws InterruptedException {
+        UserPointTable userPointTable = new UserPointTable(Throttle.none());
+        PointHistoryAppender appender = new PointHistoryAppender(new PointHistoryTable(Throttle.none()), new PointHistoryAppenderProperties(100_000, 1_000, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000));
+        PointTransferService pointTransferService = new PointTransferService(userPointTable, new PointValidator(), new LockManager(lockProperties), appender, new UserPointCache(new UserPointCacheProperties(users, 64)), PointMetrics.noop(), new PointRateLimiter());
+        for (long userId = 1; userId <= users; userId++) {
+            userPointTable.insertOrUpdate(userId, INITIAL_POINT);
+        }
+
+        LongAdder rejected = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                        long from = 1 + random.nextInt(users);
+                        // 자기 자신을 뺀 나머지 유저 중 하나
+                        long to = 1 + (from + random.nextInt(users - 1)) % users;
+                        try {
+                            pointTransferService.transfer(from, to, 1 + random.nextInt(1_000));
+                        } catch (PointValidationException e) {
+                            rejected.increment();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        appender.close();
+
+        long total = 0;
+        for (long userId = 1; userId <= users; userId++) {
+            total += userPointTable.selectById(userId).point();
+        }
+        assertThat(total).isEqualTo(users * INITIAL_POINT);
+
+        double transfersPerSecond = (double) threads * TRANSFERS_PER_THREAD / elapsed * 1_000_000_000L;
+        System.out.printf("%-8s %-5s %8d %15.0f %10d%n", lockProperties.strategy(), users == 2 ? "hot" : "cold", threads, transfersPerSecond, rejected.sum());
+    }
+}
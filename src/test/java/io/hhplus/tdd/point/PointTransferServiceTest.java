@@ -0,0 +1,146 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.Throttle;
+import io.hhplus.tdd.database.UserPointTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+
+// 이체가 두 유저에게 함께 반영되고, 동시에 임의로 이체해도 교착 없이 전체 포인트 합이 유지되는지 검증
+class PointTransferServiceTest {
+
+    private final UserPointTable userPointTable = new UserPointTable(Throttle.none());
+    private final PointHistoryTable pointHistoryTable = new PointHistoryTable(Throttle.none());
+    private final PointHistoryAppender pointHistoryAppender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(10_000, 500, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000));
+    private final UserPointCache userPointCache = new UserPointCache(new UserPointCacheProperties(100, 4));
+
+    @AfterEach
+    void tearDown() {
+        pointHistoryAppender.close();
+    }
+
+    @Test
+    @DisplayName("이체하면 보낸 유저는 차감되고 받은 유저는 충전되며, 이어진 id 의 내역 두 건이 남는다")
+    void transfer() {
+        // given
+        PointTransferService pointTransferService = transferService(LockProperties.defaults());
+        userPointTable.insertOrUpdate(1L, 1_000L);
+
+        // when
+        PointTransferResult result = pointTransferService.transfer(1L, 2L, 300L);
+
+        // then
+        assertThat(result.from().point()).isEqualTo(700L);
+        assertThat(result.to().point()).isEqualTo(300L);
+        pointHistoryAppender.awaitFlushed(1L);
+        pointHistoryAppender.awaitFlushed(2L);
+        PointHistory sent = pointHistoryTable.selectAllByUserId(1L).get(0);
+        PointHistory received = pointHistoryTable.selectAllByUserId(2L).get(0);
+        assertThat(sent.type()).isEqualTo(TransactionType.TRANSFER_OUT);
+        assertThat(received.type()).isEqualTo(TransactionType.TRANSFER_IN);
+        assertThat(received.id()).isEqualTo(sent.id() + 1);
+        assertThat(pointHistoryTable.sumAmountByUserId(1L)).isEqualTo(-300L);
+    }
+
+    @Test
+    @DisplayName("잔고가 부족하거나 자기 자신에게 이체하면 실패하고 두 유저 모두 그대로다")
+    void rejectTransfer() {
+        // given
+        PointTransferService pointTransferService = transferService(LockProperties.defaults());
+        userPointTable.insertOrUpdate(1L, 100L);
+
+        // when - then
+        assertThrows(PointValidationException.class, () -> pointTransferService.transfer(1L, 2L, 101L));
+        assertThrows(PointValidationException.class, () -> pointTransferService.transfer(1L, 1L, 10L));
+        assertThat(userPointTable.selectById(1L).point()).isEqualTo(100L);
+        assertThat(userPointTable.selectById(2L).point()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("PER_USER/STRIPED 모두 임의의 유저끼리 동시에 이체해도 교착 없이 전체 포인트 합이 유지된다")
+    void randomConcurrentTransfers() throws InterruptedException {
+        for (LockProperties lockProperties : List.of(
+                LockProperties.defaults(),
+                new LockProperties(LockProperties.Strategy.STRIPED, 4, false, 0))) {
+            // given : 유저 20명에게 1,000씩
+            UserPointTable userPointTable = new UserPointTable(Throttle.none());
+            PointTransferService pointTransferService = new PointTransferService(userPointTable, new PointValidator(), new LockManager(lockProperties), pointHistoryAppender, new UserPointCache(new UserPointCacheProperties(100, 4)), PointMetrics.noop(), new PointRateLimiter());
+            int users = 20;
+            for (long userId = 1; userId <= users; userId++) {
+                userPointTable.insertOrUpdate(userId, 1_000L);
+            }
+            int threadCount = 16;
+            ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+            CountDownLatch latch = new CountDownLatch(threadCount);
+
+            // when : 스레드마다 임의의 두 유저 사이에서 2,000번 이체 (잔고 부족은 실패로 넘어간다)
+            for (int i = 0; i < threadCount; i++) {
+                executorService.submit(() -> {
+                    try {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int j = 0; j < 2_000; j++) {
+                            long from = 1 + random.nextInt(users);
+                            long to = 1 + random.nextInt(users);
+                            try {
+                                pointTransferService.transfer(from, to, 1 + random.nextInt(300));
+                            } catch (PointValidationException ignored) {
+                            }
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            boolean finished = latch.await(30, TimeUnit.SECONDS);
+            executorService.shutdown();
+
+            // then
+            assertThat(finished).isTrue();
+            long total = 0;
+            for (long userId = 1; userId <= users; userId++) {
+                long point = userPointTable.selectById(userId).point();
+                assertThat(point).isGreaterThanOrEqualTo(0L);
+                total += point;
+            }
+            assertThat(total).isEqualTo(users * 1_000L);
+        }
+    }
+
+    @Test
+    @DisplayName("내역 기록이 어떤 예외로 실패해도 두 유저의 잔액을 되돌리고 처음 예외를 그대로 던진다")
+    void rollbackOnAnyHistoryFailure() {
+        // given : 내역 기록이 503 이 아닌 예외로 실패한다.
+        PointHistoryAppender failingAppender = mock(PointHistoryAppender.class);
+        IllegalStateException failure = new IllegalStateException("journal 에 쓸 수 없습니다.");
+        doThrow(failure).when(failingAppender).appendAll(anyList());
+        PointTransferService pointTransferService = new PointTransferService(userPointTable, new PointValidator(), new LockManager(LockProperties.defaults()), failingAppender, userPointCache, PointMetrics.noop(), new PointRateLimiter());
+        userPointTable.insertOrUpdate(1L, 1_000L);
+
+        // when
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> pointTransferService.transfer(1L, 2L, 300L));
+
+        // then
+        assertThat(thrown).isSameAs(failure);
+        assertThat(userPointTable.selectById(1L).point()).isEqualTo(1_000L);
+        assertThat(userPointTable.selectById(2L).point()).isZero();
+    }
+
+    private PointTransferService transferService(LockProperties lockProperties) {
+        return new PointTransferService(userPointTable, new PointValidator(), new LockManager(lockProperties), pointHistoryAppender, userPointCache, PointMetrics.noop(), new PointRateLimiter());
+    }
+}
@@ -0,0 +1,73 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.Throttle;
+import io.hhplus.tdd.database.UserPointTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+// 비관적(lock)/낙관적(compare-and-set) 모드의 처리량을 스레드 수와 키 분포별로 비교
+// - hot : 모든 스레드가 같은 유저 한 명에게 충전
+// - cold : 10만 명 중 임의의 유저에게 충전
+// table 지연은 빼고 동시성 제어 비용만 측정한다. ./gradlew benchmark 로만 실행된다.
+@Tag("benchmark")
+class PointUpdaterBenchmarkTest {
+
+    private static final int OPERATIONS_PER_THREAD = 20_000;
+    private static final int COLD_USERS = 100_000;
+
+    @Test
+    @DisplayName("스레드 수 1/8/64, hot/cold 키에서 비관적/낙관적 모드 처리량 비교")
+    void compareContention() throws InterruptedException {
+        System.out.printf("%-12s %-5s %8s %15s%n", "mode", "keys", "threads", "ops/s");
+        for (int threads : new int[]{1, 8, 64}) {
+            for (boolean hot : new boolean[]{true, false}) {
+                run("pessimistic", threads, hot, context -> new PessimisticPointUpdater(context.userPointTable, new LockManager(), context.appender, context.cache));
+                run("optimistic", threads, hot, context -> new OptimisticPointUpdater(context.userPointTable, context.appender, context.cache, Integer.MAX_VALUE));
+            }
+        }
+    }
+
+    private void run(String mode, int threads, boolean hot, Function<Context, PointUpdater> factory) throws InterruptedException {
+        Context context = new Context();
+        PointUpdater pointUpdater = factory.apply(context);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        long userId = hot ? 1L : 1L + ThreadLocalRandom.current().nextInt(COLD_USERS);
+                        pointUpdater.update(userId, PointMutation.charge(userId, 1L));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        context.appender.close();
+
+        double opsPerSecond = (double) threads * OPERATIONS_PER_THREAD / elapsed * 1_000_000_000L;
+        System.out.printf("%-12s %-5s %8d %15.0f%n", mode, hot ? "hot" : "cold", threads, opsPerSecond);
+    }
+
+    private static class Context {
+        private final UserPointTable userPointTable = new UserPointTable(Throttle.none());
+        private final PointHistoryAppender appender = new PointHistoryAppender(new PointHistoryTable(Throttle.none()), new PointHistoryAppenderProperties(100_000, 1_000, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000));
+        private final UserPointCache cache = new UserPointCache(new UserPointCacheProperties(COLD_USERS, 64));
+    }
+}
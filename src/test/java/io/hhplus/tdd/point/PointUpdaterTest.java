@@ -0,0 +1,157 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.Throttle;
+import io.hhplus.tdd.database.UserPointTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+
+// 비관적/낙관적 동시성 제어 모두 동시 요청에서 포인트 변경이 유실되지 않는지 검증
+class PointUpdaterTest {
+
+    private UserPointTable userPointTable;
+    private PointHistoryTable pointHistoryTable;
+    private PointHistoryAppender pointHistoryAppender;
+    private UserPointCache userPointCache;
+
+    @BeforeEach
+    void setUp() {
+        userPointTable = new UserPointTable(Throttle.none());
+        pointHistoryTable = new PointHistoryTable(Throttle.none());
+        pointHistoryAppender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(10_000, 500, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000));
+        userPointCache = new UserPointCache(new UserPointCacheProperties(100, 4));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pointHistoryAppender.close();
+    }
+
+    @Test
+    @DisplayName("비관적 모드 : 한 유저에게 동시에 충전해도 모든 충전이 반영된다")
+    void pessimisticConcurrentCharge() throws InterruptedException {
+        PointUpdater pointUpdater = new PessimisticPointUpdater(userPointTable, new LockManager(), pointHistoryAppender, userPointCache);
+
+        chargeConcurrently(pointUpdater, 1L, 1000);
+
+        assertThat(userPointTable.selectById(1L).point()).isEqualTo(1000L * 10);
+        pointHistoryAppender.awaitFlushed(1L);
+        assertThat(pointHistoryTable.selectAllByUserId(1L)).hasSize(1000);
+    }
+
+    @Test
+    @DisplayName("낙관적 모드 : 한 유저에게 동시에 충전해도 충돌 시 재시도하여 모든 충전이 반영된다")
+    void optimisticConcurrentCharge() throws InterruptedException {
+        PointUpdater pointUpdater = new OptimisticPointUpdater(userPointTable, pointHistoryAppender, userPointCache, Integer.MAX_VALUE);
+
+        chargeConcurrently(pointUpdater, 1L, 1000);
+
+        assertThat(userPointTable.selectById(1L).point()).isEqualTo(1000L * 10);
+        pointHistoryAppender.awaitFlushed(1L);
+        assertThat(pointHistoryTable.selectAllByUserId(1L)).hasSize(1000);
+    }
+
+    @Test
+    @DisplayName("낙관적 모드 : 재시도 중에도 잔액이 부족해지면 사용은 실패한다")
+    void optimisticUseChecksLatestBalance() {
+        // given : 캐시에는 이전 잔액, table 에는 다른 요청이 먼저 반영한 잔액
+        userPointCache.put(new UserPoint(1L, 1000L, 0L, 0));
+        userPointTable.insertOrUpdate(1L, 100L);
+        PointUpdater pointUpdater = new OptimisticPointUpdater(userPointTable, pointHistoryAppender, userPointCache, 10);
+
+        // when - then
+        assertThrows(IllegalStateException.class, () -> pointUpdater.update(1L, PointMutation.use(1L, 500L)));
+        assertThat(userPointTable.selectById(1L).point()).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("낙관적 모드 : 내역 기록에 실패하면 충돌이 나도 다시 시도해 잔액을 되돌리고 원래 예외를 던진다")
+    void optimisticCompensationSurvivesConflicts() {
+        // given : 내역 기록은 실패하고, 충전이 반영된 뒤의 compare-and-set 은 세 번 충돌한다.
+        AtomicInteger conflicts = new AtomicInteger();
+        UserPointTable conflictingTable = new UserPointTable(Throttle.none()) {
+            @Override
+            public UserPoint compareAndUpdate(long id, long expectedVersion, long amount) {
+                if (expectedVersion > 0 && conflicts.getAndIncrement() < 3) {
+                    return null;
+                }
+                return super.compareAndUpdate(id, expectedVersion, amount);
+            }
+        };
+        PointHistoryAppender failingAppender = mock(PointHistoryAppender.class);
+        doThrow(new PointHistoryOverflowException("full")).when(failingAppender).appendAll(anyList());
+        PointUpdater pointUpdater = new OptimisticPointUpdater(conflictingTable, failingAppender, userPointCache, 2);
+
+        // when
+        PointHistoryOverflowException thrown = assertThrows(PointHistoryOverflowException.class, () -> pointUpdater.update(1L, PointMutation.charge(1L, 500L)));
+
+        // then
+        assertThat(thrown.getSuppressed()).hasOnlyElementsOfType(PointConflictException.class);
+        assertThat(conflictingTable.selectById(1L).point()).isZero();
+    }
+
+    @Test
+    @DisplayName("낙관적 모드 : 되돌리는 중 충돌이 계속되면 정해진 횟수 뒤 포기하고 원래 예외를 던진다")
+    void optimisticCompensationGivesUp() {
+        // given : 충전이 반영된 뒤의 compare-and-set 은 항상 충돌한다.
+        UserPointTable conflictingTable = new UserPointTable(Throttle.none()) {
+            @Override
+            public UserPoint compareAndUpdate(long id, long expectedVersion, long amount) {
+                return expectedVersion > 0 ? null : super.compareAndUpdate(id, expectedVersion, amount);
+            }
+        };
+        PointHistoryAppender failingAppender = mock(PointHistoryAppender.class);
+        doThrow(new PointHistoryOverflowException("full")).when(failingAppender).appendAll(anyList());
+        PointUpdater pointUpdater = new OptimisticPointUpdater(conflictingTable, failingAppender, userPointCache, 2);
+
+        // when
+        PointHistoryOverflowException thrown = assertThrows(PointHistoryOverflowException.class, () -> pointUpdater.update(1L, PointMutation.charge(1L, 500L)));
+
+        // then : 잔액과 내역의 차이는 정합성 점검이 찾도록 남는다.
+        assertThat(thrown.getSuppressed()).hasOnlyElementsOfType(PointConflictException.class);
+        assertThat(conflictingTable.selectById(1L).point()).isEqualTo(500L);
+    }
+
+    @Test
+    @DisplayName("낙관적 모드 : 내역 기록 전에 다른 요청이 충전한 포인트를 써 버렸으면 잔액을 음수로 되돌리지 않는다")
+    void optimisticCompensationNeverGoesNegative() {
+        // given : 500 충전이 반영된 뒤 내역을 기록하기 전에 다른 요청이 400 을 사용하고, 내역 기록은 실패한다.
+        PointHistoryAppender failingAppender = mock(PointHistoryAppender.class);
+        doAnswer(invocation -> {
+            userPointTable.insertOrUpdate(1L, 100L);
+            throw new PointHistoryOverflowException("full");
+        }).when(failingAppender).appendAll(anyList());
+        PointUpdater pointUpdater = new OptimisticPointUpdater(userPointTable, failingAppender, userPointCache, 2);
+
+        // when
+        PointHistoryOverflowException thrown = assertThrows(PointHistoryOverflowException.class, () -> pointUpdater.update(1L, PointMutation.charge(1L, 500L)));
+
+        // then
+        assertThat(thrown.getSuppressed()).hasOnlyElementsOfType(IllegalStateException.class);
+        assertThat(userPointTable.selectById(1L).point()).isEqualTo(100L);
+    }
+
+    private void chargeConcurrently(PointUpdater pointUpdater, long userId, int count) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < count; i++) {
+            executor.submit(() -> pointUpdater.update(userId, PointMutation.charge(userId, 10L)));
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,120 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.Throttle;
+import io.hhplus.tdd.database.UserPointTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+// 요청 스레드를 막지 않는 API 도 같은 유저의 요청을 도착 순서대로 반영하고, 기존 API 와 같은 확인을 거치는지 검증
+class ReactivePointServiceTest {
+
+    private UserPointTable userPointTable;
+    private PointHistoryTable pointHistoryTable;
+    private UserPointCache userPointCache;
+    private PointHistoryAppender pointHistoryAppender;
+    private PointMailbox pointMailbox;
+    private ReactivePointService reactivePointService;
+
+    @BeforeEach
+    void setUp() {
+        userPointTable = new UserPointTable(Throttle.none());
+        pointHistoryTable = new PointHistoryTable(Throttle.none());
+        pointHistoryAppender = new PointHistoryAppender(pointHistoryTable, new PointHistoryAppenderProperties(10_000, 500, PointHistoryAppenderProperties.Overflow.BLOCK, 5, 5_000));
+        userPointCache = new UserPointCache(new UserPointCacheProperties(100, 4));
+        PointUpdater pointUpdater = new PessimisticPointUpdater(userPointTable, new LockManager(), pointHistoryAppender, userPointCache);
+        pointMailbox = new PointMailbox(pointUpdater, new PointMailboxProperties(true, 4, 256, 1024));
+        reactivePointService = new ReactivePointService(userPointTable, pointHistoryTable, new PointValidator(), pointHistoryAppender, userPointCache, pointMailbox, PointMetrics.noop(), new PointRateLimiter(), new PointIdempotencyCache());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reactivePointService.close();
+        pointMailbox.close();
+        pointHistoryAppender.close();
+    }
+
+    @Test
+    @DisplayName("구독한 순서대로 충전/사용이 반영되고, 잔액이 부족한 사용만 실패한다")
+    void keepOrderPerUser() {
+        // given
+        long userId = 1L;
+
+        // when : 결과를 기다리지 않고 연달아 요청
+        Mono<UserPoint> charge = reactivePointService.chargeUserPoint(userId, 1_000L);
+        Mono<UserPoint> firstUse = reactivePointService.useUserPoint(userId, 600L);
+        Mono<UserPoint> secondUse = reactivePointService.useUserPoint(userId, 600L);
+        List<Mono<UserPoint>> requests = List.of(charge.toFuture(), firstUse.toFuture(), secondUse.toFuture()).stream()
+                .map(Mono::fromFuture)
+                .toList();
+
+        // then
+        assertThat(requests.get(0).block().point()).isEqualTo(1_000L);
+        assertThat(requests.get(1).block().point()).isEqualTo(400L);
+        assertThrows(PointValidationException.class, () -> requests.get(2).block());
+        assertThat(reactivePointService.getUserPoint(userId).block().point()).isEqualTo(400L);
+        assertThat(reactivePointService.getUserPointHistory(userId).block()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("아이디나 금액이 잘못된 요청은 mailbox 에 넣지 않고 실패한다")
+    void validate() {
+        // when - then
+        assertThrows(PointValidationException.class, () -> reactivePointService.chargeUserPoint(0L, 1_000L).block());
+        assertThrows(PointValidationException.class, () -> reactivePointService.useUserPoint(1L, 0L).block());
+        assertThrows(PointValidationException.class, () -> reactivePointService.chargeUserPoint(1L, 1_000L, "").block());
+        assertThat(reactivePointService.getUserPointHistory(1L).block()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("같은 Idempotency-Key 로 다시 요청하면 다시 반영하지 않고 처음 결과를 받는다")
+    void idempotent() {
+        // given
+        long userId = 1L;
+        UserPoint first = reactivePointService.chargeUserPoint(userId, 1_000L, "charge-1").block();
+
+        // when
+        UserPoint retried = reactivePointService.chargeUserPoint(userId, 1_000L, "charge-1").block();
+
+        // then
+        assertThat(retried.point()).isEqualTo(first.point());
+        assertThat(retried.updateMillis()).isEqualTo(first.updateMillis());
+        assertThat(reactivePointService.getUserPoint(userId).block().point()).isEqualTo(1_000L);
+        assertThat(reactivePointService.getUserPointHistory(userId).block()).hasSize(1);
+        assertThrows(PointIdempotencyConflictException.class, () -> reactivePointService.chargeUserPoint(userId, 2_000L, "charge-1").block());
+    }
+
+    @Test
+    @DisplayName("요청 수 제한을 넘은 요청은 mailbox 에 넣지 않고 PointRateLimitException 으로 실패한다")
+    void rateLimited() {
+        // given : 유저당 초당 1건, 최대 2건까지 몰아서 받는다.
+        PointRateLimiter pointRateLimiter = new PointRateLimiter(new PointRateLimitProperties(true, 1, 2, 0, 1024), new SimpleMeterRegistry());
+        ReactivePointService limited = new ReactivePointService(userPointTable, pointHistoryTable, new PointValidator(), pointHistoryAppender, userPointCache, pointMailbox, PointMetrics.noop(), pointRateLimiter, new PointIdempotencyCache());
+        AtomicInteger rejected = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            try {
+                limited.chargeUserPoint(1L, 100L).block();
+            } catch (PointRateLimitException e) {
+                rejected.incrementAndGet();
+            }
+        }
+
+        // then
+        assertThat(rejected.get()).isEqualTo(1);
+        assertThat(limited.getUserPoint(1L).block().point()).isEqualTo(200L);
+        limited.close();
+    }
+}
@@ -0,0 +1,49 @@
+package io.hhplus.tdd.point;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// 캐시 크기 제한과 hit/miss/eviction 집계가 동작하는지 검증
+class UserPointCacheTest {
+
+    @Test
+    @DisplayName("최대 크기를 넘으면 가장 오래 조회되지 않은 유저가 제거된다")
+    void evictLeastRecentlyUsed() {
+        // given : 구간 1개, 최대 2명
+        UserPointCache cache = new UserPointCache(new UserPointCacheProperties(2, 1));
+        cache.get(1L, id -> new UserPoint(id, 100L, 0L));
+        cache.get(2L, id -> new UserPoint(id, 200L, 0L));
+        cache.get(1L, id -> new UserPoint(id, -1L, 0L));
+
+        // when
+        cache.get(3L, id -> new UserPoint(id, 300L, 0L));
+
+        // then : 2번 유저가 제거되어 다시 조회된다.
+        assertThat(cache.get(1L, id -> new UserPoint(id, -1L, 0L)).point()).isEqualTo(100L);
+        assertThat(cache.get(2L, id -> new UserPoint(id, -2L, 0L)).point()).isEqualTo(-2L);
+        UserPointCacheStats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(2);
+        assertThat(stats.misses()).isEqualTo(4);
+        assertThat(stats.evictions()).isEqualTo(2);
+        assertThat(stats.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("조회 중에 변경된 값이 있으면 조회해 온 이전 값으로 덮어쓰지 않는다")
+    void keepWriteThroughValue() {
+        // given
+        UserPointCache cache = new UserPointCache(new UserPointCacheProperties(10, 1));
+
+        // when : 조회가 끝나기 전에 변경이 반영된 경우
+        cache.get(1L, id -> {
+            cache.put(new UserPoint(id, 500L, 0L));
+            return new UserPoint(id, 100L, 0L);
+        });
+
+        // then
+        assertThat(cache.get(1L, id -> new UserPoint(id, -1L, 0L)).point()).isEqualTo(500L);
+    }
+}